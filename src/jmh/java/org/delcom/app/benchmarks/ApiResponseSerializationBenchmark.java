@@ -0,0 +1,70 @@
+package org.delcom.app.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.entities.Songs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialisasi ApiResponse&lt;Map&lt;String, Object&gt;&gt; berisi daftar lagu besar,
+ * memakai JsonMapper Jackson yang sama dengan Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int songs;
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<Map<String, Object>> response;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<Songs> list = new ArrayList<>(songs);
+        for (int i = 0; i < songs; i++) {
+            Songs song = new Songs(userId, "Song " + i, "Artist " + (i % 500), "Album " + (i % 2000),
+                    "Genre " + (i % 20), 120 + (i % 300), 1970 + (i % 55));
+            song.setId(UUID.randomUUID());
+            song.setCover("song_cover_" + i + ".jpg");
+            ReflectionTestUtils.setField(song, "createdAt", now.minusSeconds(i));
+            ReflectionTestUtils.setField(song, "updatedAt", now.minusSeconds(i));
+            list.add(song);
+        }
+
+        response = new ApiResponse<>("success", "Berhasil mengambil data lagu",
+                Map.of("songs", list, "count", list.size()), "bmV4dC1jdXJzb3I");
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,80 @@
+package org.delcom.app.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.services.AuthTokenCache;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Biaya AuthInterceptor.preHandle per request dengan service palsu.
+ * cacheSize = 0 mengukur verifikasi penuh, selain itu mengukur cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthInterceptorBenchmark {
+
+    @Param({ "0", "10000" })
+    public int cacheSize;
+
+    private AuthInterceptor authInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateToken(userId);
+
+        User user = new User("Bench User", "bench@example.com", "password");
+        user.setId(userId);
+
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        Mockito.when(authTokenService.findUserToken(userId, token)).thenReturn(new AuthToken(userId, token));
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.getUserById(userId)).thenReturn(user);
+
+        authInterceptor = new AuthInterceptor();
+        ReflectionTestUtils.setField(authInterceptor, "authTokenService", authTokenService);
+        ReflectionTestUtils.setField(authInterceptor, "userService", userService);
+        ReflectionTestUtils.setField(authInterceptor, "authContext", new AuthContext());
+        ReflectionTestUtils.setField(authInterceptor, "authTokenCache", new AuthTokenCache(cacheSize, 300));
+
+        request = new MockHttpServletRequest("GET", "/api/songs");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+
+        // Request pertama mengisi cache (jika aktif)
+        authInterceptor.preHandle(request, response, null);
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return authInterceptor.preHandle(request, response, null);
+    }
+}
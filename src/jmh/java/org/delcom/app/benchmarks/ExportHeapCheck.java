@@ -0,0 +1,139 @@
+package org.delcom.app.benchmarks;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.services.SongExportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Memastikan export streaming tidak bergantung pada ukuran library: mengisi
+ * N lagu (default 1 juta) ke H2 file lalu mengexport NDJSON dan CSV ke output
+ * yang dibuang. Dijalankan dengan -Xmx64m; gagal (OutOfMemoryError) jika
+ * export menahan baris di heap.
+ *
+ * Jalankan: ./mvnw -Pbenchmarks -DskipTests test-compile exec:exec@export-heap-check
+ * Opsi (system property): export.rows
+ */
+public final class ExportHeapCheck {
+
+    private ExportHeapCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("export.rows", 1_000_000);
+        Path database = Files.createTempDirectory("export-heap").resolve("songs");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Cache H2 dibatasi agar data tidak ikut mengisi heap
+                        "spring.datasource.url=jdbc:h2:file:" + database + ";CACHE_SIZE=4096",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            UUID userId = UUID.randomUUID();
+            seed(context.getBean(DataSource.class), userId, rows);
+
+            SongExportService exportService = context.getBean(SongExportService.class);
+            for (SongFileFormat format : SongFileFormat.values()) {
+                System.gc();
+                resetPeakUsage();
+                CountingOutputStream output = new CountingOutputStream();
+                long started = System.nanoTime();
+                long exported = exportService.export(userId, format, output);
+                double seconds = (System.nanoTime() - started) / 1e9;
+
+                System.out.printf(Locale.ROOT, "%-7s %,d lagu, %,d byte, %.1f s, peak heap %.1f MB (max %.1f MB)%n",
+                        format, exported, output.count, seconds, peakHeapBytes() / 1048576.0,
+                        Runtime.getRuntime().maxMemory() / 1048576.0);
+                if (exported != rows) {
+                    throw new IllegalStateException("Jumlah lagu tidak sesuai: " + exported);
+                }
+            }
+        }
+    }
+
+    private static void seed(DataSource dataSource, UUID userId, int rows) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO songs (id, user_id, title, artist, album, genre, duration, release_year, "
+                                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setObject(2, userId);
+                insert.setString(3, "Song " + i);
+                insert.setString(4, "Artist " + (i % 5000));
+                insert.setString(5, "Album " + (i % 20000));
+                insert.setString(6, "Genre " + (i % 15));
+                insert.setInt(7, 120 + i % 300);
+                insert.setInt(8, 1950 + i % 75);
+                insert.setTimestamp(9, now);
+                insert.setTimestamp(10, now);
+                insert.addBatch();
+                if ((i + 1) % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
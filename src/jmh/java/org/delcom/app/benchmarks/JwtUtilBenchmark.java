@@ -0,0 +1,67 @@
+package org.delcom.app.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.JwtUtil.ParsedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Membandingkan biaya validasi token per request:
+ * cara lama (dua kali parser baru + dua kali verifikasi) vs JwtUtil.parse
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(UUID.randomUUID());
+    }
+
+    // Alur lama AuthInterceptor: validateToken lalu extractUserId,
+    // masing-masing membuat JwtParser baru dan memverifikasi ulang signature
+    @Benchmark
+    public void legacyValidateThenExtract(Blackhole bh) {
+        Jwts.parser().verifyWith(JwtUtil.getKey()).build().parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(JwtUtil.getKey()).build()
+                .parseSignedClaims(token)
+                .getPayload();
+        bh.consume(UUID.fromString(claims.getSubject()));
+    }
+
+    @Benchmark
+    public ParsedToken singleParse() {
+        return JwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token, false);
+    }
+}
@@ -0,0 +1,104 @@
+package org.delcom.app.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.dto.LibraryStatsRow;
+import org.delcom.app.entities.UserLibraryStats;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.repositories.UserLibraryStatsRepository;
+import org.delcom.app.services.CoverBlobService;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.LibraryStatsService;
+import org.delcom.app.services.SongSearchService;
+import org.delcom.app.services.SongSuggestIndex;
+import org.delcom.app.services.SongSyncService;
+import org.delcom.app.services.SongsService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Biaya chart genre dan rebuild statistik dengan 10k, 100k dan 1M baris
+ * hasil repository palsu (satu baris per bucket genre/artist).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class LibraryStatsBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private UUID userId;
+    private SongsService songsService;
+    private LibraryStatsService libraryStatsService;
+
+    @Setup
+    public void setUp() {
+        userId = UUID.randomUUID();
+
+        List<LibraryStatsRow> aggregateRows = new ArrayList<>(rows * 2);
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        for (int i = 0; i < rows; i++) {
+            String genre = "Genre " + i;
+            String artist = "Artist " + i;
+            long total = 1 + (i % 50);
+            aggregateRows.add(row("genre", genre, total, total * 200));
+            aggregateRows.add(row("artist", artist, total, total * 200));
+            stats.getGenreCounts().put(genre, total);
+            stats.getArtistCounts().put(artist, total);
+        }
+
+        SongsRepository songsRepository = Mockito.mock(SongsRepository.class);
+        Mockito.when(songsRepository.aggregateLibraryStats(userId)).thenReturn(aggregateRows);
+
+        UserLibraryStatsRepository statsRepository = Mockito.mock(UserLibraryStatsRepository.class);
+        Mockito.when(statsRepository.findById(userId)).thenReturn(Optional.of(stats));
+        Mockito.when(statsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+        Mockito.when(statsRepository.save(Mockito.any(UserLibraryStats.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        libraryStatsService = new LibraryStatsService(songsRepository, statsRepository,
+                new DatabaseProduct("PostgreSQL"));
+        songsService = new SongsService(songsRepository, Mockito.mock(FileStorageService.class), libraryStatsService,
+                Mockito.mock(SongSearchService.class), Mockito.mock(SongSuggestIndex.class),
+                Mockito.mock(SongSyncService.class), Mockito.mock(CoverBlobService.class));
+    }
+
+    @Benchmark
+    public Map<String, Long> getChartDataByGenre() {
+        return songsService.getChartDataByGenre(userId);
+    }
+
+    @Benchmark
+    public UserLibraryStats rebuild() {
+        return libraryStatsService.rebuild(userId);
+    }
+
+    private static LibraryStatsRow row(String kind, String label, long total, long duration) {
+        return new LibraryStatsRow() {
+            public String getKind() { return kind; }
+            public String getLabel() { return label; }
+            public Long getTotal() { return total; }
+            public Long getDuration() { return duration; }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package org.delcom.app.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.RequestLogSink;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.services.RequestMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.FilterChain;
+
+/**
+ * Overhead RequestLoggingFilter per request dengan filter chain kosong.
+ * Output writer dibuang agar yang terukur hanya biaya di thread request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingFilterBenchmark {
+
+    private RequestLogSink sink;
+    private RequestLoggingFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        sink = new RequestLogSink(8192, "logfmt");
+        sink.start();
+        filter = new RequestLoggingFilter(sink, new RequestMetrics());
+        ReflectionTestUtils.setField(filter, "port", 8080);
+        ReflectionTestUtils.setField(filter, "livereload", false);
+
+        request = new MockHttpServletRequest("GET", "/api/songs");
+        request.setRemoteAddr("127.0.0.1");
+        response = new MockHttpServletResponse();
+        response.setStatus(200);
+        filterChain = (req, res) -> {
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        sink.stop();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void doFilter() throws Exception {
+        filter.doFilter(request, response, filterChain);
+    }
+}
@@ -0,0 +1,129 @@
+package org.delcom.app.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.dto.SongImportResult;
+import org.delcom.app.services.SongImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Throughput import lagu ke H2 in-memory lewat SongImportService (parsing,
+ * validasi dan batch insert Hibernate). Skor dalam baris per detik.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SongImportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class SongImportBenchmark {
+    static final int ROWS = 10_000;
+
+    @Param({ "ndjson", "csv" })
+    public String format;
+
+    @Param({ "100", "1000" })
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private SongImportService songImportService;
+    private JdbcTemplate jdbcTemplate;
+    private SongFileFormat fileFormat;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "app.import.batch-size=" + batchSize,
+                        "spring.devtools.restart.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        songImportService = context.getBean(SongImportService.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        fileFormat = SongFileFormat.parse(format);
+        content = generate(fileFormat).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Tabel dikosongkan agar ukuran index H2 sama di setiap iterasi
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("DELETE FROM songs");
+        jdbcTemplate.update("DELETE FROM user_library_stats");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SongImportResult importSongs() throws Exception {
+        SongImportResult result = songImportService.importSongs(UUID.randomUUID(), fileFormat,
+                new ByteArrayInputStream(content));
+        if (result.imported() != ROWS) {
+            throw new IllegalStateException("Jumlah lagu tidak sesuai: " + result.imported());
+        }
+        return result;
+    }
+
+    private static String generate(SongFileFormat format) {
+        StringBuilder builder = new StringBuilder(ROWS * 120);
+        if (format == SongFileFormat.CSV) {
+            builder.append(SongFileFormat.CSV_HEADER).append("\r\n");
+        }
+        for (int i = 0; i < ROWS; i++) {
+            String title = "Song Title " + i;
+            String artist = "Artist " + (i % 500);
+            String album = "Album " + (i % 1000);
+            String genre = "Genre " + (i % 15);
+            int duration = 60 + (i % 600);
+            int releaseYear = 1960 + (i % 60);
+            if (format == SongFileFormat.CSV) {
+                builder.append(',').append(title).append(',').append(artist).append(',').append(album)
+                        .append(',').append(genre).append(',').append(duration).append(',').append(releaseYear)
+                        .append(",,\r\n");
+            } else {
+                builder.append("{\"title\":\"").append(title).append("\",\"artist\":\"").append(artist)
+                        .append("\",\"album\":\"").append(album).append("\",\"genre\":\"").append(genre)
+                        .append("\",\"duration\":").append(duration).append(",\"releaseYear\":")
+                        .append(releaseYear).append("}\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package org.delcom.app.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.SongsService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test: menjalankan aplikasi dua kali (platform thread lalu virtual thread)
+ * dengan H2 in-memory, kemudian N client bersamaan memanggil endpoint API
+ * ber-JWT. Throughput dan p50/p99/p999 dicetak dan disimpan sebagai JSON.
+ *
+ * Jalankan: ./mvnw -Pbenchmarks -DskipTests test-compile exec:exec@load-test
+ * Opsi (system property): load.clients, load.warmup-seconds, load.duration-seconds,
+ * load.path, load.result
+ */
+public final class VirtualThreadLoadTest {
+
+    record Result(String mode, int clients, double seconds, long requests, long errors,
+            LatencyHistogram.Snapshot latency) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 1000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration-seconds", 20));
+        String path = System.getProperty("load.path", "/api/songs?limit=20");
+        Path resultFile = Path.of(System.getProperty("load.result", "target/load-test-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[] { false, true }) {
+            results.add(run(virtualThreads, clients, warmup, duration, path));
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-9s %8s %10s %8s %9s %9s %9s %9s%n",
+                "mode", "clients", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Result result : results) {
+            LatencyHistogram.Snapshot latency = result.latency();
+            System.out.printf(Locale.ROOT, "%-9s %8d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    result.mode(), result.clients(), result.throughput(), result.errors(),
+                    latency.p50Micros() / 1000.0, latency.p99Micros() / 1000.0,
+                    latency.p999Micros() / 1000.0, latency.maxMicros() / 1000.0);
+        }
+        writeJson(resultFile, path, results);
+        System.out.println("Hasil disimpan di " + resultFile.toAbsolutePath());
+    }
+
+    private static Result run(boolean virtualThreads, int clients, Duration warmup, Duration duration,
+            String path) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            String token = seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + path);
+
+            LatencyHistogram histogram = new LatencyHistogram();
+            AtomicLong errors = new AtomicLong();
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long measureUntil = measureFrom + duration.toNanos();
+
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clientThreads)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+
+                for (int i = 0; i < clients; i++) {
+                    clientThreads.submit(() -> {
+                        long now;
+                        while ((now = System.nanoTime()) < measureUntil) {
+                            boolean ok;
+                            try {
+                                ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding())
+                                        .statusCode() == 200;
+                            } catch (IOException e) {
+                                ok = false;
+                            }
+                            if (now >= measureFrom) {
+                                if (ok) {
+                                    histogram.recordNanos(System.nanoTime() - now);
+                                } else {
+                                    errors.incrementAndGet();
+                                }
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            LatencyHistogram.Snapshot latency = histogram.snapshot();
+            return new Result(mode, clients, duration.toNanos() / 1e9, latency.count(), errors.get(), latency);
+        }
+    }
+
+    // Satu user dengan token aktif dan 200 lagu
+    private static String seed(ConfigurableApplicationContext context) {
+        User user = context.getBean(UserService.class)
+                .createUser("Load Test", "load-" + UUID.randomUUID() + "@example.com", "password");
+        String token = JwtUtil.generateToken(user.getId());
+        context.getBean(AuthTokenService.class).createAuthToken(new AuthToken(user.getId(), token));
+
+        SongsService songsService = context.getBean(SongsService.class);
+        for (int i = 0; i < 200; i++) {
+            songsService.createSong(user.getId(), "Song " + i, "Artist " + (i % 20), "Album " + (i % 40),
+                    "Genre " + (i % 8), 120 + i, 1990 + (i % 30));
+        }
+        return token;
+    }
+
+    private static void writeJson(Path file, String path, List<Result> results) throws IOException {
+        StringBuilder json = new StringBuilder("{\"path\":\"").append(path).append("\",\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            LatencyHistogram.Snapshot latency = result.latency();
+            json.append(i > 0 ? "," : "")
+                    .append(String.format(Locale.ROOT,
+                            "{\"mode\":\"%s\",\"clients\":%d,\"seconds\":%.1f,\"requests\":%d,\"errors\":%d,"
+                                    + "\"throughput\":%.1f,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"p999Ms\":%.3f,\"maxMs\":%.3f}",
+                            result.mode(), result.clients(), result.seconds(), result.requests(), result.errors(),
+                            result.throughput(), latency.p50Micros() / 1000.0, latency.p99Micros() / 1000.0,
+                            latency.p999Micros() / 1000.0, latency.maxMicros() / 1000.0));
+        }
+        json.append("]}\n");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, json);
+    }
+}
@@ -0,0 +1,30 @@
+package org.delcom.app.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * Konfigurasi executor task bawaan Spring Boot (applicationTaskExecutor),
+ * yang dipakai Spring MVC untuk request async, mis. StreamingResponseBody
+ * pada export lagu (SongsController.exportSongs). Executor ini memakai
+ * virtual thread jika spring.threads.virtual.enabled=true (sama seperti
+ * thread request Tomcat dan @Scheduled), selain itu thread pool biasa.
+ *
+ * Aplikasi tidak memakai @Async, jadi @EnableAsync tidak dipasang. Bean
+ * request scope seperti AuthContext hanya berlaku di thread request, jadi
+ * kode yang berjalan di executor ini menerima data user yang sudah diambil
+ * di handler (lihat userId pada exportSongs).
+ */
+@Configuration
+public class AsyncConfig {
+
+    // Dipasang otomatis oleh Spring Boot ke applicationTaskExecutor.
+    // SecurityContext pemanggil diteruskan lalu dipulihkan setelah task
+    // selesai, sehingga tidak bocor ke task lain yang memakai thread yang sama.
+    @Bean
+    public TaskDecorator securityContextTaskDecorator() {
+        return DelegatingSecurityContextRunnable::new;
+    }
+}
@@ -0,0 +1,51 @@
+package org.delcom.app.configs;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jenis database yang dipakai aplikasi, dikenali sekali dari metadata koneksi
+ * (bukan dari URL JDBC yang bisa dibungkus proxy/pool). Query khusus
+ * PostgreSQL, mis. INSERT ... ON CONFLICT, hanya dipakai jika isPostgreSql;
+ * database lain (H2 untuk test) memakai query standar.
+ */
+@Component
+public class DatabaseProduct {
+    private final String name;
+
+    @Autowired
+    public DatabaseProduct(DataSource dataSource) {
+        this(productName(dataSource));
+    }
+
+    public DatabaseProduct(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isPostgreSql() {
+        return "PostgreSQL".equalsIgnoreCase(name);
+    }
+
+    /**
+     * Nama database dari metadata koneksi
+     *
+     * @return mis. "PostgreSQL" atau "H2", string kosong jika koneksi gagal
+     */
+    public static String productName(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            System.err.println("Error reading database metadata: " + e.getMessage());
+            return "";
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.delcom.app.configs;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ring buffer lock-free (multi producer, single consumer) untuk log request.
+ * Thread request hanya mengisi slot yang sudah dialokasikan di awal; format
+ * JSON/logfmt dan penulisan ke output dilakukan oleh satu thread writer.
+ * Jika buffer penuh, event dibuang dan dihitung di drop counter.
+ */
+@Component
+public class RequestLogSink {
+
+    public enum Format {
+        JSON, LOGFMT
+    }
+
+    // Slot event yang dipakai ulang, tidak ada alokasi di sisi request
+    static final class Event {
+        long timestampMillis;
+        String method;
+        String uri;
+        int status;
+        long durationNanos;
+        String handler;
+        String remoteAddr;
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Event[] slots;
+    // sequence[i] == posisi: slot bebas untuk ditulis pada posisi tersebut
+    // sequence[i] == posisi + 1: slot sudah terisi dan siap dibaca writer
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Format format;
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    // Hanya diubah oleh consumer (di dalam drain)
+    private long head;
+    private long reportedDropped;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public RequestLogSink(
+            @Value("${app.logging.request.buffer-size:8192}") int bufferSize,
+            @Value("${app.logging.request.format:logfmt}") String format) {
+        this(bufferSize, Format.valueOf(format.trim().toUpperCase()), System.out);
+    }
+
+    RequestLogSink(int bufferSize, Format format, PrintStream out) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Event[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Event();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.format = format;
+        this.out = out;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        }
+        drain();
+    }
+
+    /**
+     * Menitipkan satu event log ke buffer tanpa blocking
+     *
+     * @return false jika buffer penuh dan event dibuang
+     */
+    public boolean offer(String method, String uri, int status, long durationNanos, String handler,
+            String remoteAddr) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Event event = slots[index];
+                    event.timestampMillis = System.currentTimeMillis();
+                    event.method = method;
+                    event.uri = uri;
+                    event.status = status;
+                    event.durationNanos = durationNanos;
+                    event.handler = handler;
+                    event.remoteAddr = remoteAddr;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // Writer tertinggal satu putaran penuh
+                dropped.increment();
+                return false;
+            }
+            // difference > 0: producer lain sudah mengambil posisi ini, coba lagi
+        }
+    }
+
+    /**
+     * Menulis semua event yang siap ke output
+     *
+     * @return jumlah event yang ditulis
+     */
+    synchronized int drain() {
+        int count = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            Event event = slots[index];
+            line.setLength(0);
+            if (format == Format.JSON) {
+                appendJson(event);
+            } else {
+                appendLogfmt(event);
+            }
+            // Lepas referensi sebelum slot dipakai ulang
+            event.method = null;
+            event.uri = null;
+            event.handler = null;
+            event.remoteAddr = null;
+            sequences.setRelease(index, head + slots.length);
+            head++;
+
+            out.append(line).append('\n');
+            count++;
+        }
+
+        long droppedNow = dropped.sum();
+        if (droppedNow != reportedDropped) {
+            line.setLength(0);
+            if (format == Format.JSON) {
+                line.append("{\"event\":\"request_log_dropped\",\"dropped\":").append(droppedNow).append('}');
+            } else {
+                line.append("event=request_log_dropped dropped=").append(droppedNow);
+            }
+            out.append(line).append('\n');
+            reportedDropped = droppedNow;
+        }
+
+        if (count > 0) {
+            out.flush();
+        }
+        return count;
+    }
+
+    /**
+     * Jumlah event yang dibuang karena buffer penuh
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    private void runWriter() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void appendJson(Event event) {
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.timestampMillis)).append('"');
+        line.append(",\"method\":");
+        appendJsonString(event.method);
+        line.append(",\"uri\":");
+        appendJsonString(event.uri);
+        line.append(",\"status\":").append(event.status);
+        line.append(",\"duration_ms\":");
+        appendMillis(event.durationNanos);
+        line.append(",\"handler\":");
+        appendJsonString(event.handler);
+        line.append(",\"remote\":");
+        appendJsonString(event.remoteAddr);
+        line.append('}');
+    }
+
+    private void appendLogfmt(Event event) {
+        line.append("ts=").append(Instant.ofEpochMilli(event.timestampMillis));
+        line.append(" method=");
+        appendLogfmtValue(event.method);
+        line.append(" uri=");
+        appendLogfmtValue(event.uri);
+        line.append(" status=").append(event.status);
+        line.append(" duration_ms=");
+        appendMillis(event.durationNanos);
+        line.append(" handler=");
+        appendLogfmtValue(event.handler);
+        line.append(" remote=");
+        appendLogfmtValue(event.remoteAddr);
+    }
+
+    // Durasi dalam milidetik dengan 3 angka di belakang koma
+    private void appendMillis(long nanos) {
+        long micros = nanos / 1_000;
+        line.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    private void appendJsonString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private void appendLogfmtValue(String value) {
+        if (value == null || value.isEmpty()) {
+            line.append("-");
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=' || c == '\\';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
@@ -4,21 +4,28 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.RequestMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private static final String NO_HANDLER = "-";
+
+    private final RequestLogSink requestLogSink;
+    private final RequestMetrics requestMetrics;
+
+    // Nama handler di-cache per method/class agar tidak membuat String per request
+    private final ConcurrentHashMap<Method, String> handlerMethodNames = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, String> handlerClassNames = new ConcurrentHashMap<>();
 
     @Value("${server.port:8080}")
     private int port;
@@ -26,51 +33,53 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     @Value("${spring.devtools.livereload.enabled:false}")
     private boolean livereload;
 
+    public RequestLoggingFilter(RequestLogSink requestLogSink, RequestMetrics requestMetrics) {
+        this.requestLogSink = requestLogSink;
+        this.requestMetrics = requestMetrics;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
-
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
-        }
+        long duration = System.nanoTime() - start;
 
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
+        // Pattern mapping (mis. /api/songs/{id}) agar jumlah seri metrik terbatas
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        requestMetrics.record(request.getMethod(), pattern instanceof String p ? p : null,
+                response.getStatus(), duration);
 
-        String remoteAddr = request.getRemoteAddr();
+        String uri = request.getRequestURI();
+        if (uri != null && uri.startsWith("/.well-known")) {
+            return;
+        }
 
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
+        requestLogSink.offer(
                 request.getMethod(),
-                request.getRequestURI(),
-                status,
+                uri,
+                response.getStatus(),
                 duration,
-                RESET,
-                originInfo,
-                remoteAddr);
+                resolveHandler(request),
+                request.getRemoteAddr());
+    }
 
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+    // Handler yang dipilih DispatcherServlet, menggantikan pencarian lewat stacktrace
+    String resolveHandler(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethodNames.computeIfAbsent(handlerMethod.getMethod(), RequestLoggingFilter::describe);
+        }
+        if (handler != null) {
+            return handlerClassNames.computeIfAbsent(handler.getClass(), Class::getSimpleName);
         }
+        return NO_HANDLER;
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
     }
 }
@@ -0,0 +1,50 @@
+package org.delcom.app.configs;
+
+import java.nio.file.Paths;
+
+import org.delcom.app.services.BlobStore;
+import org.delcom.app.services.LocalDiskBlobStore;
+import org.delcom.app.services.S3BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Memilih penyimpanan file cover lewat app.storage.type:
+ * <ul>
+ * <li>local (bawaan): disk lokal di app.upload.dir. Hanya cocok untuk satu
+ * instance, atau beberapa instance dengan shared mount.</li>
+ * <li>s3: bucket S3-compatible (app.storage.s3.*). Semua instance memakai
+ * bucket yang sama, dan cover dibaca/diupload browser langsung ke bucket
+ * lewat presigned URL.</li>
+ * </ul>
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public BlobStore blobStore(
+            @Value("${app.storage.type:local}") String type,
+            @Value("${app.upload.dir:./uploads}") String uploadDir,
+            @Value("${app.storage.s3.endpoint:}") String endpoint,
+            @Value("${app.storage.s3.bucket:}") String bucket,
+            @Value("${app.storage.s3.region:us-east-1}") String region,
+            @Value("${app.storage.s3.access-key:}") String accessKey,
+            @Value("${app.storage.s3.secret-key:}") String secretKey,
+            @Value("${app.storage.s3.path-style:true}") boolean pathStyle,
+            @Value("${app.storage.s3.part-size:8388608}") int partSize,
+            @Value("${app.storage.s3.presign-ttl-seconds:900}") long presignTtlSeconds) {
+        return switch (type) {
+            case "local" -> new LocalDiskBlobStore(Paths.get(uploadDir));
+            case "s3" -> {
+                if (endpoint.isBlank() || bucket.isBlank()) {
+                    throw new IllegalStateException(
+                            "app.storage.s3.endpoint dan app.storage.s3.bucket wajib diisi untuk app.storage.type=s3");
+                }
+                yield new S3BlobStore(endpoint, bucket, region, accessKey, secretKey, pathStyle, partSize,
+                        presignTtlSeconds);
+            }
+            default -> throw new IllegalStateException("app.storage.type tidak dikenal: " + type);
+        };
+    }
+}
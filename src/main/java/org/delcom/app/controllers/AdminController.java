@@ -0,0 +1,164 @@
+package org.delcom.app.controllers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.RequestLogSink;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.OrphanedFileCollector;
+import org.delcom.app.services.RequestMetrics;
+import org.delcom.app.services.RequestMetrics.EndpointSnapshot;
+import org.delcom.app.services.SongSuggestIndex;
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final RequestMetrics requestMetrics;
+    private final RequestLogSink requestLogSink;
+    private final SongSuggestIndex songSuggestIndex;
+    private final OrphanedFileCollector orphanedFileCollector;
+    private final Set<String> adminEmails;
+
+    @Autowired
+    protected AuthContext authContext;
+
+    public AdminController(RequestMetrics requestMetrics, RequestLogSink requestLogSink,
+            SongSuggestIndex songSuggestIndex, OrphanedFileCollector orphanedFileCollector,
+            @Value("${app.admin.emails:}") String adminEmails) {
+        this.requestMetrics = requestMetrics;
+        this.requestLogSink = requestLogSink;
+        this.songSuggestIndex = songSuggestIndex;
+        this.orphanedFileCollector = orphanedFileCollector;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Metrics latensi & throughput per endpoint (JSON)
+    // -------------------------------
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        ResponseEntity<ApiResponse<Map<String, Object>>> denied = checkAdmin();
+        if (denied != null) {
+            return denied;
+        }
+
+        double uptimeSeconds = requestMetrics.getUptimeSeconds();
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointSnapshot snapshot : requestMetrics.snapshot()) {
+            LatencyHistogram.Snapshot latency = snapshot.latency();
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("method", snapshot.method());
+            endpoint.put("pattern", snapshot.pattern());
+            endpoint.put("status", snapshot.status());
+            endpoint.put("count", latency.count());
+            endpoint.put("throughputPerSecond", uptimeSeconds > 0 ? latency.count() / uptimeSeconds : 0);
+            endpoint.put("meanMs", latency.meanMicros() / 1000.0);
+            endpoint.put("p50Ms", latency.p50Micros() / 1000.0);
+            endpoint.put("p90Ms", latency.p90Micros() / 1000.0);
+            endpoint.put("p99Ms", latency.p99Micros() / 1000.0);
+            endpoint.put("p999Ms", latency.p999Micros() / 1000.0);
+            endpoint.put("maxMs", latency.maxMicros() / 1000.0);
+            endpoints.add(endpoint);
+        }
+
+        SongSuggestIndex.IndexStats indexStats = songSuggestIndex.getStats();
+        Map<String, Object> searchIndex = new LinkedHashMap<>();
+        searchIndex.put("users", indexStats.users());
+        searchIndex.put("songs", indexStats.songs());
+        searchIndex.put("terms", indexStats.terms());
+        searchIndex.put("estimatedBytes", indexStats.estimatedBytes());
+
+        OrphanedFileCollector.Stats cleanupStats = orphanedFileCollector.getStats();
+        Map<String, Object> fileCleanup = new LinkedHashMap<>();
+        fileCleanup.put("runs", cleanupStats.runs());
+        fileCleanup.put("running", cleanupStats.running());
+        fileCleanup.put("scanned", cleanupStats.scanned());
+        fileCleanup.put("deleted", cleanupStats.deleted());
+        fileCleanup.put("deletedBytes", cleanupStats.deletedBytes());
+        fileCleanup.put("lastRun", cleanupStats.last());
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("uptimeSeconds", uptimeSeconds);
+        data.put("requestLogDropped", requestLogSink.getDroppedCount());
+        data.put("searchIndex", searchIndex);
+        data.put("fileCleanup", fileCleanup);
+        data.put("endpoints", endpoints);
+
+        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mengambil data metrics", data));
+    }
+
+    // Metrics dalam format teks Prometheus
+    // -------------------------------
+    @GetMapping(value = "/metrics", params = "format=prometheus")
+    public ResponseEntity<?> getMetricsPrometheus() {
+        ResponseEntity<ApiResponse<Map<String, Object>>> denied = checkAdmin();
+        if (denied != null) {
+            return denied;
+        }
+
+        SongSuggestIndex.IndexStats indexStats = songSuggestIndex.getStats();
+        OrphanedFileCollector.Stats cleanupStats = orphanedFileCollector.getStats();
+        OrphanedFileCollector.Result lastCleanup = cleanupStats.last();
+        String body = requestMetrics.toPrometheus()
+                + "# HELP request_log_dropped_total Request log events dropped because the buffer was full\n"
+                + "# TYPE request_log_dropped_total counter\n"
+                + "request_log_dropped_total " + requestLogSink.getDroppedCount() + "\n"
+                + "# HELP search_index_songs Songs held in the in-memory suggest index\n"
+                + "# TYPE search_index_songs gauge\n"
+                + "search_index_songs " + indexStats.songs() + "\n"
+                + "# HELP search_index_bytes Estimated heap used by the in-memory suggest index\n"
+                + "# TYPE search_index_bytes gauge\n"
+                + "search_index_bytes " + indexStats.estimatedBytes() + "\n"
+                + "# HELP orphaned_files_cleanup_runs_total Completed orphaned upload file cleanups\n"
+                + "# TYPE orphaned_files_cleanup_runs_total counter\n"
+                + "orphaned_files_cleanup_runs_total " + cleanupStats.runs() + "\n"
+                + "# HELP orphaned_files_scanned_total Upload files examined by the orphaned file cleanup\n"
+                + "# TYPE orphaned_files_scanned_total counter\n"
+                + "orphaned_files_scanned_total " + cleanupStats.scanned() + "\n"
+                + "# HELP orphaned_files_deleted_total Unreferenced upload files deleted\n"
+                + "# TYPE orphaned_files_deleted_total counter\n"
+                + "orphaned_files_deleted_total " + cleanupStats.deleted() + "\n"
+                + "# HELP orphaned_files_deleted_bytes_total Bytes freed by deleting unreferenced upload files\n"
+                + "# TYPE orphaned_files_deleted_bytes_total counter\n"
+                + "orphaned_files_deleted_bytes_total " + cleanupStats.deletedBytes() + "\n"
+                + "# HELP orphaned_files_last_duration_seconds Duration of the last orphaned file cleanup\n"
+                + "# TYPE orphaned_files_last_duration_seconds gauge\n"
+                + "orphaned_files_last_duration_seconds "
+                + (lastCleanup != null ? lastCleanup.durationMillis() / 1000.0 : 0) + "\n";
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body);
+    }
+
+    // Hanya user terautentikasi dengan email di app.admin.emails
+    private <T> ResponseEntity<ApiResponse<T>> checkAdmin() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+        if (authUser.getEmail() == null || !adminEmails.contains(authUser.getEmail().toLowerCase())) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse<>("fail", "Akses admin ditolak", null));
+        }
+        return null;
+    }
+}
@@ -1,15 +1,50 @@
 package org.delcom.app.controllers;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.CoverUploadRequest;
+import org.delcom.app.dto.LibraryStats;
+import org.delcom.app.dto.SongBatchOperation;
+import org.delcom.app.dto.SongBatchResult;
+import org.delcom.app.dto.SongChanges;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.dto.SongImportResult;
+import org.delcom.app.dto.SongPage;
 import org.delcom.app.entities.Songs;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.FileStorageService.DirectUpload;
+import org.delcom.app.services.LibraryStatsService;
+import org.delcom.app.services.SongExportService;
+import org.delcom.app.services.SongImportService;
+import org.delcom.app.services.SongSuggestIndex;
+import org.delcom.app.services.SongSyncService;
 import org.delcom.app.services.SongsService;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.delcom.app.utils.CursorUtil.Cursor;
+import org.delcom.app.utils.ETagUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,20 +52,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/songs")
 public class SongsController {
     private final SongsService songsService;
+    private final LibraryStatsService libraryStatsService;
+    private final SongExportService songExportService;
+    private final SongImportService songImportService;
+    private final FileStorageService fileStorageService;
 
     @Autowired
     protected AuthContext authContext;
 
-    public SongsController(SongsService songsService) {
+    public SongsController(SongsService songsService, LibraryStatsService libraryStatsService,
+                           SongExportService songExportService, SongImportService songImportService,
+                           FileStorageService fileStorageService) {
         this.songsService = songsService;
+        this.libraryStatsService = libraryStatsService;
+        this.songExportService = songExportService;
+        this.songImportService = songImportService;
+        this.fileStorageService = fileStorageService;
     }
 
     // Menambahkan lagu baru
@@ -77,13 +125,57 @@ public class SongsController {
         ));
     }
 
-    // Mendapatkan semua lagu dengan opsi pencarian
+    // Batch operasi create/update/delete dalam satu transaksi (antrian klien offline)
+    // Hasil per operasi dikembalikan sesuai urutan request
+    // -------------------------------
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> batchSongs(
+            @RequestBody List<SongBatchOperation> operations) {
+
+        // Validasi input
+        if (operations == null || operations.isEmpty() || operations.size() > ConstUtil.MAX_BATCH_OPERATIONS) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data operasi tidak valid", null));
+        }
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        List<SongBatchResult> results = songsService.applyBatch(authUser.getId(), operations);
+        long failed = results.stream().filter(result -> "fail".equals(result.status())).count();
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("succeeded", results.size() - failed);
+        data.put("failed", failed);
+        data.put("results", results);
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Batch operasi selesai diproses",
+            data
+        ));
+    }
+
+    // Mendapatkan semua lagu dengan filter kombinasi (keyset pagination)
+    // Dengan facets=true, halaman pertama juga berisi jumlah per genre, artist dan dekade
     // -------------------------------
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> getAllSongs(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String genre,
-            @RequestParam(required = false) String artist) {
+            @RequestParam(required = false) String artist,
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam(required = false) Integer minDuration,
+            @RequestParam(required = false) Integer maxDuration,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
@@ -92,28 +184,228 @@ public class SongsController {
         }
         User authUser = authContext.getAuthUser();
 
-        List<Songs> songs;
-        
-        // Filter berdasarkan parameter
-        if (genre != null && !genre.trim().isEmpty()) {
-            songs = songsService.getSongsByGenre(authUser.getId(), genre);
-        } else if (artist != null && !artist.trim().isEmpty()) {
-            songs = songsService.getSongsByArtist(authUser.getId(), artist);
+        // ETag dari versi library: satu lookup kolom, tanpa memuat lagu
+        String etag = ETagUtil.library(authUser.getId(), songsService.getLibraryVersion(authUser.getId()));
+
+        // Pencarian fuzzy: satu halaman hasil urut kemiripan, tanpa cursor
+        if (fuzzy && search != null && !search.isBlank()) {
+            if (ETagUtil.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            List<Songs> songs = songsService.searchSongsFuzzy(authUser.getId(), search, CursorUtil.clampLimit(limit));
+            return ResponseEntity.ok().eTag(etag).cacheControl(revalidate()).body(new ApiResponse<>(
+                "success",
+                "Daftar lagu berhasil diambil",
+                Map.of("songs", songs, "count", songs.size())
+            ));
+        }
+
+        // Validasi rentang filter
+        SongFilter filter = new SongFilter(search, genre, artist, minYear, maxYear, minDuration, maxDuration);
+        if (!filter.hasValidYearRange()) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data rentang tahun tidak valid", null));
+        } else if (!filter.hasValidDurationRange()) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data rentang durasi tidak valid", null));
+        }
+
+        // Validasi cursor
+        Cursor pageCursor = null;
+        if (cursor != null && !cursor.isBlank()) {
+            pageCursor = CursorUtil.decode(cursor);
+            if (pageCursor == null) {
+                return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("fail", "Data cursor tidak valid", null));
+            }
+        }
+
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        SongPage page = songsService.getSongsPage(
+            authUser.getId(),
+            filter,
+            pageCursor,
+            CursorUtil.clampLimit(limit)
+        );
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("songs", page.songs());
+        // Jumlah lagu di halaman ini; jumlah semua lagu yang cocok ada di
+        // facets.total (facets=true)
+        data.put("count", page.songs().size());
+        // Facet hanya dihitung jika diminta, dan tidak berubah antar halaman
+        // sehingga cukup di halaman pertama
+        if (facets && pageCursor == null) {
+            data.put("facets", songsService.getSongFacets(authUser.getId(), filter));
+        }
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(revalidate()).body(new ApiResponse<>(
+            "success",
+            "Daftar lagu berhasil diambil",
+            data,
+            page.nextCursor()
+        ));
+    }
+
+    // Saran lagu untuk search-as-you-type
+    // -------------------------------
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> suggestSongs(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        int size = limit == null || limit < 1
+                ? ConstUtil.DEFAULT_SUGGEST_LIMIT
+                : Math.min(limit, ConstUtil.MAX_SUGGEST_LIMIT);
+        List<SongSuggestIndex.Suggestion> suggestions = songsService.suggestSongs(authUser.getId(), q, size);
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Saran lagu berhasil diambil",
+            Map.of("suggestions", suggestions, "total", suggestions.size())
+        ));
+    }
+
+    // Export seluruh library (NDJSON/CSV, opsional gzip) secara streaming
+    // -------------------------------
+    @GetMapping("/export")
+    public ResponseEntity<?> exportSongs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID userId = authContext.getAuthUser().getId();
+
+        SongFileFormat exportFormat = SongFileFormat.parse(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Format export tidak valid", null));
+        }
+
+        // Ditulis setelah handler selesai (thread async), jadi userId diambil di sini
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, 64 * 1024);
+                songExportService.export(userId, exportFormat, gzipOutput);
+                gzipOutput.finish();
+            } else {
+                songExportService.export(userId, exportFormat, output);
+            }
+        };
+
+        String filename = "songs." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
+    // Delta sync: lagu yang dibuat/diubah dan id lagu yang dihapus setelah token
+    // Tanpa token (atau token lebih lama dari TTL) dimulai sync penuh (reset=true)
+    // -------------------------------
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<SongChanges>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        SongSyncService.SyncToken token = null;
+        if (since != null && !since.isBlank()) {
+            token = SongSyncService.SyncToken.decode(since);
+            if (token == null) {
+                return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("fail", "Data token sinkronisasi tidak valid", null));
+            }
+        }
+        int pageSize = limit == null || limit < 1 ? ConstUtil.DEFAULT_SYNC_LIMIT : Math.min(limit, ConstUtil.MAX_SYNC_LIMIT);
+
+        SongChanges changes = songsService.getChanges(authUser.getId(), token, pageSize);
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Perubahan lagu berhasil diambil",
+            changes
+        ));
+    }
+
+    // Import lagu dari NDJSON atau CSV (body dibaca streaming)
+    // Format dari parameter format, atau dari Content-Type jika tidak diisi
+    // -------------------------------
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<SongImportResult>> importSongs(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID userId = authContext.getAuthUser().getId();
+
+        SongFileFormat importFormat;
+        if (format != null) {
+            importFormat = SongFileFormat.parse(format);
+        } else if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("csv")) {
+            importFormat = SongFileFormat.CSV;
         } else {
-            songs = songsService.getAllSongs(authUser.getId(), search);
+            importFormat = SongFileFormat.NDJSON;
+        }
+        if (importFormat == null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Format import tidak valid", null));
+        }
+
+        SongImportResult result;
+        try {
+            InputStream input = "gzip".equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(body, 64 * 1024)
+                : body;
+            result = songImportService.importSongs(userId, importFormat, input);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data header CSV tidak valid", null));
+        } catch (ZipException | EOFException e) {
+            // Content-Encoding gzip tetapi body bukan gzip atau terpotong;
+            // batch yang sudah tersimpan sebelum bagian rusak tetap tersimpan
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Body gzip tidak valid", null));
         }
 
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
-            "Daftar lagu berhasil diambil",
-            Map.of("songs", songs, "total", songs.size())
+            result.imported() + " lagu berhasil diimport, " + result.failed() + " baris ditolak",
+            result
         ));
     }
 
     // Mendapatkan lagu berdasarkan ID
     // -------------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Songs>>> getSongById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Map<String, Songs>>> getSongById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403)
@@ -121,13 +413,24 @@ public class SongsController {
         }
         User authUser = authContext.getAuthUser();
 
+        // Conditional GET: cukup baca updatedAt, entity lagu tidak dimuat
+        if (ifNoneMatch != null) {
+            LocalDateTime version = songsService.getSongVersion(authUser.getId(), id);
+            if (version != null && ETagUtil.matches(ifNoneMatch, ETagUtil.song(id, version))) {
+                return notModified(ETagUtil.song(id, version));
+            }
+        }
+
         Songs song = songsService.getSongById(authUser.getId(), id);
         if (song == null) {
             return ResponseEntity.status(404)
                 .body(new ApiResponse<>("fail", "Data lagu tidak ditemukan", null));
         }
 
-        return ResponseEntity.ok(new ApiResponse<>(
+        return ResponseEntity.ok()
+            .eTag(ETagUtil.song(id, song.getUpdatedAt()))
+            .cacheControl(revalidate())
+            .body(new ApiResponse<>(
             "success",
             "Data lagu berhasil diambil",
             Map.of("song", song)
@@ -186,6 +489,152 @@ public class SongsController {
         ));
     }
 
+    // Upload cover dari body request mentah (bukan multipart), mis. curl -T cover.jpg
+    // Body dibaca sekali langsung ke upload directory; jenis gambar dari magic bytes
+    // -------------------------------
+    @PutMapping("/{id}/cover")
+    public ResponseEntity<ApiResponse<Map<String, String>>> uploadCover(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) throws IOException {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        // Ditolak sebelum body dibaca jika ukurannya sudah diketahui
+        if (contentLength != null && contentLength > ConstUtil.MAX_FILE_SIZE) {
+            return coverTooLarge();
+        }
+
+        Songs song = songsService.getSongById(authUser.getId(), id);
+        if (song == null) {
+            return ResponseEntity.status(404)
+                .body(new ApiResponse<>("fail", "Data lagu tidak ditemukan", null));
+        }
+
+        String filename;
+        try {
+            filename = fileStorageService.storeImage(body, ConstUtil.MAX_FILE_SIZE);
+        } catch (MaxUploadSizeExceededException e) {
+            return coverTooLarge();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data cover tidak valid, gunakan JPG, PNG, GIF atau WebP", null));
+        }
+
+        try {
+            songsService.updateCover(id, filename);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>("fail", "Gagal menyimpan cover, silakan coba lagi", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Cover lagu berhasil diupload",
+            Map.of("cover", filename)
+        ));
+    }
+
+    // Upload cover langsung dari browser ke object storage, tanpa melewati aplikasi:
+    // 1. POST /{id}/cover/upload-url dengan SHA-256, ukuran dan content type gambar
+    // 2. PUT isi file ke uploadUrl dengan header dari respons (dilewati jika
+    //    respons tidak berisi uploadUrl, artinya isi yang sama sudah tersimpan)
+    // 3. POST /{id}/cover/complete untuk memeriksa file dan memasangnya
+    // -------------------------------
+    @PostMapping("/{id}/cover/upload-url")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> createCoverUploadUrl(@PathVariable UUID id,
+            @RequestBody CoverUploadRequest reqUpload) throws IOException {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        if (!fileStorageService.isDirectTransferSupported()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                .body(new ApiResponse<>("fail", "Upload langsung tidak didukung, gunakan PUT /api/songs/{id}/cover", null));
+        }
+
+        Songs song = songsService.getSongById(authUser.getId(), id);
+        if (song == null) {
+            return ResponseEntity.status(404)
+                .body(new ApiResponse<>("fail", "Data lagu tidak ditemukan", null));
+        }
+
+        DirectUpload upload;
+        try {
+            upload = fileStorageService.prepareImageUpload(reqUpload.sha256(),
+                    reqUpload.size() != null ? reqUpload.size() : 0, reqUpload.contentType(), ConstUtil.MAX_FILE_SIZE);
+        } catch (MaxUploadSizeExceededException e) {
+            return coverTooLarge();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data cover tidak valid, gunakan JPG, PNG, GIF atau WebP", null));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cover", upload.filename());
+        if (upload.request() != null) {
+            data.put("uploadUrl", upload.request().url().toString());
+            data.put("method", upload.request().method());
+            data.put("headers", upload.request().headers());
+            data.put("expiresAt", upload.request().expiresAt().toString());
+        }
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "URL upload cover berhasil dibuat",
+            data
+        ));
+    }
+
+    @PostMapping("/{id}/cover/complete")
+    public ResponseEntity<ApiResponse<Map<String, String>>> completeCoverUpload(@PathVariable UUID id,
+            @RequestBody Map<String, String> payload) throws IOException {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        Songs song = songsService.getSongById(authUser.getId(), id);
+        if (song == null) {
+            return ResponseEntity.status(404)
+                .body(new ApiResponse<>("fail", "Data lagu tidak ditemukan", null));
+        }
+
+        String filename = payload.get("cover");
+        try {
+            fileStorageService.verifyUploadedImage(filename, ConstUtil.MAX_FILE_SIZE);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "File cover belum diupload", null));
+        } catch (MaxUploadSizeExceededException e) {
+            return coverTooLarge();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Data cover tidak valid, gunakan JPG, PNG, GIF atau WebP", null));
+        }
+
+        try {
+            songsService.updateCover(id, filename);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>("fail", "Gagal menyimpan cover, silakan coba lagi", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Cover lagu berhasil diupload",
+            Map.of("cover", filename)
+        ));
+    }
+
     // Menghapus lagu berdasarkan ID
     // -------------------------------
     @DeleteMapping("/{id}")
@@ -261,17 +710,59 @@ public class SongsController {
         }
         User authUser = authContext.getAuthUser();
 
-        List<Songs> allSongs = songsService.getAllSongs(authUser.getId(), null);
-        Integer totalDuration = songsService.getTotalDuration(authUser.getId());
+        LibraryStats stats = libraryStatsService.getStats(authUser.getId());
         
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
             "Statistik lagu berhasil diambil",
             Map.of(
-                "totalSongs", allSongs.size(),
-                "totalDuration", totalDuration,
-                "totalDurationInMinutes", totalDuration / 60
+                "totalSongs", stats.totalSongs(),
+                "totalDuration", stats.totalDuration(),
+                "totalDurationInMinutes", stats.totalDurationMinutes()
             )
         ));
     }
-}
\ No newline at end of file
+
+    // Mendapatkan statistik lengkap library (total, durasi, chart genre & artist)
+    // -------------------------------
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        LibraryStats stats = libraryStatsService.getStats(authUser.getId());
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Statistik library berhasil diambil",
+            Map.of(
+                "totalSongs", stats.totalSongs(),
+                "totalDuration", stats.totalDuration(),
+                "totalDurationInMinutes", stats.totalDurationMinutes(),
+                "chartDataGenre", stats.chartDataGenre(),
+                "chartDataArtist", stats.chartDataArtist()
+            )
+        ));
+    }
+
+    // Klien boleh menyimpan respons, tetapi wajib revalidasi dengan ETag
+    private static CacheControl revalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(revalidate())
+            .build();
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> coverTooLarge() {
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+            .body(new ApiResponse<>("fail", "Ukuran file terlalu besar. Maksimal 5MB", null));
+    }
+}
@@ -47,12 +47,8 @@ public class CoverSongForm {
             return false;
         }
 
-        String contentType = coverFile.getContentType();
-        return contentType != null &&
-                (contentType.equals("image/jpeg") ||
-                        contentType.equals("image/png") ||
-                        contentType.equals("image/gif") ||
-                        contentType.equals("image/webp"));
+        // Jenis gambar dari magic bytes, bukan dari Content-Type kiriman klien
+        return ImageType.detect(coverFile) != null;
     }
 
     public boolean isSizeValid(long maxSize) {
@@ -0,0 +1,10 @@
+package org.delcom.app.dto;
+
+/**
+ * Proyeksi hash satu rendition milik satu file cover
+ */
+public interface CoverThumbnailHashRow {
+    String getFilename();
+
+    String getHash();
+}
@@ -0,0 +1,11 @@
+package org.delcom.app.dto;
+
+/**
+ * Body POST /api/songs/{id}/cover/upload-url
+ *
+ * @param sha256      SHA-256 isi file cover dalam hex huruf kecil
+ * @param size        ukuran file dalam bytes
+ * @param contentType image/jpeg, image/png, image/gif atau image/webp
+ */
+public record CoverUploadRequest(String sha256, Long size, String contentType) {
+}
@@ -0,0 +1,108 @@
+package org.delcom.app.dto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Jenis gambar cover yang diterima, dikenali dari magic bytes di awal file
+ * (bukan dari Content-Type atau nama file kiriman klien)
+ */
+public enum ImageType {
+    JPEG("image/jpeg", "jpg"),
+    PNG("image/png", "png"),
+    GIF("image/gif", "gif"),
+    WEBP("image/webp", "webp");
+
+    /**
+     * Jumlah byte awal yang cukup untuk mengenali semua jenis gambar
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG_SOI = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    // WebP: "RIFF" + ukuran 4 byte + "WEBP"
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP_FOURCC = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private final String contentType;
+    private final String extension;
+
+    ImageType(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param header byte awal file
+     * @param length jumlah byte yang terisi di header
+     * @return jenis gambar, null jika bukan JPG, PNG, GIF atau WebP
+     */
+    public static ImageType detect(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG_SOI)) {
+            return JPEG;
+        } else if (startsWith(header, length, 0, PNG_SIGNATURE)) {
+            return PNG;
+        } else if (startsWith(header, length, 0, GIF87A) || startsWith(header, length, 0, GIF89A)) {
+            return GIF;
+        } else if (startsWith(header, length, 0, RIFF) && startsWith(header, length, 8, WEBP_FOURCC)) {
+            return WEBP;
+        }
+        return null;
+    }
+
+    /**
+     * Mengenali jenis gambar dari file upload; hanya HEADER_LENGTH byte
+     * pertama yang dibaca
+     *
+     * @return jenis gambar, null jika file kosong, tidak terbaca atau bukan gambar
+     */
+    public static ImageType detect(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try (InputStream input = file.getInputStream()) {
+            byte[] header = input.readNBytes(HEADER_LENGTH);
+            return detect(header, header.length);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param contentType content type dari klien, mis. "image/png"
+     * @return jenis gambar, null jika bukan content type gambar yang diterima
+     */
+    public static ImageType fromContentType(String contentType) {
+        for (ImageType type : values()) {
+            if (type.contentType.equalsIgnoreCase(contentType)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
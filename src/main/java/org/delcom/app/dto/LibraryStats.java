@@ -0,0 +1,22 @@
+package org.delcom.app.dto;
+
+import java.util.Map;
+
+/**
+ * Ringkasan statistik library milik satu user
+ * 
+ * @param totalSongs      jumlah lagu
+ * @param totalDuration   total durasi semua lagu (detik)
+ * @param chartDataGenre  jumlah lagu per genre, urut dari yang terbanyak
+ * @param chartDataArtist jumlah lagu per artist, urut dari yang terbanyak
+ */
+public record LibraryStats(
+        long totalSongs,
+        long totalDuration,
+        Map<String, Long> chartDataGenre,
+        Map<String, Long> chartDataArtist) {
+
+    public long totalDurationMinutes() {
+        return totalDuration / 60;
+    }
+}
@@ -0,0 +1,15 @@
+package org.delcom.app.dto;
+
+/**
+ * Proyeksi satu baris hasil agregasi statistik library
+ * (kind = "genre" atau "artist")
+ */
+public interface LibraryStatsRow {
+    String getKind();
+
+    String getLabel();
+
+    Long getTotal();
+
+    Long getDuration();
+}
@@ -0,0 +1,47 @@
+package org.delcom.app.dto;
+
+import java.util.UUID;
+
+/**
+ * Satu operasi dalam POST /api/songs/batch
+ *
+ * @param op          create, update atau delete
+ * @param id          id lagu untuk update dan delete
+ * @param title       judul lagu (create dan update)
+ * @param artist      nama artist (create dan update)
+ * @param album       nama album, boleh kosong
+ * @param genre       genre (create dan update)
+ * @param duration    durasi dalam detik (create dan update)
+ * @param releaseYear tahun rilis, boleh kosong
+ */
+public record SongBatchOperation(String op, UUID id, String title, String artist, String album, String genre,
+        Integer duration, Integer releaseYear) {
+
+    public static final String OP_CREATE = "create";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+
+    /**
+     * Validasi yang sama dengan endpoint create/update satuan
+     *
+     * @return pesan kesalahan, null jika operasi valid
+     */
+    public String validate() {
+        if (!OP_CREATE.equals(op) && !OP_UPDATE.equals(op) && !OP_DELETE.equals(op)) {
+            return "Data op tidak valid";
+        } else if (!OP_CREATE.equals(op) && id == null) {
+            return "Data id tidak valid";
+        } else if (OP_DELETE.equals(op)) {
+            return null;
+        } else if (title == null || title.isEmpty()) {
+            return "Data title tidak valid";
+        } else if (artist == null || artist.isEmpty()) {
+            return "Data artist tidak valid";
+        } else if (genre == null || genre.isEmpty()) {
+            return "Data genre tidak valid";
+        } else if (duration == null || duration <= 0) {
+            return "Data duration tidak valid";
+        }
+        return null;
+    }
+}
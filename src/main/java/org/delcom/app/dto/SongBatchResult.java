@@ -0,0 +1,23 @@
+package org.delcom.app.dto;
+
+import java.util.UUID;
+
+/**
+ * Hasil satu operasi batch, urutannya sama dengan operasi pada request
+ *
+ * @param index   posisi operasi pada request (mulai dari 0)
+ * @param op      jenis operasi
+ * @param id      id lagu (untuk create: id lagu baru), null jika gagal sebelum ada id
+ * @param status  "success" atau "fail"
+ * @param message keterangan hasil
+ */
+public record SongBatchResult(int index, String op, UUID id, String status, String message) {
+
+    public static SongBatchResult success(int index, String op, UUID id, String message) {
+        return new SongBatchResult(index, op, id, "success", message);
+    }
+
+    public static SongBatchResult fail(int index, String op, UUID id, String message) {
+        return new SongBatchResult(index, op, id, "fail", message);
+    }
+}
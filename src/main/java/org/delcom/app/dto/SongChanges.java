@@ -0,0 +1,20 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.Songs;
+
+/**
+ * Satu halaman delta sync
+ *
+ * @param songs     lagu yang dibuat atau diubah setelah token
+ * @param deleted   id lagu yang dihapus setelah token
+ * @param nextToken token untuk permintaan berikutnya
+ * @param hasMore   true jika masih ada perubahan, minta lagi dengan nextToken
+ * @param reset     true jika klien harus mengganti seluruh data lokalnya
+ *                  (sync pertama atau token lebih lama dari TTL tombstone)
+ */
+public record SongChanges(List<Songs> songs, List<UUID> deleted, String nextToken, boolean hasMore,
+        boolean reset) {
+}
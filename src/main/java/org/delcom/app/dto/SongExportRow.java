@@ -0,0 +1,20 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Satu baris export lagu. Dibaca sebagai proyeksi (bukan entity) agar tidak
+ * menumpuk di persistence context selama export berjalan.
+ */
+public record SongExportRow(
+        UUID id,
+        String title,
+        String artist,
+        String album,
+        String genre,
+        Integer duration,
+        Integer releaseYear,
+        String cover,
+        LocalDateTime createdAt) {
+}
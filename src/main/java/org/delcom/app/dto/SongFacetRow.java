@@ -0,0 +1,14 @@
+package org.delcom.app.dto;
+
+/**
+ * Satu baris hasil GROUP BY untuk satu facet: jumlah lagu per nilai kolom
+ *
+ * @param facet GENRE, ARTIST atau RELEASE_YEAR (nama atribut entity Songs)
+ * @param value nilai kolom (String, atau Integer untuk RELEASE_YEAR), boleh null
+ * @param total jumlah lagu dengan nilai tersebut
+ */
+public record SongFacetRow(String facet, Object value, Long total) {
+    public static final String GENRE = "genre";
+    public static final String ARTIST = "artist";
+    public static final String RELEASE_YEAR = "releaseYear";
+}
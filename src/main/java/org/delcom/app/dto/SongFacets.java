@@ -0,0 +1,72 @@
+package org.delcom.app.dto;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Jumlah lagu yang cocok dengan filter, dipecah per genre, artist dan dekade
+ *
+ * @param total  jumlah semua lagu yang cocok
+ * @param genre  jumlah per genre, urut dari yang terbanyak
+ * @param artist jumlah per artist, urut dari yang terbanyak
+ * @param decade jumlah per dekade rilis ("1990s"), urut naik; tanpa tahun = "unknown"
+ */
+public record SongFacets(
+        long total,
+        Map<String, Long> genre,
+        Map<String, Long> artist,
+        Map<String, Long> decade) {
+
+    public static final String UNKNOWN_DECADE = "unknown";
+
+    /**
+     * Menyusun tiga facet dari baris GROUP BY genre, artist dan releaseYear.
+     * Total diambil dari baris genre, karena setiap lagu masuk tepat satu
+     * kelompok genre.
+     */
+    public static SongFacets of(List<SongFacetRow> rows) {
+        long total = 0;
+        Map<String, Long> genre = new HashMap<>();
+        Map<String, Long> artist = new HashMap<>();
+        Map<Integer, Long> decades = new TreeMap<>();
+        long unknownDecade = 0;
+        for (SongFacetRow row : rows) {
+            long count = row.total();
+            switch (row.facet()) {
+                case SongFacetRow.GENRE -> {
+                    total += count;
+                    genre.merge((String) row.value(), count, Long::sum);
+                }
+                case SongFacetRow.ARTIST -> artist.merge((String) row.value(), count, Long::sum);
+                case SongFacetRow.RELEASE_YEAR -> {
+                    if (row.value() == null) {
+                        unknownDecade += count;
+                    } else {
+                        decades.merge(Math.floorDiv((Integer) row.value(), 10) * 10, count, Long::sum);
+                    }
+                }
+                default -> {
+                    // Facet lain diabaikan
+                }
+            }
+        }
+
+        Map<String, Long> decade = new LinkedHashMap<>();
+        decades.forEach((start, count) -> decade.put(start + "s", count));
+        if (unknownDecade > 0) {
+            decade.put(UNKNOWN_DECADE, unknownDecade);
+        }
+        return new SongFacets(total, sortByCount(genre), sortByCount(artist), decade);
+    }
+
+    private static Map<String, Long> sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEachOrdered(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
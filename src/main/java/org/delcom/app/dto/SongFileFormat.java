@@ -0,0 +1,47 @@
+package org.delcom.app.dto;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Format file untuk export dan import library lagu
+ */
+public enum SongFileFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    public static final String CSV_HEADER = "id,title,artist,album,genre,duration,releaseYear,cover,createdAt";
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    SongFileFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return format sesuai nama (tidak case-sensitive), null jika tidak dikenal
+     */
+    public static SongFileFormat parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (SongFileFormat format : values()) {
+            if (format.extension.equals(normalized)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
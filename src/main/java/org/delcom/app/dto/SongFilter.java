@@ -0,0 +1,45 @@
+package org.delcom.app.dto;
+
+/**
+ * Kombinasi filter daftar lagu; semua filter yang terisi diterapkan bersamaan.
+ * String kosong dianggap tidak diisi, batas rentang bersifat inklusif.
+ *
+ * @param search      keyword di title, artist, album atau genre
+ * @param genre       genre persis (tidak case-sensitive)
+ * @param artist      bagian dari nama artist
+ * @param minYear     tahun rilis minimal
+ * @param maxYear     tahun rilis maksimal
+ * @param minDuration durasi minimal (detik)
+ * @param maxDuration durasi maksimal (detik)
+ */
+public record SongFilter(
+        String search,
+        String genre,
+        String artist,
+        Integer minYear,
+        Integer maxYear,
+        Integer minDuration,
+        Integer maxDuration) {
+
+    public SongFilter {
+        search = blankToNull(search);
+        genre = blankToNull(genre);
+        artist = blankToNull(artist);
+    }
+
+    public static SongFilter none() {
+        return new SongFilter(null, null, null, null, null, null, null);
+    }
+
+    public boolean hasValidYearRange() {
+        return minYear == null || maxYear == null || minYear <= maxYear;
+    }
+
+    public boolean hasValidDurationRange() {
+        return minDuration == null || maxDuration == null || minDuration <= maxDuration;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
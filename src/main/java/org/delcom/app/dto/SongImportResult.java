@@ -0,0 +1,23 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+/**
+ * Hasil import lagu
+ *
+ * @param imported        jumlah lagu yang tersimpan
+ * @param failed          jumlah baris yang ditolak
+ * @param errors          kesalahan per baris (dibatasi, lihat errorsTruncated)
+ * @param errorsTruncated true jika sebagian kesalahan tidak dicantumkan
+ */
+public record SongImportResult(long imported, long failed, List<RowError> errors, boolean errorsTruncated) {
+
+    /**
+     * Kesalahan pada satu baris data
+     *
+     * @param row     nomor baris data (mulai dari 1, header CSV tidak dihitung)
+     * @param message alasan baris ditolak
+     */
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+import org.delcom.app.entities.Songs;
+
+/**
+ * Satu halaman daftar lagu beserta cursor halaman berikutnya
+ * 
+ * @param songs      lagu pada halaman ini
+ * @param nextCursor cursor halaman berikutnya, null jika sudah halaman terakhir
+ */
+public record SongPage(List<Songs> songs, String nextCursor) {
+}
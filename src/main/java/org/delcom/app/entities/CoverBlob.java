@@ -0,0 +1,83 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.*;
+
+/**
+ * Jumlah lagu yang memakai satu file cover. File cover dinamai dengan
+ * SHA-256 isinya, jadi cover album yang sama untuk banyak lagu hanya
+ * tersimpan sekali. Record dengan ref_count 0 dibiarkan sampai
+ * OrphanedFileCollector menghapus file-nya sambil mengunci record ini, agar
+ * acquire yang berjalan bersamaan tidak merujuk file yang sedang dihapus.
+ */
+@Entity
+@Table(name = "cover_blobs")
+public class CoverBlob {
+
+    // ======= Attributes =======
+    @Id
+    @Column(name = "filename", updatable = false, nullable = false)
+    private String filename;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Waktu reference count terakhir berubah; grace period sebelum record
+    // ref_count 0 dihapus dihitung dari sini
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ======= Constructors =======
+    public CoverBlob() {
+    }
+
+    public CoverBlob(String filename) {
+        this.filename = filename;
+    }
+
+    // ======= Getters =======
+    public String getFilename() {
+        return filename;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // ======= Mutators =======
+    public long increment() {
+        return ++refCount;
+    }
+
+    public long decrement() {
+        refCount = Math.max(0, refCount - 1);
+        return refCount;
+    }
+
+    // ======= @PrePersist & @PreUpdate =======
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
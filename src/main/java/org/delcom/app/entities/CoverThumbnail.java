@@ -0,0 +1,118 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.*;
+
+/**
+ * Job pembuatan thumbnail untuk satu file cover sekaligus hasilnya. Job
+ * disimpan di database agar job yang belum selesai dilanjutkan setelah restart.
+ */
+@Entity
+@Table(name = "cover_thumbnails", indexes = {
+        // Job yang masih menunggu, urut dari yang paling lama
+        @Index(name = "idx_cover_thumbnails_status", columnList = "status, updated_at")
+})
+public class CoverThumbnail {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_READY = "READY";
+    public static final String STATUS_FAILED = "FAILED";
+
+    // ======= Attributes =======
+    @Id
+    @Column(name = "filename", updatable = false, nullable = false)
+    private String filename;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Ukuran rendition (px) -> SHA-256 isi file rendition
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "cover_thumbnail_hashes", joinColumns = @JoinColumn(name = "filename"))
+    @MapKeyColumn(name = "size")
+    @Column(name = "hash", nullable = false, length = 64)
+    private Map<Integer, String> hashes = new HashMap<>();
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ======= Constructors =======
+    public CoverThumbnail() {
+    }
+
+    public CoverThumbnail(String filename) {
+        this.filename = filename;
+        this.status = STATUS_PENDING;
+    }
+
+    // ======= Getters =======
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Map<Integer, String> getHashes() {
+        return hashes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // ======= Mutators =======
+
+    /**
+     * Mengulang job dari awal, mis. file cover ditimpa dengan gambar baru
+     */
+    public void reset() {
+        status = STATUS_PENDING;
+        attempts = 0;
+        hashes.clear();
+    }
+
+    public void markReady(Map<Integer, String> hashes) {
+        this.status = STATUS_READY;
+        this.hashes.clear();
+        this.hashes.putAll(hashes);
+    }
+
+    /**
+     * Mencatat percobaan yang gagal; job berhenti dicoba setelah maxAttempts
+     */
+    public void markAttemptFailed(int maxAttempts) {
+        attempts++;
+        status = attempts >= maxAttempts ? STATUS_FAILED : STATUS_PENDING;
+    }
+
+    // ======= @PrePersist & @PreUpdate =======
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,77 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+
+/**
+ * Penanda lagu yang sudah dihapus untuk delta sync (/api/songs/changes).
+ * Hanya id, pemilik dan waktu hapus; dihapus otomatis setelah TTL.
+ */
+@Entity
+@Table(name = "song_tombstones", indexes = {
+        // Delta sync: tombstone per user setelah posisi (deletedAt, songId)
+        @Index(name = "idx_song_tombstones_user_deleted", columnList = "user_id, deleted_at, song_id"),
+        // Compaction TTL
+        @Index(name = "idx_song_tombstones_deleted", columnList = "deleted_at")
+})
+public class SongTombstone implements Persistable<UUID> {
+
+    // ======= Attributes =======
+    @Id
+    @Column(name = "song_id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID songId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    // Id diisi sendiri, jadi save() langsung INSERT tanpa SELECT lebih dulu
+    @Transient
+    private boolean isNew = true;
+
+    // ======= Constructors =======
+    public SongTombstone() {
+    }
+
+    public SongTombstone(UUID songId, UUID userId, LocalDateTime deletedAt) {
+        this.songId = songId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+
+    // ======= Getters =======
+    public UUID getSongId() {
+        return songId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return songId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // ======= @PostLoad & @PostPersist =======
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
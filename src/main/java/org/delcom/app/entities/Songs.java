@@ -6,7 +6,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "songs")
+@Table(name = "songs", indexes = {
+        // Daftar lagu per user urut terbaru (termasuk keyset pagination)
+        @Index(name = "idx_songs_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        // Delta sync: perubahan per user setelah posisi (updatedAt, id)
+        @Index(name = "idx_songs_user_updated", columnList = "user_id, updated_at, id")
+})
 public class Songs {
 
     @Id
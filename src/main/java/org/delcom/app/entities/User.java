@@ -50,6 +50,13 @@ public class User {
         this.password = password;
     }
 
+    public User(User other) {
+        this(other.name, other.email, other.password);
+        this.id = other.id;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // ======= Getters and Setters =======
     public UUID getId() {
         return id;
@@ -0,0 +1,137 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_library_stats")
+public class UserLibraryStats {
+
+    // ======= Attributes =======
+    @Id
+    @Column(name = "user_id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "total_songs", nullable = false)
+    private long totalSongs;
+
+    @Column(name = "total_duration", nullable = false)
+    private long totalDuration; // dalam detik
+
+    @ElementCollection
+    @CollectionTable(name = "user_library_genre_counts", joinColumns = @JoinColumn(name = "user_id"))
+    @MapKeyColumn(name = "genre")
+    @Column(name = "total", nullable = false)
+    private Map<String, Long> genreCounts = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(name = "user_library_artist_counts", joinColumns = @JoinColumn(name = "user_id"))
+    @MapKeyColumn(name = "artist")
+    @Column(name = "total", nullable = false)
+    private Map<String, Long> artistCounts = new HashMap<>();
+
+    // Naik setiap kali isi library berubah, dipakai sebagai ETag daftar lagu
+    @ColumnDefault("0")
+    @Column(name = "library_version", nullable = false)
+    private long libraryVersion;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ======= Constructors =======
+    public UserLibraryStats() {
+    }
+
+    public UserLibraryStats(UUID userId) {
+        this.userId = userId;
+    }
+
+    // ======= Getters and Setters =======
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getTotalSongs() {
+        return totalSongs;
+    }
+
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public Map<String, Long> getGenreCounts() {
+        return genreCounts;
+    }
+
+    public Map<String, Long> getArtistCounts() {
+        return artistCounts;
+    }
+
+    public long getLibraryVersion() {
+        return libraryVersion;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // ======= Mutators =======
+
+    /**
+     * Menambahkan (delta = 1) atau mengurangi (delta = -1) satu lagu dari statistik
+     */
+    public void apply(String genre, String artist, int duration, int delta) {
+        totalSongs = Math.max(0, totalSongs + delta);
+        totalDuration = Math.max(0, totalDuration + (long) duration * delta);
+        adjust(genreCounts, genre, delta);
+        adjust(artistCounts, artist, delta);
+    }
+
+    /**
+     * Menandai library berubah. Dipanggil sekali per penulisan, termasuk
+     * perubahan yang tidak menggeser statistik (mis. judul atau cover)
+     */
+    public void bumpVersion() {
+        libraryVersion++;
+    }
+
+    /**
+     * Mengosongkan statistik sebelum dihitung ulang (versi library tetap)
+     */
+    public void reset() {
+        totalSongs = 0;
+        totalDuration = 0;
+        genreCounts.clear();
+        artistCounts.clear();
+    }
+
+    public void setTotals(long totalSongs, long totalDuration) {
+        this.totalSongs = totalSongs;
+        this.totalDuration = totalDuration;
+    }
+
+    private static void adjust(Map<String, Long> counts, String key, int delta) {
+        if (key == null) {
+            return;
+        }
+        long next = counts.getOrDefault(key, 0L) + delta;
+        if (next > 0) {
+            counts.put(key, next);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    // ======= @PrePersist & @PreUpdate =======
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -3,9 +3,12 @@ package org.delcom.app.interceptors;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenCache;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.JwtUtil.ParsedToken;
+import org.delcom.app.utils.JwtUtil.TokenStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -27,6 +30,9 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected AuthTokenCache authTokenCache;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
@@ -45,14 +51,28 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validasi format token JWT
-        if (!JwtUtil.validateToken(token, true)) {
+        // Token yang sudah pernah diverifikasi tidak perlu dicek ulang
+        String tokenHash = authTokenCache.hash(token);
+        User cachedUser = authTokenCache.get(tokenHash);
+        if (cachedUser != null) {
+            authContext.setAuthUser(cachedUser);
+            return true;
+        }
+        long cacheGeneration = authTokenCache.currentGeneration();
+
+        // Verifikasi signature dan baca claims dalam satu kali parsing
+        ParsedToken parsedToken = JwtUtil.parse(token);
+        if (parsedToken.status() == TokenStatus.INVALID) {
             sendErrorResponse(response, 401, "Token autentikasi tidak valid");
             return false;
         }
+        if (parsedToken.isExpired()) {
+            sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+            return false;
+        }
 
         // Ekstrak userId dari token
-        UUID userId = JwtUtil.extractUserId(token);
+        UUID userId = parsedToken.userId();
         if (userId == null) {
             sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
             return false;
@@ -73,6 +93,7 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
 
         // Set user ke auth context
+        authTokenCache.put(tokenHash, authUser, cacheGeneration, parsedToken.expiresAtMillis());
         authContext.setAuthUser(authUser);
         return true;
     }
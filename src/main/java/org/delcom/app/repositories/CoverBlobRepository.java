@@ -0,0 +1,47 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.delcom.app.entities.CoverBlob;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface CoverBlobRepository extends JpaRepository<CoverBlob, String> {
+
+    // Mengunci reference count agar upload dan hapus paralel tidak saling menimpa
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM CoverBlob b WHERE b.filename = :filename")
+    Optional<CoverBlob> findByFilenameForUpdate(String filename);
+
+    // PostgreSQL: record yang sudah ada (termasuk yang sedang dibuat atau
+    // dihapus transaksi lain, ditunggu sampai commit) dibiarkan tanpa error
+    // dan tanpa menimpa reference count-nya
+    @Modifying
+    @Query(value = "INSERT INTO cover_blobs (filename, ref_count, created_at, updated_at) "
+            + "VALUES (:filename, 0, :createdAt, :updatedAt) ON CONFLICT (filename) DO NOTHING", nativeQuery = true)
+    int insertEmptyIfAbsent(String filename, LocalDateTime createdAt, LocalDateTime updatedAt);
+
+    // Database lain (H2 untuk test) tanpa ON CONFLICT
+    @Modifying
+    @Query(value = "INSERT INTO cover_blobs (filename, ref_count, created_at, updated_at) "
+            + "SELECT :filename, 0, :createdAt, :updatedAt WHERE NOT EXISTS "
+            + "(SELECT 1 FROM cover_blobs WHERE filename = :filename)", nativeQuery = true)
+    int insertEmptyIfMissing(String filename, LocalDateTime createdAt, LocalDateTime updatedAt);
+
+    // File cover yang tidak dipakai lagi sejak sebelum cutoff, per halaman urut nama
+    @Query("SELECT b.filename FROM CoverBlob b WHERE b.refCount = 0 AND b.updatedAt <= :cutoff "
+            + "AND b.filename > :after ORDER BY b.filename")
+    List<String> findReleasedFilenames(LocalDateTime cutoff, String after, Limit limit);
+
+    // Thumbnail {nama}_{ukuran}.jpg milik cover yang masih tercatat
+    boolean existsByFilenameStartingWith(String prefix);
+}
@@ -0,0 +1,38 @@
+package org.delcom.app.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.delcom.app.dto.CoverThumbnailHashRow;
+import org.delcom.app.entities.CoverThumbnail;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface CoverThumbnailRepository extends JpaRepository<CoverThumbnail, String> {
+
+    // Mengunci job agar hasil worker tidak menimpa job yang baru di-reset
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CoverThumbnail t WHERE t.filename = :filename")
+    Optional<CoverThumbnail> findByFilenameForUpdate(String filename);
+
+    // Job yang belum selesai, yang paling lama menunggu lebih dulu
+    @Query("SELECT t.filename FROM CoverThumbnail t WHERE t.status = :status ORDER BY t.updatedAt")
+    List<String> findFilenamesByStatus(String status, Limit limit);
+
+    // Hash satu rendition tanpa memuat seluruh map hash
+    @Query("SELECT VALUE(h) FROM CoverThumbnail t JOIN t.hashes h " +
+            "WHERE t.filename = :filename AND t.status = :status AND KEY(h) = :size")
+    Optional<String> findHash(String filename, String status, int size);
+
+    // Hash satu ukuran rendition untuk banyak cover sekaligus (daftar lagu)
+    @Query("SELECT t.filename AS filename, VALUE(h) AS hash FROM CoverThumbnail t JOIN t.hashes h " +
+            "WHERE t.filename IN :filenames AND t.status = :status AND KEY(h) = :size")
+    List<CoverThumbnailHashRow> findHashes(Collection<String> filenames, String status, int size);
+}
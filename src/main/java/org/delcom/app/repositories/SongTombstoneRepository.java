@@ -0,0 +1,28 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.SongTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SongTombstoneRepository extends JpaRepository<SongTombstone, UUID> {
+
+    // Delta sync - tombstone setelah posisi (deletedAt, songId) sampai batas atas
+    @Query("SELECT t FROM SongTombstone t WHERE t.userId = :userId AND t.deletedAt <= :until " +
+            "AND (t.deletedAt > :after OR (t.deletedAt = :after AND t.songId > :afterId)) " +
+            "ORDER BY t.deletedAt, t.songId")
+    List<SongTombstone> findDeletedSince(UUID userId, LocalDateTime after, UUID afterId, LocalDateTime until,
+            Limit limit);
+
+    // Compaction - menghapus tombstone yang lebih lama dari TTL
+    @Modifying
+    @Query("DELETE FROM SongTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -0,0 +1,27 @@
+package org.delcom.app.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.SongFacetRow;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.CursorUtil.Cursor;
+
+/**
+ * Query dengan filter kombinasi (JPA Criteria), digabung ke SongsRepository
+ */
+public interface SongsFilterRepository {
+
+    // Keyset pagination urut (createdAt DESC, id DESC) dengan semua filter sekaligus
+    List<Songs> findPageByFilter(UUID userId, SongFilter filter, Cursor after, int limit);
+
+    // Fallback search (H2 dll.) - setiap term harus menjadi awal kata di title,
+    // artist, album atau genre (AND antar term, seperti tsquery "a:* & b:*"),
+    // diurutkan dengan skor berbobot title > artist > album > genre
+    List<Songs> searchWeighted(UUID userId, List<String> terms);
+
+    // Tiga GROUP BY terpisah (genre, artist, releaseYear), masing-masing hanya
+    // satu baris per nilai berbeda, bukan satu baris per kombinasi lagu
+    List<SongFacetRow> countFacetsByFilter(UUID userId, SongFilter filter);
+}
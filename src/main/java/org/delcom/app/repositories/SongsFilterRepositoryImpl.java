@@ -0,0 +1,146 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.delcom.app.dto.SongFacetRow;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.CursorUtil.Cursor;
+import org.delcom.app.utils.SearchTokenizer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class SongsFilterRepositoryImpl implements SongsFilterRepository {
+    private final EntityManager entityManager;
+
+    public SongsFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Songs> findPageByFilter(UUID userId, SongFilter filter, Cursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Songs> query = cb.createQuery(Songs.class);
+        Root<Songs> song = query.from(Songs.class);
+        Path<LocalDateTime> createdAt = song.get("createdAt");
+        Path<UUID> id = song.get("id");
+
+        List<Predicate> predicates = filterPredicates(cb, song, userId, filter);
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(song)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Songs> searchWeighted(UUID userId, List<String> terms) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Songs> query = cb.createQuery(Songs.class);
+        Root<Songs> song = query.from(Songs.class);
+        List<Path<String>> fields = List.of(song.get("title"), song.get("artist"), song.get("album"),
+                song.get("genre"));
+        int[] weights = {8, 4, 2, 1};
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(song.get("userId"), userId));
+        Expression<Integer> score = cb.literal(0);
+        for (String term : terms) {
+            List<Predicate> matches = new ArrayList<>();
+            for (int i = 0; i < fields.size(); i++) {
+                Predicate match = wordPrefix(cb, fields.get(i), term);
+                matches.add(match);
+                score = cb.sum(score, cb.<Integer>selectCase().when(match, weights[i]).otherwise(0));
+            }
+            predicates.add(cb.or(matches.toArray(Predicate[]::new)));
+        }
+
+        query.select(song)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(score), cb.desc(song.get("createdAt")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<SongFacetRow> countFacetsByFilter(UUID userId, SongFilter filter) {
+        List<SongFacetRow> rows = new ArrayList<>();
+        for (String facet : List.of(SongFacetRow.GENRE, SongFacetRow.ARTIST, SongFacetRow.RELEASE_YEAR)) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<Songs> song = query.from(Songs.class);
+            Path<Object> value = song.get(facet);
+
+            query.multiselect(value, cb.count(song))
+                    .where(filterPredicates(cb, song, userId, filter).toArray(Predicate[]::new))
+                    .groupBy(value);
+            for (Object[] row : entityManager.createQuery(query).getResultList()) {
+                rows.add(new SongFacetRow(facet, row[0], (Long) row[1]));
+            }
+        }
+        return rows;
+    }
+
+    // Semua filter yang terisi digabung dengan AND
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Songs> song, UUID userId, SongFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(song.get("userId"), userId));
+
+        if (filter.search() != null) {
+            String pattern = SearchTokenizer.containsPattern(filter.search());
+            predicates.add(cb.or(
+                    lowerLike(cb, song.get("title"), pattern),
+                    lowerLike(cb, song.get("artist"), pattern),
+                    lowerLike(cb, song.get("album"), pattern),
+                    lowerLike(cb, song.get("genre"), pattern)));
+        }
+        if (filter.genre() != null) {
+            predicates.add(cb.equal(cb.lower(song.get("genre")), filter.genre().toLowerCase(Locale.ROOT)));
+        }
+        if (filter.artist() != null) {
+            predicates.add(lowerLike(cb, song.get("artist"), SearchTokenizer.containsPattern(filter.artist())));
+        }
+
+        Path<Integer> releaseYear = song.get("releaseYear");
+        if (filter.minYear() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(releaseYear, filter.minYear()));
+        }
+        if (filter.maxYear() != null) {
+            predicates.add(cb.lessThanOrEqualTo(releaseYear, filter.maxYear()));
+        }
+
+        Path<Integer> duration = song.get("duration");
+        if (filter.minDuration() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(duration, filter.minDuration()));
+        }
+        if (filter.maxDuration() != null) {
+            predicates.add(cb.lessThanOrEqualTo(duration, filter.maxDuration()));
+        }
+        return predicates;
+    }
+
+    // Ada kata di field yang diawali term (lihat SearchTokenizer.wordPrefixPatterns)
+    private static Predicate wordPrefix(CriteriaBuilder cb, Expression<String> field, String term) {
+        return cb.or(SearchTokenizer.wordPrefixPatterns(term).stream()
+                .map(pattern -> lowerLike(cb, field, pattern))
+                .toArray(Predicate[]::new));
+    }
+
+    private static Predicate lowerLike(CriteriaBuilder cb, Expression<String> field, String pattern) {
+        return cb.like(cb.lower(field), pattern, SearchTokenizer.LIKE_ESCAPE);
+    }
+}
@@ -1,33 +1,79 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.delcom.app.dto.LibraryStatsRow;
+import org.delcom.app.dto.SongExportRow;
 import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.ConstUtil;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface SongsRepository extends JpaRepository<Songs, UUID> {
+public interface SongsRepository extends JpaRepository<Songs, UUID>, SongsFilterRepository {
     
-    // Mencari lagu berdasarkan keyword (title, artist, album, genre)
-    @Query("SELECT s FROM Songs s WHERE (LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(s.artist) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(s.album) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(s.genre) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-            "AND s.userId = :userId ORDER BY s.createdAt DESC")
-    List<Songs> findByKeyword(UUID userId, String keyword);
+    // Full-text search PostgreSQL - kolom search_vector (schema-postgresql.sql) berbobot
+    // title (A) > artist (B) > album (C) > genre (D), diurutkan dengan ts_rank
+    @Query(value = "SELECT s.* FROM songs s " +
+            "WHERE s.user_id = :userId AND s.search_vector @@ to_tsquery('simple', :tsQuery) " +
+            "ORDER BY ts_rank(s.search_vector, to_tsquery('simple', :tsQuery)) DESC, s.created_at DESC",
+            nativeQuery = true)
+    List<Songs> searchFullText(UUID userId, String tsQuery);
 
     // Mendapatkan semua lagu berdasarkan userId
     @Query("SELECT s FROM Songs s WHERE s.userId = :userId ORDER BY s.createdAt DESC")
     List<Songs> findAllByUserId(UUID userId);
 
+    // Export - dibaca bertahap lewat cursor JDBC (fetch size), harus di dalam transaksi
+    // dan stream wajib ditutup. Urut (createdAt, id) agar hasil export stabil.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + ConstUtil.EXPORT_FETCH_SIZE))
+    @Query("SELECT new org.delcom.app.dto.SongExportRow(s.id, s.title, s.artist, s.album, s.genre, " +
+            "s.duration, s.releaseYear, s.cover, s.createdAt) " +
+            "FROM Songs s WHERE s.userId = :userId ORDER BY s.createdAt, s.id")
+    Stream<SongExportRow> streamExportRowsByUserId(UUID userId);
+
+    // Garbage collection file cover - semua nilai cover lewat cursor JDBC,
+    // harus di dalam transaksi dan stream wajib ditutup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + ConstUtil.EXPORT_FETCH_SIZE))
+    @Query("SELECT s.cover FROM Songs s WHERE s.cover IS NOT NULL")
+    Stream<String> streamCovers();
+
+    long countByCoverIsNotNull();
+
+    boolean existsByCover(String cover);
+
+    // Wildcard (%, _) pada prefix di-escape oleh Spring Data
+    boolean existsByCoverStartingWith(String prefix);
+
+    // Delta sync - lagu yang dibuat/diubah setelah posisi (updatedAt, id) sampai batas atas
+    @Query("SELECT s FROM Songs s WHERE s.userId = :userId AND s.updatedAt <= :until " +
+            "AND (s.updatedAt > :after OR (s.updatedAt = :after AND s.id > :afterId)) " +
+            "ORDER BY s.updatedAt, s.id")
+    List<Songs> findChangedSince(UUID userId, LocalDateTime after, UUID afterId, LocalDateTime until, Limit limit);
+
     // Mendapatkan lagu berdasarkan id dan userId
     @Query("SELECT s FROM Songs s WHERE s.id = :id AND s.userId = :userId")
     Optional<Songs> findByUserIdAndId(UUID userId, UUID id);
 
+    // Hanya updatedAt, untuk ETag tanpa memuat entity lagu
+    @Query("SELECT s.updatedAt FROM Songs s WHERE s.id = :id AND s.userId = :userId")
+    Optional<LocalDateTime> findUpdatedAtByUserIdAndId(UUID userId, UUID id);
+
+    // Batch operasi - semua lagu yang dirujuk diambil dengan satu query IN
+    @Query("SELECT s FROM Songs s WHERE s.userId = :userId AND s.id IN :ids")
+    List<Songs> findAllByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
     // Mendapatkan lagu berdasarkan genre
     @Query("SELECT s FROM Songs s WHERE s.userId = :userId AND LOWER(s.genre) = LOWER(:genre) ORDER BY s.createdAt DESC")
     List<Songs> findByUserIdAndGenre(UUID userId, String genre);
@@ -43,4 +89,16 @@ public interface SongsRepository extends JpaRepository<Songs, UUID> {
     // Query untuk chart data - jumlah lagu per artist
     @Query("SELECT s.artist, COUNT(s) FROM Songs s WHERE s.userId = :userId GROUP BY s.artist ORDER BY COUNT(s) DESC")
     List<Object[]> countSongsByArtist(UUID userId);
-}
\ No newline at end of file
+
+    // Query statistik dashboard - histogram genre & artist dalam satu round-trip
+    // Total lagu dan total durasi didapat dari penjumlahan baris "genre"
+    @Query(value = "SELECT 'genre' AS kind, s.genre AS label, COUNT(*) AS total, " +
+            "COALESCE(SUM(s.duration), 0) AS duration " +
+            "FROM songs s WHERE s.user_id = :userId GROUP BY s.genre " +
+            "UNION ALL " +
+            "SELECT 'artist' AS kind, s.artist AS label, COUNT(*) AS total, " +
+            "COALESCE(SUM(s.duration), 0) AS duration " +
+            "FROM songs s WHERE s.user_id = :userId GROUP BY s.artist " +
+            "ORDER BY kind, total DESC", nativeQuery = true)
+    List<LibraryStatsRow> aggregateLibraryStats(UUID userId);
+}
@@ -0,0 +1,42 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.delcom.app.entities.UserLibraryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UserLibraryStatsRepository extends JpaRepository<UserLibraryStats, UUID> {
+
+    // Mengunci baris statistik user agar penulisan paralel tidak saling menimpa
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT st FROM UserLibraryStats st WHERE st.userId = :userId")
+    Optional<UserLibraryStats> findByUserIdForUpdate(UUID userId);
+
+    // Hanya kolom versi, untuk ETag daftar lagu
+    @Query("SELECT st.libraryVersion FROM UserLibraryStats st WHERE st.userId = :userId")
+    Optional<Long> findLibraryVersion(UUID userId);
+
+    // PostgreSQL: record yang sudah ada (termasuk yang sedang dibuat transaksi
+    // lain, ditunggu sampai commit) dibiarkan tanpa error, sehingga transaksi
+    // pemanggil tidak dibatalkan dan tidak butuh koneksi kedua
+    @Modifying
+    @Query(value = "INSERT INTO user_library_stats (user_id, total_songs, total_duration, library_version, updated_at) "
+            + "VALUES (:userId, 0, 0, 0, :updatedAt) ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertEmptyIfAbsent(UUID userId, LocalDateTime updatedAt);
+
+    // Database lain (H2 untuk test) tanpa ON CONFLICT
+    @Modifying
+    @Query(value = "INSERT INTO user_library_stats (user_id, total_songs, total_duration, library_version, updated_at) "
+            + "SELECT :userId, 0, 0, 0, :updatedAt WHERE NOT EXISTS "
+            + "(SELECT 1 FROM user_library_stats WHERE user_id = :userId)", nativeQuery = true)
+    int insertEmptyIfMissing(UUID userId, LocalDateTime updatedAt);
+}
@@ -0,0 +1,150 @@
+package org.delcom.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.entities.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache terbatas untuk token yang sudah diverifikasi (signature JWT + database).
+ * Key berupa hash SHA-256 dari token sehingga token mentah tidak disimpan.
+ */
+@Component
+public class AuthTokenCache {
+
+    /**
+     * Principal hasil verifikasi beserta batas waktu berlakunya entry
+     */
+    public record CachedPrincipal(UUID userId, User user, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private final ConcurrentHashMap<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+
+    // Dinaikkan setiap invalidasi agar hasil lookup yang dimulai sebelum
+    // logout tidak dimasukkan kembali ke cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    public AuthTokenCache(
+            @Value("${app.auth.token-cache.max-size:10000}") int maxSize,
+            @Value("${app.auth.token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Menghitung key cache dari token
+     *
+     * @param token JWT token
+     * @return hash SHA-256 dalam format hex
+     */
+    public String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    /**
+     * Mengambil principal untuk token yang sudah diverifikasi
+     *
+     * @param tokenHash hash token dari {@link #hash(String)}
+     * @return salinan user, null jika tidak ada atau sudah kedaluwarsa
+     */
+    public User get(String tokenHash) {
+        if (!isEnabled()) {
+            return null;
+        }
+        CachedPrincipal principal = entries.get(tokenHash);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.isExpired(System.currentTimeMillis())) {
+            entries.remove(tokenHash, principal);
+            return null;
+        }
+        // Salinan agar perubahan pada AuthContext tidak mengubah isi cache
+        return new User(principal.user());
+    }
+
+    /**
+     * Generasi saat ini, diambil sebelum verifikasi ke database
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Menyimpan principal hasil verifikasi
+     *
+     * @param tokenHash            hash token
+     * @param user                 user pemilik token
+     * @param observedGeneration   generasi sebelum verifikasi dimulai
+     * @param tokenExpiresAtMillis waktu expired JWT, entry tidak berlaku melewati waktu ini
+     */
+    public void put(String tokenHash, User user, long observedGeneration, long tokenExpiresAtMillis) {
+        if (!isEnabled() || user == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + ttlMillis, tokenExpiresAtMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(tokenHash, new CachedPrincipal(user.getId(), new User(user), expiresAt));
+
+        // Ada invalidasi di tengah verifikasi: buang lagi entry yang baru ditulis
+        if (generation.get() != observedGeneration) {
+            entries.remove(tokenHash);
+        }
+    }
+
+    /**
+     * Menghapus semua entry milik user (dipanggil saat token dihapus)
+     *
+     * @param userId UUID user
+     */
+    public void invalidateUser(UUID userId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(principal -> principal.userId().equals(userId));
+    }
+
+    /**
+     * Jumlah entry di cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    // Buang entry kedaluwarsa, jika masih penuh buang entry sembarang
+    private void evict(long now) {
+        entries.values().removeIf(principal -> principal.isExpired(now));
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -6,13 +6,17 @@ import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final AuthTokenCache authTokenCache;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, AuthTokenCache authTokenCache) {
         this.authTokenRepository = authTokenRepository;
+        this.authTokenCache = authTokenCache;
     }
 
     @Transactional(readOnly = true)
@@ -28,5 +32,17 @@ public class AuthTokenService {
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        authTokenCache.invalidateUser(userId);
+
+        // Invalidasi ulang setelah commit, karena request lain masih bisa
+        // membaca token lama sebelum penghapusan ter-commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    authTokenCache.invalidateUser(userId);
+                }
+            });
+        }
     }
 }
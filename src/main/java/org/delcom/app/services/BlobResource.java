@@ -0,0 +1,95 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Resource untuk blob di BlobStore, dipakai sebagai body ResponseEntity.
+ * Ukuran dan waktu modifikasi diambil dari metadata yang sudah dibaca, jadi
+ * Spring tidak perlu membaca isi blob untuk menghitungnya. Blob baru dibuka
+ * saat byte pertama dibaca; skip sebelum itu (dipakai Spring untuk request
+ * Range) menjadi offset range read, sehingga bagian sebelumnya tidak ikut
+ * dibaca dari storage.
+ */
+class BlobResource extends AbstractResource {
+
+    private final BlobStore blobStore;
+    private final StoredFile file;
+
+    BlobResource(BlobStore blobStore, StoredFile file) {
+        this.blobStore = blobStore;
+        this.file = file;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Blob [" + file.filename() + "]";
+    }
+
+    @Override
+    public String getFilename() {
+        return file.filename().substring(file.filename().lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new RangeInputStream();
+    }
+
+    private final class RangeInputStream extends InputStream {
+        private long offset;
+        private InputStream input;
+
+        private InputStream open() throws IOException {
+            if (input == null) {
+                input = blobStore.get(file.filename(), offset, -1);
+            }
+            return input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return open().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (input != null) {
+                return input.skip(n);
+            }
+            long skipped = Math.max(0, Math.min(n, file.size() - offset));
+            offset += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (input != null) {
+                input.close();
+            }
+        }
+    }
+}
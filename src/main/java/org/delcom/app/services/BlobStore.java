@@ -0,0 +1,134 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Penyimpanan isi file berdasarkan key (path relatif dengan pemisah "/", mis.
+ * "ab/cd/abcd...ef.jpg"). Implementasi: LocalDiskBlobStore untuk disk lokal
+ * dan S3BlobStore untuk object storage S3-compatible (AWS S3, MinIO, dll.),
+ * dipilih lewat app.storage.type (lihat StorageConfig).
+ *
+ * Semua method aman dipanggil dari banyak thread.
+ */
+public interface BlobStore {
+
+    /**
+     * Metadata blob
+     *
+     * @param key          key blob
+     * @param size         ukuran dalam bytes
+     * @param lastModified waktu modifikasi terakhir (epoch millis)
+     * @param contentType  content type, null jika tidak diketahui
+     */
+    record BlobInfo(String key, long size, long lastModified, String contentType) {
+    }
+
+    /**
+     * Request HTTP yang sudah ditandatangani, sehingga klien bisa membaca atau
+     * menulis blob langsung ke storage tanpa melewati aplikasi
+     *
+     * @param url       URL lengkap termasuk signature
+     * @param method    method HTTP (GET atau PUT)
+     * @param headers   header yang wajib dikirim klien apa adanya
+     * @param expiresAt batas waktu URL bisa dipakai
+     */
+    record PresignedRequest(URI url, String method, Map<String, String> headers, Instant expiresAt) {
+    }
+
+    /**
+     * Menyimpan blob dari stream; blob dengan key yang sama diganti. Pembaca
+     * tidak pernah melihat blob yang setengah tertulis.
+     *
+     * @param input       isi blob, dibaca sampai habis (tidak ditutup)
+     * @param contentType content type, boleh null
+     */
+    void put(String key, InputStream input, String contentType) throws IOException;
+
+    /**
+     * Menyimpan blob dari file lokal. File sumber boleh dipindah atau dihapus
+     * oleh implementasi; pemanggil tetap bertanggung jawab menghapusnya jika
+     * masih ada.
+     */
+    default void put(String key, Path source, String contentType) throws IOException {
+        try (InputStream input = Files.newInputStream(source)) {
+            put(key, input, contentType);
+        }
+    }
+
+    /**
+     * Membuka isi blob
+     *
+     * @throws NoSuchFileException jika blob tidak ada
+     */
+    default InputStream get(String key) throws IOException {
+        return get(key, 0, -1);
+    }
+
+    /**
+     * Membuka sebagian isi blob (range read). Range yang melewati akhir blob
+     * dipotong; offset di atau setelah akhir blob menghasilkan stream kosong.
+     *
+     * @param offset byte pertama yang dibaca
+     * @param length jumlah byte maksimal, -1 untuk sampai akhir blob
+     * @throws NoSuchFileException jika blob tidak ada
+     */
+    InputStream get(String key, long offset, long length) throws IOException;
+
+    /**
+     * @return true jika blob dihapus, false jika memang tidak ada
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * @return metadata blob, null jika blob tidak ada
+     */
+    BlobInfo stat(String key) throws IOException;
+
+    /**
+     * Daftar blob yang key-nya diawali prefix. Daftar dibaca bertahap selama
+     * stream dikonsumsi, jadi jumlah blob tidak dibatasi memori; stream harus
+     * ditutup. contentType selalu null.
+     *
+     * @param prefix awalan key, "" untuk semua blob
+     * @throws java.io.UncheckedIOException dari stream jika gagal membaca
+     *                                      bagian daftar berikutnya
+     */
+    Stream<BlobInfo> list(String prefix) throws IOException;
+
+    /**
+     * @return true jika presignGet dan presignPut didukung
+     */
+    default boolean supportsPresignedUrls() {
+        return false;
+    }
+
+    /**
+     * URL untuk membaca blob langsung dari storage
+     *
+     * @return null jika tidak didukung
+     */
+    default PresignedRequest presignGet(String key) {
+        return null;
+    }
+
+    /**
+     * URL untuk menulis blob langsung ke storage. Storage menolak isi yang
+     * SHA-256-nya tidak sama dengan sha256, sehingga key content-addressed
+     * tetap sesuai isinya.
+     *
+     * @param contentType content type yang wajib dikirim klien
+     * @param sha256      SHA-256 isi blob dalam hex huruf kecil
+     * @return null jika tidak didukung
+     */
+    default PresignedRequest presignPut(String key, String contentType, String sha256) {
+        return null;
+    }
+}
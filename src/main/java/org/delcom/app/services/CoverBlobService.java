@@ -0,0 +1,143 @@
+package org.delcom.app.services;
+
+import java.time.LocalDateTime;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.entities.CoverBlob;
+import org.delcom.app.repositories.CoverBlobRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reference count file cover content-addressed (lihat
+ * FileStorageService.storeFile). Dipanggil dalam transaksi yang sama dengan
+ * perubahan kolom cover lagu.
+ *
+ * Melepas referensi terakhir tidak menghapus file: record tetap ada dengan
+ * ref_count 0, dan file baru dihapus oleh collect (dari OrphanedFileCollector)
+ * sambil memegang lock record yang sama dengan acquire.
+ */
+@Service
+public class CoverBlobService {
+    private final CoverBlobRepository coverBlobRepository;
+    private final FileStorageService fileStorageService;
+    private final CoverThumbnailService coverThumbnailService;
+    private final DatabaseProduct databaseProduct;
+
+    public CoverBlobService(CoverBlobRepository coverBlobRepository, FileStorageService fileStorageService,
+            CoverThumbnailService coverThumbnailService, DatabaseProduct databaseProduct) {
+        this.coverBlobRepository = coverBlobRepository;
+        this.fileStorageService = fileStorageService;
+        this.coverThumbnailService = coverThumbnailService;
+        this.databaseProduct = databaseProduct;
+    }
+
+    /**
+     * Menambah satu referensi ke file cover. Referensi pertama juga
+     * menjadwalkan pembuatan thumbnail.
+     *
+     * @param filename nama file cover hasil storeFile
+     * @throws IllegalStateException jika file sudah dihapus oleh collector
+     *                               yang berjalan bersamaan
+     */
+    @Transactional
+    public void acquire(String filename) {
+        CoverBlob blob = lockOrCreate(filename);
+        if (blob.increment() == 1) {
+            // Dicek di bawah lock: collect yang menghapus file ini sudah commit
+            if (!fileStorageService.fileExists(filename)) {
+                throw new IllegalStateException("File cover tidak ditemukan: " + filename);
+            }
+            coverThumbnailService.enqueue(filename);
+        }
+        coverBlobRepository.save(blob);
+    }
+
+    /**
+     * Melepas satu referensi ke file cover. File cover content-addressed
+     * tidak dihapus di sini; record dengan ref_count 0 dibersihkan oleh
+     * collect setelah grace period.
+     *
+     * @param filename nama file cover
+     * @return true jika file cover tidak tercatat (cover lama song_cover_{id}
+     *         yang selalu milik satu lagu) dan boleh langsung dihapus oleh
+     *         pemanggil setelah commit
+     */
+    @Transactional
+    public boolean release(String filename) {
+        CoverBlob blob = coverBlobRepository.findByFilenameForUpdate(filename).orElse(null);
+        if (blob != null) {
+            blob.decrement();
+            coverBlobRepository.save(blob);
+            return false;
+        }
+        coverThumbnailService.remove(filename);
+        return true;
+    }
+
+    /**
+     * Menghapus file cover yang tidak dipakai lagi, beserta thumbnail dan
+     * record-nya. File dihapus selama record terkunci, sehingga acquire yang
+     * berjalan bersamaan menunggu lalu mendapati file sudah tidak ada
+     * (IllegalStateException), bukan merujuk file yang sedang dihapus.
+     *
+     * @param filename       nama file cover
+     * @param releasedBefore hanya jika ref_count menjadi 0 sebelum waktu ini
+     * @return true jika record dihapus
+     */
+    @Transactional
+    public boolean collect(String filename, LocalDateTime releasedBefore) {
+        return collectLocked(filename, releasedBefore);
+    }
+
+    /**
+     * Menghapus file cover content-addressed yang tidak punya record, mis.
+     * dari request yang gagal setelah upload. Upload ulang dengan isi yang
+     * sama tidak mengubah mtime file, jadi grace period dari mtime saja tidak
+     * cukup: record ref_count 0 dibuat lebih dulu sebagai tombstone (updated_at
+     * = modifiedBefore) agar penghapusan memakai lock yang sama dengan acquire.
+     *
+     * @param filename       nama file cover
+     * @param modifiedBefore batas grace period
+     * @return true jika file dihapus
+     */
+    @Transactional
+    public boolean collectUnrecorded(String filename, LocalDateTime modifiedBefore) {
+        // Jika sudah punya record, ref_count dan updated_at-nya yang menentukan
+        insertEmpty(filename, LocalDateTime.now(), modifiedBefore);
+        return collectLocked(filename, modifiedBefore);
+    }
+
+    private boolean collectLocked(String filename, LocalDateTime releasedBefore) {
+        CoverBlob blob = coverBlobRepository.findByFilenameForUpdate(filename).orElse(null);
+        if (blob == null || blob.getRefCount() > 0 || blob.getUpdatedAt().isAfter(releasedBefore)) {
+            return false;
+        }
+        fileStorageService.deleteFile(filename);
+        coverThumbnailService.purge(filename);
+        coverBlobRepository.delete(blob);
+        return true;
+    }
+
+    // Mengunci record file cover, membuatnya lebih dulu (ref_count 0) jika
+    // belum ada. INSERT dijalankan dalam transaksi pemanggil tanpa koneksi
+    // kedua dan tanpa error jika record sudah ada: dua acquire pertama untuk
+    // file yang sama tidak bisa sama-sama membuat record, yang kalah menunggu
+    // lalu mengunci record pemenang.
+    private CoverBlob lockOrCreate(String filename) {
+        return coverBlobRepository.findByFilenameForUpdate(filename).orElseGet(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            insertEmpty(filename, now, now);
+            // Kosong jika collect menghapus record di antaranya
+            return coverBlobRepository.findByFilenameForUpdate(filename)
+                    .orElseThrow(() -> new IllegalStateException("File cover tidak ditemukan: " + filename));
+        });
+    }
+
+    private int insertEmpty(String filename, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        if (databaseProduct.isPostgreSql()) {
+            return coverBlobRepository.insertEmptyIfAbsent(filename, createdAt, updatedAt);
+        }
+        return coverBlobRepository.insertEmptyIfMissing(filename, createdAt, updatedAt);
+    }
+}
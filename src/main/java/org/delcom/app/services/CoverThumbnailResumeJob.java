@@ -0,0 +1,38 @@
+package org.delcom.app.services;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CoverThumbnailResumeJob implements ApplicationListener<ApplicationReadyEvent> {
+    private final CoverThumbnailService coverThumbnailService;
+
+    public CoverThumbnailResumeJob(CoverThumbnailService coverThumbnailService) {
+        this.coverThumbnailService = coverThumbnailService;
+    }
+
+    // Melanjutkan job yang tertinggal saat aplikasi berhenti
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        resume();
+    }
+
+    /**
+     * Mengirim ulang job thumbnail yang masih PENDING: job yang tidak masuk
+     * antrian, gagal sementara, atau cover-nya diganti saat sedang diproses.
+     * Jadwal diatur lewat app.thumbnail.resume-cron ("-" = nonaktif).
+     *
+     * @return jumlah job yang dikirim ke worker
+     */
+    @Scheduled(cron = "${app.thumbnail.resume-cron:0 * * * * *}")
+    public int resume() {
+        try {
+            return coverThumbnailService.resumePending();
+        } catch (Exception e) {
+            System.err.println("Error resuming cover thumbnail jobs: " + e.getMessage());
+            return 0;
+        }
+    }
+}
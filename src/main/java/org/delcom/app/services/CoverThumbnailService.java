@@ -0,0 +1,477 @@
+package org.delcom.app.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.delcom.app.dto.CoverThumbnailHashRow;
+import org.delcom.app.entities.CoverThumbnail;
+import org.delcom.app.repositories.CoverThumbnailRepository;
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.delcom.app.utils.ConstUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pembuatan thumbnail cover (64, 256 dan 640 px) di background. Job disimpan
+ * di tabel cover_thumbnails lalu dikerjakan oleh worker pool dengan antrian
+ * terbatas. Job yang tidak masuk antrian, gagal sementara atau terputus oleh
+ * restart tetap PENDING dan diambil lagi oleh resumePending.
+ *
+ * Rendition disimpan di samping file asli sebagai {nama}_{ukuran}.jpg dan
+ * dicatat bersama SHA-256 isinya, yang dipakai sebagai ETag dan versi URL.
+ *
+ * Dimensi gambar dibaca dari header sebelum decode: gambar di atas
+ * app.thumbnail.max-source-pixels ditolak, dan gambar besar di-decode dengan
+ * subsampling sehingga memori worker tidak bergantung pada dimensi upload.
+ */
+@Service
+public class CoverThumbnailService {
+    private static final String RENDITION_FORMAT = "jpg";
+    private static final String RENDITION_CONTENT_TYPE = "image/jpeg";
+    // Jumlah nama file per query IN di getThumbnailHashes
+    private static final int HASH_BATCH_SIZE = 500;
+
+    private final CoverThumbnailRepository coverThumbnailRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long maxSourcePixels;
+    private final ThreadPoolExecutor executor;
+    // Job yang sedang antre atau dikerjakan di instance ini
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public CoverThumbnailService(CoverThumbnailRepository coverThumbnailRepository,
+            FileStorageService fileStorageService, PlatformTransactionManager transactionManager,
+            @Value("${app.thumbnail.workers:2}") int workers,
+            @Value("${app.thumbnail.queue-capacity:100}") int queueCapacity,
+            @Value("${app.thumbnail.max-attempts:3}") int maxAttempts,
+            @Value("${app.thumbnail.max-source-pixels:40000000}") long maxSourcePixels) {
+        this.coverThumbnailRepository = coverThumbnailRepository;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.maxSourcePixels = Math.max(1, maxSourcePixels);
+
+        int threads = Math.max(1, workers);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cover-thumbnail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Rendition yang siap disajikan
+     *
+     * @param file metadata file rendition
+     * @param hash SHA-256 isi file rendition
+     */
+    public record Thumbnail(StoredFile file, String hash) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Job yang belum selesai tetap PENDING dan dilanjutkan setelah start
+        executor.shutdownNow();
+    }
+
+    /**
+     * Mencatat job thumbnail untuk file cover yang baru diupload (dalam
+     * transaksi yang sama), lalu mengirimnya ke worker setelah commit
+     *
+     * @param filename nama file cover asli
+     */
+    @Transactional
+    public void enqueue(String filename) {
+        CoverThumbnail job = coverThumbnailRepository.findByFilenameForUpdate(filename)
+                .orElseGet(() -> new CoverThumbnail(filename));
+        job.reset();
+        coverThumbnailRepository.save(job);
+        afterCommit(() -> submit(filename));
+    }
+
+    /**
+     * Menghapus job dan file rendition milik cover yang dihapus. File
+     * rendition dihapus setelah commit.
+     *
+     * @param filename nama file cover asli
+     */
+    @Transactional
+    public void remove(String filename) {
+        coverThumbnailRepository.deleteById(filename);
+        afterCommit(() -> deleteRenditions(filename));
+    }
+
+    /**
+     * Seperti remove, tetapi file rendition langsung dihapus. Dipanggil selagi
+     * record cover masih terkunci (CoverBlobService.collect), agar tidak ada
+     * penghapusan setelah commit yang mengenai rendition dari acquire berikutnya.
+     *
+     * @param filename nama file cover asli
+     */
+    @Transactional
+    public void purge(String filename) {
+        coverThumbnailRepository.deleteById(filename);
+        deleteRenditions(filename);
+    }
+
+    /**
+     * Mengirim ulang job PENDING ke worker sebanyak sisa kapasitas antrian,
+     * dipanggil saat aplikasi start dan secara berkala
+     *
+     * @return jumlah job yang dikirim ke worker
+     */
+    public int resumePending() {
+        int free = queueCapacity - executor.getQueue().size();
+        if (free <= 0) {
+            return 0;
+        }
+        List<String> filenames = coverThumbnailRepository.findFilenamesByStatus(CoverThumbnail.STATUS_PENDING,
+                Limit.of(free));
+        int submitted = 0;
+        for (String filename : filenames) {
+            if (submit(filename)) {
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Mencari rendition yang sudah jadi untuk ukuran tertentu
+     *
+     * @param filename nama file cover asli
+     * @param size     ukuran rendition (lihat ConstUtil.COVER_THUMBNAIL_SIZES)
+     * @return rendition dan hash-nya, null jika belum ada atau ukuran tidak didukung
+     */
+    public Thumbnail findThumbnail(String filename, int size) {
+        String hash = getThumbnailHash(filename, size);
+        if (hash == null) {
+            return null;
+        }
+        StoredFile file = fileStorageService.getStoredFile(renditionName(filename, size));
+        return file != null ? new Thumbnail(file, hash) : null;
+    }
+
+    /**
+     * Nama file rendition yang sudah jadi, tanpa membaca metadata file dari
+     * storage (untuk presigned URL)
+     *
+     * @return nama rendition, null jika belum ada atau ukuran tidak didukung
+     */
+    public String findThumbnailName(String filename, int size) {
+        return getThumbnailHash(filename, size) != null ? renditionName(filename, size) : null;
+    }
+
+    /**
+     * Hash rendition untuk membangun URL thumbnail yang bisa di-cache permanen
+     * (/songs/cover/{filename}?size={ukuran}&v={hash})
+     *
+     * @return hash rendition, null jika belum ada
+     */
+    public String getThumbnailHash(String filename, int size) {
+        if (filename == null || !isSupportedSize(size)) {
+            return null;
+        }
+        return coverThumbnailRepository.findHash(filename, CoverThumbnail.STATUS_READY, size).orElse(null);
+    }
+
+    /**
+     * Seperti getThumbnailHash untuk banyak cover sekaligus, mis. semua tile
+     * di halaman daftar lagu: satu query per HASH_BATCH_SIZE nama file, bukan
+     * satu query per lagu
+     *
+     * @param filenames nama file cover asli (null dan duplikat diabaikan)
+     * @return nama file cover -> hash rendition; cover yang rendition-nya
+     *         belum ada tidak masuk map
+     */
+    public Map<String, String> getThumbnailHashes(Collection<String> filenames, int size) {
+        Map<String, String> hashes = new HashMap<>();
+        if (!isSupportedSize(size)) {
+            return hashes;
+        }
+        List<String> distinct = filenames.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < distinct.size(); from += HASH_BATCH_SIZE) {
+            List<String> batch = new ArrayList<>(
+                    distinct.subList(from, Math.min(from + HASH_BATCH_SIZE, distinct.size())));
+            for (CoverThumbnailHashRow row : coverThumbnailRepository.findHashes(batch,
+                    CoverThumbnail.STATUS_READY, size)) {
+                hashes.put(row.getFilename(), row.getHash());
+            }
+        }
+        return hashes;
+    }
+
+    public static boolean isSupportedSize(int size) {
+        for (int supported : ConstUtil.COVER_THUMBNAIL_SIZES) {
+            if (supported == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // song_cover_{id}.png -> song_cover_{id}_256.jpg
+    static String renditionName(String filename, int size) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        return base + "_" + size + "." + RENDITION_FORMAT;
+    }
+
+    /**
+     * Kebalikan renditionName: nama cover tanpa ekstensi, mis.
+     * "ab/cd/abcd_256.jpg" -> "ab/cd/abcd"
+     *
+     * @return null jika nama bukan nama thumbnail
+     */
+    static String renditionBase(String name) {
+        int underscore = name.lastIndexOf('_');
+        String suffix = "." + RENDITION_FORMAT;
+        if (underscore <= 0 || !name.endsWith(suffix)) {
+            return null;
+        }
+        String size = name.substring(underscore + 1, name.length() - suffix.length());
+        if (size.isEmpty() || size.length() > 4 || !size.chars().allMatch(Character::isDigit)
+                || !isSupportedSize(Integer.parseInt(size))) {
+            return null;
+        }
+        return name.substring(0, underscore);
+    }
+
+    // false jika job sudah berjalan atau antrian penuh (job tetap PENDING)
+    private boolean submit(String filename) {
+        if (!inFlight.add(filename)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(filename);
+                } finally {
+                    inFlight.remove(filename);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(filename);
+            return false;
+        }
+    }
+
+    /**
+     * Mengerjakan satu job. Hasil hanya disimpan jika job tidak di-reset atau
+     * dihapus selama diproses (cover diganti lagi); job yang di-reset akan
+     * dikerjakan ulang oleh resumePending.
+     */
+    void process(String filename) {
+        CoverThumbnail job = coverThumbnailRepository.findById(filename).orElse(null);
+        if (job == null || !CoverThumbnail.STATUS_PENDING.equals(job.getStatus())) {
+            return;
+        }
+        LocalDateTime queuedAt = job.getUpdatedAt();
+
+        Map<Integer, String> hashes;
+        try {
+            hashes = generate(filename);
+        } catch (IOException | RuntimeException | Error e) {
+            // Error (mis. OutOfMemoryError) juga dihitung sebagai percobaan
+            // gagal, agar job tidak tetap PENDING dan dikirim ulang terus
+            System.err.println("Error generating cover thumbnails: " + filename + " - " + e);
+            hashes = null;
+        }
+
+        Map<Integer, String> result = hashes;
+        transactionTemplate.executeWithoutResult(status -> {
+            CoverThumbnail current = coverThumbnailRepository.findByFilenameForUpdate(filename).orElse(null);
+            if (current == null || !Objects.equals(current.getUpdatedAt(), queuedAt)) {
+                return;
+            }
+            if (result != null) {
+                current.markReady(result);
+            } else {
+                current.markAttemptFailed(maxAttempts);
+            }
+            coverThumbnailRepository.save(current);
+        });
+    }
+
+    /**
+     * Membuat semua rendition dari file cover asli
+     *
+     * @return ukuran rendition -> SHA-256 isi file
+     * @throws IOException jika file tidak ada, bukan gambar yang bisa dibaca
+     *                     atau dimensinya melebihi batas
+     */
+    Map<Integer, String> generate(String filename) throws IOException {
+        BufferedImage source;
+        try (InputStream input = fileStorageService.loadFile(filename)) {
+            source = read(input);
+        } catch (NoSuchFileException e) {
+            throw new IOException("File cover tidak ditemukan", e);
+        }
+
+        Map<Integer, String> hashes = new TreeMap<>();
+        for (int size : ConstUtil.COVER_THUMBNAIL_SIZES) {
+            hashes.put(size, write(scale(source, size), renditionName(filename, size)));
+        }
+        return hashes;
+    }
+
+    // Membaca dimensi dari header lebih dulu, lalu decode dengan subsampling
+    // agar gambar besar tidak pernah di-decode dengan resolusi penuh
+    private BufferedImage read(InputStream input) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Format gambar tidak didukung");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Dimensi gambar terlalu besar: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = subsampling(width, height);
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Faktor subsampling saat decode: sisi terpanjang hasil decode tetap
+     * minimal dua kali rendition terbesar, supaya scale masih punya detail
+     * untuk diperhalus.
+     */
+    static int subsampling(int width, int height) {
+        int largest = 0;
+        for (int size : ConstUtil.COVER_THUMBNAIL_SIZES) {
+            largest = Math.max(largest, size);
+        }
+        return Math.max(1, Math.max(width, height) / (largest * 2));
+    }
+
+    /**
+     * Mengecilkan gambar agar muat di kotak size x size dengan rasio tetap.
+     * Gambar tidak pernah diperbesar. Skala diturunkan bertahap (maksimal
+     * setengah per langkah) agar hasil bilinear tetap halus.
+     */
+    static BufferedImage scale(BufferedImage source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                // JPEG tidak punya alpha, area transparan diisi putih
+                graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // Rendition kecil (puluhan KB), jadi di-encode dan di-hash di memori lalu
+    // disimpan sekali lewat BlobStore, yang tidak pernah memperlihatkan
+    // rendition yang setengah jadi ke request
+    private String write(BufferedImage image, String target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new DigestOutputStream(buffer, digest)) {
+            if (!ImageIO.write(image, RENDITION_FORMAT, out)) {
+                throw new IOException("Writer " + RENDITION_FORMAT + " tidak tersedia");
+            }
+        }
+        fileStorageService.saveFile(target, new ByteArrayInputStream(buffer.toByteArray()), RENDITION_CONTENT_TYPE);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void deleteRenditions(String filename) {
+        for (int size : ConstUtil.COVER_THUMBNAIL_SIZES) {
+            fileStorageService.deleteFile(renditionName(filename, size));
+        }
+    }
+
+    // Tanpa transaksi aktif (mis. dipanggil langsung) task dijalankan segera
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+}
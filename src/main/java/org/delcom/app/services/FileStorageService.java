@@ -1,50 +1,193 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.ImageType;
+import org.delcom.app.services.BlobStore.BlobInfo;
+import org.delcom.app.services.BlobStore.PresignedRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Penyimpanan file cover. Isi file disimpan di BlobStore (disk lokal atau
+ * object storage S3-compatible, lihat StorageConfig); upload directory hanya
+ * dipakai untuk file sementara selama upload di-hash.
+ */
 @Service
 public class FileStorageService {
-    
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern CONTENT_ADDRESSED_NAME =
+            Pattern.compile("([0-9a-f]{2})/([0-9a-f]{2})/\\1\\2[0-9a-f]{60}(\\.[a-z0-9]+)?");
+    // Ekstensi dari nama file klien ikut menjadi bagian path, jadi dibatasi
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final BlobStore blobStore;
+
     @Value("${app.upload.dir:./uploads}")
     protected String uploadDir;
 
+    public FileStorageService(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
     /**
-     * Menyimpan file cover untuk song
+     * Metadata file cover untuk disajikan lewat HTTP
+     *
+     * @param filename     nama file (key di BlobStore)
+     * @param size         ukuran dalam bytes
+     * @param lastModified waktu modifikasi terakhir (epoch millis)
+     * @param contentType  content type file
+     */
+    public record StoredFile(String filename, long size, long lastModified, String contentType) {
+
+        /**
+         * Versi isi file (waktu modifikasi + ukuran), dipakai sebagai ETag dan
+         * parameter v pada URL cover
+         */
+        public String version() {
+            return Long.toHexString(lastModified) + "-" + Long.toHexString(size);
+        }
+    }
+
+    /**
+     * Upload cover langsung dari browser ke storage
+     *
+     * @param filename nama file content-addressed yang akan dipakai sebagai cover
+     * @param request  presigned PUT, null jika file dengan isi yang sama sudah ada
+     */
+    public record DirectUpload(String filename, PresignedRequest request) {
+    }
+
+    /**
+     * Menyimpan file cover secara content-addressed: nama file adalah SHA-256
+     * isinya (dihitung sambil menyalin) dengan fan-out dua tingkat direktori,
+     * mis. "3f/a2/3fa2...c1.jpg". Isi yang sama hanya disimpan sekali; jumlah
+     * lagu yang memakainya dicatat oleh CoverBlobService. Ekstensi gambar
+     * diambil dari magic bytes, file lain memakai ekstensi nama file klien.
      * @param file MultipartFile yang akan disimpan
-     * @param songId UUID dari song
-     * @return nama file yang tersimpan
+     * @return nama file (key di BlobStore)
      * @throws IOException jika terjadi error saat menyimpan file
      */
-    public String storeFile(MultipartFile file, UUID songId) throws IOException {
+    public String storeFile(MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return store(input, getFileExtension(file.getOriginalFilename()), false, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Menyimpan gambar cover langsung dari body request (tanpa multipart),
+     * dengan penamaan yang sama seperti storeFile. Body hanya dibaca sekali
+     * dan tidak pernah ditampung utuh di memori.
+     * @param input body request (tidak ditutup)
+     * @param maxSize ukuran maksimal dalam bytes
+     * @return nama file (key di BlobStore)
+     * @throws IllegalArgumentException jika isi bukan gambar JPG, PNG, GIF atau WebP
+     * @throws MaxUploadSizeExceededException jika body lebih besar dari maxSize
+     * @throws IOException jika terjadi error saat membaca body atau menyimpan file
+     */
+    public String storeImage(InputStream input, long maxSize) throws IOException {
+        return store(input, null, true, maxSize);
+    }
+
+    // Satu kali jalan: blok pertama dipakai untuk mengenali jenis gambar, lalu
+    // setiap blok di-hash dan ditulis lewat FileChannel ke file sementara di
+    // upload directory, yang kemudian diserahkan ke BlobStore dengan nama
+    // akhirnya (di disk lokal cukup di-rename, tanpa menyalin isinya)
+    private String store(InputStream input, String fallbackExtension, boolean imageOnly, long maxSize)
+            throws IOException {
+        ReadableByteChannel source = Channels.newChannel(input);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        // Body bisa datang dalam potongan kecil, header dibaca sampai lengkap
+        int read = 0;
+        while (buffer.position() < ImageType.HEADER_LENGTH && read != -1) {
+            read = source.read(buffer);
+        }
+        ImageType type = ImageType.detect(buffer.array(), buffer.position());
+        if (imageOnly && type == null) {
+            throw new IllegalArgumentException("Format file tidak didukung");
+        }
+
         // Buat directory jika belum ada
         Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename dengan prefix 'song_cover_'
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
+        MessageDigest digest = sha256();
+        long size = 0;
+        Path temp = Files.createTempFile(uploadPath, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                do {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxSize) {
+                        throw new MaxUploadSizeExceededException(maxSize);
+                    }
+                    digest.update(buffer);
+                    buffer.rewind();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                } while (source.read(buffer) != -1);
+            }
+            String filename = contentAddressedName(HexFormat.of().formatHex(digest.digest()),
+                    type != null ? type.getExtension() : fallbackExtension);
 
-        String filename = "song_cover_" + songId.toString() + fileExtension;
+            // File yang sudah ada tidak ditulis ulang agar versi (mtime) tetap sama
+            if (blobStore.stat(filename) == null) {
+                blobStore.put(filename, temp, type != null ? type.getContentType() : DEFAULT_CONTENT_TYPE);
+            }
+            return filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Nama file content-addressed dari hash isi
+     * @param hash SHA-256 dalam hex huruf kecil
+     * @param extension ekstensi tanpa titik, boleh null
+     * @return mis. "3f/a2/3fa2...c1.jpg"
+     */
+    public static String contentAddressedName(String hash, String extension) {
+        String name = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+        return extension != null ? name + "." + extension : name;
+    }
 
-        return filename;
+    /**
+     * Mengecek apakah nama file content-addressed, sehingga isinya tidak
+     * pernah berubah untuk nama yang sama
+     * @param filename nama file relatif
+     * @return true jika nama berasal dari contentAddressedName
+     */
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && CONTENT_ADDRESSED_NAME.matcher(filename).matches();
     }
 
     /**
@@ -56,12 +199,6 @@ public class FileStorageService {
      * @throws IOException jika terjadi error saat menyimpan file
      */
     public String storeFileWithPrefix(MultipartFile file, UUID entityId, String prefix) throws IOException {
-        // Buat directory jika belum ada
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
         // Generate unique filename dengan custom prefix
         String originalFilename = file.getOriginalFilename();
         String fileExtension = "";
@@ -72,12 +209,25 @@ public class FileStorageService {
         String filename = prefix + "_" + entityId.toString() + fileExtension;
 
         // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        try (InputStream input = file.getInputStream()) {
+            blobStore.put(filename, input, file.getContentType());
+        }
 
         return filename;
     }
 
+    /**
+     * Menyimpan file dengan nama tertentu (mis. thumbnail cover); isi lama
+     * dengan nama yang sama diganti
+     * @param filename nama file (key di BlobStore)
+     * @param input isi file (tidak ditutup)
+     * @param contentType content type file
+     * @throws IOException jika terjadi error saat menyimpan file
+     */
+    public void saveFile(String filename, InputStream input, String contentType) throws IOException {
+        blobStore.put(filename, input, contentType);
+    }
+
     /**
      * Menghapus file berdasarkan filename
      * @param filename nama file yang akan dihapus
@@ -88,8 +238,7 @@ public class FileStorageService {
             if (filename == null || filename.isBlank()) {
                 return false;
             }
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
+            return blobStore.delete(filename);
         } catch (IOException e) {
             System.err.println("Error deleting file: " + filename + " - " + e.getMessage());
             return false;
@@ -97,12 +246,61 @@ public class FileStorageService {
     }
 
     /**
-     * Memuat file berdasarkan filename
+     * Membuka isi file berdasarkan filename
      * @param filename nama file yang akan dimuat
-     * @return Path dari file
+     * @return isi file, harus ditutup oleh pemanggil
+     * @throws NoSuchFileException jika file tidak ada
+     * @throws IOException jika terjadi error saat membuka file
+     */
+    public InputStream loadFile(String filename) throws IOException {
+        return blobStore.get(filename);
+    }
+
+    /**
+     * Memuat metadata file cover dengan satu kali stat ke BlobStore. Nama
+     * file yang keluar dari penyimpanan (mis. "..") dianggap tidak ada.
+     *
+     * @param filename nama file cover
+     * @return metadata file, null jika file tidak ada atau tidak bisa dibaca
+     */
+    public StoredFile getStoredFile(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return null;
+        }
+        try {
+            BlobInfo info = blobStore.stat(filename);
+            if (info == null) {
+                return null;
+            }
+            return new StoredFile(filename, info.size(), info.lastModified(),
+                    info.contentType() != null ? info.contentType() : DEFAULT_CONTENT_TYPE);
+        } catch (IOException e) {
+            System.err.println("Error reading file metadata: " + filename + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Body response untuk file dari getStoredFile. Isi file baru dibaca saat
+     * response ditulis, dan request Range hanya membaca bagian yang diminta.
+     *
+     * @param file metadata file
+     * @return resource yang membaca isi file dari BlobStore
+     */
+    public Resource getResource(StoredFile file) {
+        return new BlobResource(blobStore, file);
+    }
+
+    /**
+     * Versi file cover untuk membangun URL yang bisa di-cache permanen
+     * (/songs/cover/{filename}?v={versi})
+     *
+     * @param filename nama file cover
+     * @return versi file, null jika file tidak ada
      */
-    public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+    public String getVersion(String filename) {
+        StoredFile file = getStoredFile(filename);
+        return file != null ? file.version() : null;
     }
 
     /**
@@ -111,10 +309,7 @@ public class FileStorageService {
      * @return true jika file ada, false jika tidak ada
      */
     public boolean fileExists(String filename) {
-        if (filename == null || filename.isBlank()) {
-            return false;
-        }
-        return Files.exists(loadFile(filename));
+        return getStoredFile(filename) != null;
     }
 
     /**
@@ -123,30 +318,22 @@ public class FileStorageService {
      * @return ukuran file dalam bytes, -1 jika file tidak ada
      */
     public long getFileSize(String filename) {
-        try {
-            if (!fileExists(filename)) {
-                return -1;
-            }
-            Path filePath = loadFile(filename);
-            return Files.size(filePath);
-        } catch (IOException e) {
-            System.err.println("Error getting file size: " + filename + " - " + e.getMessage());
-            return -1;
-        }
+        StoredFile file = getStoredFile(filename);
+        return file != null ? file.size() : -1;
     }
 
     /**
      * Mendapatkan content type dari file
      * @param filename nama file
-     * @return content type string, null jika tidak dapat ditentukan
+     * @return content type string, null jika file tidak ada atau content type tidak dapat ditentukan
      */
     public String getContentType(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return null;
+        }
         try {
-            if (!fileExists(filename)) {
-                return null;
-            }
-            Path filePath = loadFile(filename);
-            return Files.probeContentType(filePath);
+            BlobInfo info = blobStore.stat(filename);
+            return info != null ? info.contentType() : null;
         } catch (IOException e) {
             System.err.println("Error getting content type: " + filename + " - " + e.getMessage());
             return null;
@@ -154,24 +341,101 @@ public class FileStorageService {
     }
 
     /**
-     * Validasi apakah file adalah gambar yang valid
-     * @param file MultipartFile yang akan divalidasi
-     * @return true jika valid, false jika tidak
+     * @return true jika cover bisa dibaca dan diupload langsung ke storage
+     *         lewat presigned URL (tanpa melewati aplikasi)
      */
-    public boolean isValidImage(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            return false;
+    public boolean isDirectTransferSupported() {
+        return blobStore.supportsPresignedUrls();
+    }
+
+    /**
+     * Presigned URL untuk membaca file langsung dari storage
+     * @param filename nama file
+     * @return presigned GET, null jika storage tidak mendukung presigned URL
+     */
+    public PresignedRequest presignDownload(String filename) {
+        return blobStore.presignGet(filename);
+    }
+
+    /**
+     * Menyiapkan upload gambar cover langsung dari browser ke storage. Nama
+     * file dibangun dari hash isi seperti storeImage, dan storage menolak isi
+     * yang hash-nya berbeda. Isinya tetap harus diperiksa lewat
+     * verifyUploadedImage sebelum dipakai.
+     * @param sha256 SHA-256 isi file (hex) dari klien
+     * @param size ukuran file dari klien
+     * @param contentType content type gambar dari klien
+     * @param maxSize ukuran maksimal dalam bytes
+     * @return nama file dan presigned PUT (null jika isi yang sama sudah tersimpan)
+     * @throws IllegalArgumentException jika hash atau content type tidak valid
+     * @throws MaxUploadSizeExceededException jika size lebih besar dari maxSize
+     * @throws UnsupportedOperationException jika storage tidak mendukung presigned URL
+     * @throws IOException jika terjadi error saat mengecek storage
+     */
+    public DirectUpload prepareImageUpload(String sha256, long size, String contentType, long maxSize)
+            throws IOException {
+        if (!blobStore.supportsPresignedUrls()) {
+            throw new UnsupportedOperationException("Storage tidak mendukung upload langsung");
+        }
+        ImageType type = ImageType.fromContentType(contentType);
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches() || type == null || size <= 0) {
+            throw new IllegalArgumentException("Data upload tidak valid");
+        }
+        if (size > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
         }
 
-        String contentType = file.getContentType();
-        if (contentType == null) {
-            return false;
+        String filename = contentAddressedName(sha256, type.getExtension());
+        if (blobStore.stat(filename) != null) {
+            return new DirectUpload(filename, null);
         }
+        return new DirectUpload(filename, blobStore.presignPut(filename, type.getContentType(), sha256));
+    }
 
-        return contentType.equals("image/jpeg") ||
-               contentType.equals("image/png") ||
-               contentType.equals("image/gif") ||
-               contentType.equals("image/webp");
+    /**
+     * Memeriksa file yang diupload langsung ke storage sebelum dipakai
+     * sebagai cover: nama harus content-addressed, ukuran tidak melebihi
+     * maxSize dan magic bytes sesuai ekstensinya. Hanya HEADER_LENGTH byte
+     * pertama yang dibaca (range read). File yang tidak lolos dihapus.
+     * @param filename nama file dari prepareImageUpload
+     * @param maxSize ukuran maksimal dalam bytes
+     * @throws NoSuchFileException jika file belum diupload
+     * @throws IllegalArgumentException jika nama atau isi file tidak valid
+     * @throws MaxUploadSizeExceededException jika file lebih besar dari maxSize
+     * @throws IOException jika terjadi error saat membaca storage
+     */
+    public void verifyUploadedImage(String filename, long maxSize) throws IOException {
+        if (!isContentAddressed(filename)) {
+            throw new IllegalArgumentException("Nama file tidak valid");
+        }
+        BlobInfo info = blobStore.stat(filename);
+        if (info == null) {
+            throw new NoSuchFileException(filename);
+        }
+        if (info.size() > maxSize) {
+            blobStore.delete(filename);
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+
+        byte[] header;
+        try (InputStream input = blobStore.get(filename, 0, ImageType.HEADER_LENGTH)) {
+            header = input.readNBytes(ImageType.HEADER_LENGTH);
+        }
+        ImageType type = ImageType.detect(header, header.length);
+        if (type == null || !filename.endsWith("." + type.getExtension())) {
+            blobStore.delete(filename);
+            throw new IllegalArgumentException("Format file tidak didukung");
+        }
+    }
+
+    /**
+     * Validasi apakah file adalah gambar JPG, PNG, GIF atau WebP
+     * @param file MultipartFile yang akan divalidasi
+     * @return true jika valid, false jika tidak
+     */
+    public boolean isValidImage(MultipartFile file) {
+        // Content-Type dari klien tidak dipercaya, yang dicek magic bytes-nya
+        return ImageType.detect(file) != null;
     }
 
     /**
@@ -197,26 +461,44 @@ public class FileStorageService {
             return null;
         }
         int lastDot = filename.lastIndexOf('.');
-        return lastDot > 0 ? filename.substring(lastDot + 1).toLowerCase() : null;
+        String extension = lastDot > 0 ? filename.substring(lastDot + 1).toLowerCase() : null;
+        return extension != null && SAFE_EXTENSION.matcher(extension).matches() ? extension : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
-     * Membersihkan semua file yang tidak digunakan (orphaned files)
-     * CATATAN: Method ini harus dipanggil dengan hati-hati
-     * @return jumlah file yang dihapus
+     * Daftar file cover di BlobStore
+     * @param prefix awalan nama file, "" untuk semua file
+     * @return metadata file (contentType null), harus ditutup oleh pemanggil
+     * @throws IOException jika daftar tidak bisa dibaca
      */
-    public int cleanupOrphanedFiles() {
-        int deletedCount = 0;
-        try {
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                return 0;
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error cleaning up orphaned files: " + e.getMessage());
+    public Stream<BlobInfo> listFiles(String prefix) throws IOException {
+        return blobStore.list(prefix);
+    }
+
+    /**
+     * File sementara upload (.upload-*.tmp) di upload directory, yang
+     * tertinggal jika proses berhenti di tengah upload
+     * @return path file sementara, harus ditutup oleh pemanggil; kosong jika
+     *         upload directory belum ada
+     * @throws IOException jika upload directory tidak bisa dibaca
+     */
+    public Stream<Path> listTempFiles() throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.isDirectory(uploadPath)) {
+            return Stream.empty();
         }
-        return deletedCount;
+        return Files.list(uploadPath).filter(path -> {
+            String name = path.getFileName().toString();
+            return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX);
+        });
     }
 
     /**
@@ -0,0 +1,40 @@
+package org.delcom.app.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LibraryStatsRebuildJob {
+    private final LibraryStatsService libraryStatsService;
+    private final UserService userService;
+
+    public LibraryStatsRebuildJob(LibraryStatsService libraryStatsService, UserService userService) {
+        this.libraryStatsService = libraryStatsService;
+        this.userService = userService;
+    }
+
+    /**
+     * Menghitung ulang statistik library semua user dari tabel songs.
+     * Setiap user diproses dalam transaksi terpisah.
+     * Jadwal diatur lewat app.stats.rebuild-cron ("-" = nonaktif).
+     *
+     * @return jumlah user yang statistiknya berhasil dihitung ulang
+     */
+    @Scheduled(cron = "${app.stats.rebuild-cron:-}")
+    public int rebuildAll() {
+        List<UUID> userIds = userService.getAllUserIds();
+        int rebuilt = 0;
+        for (UUID userId : userIds) {
+            try {
+                libraryStatsService.rebuild(userId);
+                rebuilt++;
+            } catch (Exception e) {
+                System.err.println("Error rebuilding library stats: " + userId + " - " + e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+}
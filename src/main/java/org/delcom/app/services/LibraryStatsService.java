@@ -0,0 +1,230 @@
+package org.delcom.app.services;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.dto.LibraryStats;
+import org.delcom.app.dto.LibraryStatsRow;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.entities.UserLibraryStats;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.repositories.UserLibraryStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class LibraryStatsService {
+    private static final String KIND_GENRE = "genre";
+    private static final String KIND_ARTIST = "artist";
+
+    private final SongsRepository songsRepository;
+    private final UserLibraryStatsRepository userLibraryStatsRepository;
+    private final DatabaseProduct databaseProduct;
+
+    public LibraryStatsService(SongsRepository songsRepository,
+            UserLibraryStatsRepository userLibraryStatsRepository,
+            DatabaseProduct databaseProduct) {
+        this.songsRepository = songsRepository;
+        this.userLibraryStatsRepository = userLibraryStatsRepository;
+        this.databaseProduct = databaseProduct;
+    }
+
+    /**
+     * Mengambil statistik library (total lagu, total durasi, chart genre & artist)
+     * dari record statistik yang dipelihara saat penulisan. Jika record belum
+     * ada, statistik dihitung langsung dari tabel songs tanpa disimpan; record
+     * dibuat oleh penulisan berikutnya.
+     *
+     * @param userId UUID pemilik library
+     * @return ringkasan statistik library
+     */
+    @Transactional(readOnly = true)
+    public LibraryStats getStats(UUID userId) {
+        UserLibraryStats stats = userLibraryStatsRepository.findById(userId).orElse(null);
+        if (stats == null) {
+            stats = new UserLibraryStats(userId);
+            recompute(stats);
+        }
+        return new LibraryStats(
+                stats.getTotalSongs(),
+                stats.getTotalDuration(),
+                sortByCount(stats.getGenreCounts()),
+                sortByCount(stats.getArtistCounts()));
+    }
+
+    /**
+     * Memperbarui statistik setelah lagu baru disimpan (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onSongCreated(Songs song) {
+        update(song.getUserId(),
+                stats -> stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), 1));
+    }
+
+    /**
+     * Memperbarui statistik setelah satu batch import disimpan, cukup satu
+     * kali lock dan simpan untuk seluruh batch (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onSongsImported(UUID userId, List<Songs> songs) {
+        update(userId, stats -> {
+            for (Songs song : songs) {
+                stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), 1);
+            }
+        });
+    }
+
+    /**
+     * Memperbarui statistik untuk banyak perubahan sekaligus, mis. batch
+     * operasi. Lagu yang diubah masuk ke removed (nilai lama) dan added (nilai
+     * baru). Dalam transaksi yang sama.
+     */
+    @Transactional
+    public void onSongsChanged(UUID userId, List<Songs> removed, List<Songs> added) {
+        update(userId, stats -> {
+            for (Songs song : removed) {
+                stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), -1);
+            }
+            for (Songs song : added) {
+                stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), 1);
+            }
+        });
+    }
+
+    /**
+     * Memperbarui statistik setelah lagu diubah (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onSongUpdated(String oldGenre, String oldArtist, Integer oldDuration, Songs song) {
+        update(song.getUserId(), stats -> {
+            stats.apply(oldGenre, oldArtist, duration(oldDuration), -1);
+            stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), 1);
+        });
+    }
+
+    /**
+     * Memperbarui statistik setelah lagu dihapus (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onSongDeleted(Songs song) {
+        update(song.getUserId(),
+                stats -> stats.apply(song.getGenre(), song.getArtist(), duration(song.getDuration()), -1));
+    }
+
+    /**
+     * Menaikkan versi library untuk perubahan yang tidak memengaruhi statistik,
+     * mis. cover lagu diganti (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onLibraryTouched(UUID userId) {
+        update(userId, stats -> {
+            // Hanya versi yang naik
+        });
+    }
+
+    /**
+     * Versi library user tanpa memuat record statistik maupun lagu, untuk
+     * ETag dan conditional GET
+     *
+     * @param userId UUID pemilik library
+     * @return versi library, 0 jika record statistik belum ada
+     */
+    @Transactional(readOnly = true)
+    public long getLibraryVersion(UUID userId) {
+        return userLibraryStatsRepository.findLibraryVersion(userId).orElse(0L);
+    }
+
+    /**
+     * Menghitung ulang record statistik user dari tabel songs
+     *
+     * @param userId UUID pemilik library
+     * @return record statistik yang sudah dihitung ulang
+     */
+    @Transactional
+    public UserLibraryStats rebuild(UUID userId) {
+        UserLibraryStats stats = userLibraryStatsRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (stats == null) {
+            insertEmpty(userId);
+            stats = lock(userId);
+        }
+        recompute(stats);
+        return userLibraryStatsRepository.save(stats);
+    }
+
+    // Mengunci record statistik user lalu menerapkan delta pemanggil. Record
+    // yang belum ada dibuat dalam transaksi yang sama (INSERT yang tidak gagal
+    // jika record sudah ada, lalu SELECT ... FOR UPDATE), jadi tidak butuh
+    // koneksi kedua dari pool. Record yang dibuat di sini dihitung dari tabel
+    // songs yang sudah berisi perubahan transaksi ini, sehingga delta tidak
+    // diterapkan lagi; record yang ternyata dibuat transaksi lain tetap
+    // menerima delta.
+    private void update(UUID userId, Consumer<UserLibraryStats> delta) {
+        UserLibraryStats stats = userLibraryStatsRepository.findByUserIdForUpdate(userId).orElse(null);
+        boolean created = false;
+        if (stats == null) {
+            created = insertEmpty(userId) > 0;
+            stats = lock(userId);
+        }
+        if (created) {
+            songsRepository.flush();
+            recompute(stats);
+        } else {
+            delta.accept(stats);
+            stats.bumpVersion();
+        }
+        userLibraryStatsRepository.save(stats);
+    }
+
+    private int insertEmpty(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseProduct.isPostgreSql()
+                ? userLibraryStatsRepository.insertEmptyIfAbsent(userId, now)
+                : userLibraryStatsRepository.insertEmptyIfMissing(userId, now);
+    }
+
+    private UserLibraryStats lock(UUID userId) {
+        return userLibraryStatsRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Statistik library tidak ditemukan: " + userId));
+    }
+
+    // Durasi lagu boleh kosong
+    private static int duration(Integer duration) {
+        return duration != null ? duration : 0;
+    }
+
+    // Mengisi ulang statistik dari satu query agregat atas tabel songs
+    private void recompute(UserLibraryStats stats) {
+        stats.reset();
+
+        long totalSongs = 0;
+        long totalDuration = 0;
+        List<LibraryStatsRow> rows = songsRepository.aggregateLibraryStats(stats.getUserId());
+        for (LibraryStatsRow row : rows) {
+            long total = row.getTotal() != null ? row.getTotal() : 0L;
+            if (KIND_GENRE.equals(row.getKind())) {
+                stats.getGenreCounts().put(row.getLabel(), total);
+                // Setiap lagu tepat berada di satu grup genre
+                totalSongs += total;
+                totalDuration += row.getDuration() != null ? row.getDuration() : 0L;
+            } else if (KIND_ARTIST.equals(row.getKind())) {
+                stats.getArtistCounts().put(row.getLabel(), total);
+            }
+        }
+        stats.setTotals(totalSongs, totalDuration);
+        stats.bumpVersion();
+    }
+
+    private static Map<String, Long> sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,222 @@
+package org.delcom.app.services;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * BlobStore di disk lokal: key adalah path relatif terhadap root directory.
+ * Blob ditulis ke file sementara di root lalu di-rename (atomic) ke
+ * tujuannya. Key yang keluar dari root (mis. "..") dianggap tidak ada, dan
+ * file sementara tersebut bukan blob (tidak ikut di list).
+ */
+public class LocalDiskBlobStore implements BlobStore {
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    // Hasil probeContentType per ekstensi, agar file tidak di-probe di setiap request
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    public LocalDiskBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public void put(String key, InputStream input, String contentType) throws IOException {
+        Path target = prepare(key);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // File di filesystem yang sama cukup di-rename tanpa menyalin isinya
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = prepare(key);
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            BlobStore.super.put(key, source, contentType);
+        }
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            throw new NoSuchFileException(key);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        InputStream input = Channels.newInputStream(channel);
+        return length < 0 ? input : new BoundedInputStream(input, length);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        Path path = resolve(key);
+        return path != null && Files.deleteIfExists(path);
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            return null;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        return new BlobInfo(key, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                probeContentType(path, key));
+    }
+
+    // Penelusuran dimulai dari directory terdalam di prefix, bukan dari root
+    @Override
+    public Stream<BlobInfo> list(String prefix) throws IOException {
+        int slash = prefix.lastIndexOf('/');
+        Path start = slash >= 0 ? resolve(prefix.substring(0, slash)) : root;
+        if (start == null || !Files.isDirectory(start, LinkOption.NOFOLLOW_LINKS)) {
+            return Stream.empty();
+        }
+        return Files.walk(start)
+                .map(this::info)
+                .filter(Objects::nonNull)
+                .filter(info -> info.key().startsWith(prefix));
+    }
+
+    // null untuk directory, file sementara, atau file yang sudah dihapus sejak directory dibaca
+    private BlobInfo info(Path path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+        String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+        if (!attributes.isRegularFile() || (key.startsWith(TEMP_PREFIX) && key.endsWith(TEMP_SUFFIX))) {
+            return null;
+        }
+        return new BlobInfo(key, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+    }
+
+    // null jika key kosong atau keluar dari root
+    private Path resolve(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        Path path = root.resolve(key).normalize();
+        return path.startsWith(root) && !path.equals(root) ? path : null;
+    }
+
+    private Path prepare(String key) throws IOException {
+        Path target = resolve(key);
+        if (target == null) {
+            throw new IllegalArgumentException("Key tidak valid: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        return target;
+    }
+
+    // Content type ditentukan oleh ekstensi, jadi hasil probe cukup disimpan per ekstensi
+    private String probeContentType(Path path, String key) throws IOException {
+        int dot = key.lastIndexOf('.');
+        String extension = dot > key.lastIndexOf('/') + 1 ? key.substring(dot + 1).toLowerCase() : null;
+        String cached = extension != null ? contentTypes.get(extension) : null;
+        if (cached != null) {
+            return cached;
+        }
+        String contentType = Files.probeContentType(path);
+        if (extension != null && contentType != null) {
+            contentTypes.put(extension, contentType);
+        }
+        return contentType;
+    }
+
+    /**
+     * Stream yang berhenti setelah sejumlah byte, untuk range read
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream input, long length) {
+            super(input);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
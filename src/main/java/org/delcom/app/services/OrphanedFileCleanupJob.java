@@ -0,0 +1,30 @@
+package org.delcom.app.services;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrphanedFileCleanupJob {
+    private final OrphanedFileCollector orphanedFileCollector;
+
+    public OrphanedFileCleanupJob(OrphanedFileCollector orphanedFileCollector) {
+        this.orphanedFileCollector = orphanedFileCollector;
+    }
+
+    /**
+     * Menghapus file cover dan thumbnail yang tidak dipakai lagu mana pun.
+     * Jadwal diatur lewat app.cleanup.cron ("-" = nonaktif).
+     *
+     * @return jumlah file yang dihapus
+     */
+    @Scheduled(cron = "${app.cleanup.cron:0 0 4 * * *}")
+    public long cleanup() {
+        try {
+            OrphanedFileCollector.Result result = orphanedFileCollector.cleanupOrphanedFiles();
+            return result != null ? result.deleted() : 0;
+        } catch (Exception e) {
+            System.err.println("Error cleaning up orphaned files: " + e.getMessage());
+            return 0;
+        }
+    }
+}
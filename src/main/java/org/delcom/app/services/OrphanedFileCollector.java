@@ -0,0 +1,376 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.delcom.app.repositories.CoverBlobRepository;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.services.BlobStore.BlobInfo;
+import org.delcom.app.utils.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Garbage collector file cover di BlobStore (mark-and-sweep), untuk disk lokal
+ * maupun S3.
+ * <ul>
+ * <li>Cover yang dilepas: record cover_blobs dengan ref_count 0 yang lebih
+ * lama dari grace period dihapus lewat CoverBlobService.collect, yang
+ * menghapus file dan thumbnail-nya sambil mengunci record.</li>
+ * <li>Mark: semua nilai songs.cover dibaca lewat cursor ke Bloom filter
+ * (~1,2 byte per cover), disimpan tanpa ekstensi agar thumbnail
+ * ({cover}_{size}.jpg) ikut tertandai.</li>
+ * <li>Sweep: daftar blob dibaca bertahap lewat BlobStore.list; hanya key di
+ * root atau di direktori shard ab/cd yang diperiksa. File yang tidak ada di
+ * filter dan lebih lama dari grace period (waktu modifikasi dari BlobInfo)
+ * dikumpulkan per batch, dicek ulang secara persis ke database (filter
+ * hanya bisa salah ke arah "masih dipakai", dan cover bisa dipakai lagi
+ * setelah mark), lalu dihapus dengan batas laju. File yang masih punya record
+ * cover_blobs tidak pernah dihapus di sini, dan cover content-addressed
+ * dihapus lewat CoverBlobService.collectUnrecorded: upload ulang dengan isi
+ * yang sama tidak memperbarui mtime, jadi lock record yang memutuskan.</li>
+ * <li>File sementara upload di upload directory yang lebih lama dari grace
+ * period ikut dihapus.</li>
+ * </ul>
+ * Memori yang dipakai hanya filter, satu batch nama dan satu halaman daftar
+ * blob, berapa pun jumlah filenya. Grace period melindungi upload yang belum tersimpan ke database.
+ */
+@Service
+public class OrphanedFileCollector {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+    // Kedalaman shard ab/cd dari contentAddressedName
+    private static final int SHARD_DEPTH = 2;
+
+    private final SongsRepository songsRepository;
+    private final CoverBlobRepository coverBlobRepository;
+    private final CoverBlobService coverBlobService;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final long gracePeriodMillis;
+    private final int batchSize;
+    private final long deleteIntervalNanos;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong scannedTotal = new AtomicLong();
+    private final AtomicLong deletedTotal = new AtomicLong();
+    private final AtomicLong deletedBytesTotal = new AtomicLong();
+    private final AtomicReference<Result> lastResult = new AtomicReference<>();
+
+    public OrphanedFileCollector(SongsRepository songsRepository, CoverBlobRepository coverBlobRepository,
+            CoverBlobService coverBlobService, FileStorageService fileStorageService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.cleanup.grace-hours:24}") long graceHours,
+            @Value("${app.cleanup.batch-size:1000}") int batchSize,
+            @Value("${app.cleanup.max-deletes-per-second:200}") int maxDeletesPerSecond) {
+        this.songsRepository = songsRepository;
+        this.coverBlobRepository = coverBlobRepository;
+        this.coverBlobService = coverBlobService;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.gracePeriodMillis = TimeUnit.HOURS.toMillis(Math.max(0, graceHours));
+        this.batchSize = Math.max(1, batchSize);
+        this.deleteIntervalNanos = maxDeletesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxDeletesPerSecond : 0;
+    }
+
+    /**
+     * Hasil satu kali pembersihan
+     *
+     * @param scanned        jumlah file yang diperiksa
+     * @param referenced     file yang masih dipakai lagu
+     * @param recent         file yang dilewati karena masih dalam grace period
+     * @param deleted        file yang dihapus
+     * @param deletedBytes   total ukuran file yang dihapus
+     * @param filterBytes    ukuran Bloom filter di memori
+     * @param durationMillis lama pembersihan
+     * @param finishedAt     waktu selesai (epoch millis)
+     */
+    public record Result(long scanned, long referenced, long recent, long deleted, long deletedBytes,
+            long filterBytes, long durationMillis, long finishedAt) {
+    }
+
+    /**
+     * Total sejak aplikasi berjalan, untuk /api/admin/metrics
+     *
+     * @param last hasil pembersihan terakhir, null jika belum pernah berjalan
+     */
+    public record Stats(long runs, long scanned, long deleted, long deletedBytes, boolean running, Result last) {
+    }
+
+    /**
+     * Menghapus file yang tidak dipakai lagu mana pun: cover dari request
+     * yang gagal setelah upload, thumbnail milik cover yang sudah dihapus dan
+     * file sementara upload yang tertinggal
+     *
+     * @return hasil pembersihan, null jika pembersihan lain masih berjalan
+     */
+    public Result cleanupOrphanedFiles() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            BloomFilter referenced = mark();
+            Sweep sweep = new Sweep(referenced, started - gracePeriodMillis);
+            sweep.collectReleased();
+            try (Stream<Path> temps = fileStorageService.listTempFiles()) {
+                temps.forEach(sweep::visitTemp);
+            }
+            try (Stream<BlobInfo> blobs = fileStorageService.listFiles("")) {
+                blobs.forEach(sweep::visit);
+            }
+            sweep.flush();
+
+            long finished = System.currentTimeMillis();
+            return record(new Result(sweep.scanned, sweep.referenced, sweep.recent, sweep.deleted,
+                    sweep.deletedBytes, referenced.estimatedBytes(), finished - started, finished));
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Gagal membaca daftar file", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(runs.get(), scannedTotal.get(), deletedTotal.get(), deletedBytesTotal.get(),
+                running.get(), lastResult.get());
+    }
+
+    private Result record(Result result) {
+        runs.incrementAndGet();
+        scannedTotal.addAndGet(result.scanned());
+        deletedTotal.addAndGet(result.deleted());
+        deletedBytesTotal.addAndGet(result.deletedBytes());
+        lastResult.set(result);
+        return result;
+    }
+
+    private BloomFilter mark() {
+        return transactionTemplate.execute(status -> {
+            BloomFilter filter = new BloomFilter(songsRepository.countByCoverIsNotNull(), FALSE_POSITIVE_RATE);
+            try (Stream<String> covers = songsRepository.streamCovers()) {
+                Iterator<String> iterator = covers.iterator();
+                while (iterator.hasNext()) {
+                    filter.add(stem(iterator.next()));
+                }
+            }
+            return filter;
+        });
+    }
+
+    // Nama tanpa ekstensi, mis. "ab/cd/abcd.jpg" -> "ab/cd/abcd"
+    static String stem(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') + 1 ? name.substring(0, dot) : name;
+    }
+
+    // File sementara dari FileStorageService.store dan LocalDiskBlobStore.put
+    // (.thumbnail- dari versi lama CoverThumbnailService.write)
+    static boolean isTemporary(String name) {
+        String file = name.substring(name.lastIndexOf('/') + 1);
+        return (file.startsWith(".upload-") || file.startsWith(".thumbnail-")) && file.endsWith(".tmp");
+    }
+
+    // Key di root atau di direktori shard ab/cd dari contentAddressedName;
+    // directory lain di storage bukan milik aplikasi ini
+    static boolean inSweepScope(String key) {
+        String[] segments = key.split("/", -1);
+        if (segments.length > SHARD_DEPTH + 1) {
+            return false;
+        }
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (!SHARD_DIRECTORY.matcher(segments[i]).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Cek persis ke database untuk kandidat yang tidak ada di filter. File
+    // yang tercatat di cover_blobs (termasuk ref_count 0) hanya dihapus lewat
+    // CoverBlobService.collect.
+    private boolean isReferenced(String name) {
+        if (songsRepository.existsByCover(name) || coverBlobRepository.existsById(name)) {
+            return true;
+        }
+        String base = CoverThumbnailService.renditionBase(name);
+        return base != null && (songsRepository.existsByCover(base)
+                || songsRepository.existsByCoverStartingWith(base + ".")
+                || coverBlobRepository.existsById(base)
+                || coverBlobRepository.existsByFilenameStartingWith(base + "."));
+    }
+
+    /**
+     * State satu kali sweep
+     */
+    private final class Sweep {
+        private final BloomFilter filter;
+        private final long cutoffMillis;
+        private final LocalDateTime cutoff;
+        private final List<Candidate> batch = new ArrayList<>();
+        private long scanned;
+        private long referenced;
+        private long recent;
+        private long deleted;
+        private long deletedBytes;
+        private long nextDeleteNanos = System.nanoTime();
+
+        private record Candidate(String name, long size) {
+        }
+
+        Sweep(BloomFilter filter, long cutoffMillis) {
+            this.filter = filter;
+            this.cutoffMillis = cutoffMillis;
+            this.cutoff = LocalDateTime.ofInstant(Instant.ofEpochMilli(cutoffMillis), ZoneId.systemDefault());
+        }
+
+        // Cover content-addressed yang referensi terakhirnya sudah dilepas
+        void collectReleased() {
+            String after = "";
+            List<String> released;
+            do {
+                String from = after;
+                released = transactionTemplate.execute(
+                        status -> coverBlobRepository.findReleasedFilenames(cutoff, from, Limit.of(batchSize)));
+                for (String filename : released) {
+                    after = filename;
+                    long size = Math.max(0, fileStorageService.getFileSize(filename));
+                    throttle();
+                    try {
+                        if (coverBlobService.collect(filename, cutoff)) {
+                            deleted++;
+                            deletedBytes += size;
+                        }
+                    } catch (RuntimeException e) {
+                        System.err.println("Error deleting released cover: " + filename + " - " + e.getMessage());
+                    }
+                }
+            } while (released.size() >= batchSize);
+        }
+
+        // File sementara upload di upload directory (bukan blob)
+        void visitTemp(Path path) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                // Sudah dipindah ke BlobStore atau dihapus sejak directory dibaca
+                return;
+            }
+            scanned++;
+            if (attributes.lastModifiedTime().toMillis() > cutoffMillis) {
+                recent++;
+                return;
+            }
+            throttle();
+            try {
+                if (Files.deleteIfExists(path)) {
+                    deleted++;
+                    deletedBytes += attributes.size();
+                }
+            } catch (IOException e) {
+                System.err.println("Error deleting temporary file: " + path + " - " + e.getMessage());
+            }
+        }
+
+        void visit(BlobInfo blob) {
+            String name = blob.key();
+            if (!inSweepScope(name)) {
+                return;
+            }
+            scanned++;
+            if (blob.lastModified() > cutoffMillis) {
+                recent++;
+                return;
+            }
+            if (isTemporary(name)) {
+                delete(new Candidate(name, blob.size()));
+                return;
+            }
+            String base = CoverThumbnailService.renditionBase(name);
+            if (filter.mightContain(stem(name)) || (base != null && filter.mightContain(base))) {
+                referenced++;
+                return;
+            }
+            batch.add(new Candidate(name, blob.size()));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Candidate> orphans = transactionTemplate.execute(status -> {
+                List<Candidate> confirmed = new ArrayList<>(batch.size());
+                for (Candidate candidate : batch) {
+                    if (isReferenced(candidate.name())) {
+                        referenced++;
+                    } else {
+                        confirmed.add(candidate);
+                    }
+                }
+                return confirmed;
+            });
+            batch.clear();
+            for (Candidate orphan : orphans) {
+                delete(orphan);
+            }
+        }
+
+        private void delete(Candidate candidate) {
+            throttle();
+            try {
+                if (remove(candidate)) {
+                    deleted++;
+                    deletedBytes += candidate.size();
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error deleting orphaned file: " + candidate.name() + " - " + e.getMessage());
+            }
+        }
+
+        // FileStorageService.deleteFile mencatat sendiri error dari BlobStore
+        private boolean remove(Candidate candidate) {
+            if (FileStorageService.isContentAddressed(candidate.name())) {
+                return coverBlobService.collectUnrecorded(candidate.name(), cutoff);
+            }
+            return fileStorageService.deleteFile(candidate.name());
+        }
+
+        // Batas laju penghapusan agar disk tidak sibuk hanya untuk pembersihan
+        private void throttle() {
+            if (deleteIntervalNanos == 0) {
+                return;
+            }
+            long wait = nextDeleteNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            nextDeleteNanos = Math.max(nextDeleteNanos, System.nanoTime()) + deleteIntervalNanos;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry metrik request in-process: satu histogram latensi per
+ * method + handler pattern (mis. GET /api/songs/{id}) + kelas status (2xx, 4xx, ...).
+ * Lookup memakai String yang sudah ada di request sehingga pencatatan tidak
+ * mengalokasikan objek kecuali saat endpoint pertama kali terlihat.
+ */
+@Component
+public class RequestMetrics {
+
+    public static final String UNMATCHED_PATTERN = "UNMATCHED";
+
+    private static final String[] STATUS_CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+    /**
+     * Histogram per kelas status untuk satu endpoint
+     */
+    static final class Endpoint {
+        final String method;
+        final String pattern;
+        final LatencyHistogram[] histograms = new LatencyHistogram[STATUS_CLASSES.length];
+
+        Endpoint(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Ringkasan satu kombinasi endpoint + kelas status
+     */
+    public record EndpointSnapshot(String method, String pattern, String status,
+            LatencyHistogram.Snapshot latency) {
+    }
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Endpoint>> endpoints = new ConcurrentHashMap<>();
+    private final long startedAtNanos = System.nanoTime();
+
+    /**
+     * Mencatat satu request
+     *
+     * @param method        HTTP method
+     * @param pattern       handler pattern hasil mapping, null jika tidak ada handler
+     * @param status        status HTTP response
+     * @param durationNanos durasi request dalam nanodetik
+     */
+    public void record(String method, String pattern, int status, long durationNanos) {
+        if (method == null) {
+            return;
+        }
+        String key = pattern != null ? pattern : UNMATCHED_PATTERN;
+
+        ConcurrentHashMap<String, Endpoint> byPattern = endpoints.get(method);
+        if (byPattern == null) {
+            byPattern = endpoints.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        Endpoint endpoint = byPattern.get(key);
+        if (endpoint == null) {
+            endpoint = byPattern.computeIfAbsent(key, p -> new Endpoint(method, p));
+        }
+
+        int statusClass = Math.min(Math.max(status / 100, 1), 5) - 1;
+        endpoint.histograms[statusClass].recordNanos(durationNanos);
+    }
+
+    /**
+     * Ringkasan semua endpoint yang sudah menerima request, urut per pattern
+     */
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> result = new ArrayList<>();
+        for (ConcurrentHashMap<String, Endpoint> byPattern : endpoints.values()) {
+            for (Endpoint endpoint : byPattern.values()) {
+                for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                    LatencyHistogram histogram = endpoint.histograms[i];
+                    if (histogram.getCount() > 0) {
+                        result.add(new EndpointSnapshot(endpoint.method, endpoint.pattern,
+                                STATUS_CLASSES[i], histogram.snapshot()));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparing(EndpointSnapshot::pattern)
+                .thenComparing(EndpointSnapshot::method)
+                .thenComparing(EndpointSnapshot::status));
+        return result;
+    }
+
+    /**
+     * Format teks Prometheus (summary per endpoint dan kelas status, dalam detik)
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP http_server_requests_seconds Request latency per handler pattern and status class\n");
+        out.append("# TYPE http_server_requests_seconds summary\n");
+        List<EndpointSnapshot> snapshots = snapshot();
+        for (EndpointSnapshot snapshot : snapshots) {
+            LatencyHistogram.Snapshot latency = snapshot.latency();
+            appendSample(out, "http_server_requests_seconds", snapshot, "0.5", latency.p50Micros());
+            appendSample(out, "http_server_requests_seconds", snapshot, "0.9", latency.p90Micros());
+            appendSample(out, "http_server_requests_seconds", snapshot, "0.99", latency.p99Micros());
+            appendSample(out, "http_server_requests_seconds", snapshot, "0.999", latency.p999Micros());
+            appendLabels(out.append("http_server_requests_seconds_count"), snapshot, null)
+                    .append(' ').append(latency.count()).append('\n');
+            appendLabels(out.append("http_server_requests_seconds_sum"), snapshot, null)
+                    .append(' ').append(latency.sumMicros() / 1_000_000.0).append('\n');
+        }
+        out.append("# HELP http_server_requests_seconds_max Slowest request per handler pattern and status class\n");
+        out.append("# TYPE http_server_requests_seconds_max gauge\n");
+        for (EndpointSnapshot snapshot : snapshots) {
+            appendLabels(out.append("http_server_requests_seconds_max"), snapshot, null)
+                    .append(' ').append(snapshot.latency().maxMicros() / 1_000_000.0).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void appendSample(StringBuilder out, String name, EndpointSnapshot snapshot,
+            String quantile, long micros) {
+        appendLabels(out.append(name), snapshot, quantile)
+                .append(' ').append(micros / 1_000_000.0).append('\n');
+    }
+
+    private static StringBuilder appendLabels(StringBuilder out, EndpointSnapshot snapshot, String quantile) {
+        out.append("{method=\"").append(escapeLabel(snapshot.method()))
+                .append("\",uri=\"").append(escapeLabel(snapshot.pattern()))
+                .append("\",status=\"").append(snapshot.status()).append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        return out.append('}');
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Lama registry berjalan, dipakai untuk menghitung throughput
+     */
+    public double getUptimeSeconds() {
+        return (System.nanoTime() - startedAtNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,545 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * BlobStore di object storage S3-compatible (AWS S3, MinIO, Ceph RGW, dll.)
+ * lewat REST API dengan Signature Version 4, memakai java.net.http tanpa SDK.
+ * <ul>
+ * <li>put: blob sampai partSize dikirim dengan satu PUT; yang lebih besar
+ * dikirim per part lewat multipart upload, sehingga memori yang dipakai hanya
+ * satu part. Multipart yang gagal di-abort agar part-nya tidak tertinggal.</li>
+ * <li>get: range read memakai header Range.</li>
+ * <li>list: ListObjectsV2 per halaman (maksimal 1000 key); halaman berikutnya
+ * baru diminta saat stream sampai di akhir halaman sebelumnya.</li>
+ * <li>presignGet/presignPut: URL bertanda tangan (query string) agar browser
+ * membaca dan menulis cover langsung ke bucket.</li>
+ * </ul>
+ */
+public class S3BlobStore implements BlobStore {
+    // Batas minimal ukuran part (selain part terakhir) dari API S3
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SCOPE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Pattern ERROR_CODE = Pattern.compile("<Code>([^<]+)</Code>");
+    private static final Pattern CONTENTS = Pattern.compile("<Contents>(.*?)</Contents>", Pattern.DOTALL);
+    private static final Pattern KEY = Pattern.compile("<Key>([^<]*)</Key>");
+    private static final Pattern SIZE = Pattern.compile("<Size>(\\d+)</Size>");
+    private static final Pattern LAST_MODIFIED = Pattern.compile("<LastModified>([^<]+)</LastModified>");
+    private static final Pattern IS_TRUNCATED = Pattern.compile("<IsTruncated>true</IsTruncated>");
+    private static final Pattern NEXT_CONTINUATION_TOKEN =
+            Pattern.compile("<NextContinuationToken>([^<]+)</NextContinuationToken>");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final boolean pathStyle;
+    private final int partSize;
+    private final Duration presignTtl;
+    private final Clock clock;
+
+    /**
+     * @param endpoint          URL server, mis. "https://s3.amazonaws.com" atau "http://minio:9000"
+     * @param pathStyle         true untuk URL {endpoint}/{bucket}/{key} (MinIO), false untuk
+     *                          virtual-hosted {bucket}.{host}/{key}
+     * @param partSize          ukuran part multipart upload dalam bytes (minimal 5 MB)
+     * @param presignTtlSeconds masa berlaku presigned URL
+     */
+    public S3BlobStore(String endpoint, String bucket, String region, String accessKey, String secretKey,
+            boolean pathStyle, int partSize, long presignTtlSeconds) {
+        this(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(CONNECT_TIMEOUT).build(),
+                URI.create(endpoint), bucket, region, accessKey, secretKey, pathStyle,
+                Math.max(MIN_PART_SIZE, partSize), Duration.ofSeconds(Math.max(60, presignTtlSeconds)),
+                Clock.systemUTC());
+    }
+
+    // Tanpa batas minimal partSize, untuk test
+    S3BlobStore(HttpClient httpClient, URI endpoint, String bucket, String region, String accessKey,
+            String secretKey, boolean pathStyle, int partSize, Duration presignTtl, Clock clock) {
+        this.httpClient = httpClient;
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.pathStyle = pathStyle;
+        this.partSize = partSize;
+        this.presignTtl = presignTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public void put(String key, InputStream input, String contentType) throws IOException {
+        byte[] part = input.readNBytes(partSize);
+        if (part.length < partSize) {
+            putObject(key, part, contentType);
+            return;
+        }
+
+        String uploadId = createMultipartUpload(key, contentType);
+        try {
+            List<String> etags = new ArrayList<>();
+            while (part.length > 0) {
+                etags.add(uploadPart(key, uploadId, etags.size() + 1, part));
+                part = input.readNBytes(partSize);
+            }
+            completeMultipartUpload(key, uploadId, etags);
+        } catch (IOException | RuntimeException e) {
+            try {
+                abortMultipartUpload(key, uploadId);
+            } catch (IOException | RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        Map<String, String> headers = offset > 0 || length > 0
+                ? Map.of("range", "bytes=" + offset + "-" + (length > 0 ? String.valueOf(offset + length - 1) : ""))
+                : Map.of();
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), headers, BodyPublishers.noBody(),
+                EMPTY_SHA256, BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status == 200 || status == 206) {
+            return response.body();
+        }
+        response.body().close();
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        } else if (status == 416) {
+            // Offset di atau setelah akhir blob
+            return InputStream.nullInputStream();
+        }
+        throw failure("GET", key, status, null);
+    }
+
+    /**
+     * AWS S3 membalas 204 juga untuk key yang memang tidak ada, jadi hasilnya
+     * bisa true untuk keduanya; false hanya jika storage membalas 404 (mis.
+     * sebagian server S3-compatible)
+     */
+    @Override
+    public boolean delete(String key) throws IOException {
+        HttpResponse<String> response = send("DELETE", key, Map.of(), Map.of(), BodyPublishers.noBody(),
+                EMPTY_SHA256, BodyHandlers.ofString());
+        int status = response.statusCode();
+        if (status == 404) {
+            return false;
+        }
+        if (status != 200 && status != 204) {
+            throw failure("DELETE", key, status, response.body());
+        }
+        return true;
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", key, Map.of(), Map.of(), BodyPublishers.noBody(),
+                EMPTY_SHA256, BodyHandlers.discarding());
+        int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        if (status != 200) {
+            throw failure("HEAD", key, status, null);
+        }
+        long size = response.headers().firstValueAsLong("content-length").orElse(-1);
+        long lastModified = response.headers().firstValue("last-modified").map(S3BlobStore::parseHttpDate).orElse(0L);
+        return new BlobInfo(key, size, lastModified, response.headers().firstValue("content-type").orElse(null));
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) throws IOException {
+        ListPage first = listPage(prefix, null);
+        Iterator<BlobInfo> iterator = new Iterator<>() {
+            private ListPage page = first;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (index >= page.blobs().size() && page.continuationToken() != null) {
+                    try {
+                        page = listPage(prefix, page.continuationToken());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    index = 0;
+                }
+                return index < page.blobs().size();
+            }
+
+            @Override
+            public BlobInfo next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.blobs().get(index++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean supportsPresignedUrls() {
+        return true;
+    }
+
+    /**
+     * Waktu tanda tangan dibulatkan ke bawah per setengah presignTtl, sehingga
+     * URL untuk key yang sama tidak berubah selama jendela tersebut (browser
+     * bisa memakai cache-nya) dan selalu masih berlaku minimal setengah
+     * presignTtl
+     */
+    @Override
+    public PresignedRequest presignGet(String key) {
+        long now = clock.instant().getEpochSecond();
+        long window = Math.max(1, presignTtl.toSeconds() / 2);
+        return presign("GET", key, Map.of(), Instant.ofEpochSecond(now - Math.floorMod(now, window)));
+    }
+
+    @Override
+    public PresignedRequest presignPut(String key, String contentType, String sha256) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", contentType);
+        headers.put("x-amz-checksum-sha256", Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256)));
+        return presign("PUT", key, headers, clock.instant());
+    }
+
+    private void putObject(String key, byte[] content, String contentType) throws IOException {
+        HttpResponse<String> response = send("PUT", key, Map.of(), contentTypeHeader(contentType),
+                BodyPublishers.ofByteArray(content), hex(sha256(content)), BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw failure("PUT", key, response.statusCode(), response.body());
+        }
+    }
+
+    private String createMultipartUpload(String key, String contentType) throws IOException {
+        HttpResponse<String> response = send("POST", key, Map.of("uploads", ""), contentTypeHeader(contentType),
+                BodyPublishers.noBody(), EMPTY_SHA256, BodyHandlers.ofString());
+        Matcher matcher = UPLOAD_ID.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw failure("CreateMultipartUpload", key, response.statusCode(), response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private String uploadPart(String key, String uploadId, int partNumber, byte[] content) throws IOException {
+        HttpResponse<String> response = send("PUT", key,
+                Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId), Map.of(),
+                BodyPublishers.ofByteArray(content), hex(sha256(content)), BodyHandlers.ofString());
+        String etag = response.headers().firstValue("etag").orElse(null);
+        if (response.statusCode() != 200 || etag == null) {
+            throw failure("UploadPart", key, response.statusCode(), response.body());
+        }
+        return etag;
+    }
+
+    private void completeMultipartUpload(String key, String uploadId, List<String> etags) throws IOException {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < etags.size(); i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(etags.get(i).replace("&", "&amp;").replace("<", "&lt;"))
+                    .append("</ETag></Part>");
+        }
+        byte[] body = xml.append("</CompleteMultipartUpload>").toString().getBytes(StandardCharsets.UTF_8);
+        HttpResponse<String> response = send("POST", key, Map.of("uploadId", uploadId),
+                Map.of("content-type", "application/xml"), BodyPublishers.ofByteArray(body), hex(sha256(body)),
+                BodyHandlers.ofString());
+        // S3 bisa membalas 200 dengan <Error> di body jika gagal di tengah proses
+        if (response.statusCode() != 200 || response.body().contains("<Error>")) {
+            throw failure("CompleteMultipartUpload", key, response.statusCode(), response.body());
+        }
+    }
+
+    private void abortMultipartUpload(String key, String uploadId) throws IOException {
+        HttpResponse<String> response = send("DELETE", key, Map.of("uploadId", uploadId), Map.of(),
+                BodyPublishers.noBody(), EMPTY_SHA256, BodyHandlers.ofString());
+        if (response.statusCode() != 204 && response.statusCode() != 404) {
+            throw failure("AbortMultipartUpload", key, response.statusCode(), response.body());
+        }
+    }
+
+    /**
+     * Satu halaman hasil ListObjectsV2
+     *
+     * @param continuationToken token halaman berikutnya, null jika ini halaman terakhir
+     */
+    private record ListPage(List<BlobInfo> blobs, String continuationToken) {
+    }
+
+    private ListPage listPage(String prefix, String continuationToken) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        query.put("list-type", "2");
+        if (!prefix.isEmpty()) {
+            query.put("prefix", prefix);
+        }
+        if (continuationToken != null) {
+            query.put("continuation-token", continuationToken);
+        }
+        HttpResponse<String> response = send("GET", "", query, Map.of(), BodyPublishers.noBody(), EMPTY_SHA256,
+                BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw failure("ListObjectsV2", prefix, response.statusCode(), response.body());
+        }
+        String body = response.body();
+        List<BlobInfo> blobs = new ArrayList<>();
+        Matcher contents = CONTENTS.matcher(body);
+        while (contents.find()) {
+            String entry = contents.group(1);
+            Matcher key = KEY.matcher(entry);
+            Matcher size = SIZE.matcher(entry);
+            Matcher lastModified = LAST_MODIFIED.matcher(entry);
+            if (key.find() && size.find()) {
+                blobs.add(new BlobInfo(unescapeXml(key.group(1)), Long.parseLong(size.group(1)),
+                        lastModified.find() ? parseIsoDate(lastModified.group(1)) : 0, null));
+            }
+        }
+        Matcher next = NEXT_CONTINUATION_TOKEN.matcher(body);
+        boolean truncated = IS_TRUNCATED.matcher(body).find() && next.find();
+        return new ListPage(blobs, truncated ? unescapeXml(next.group(1)) : null);
+    }
+
+    private static Map<String, String> contentTypeHeader(String contentType) {
+        return contentType != null ? Map.of("content-type", contentType) : Map.of();
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, Map<String, String> query,
+            Map<String, String> headers, BodyPublisher body, String payloadHash, BodyHandler<T> handler)
+            throws IOException {
+        Instant now = clock.instant();
+        SortedMap<String, String> signedHeaders = canonicalHeaders(headers);
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+        signedHeaders.put("x-amz-date", AMZ_DATE.format(now));
+        String signature = signature(method, key, query, signedHeaders, payloadHash, now);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(key, canonicalQuery(query)))
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body);
+        // Host diisi sendiri oleh HttpClient dari URI
+        signedHeaders.forEach((name, value) -> {
+            if (!name.equals("host")) {
+                request.header(name, value);
+            }
+        });
+        request.header("authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                + ", SignedHeaders=" + String.join(";", signedHeaders.keySet()) + ", Signature=" + signature);
+        try {
+            return httpClient.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request S3 terputus: " + method + " " + key);
+        }
+    }
+
+    // Query string auth: semua parameter tanda tangan ada di URL
+    private PresignedRequest presign(String method, String key, Map<String, String> headers, Instant signedAt) {
+        SortedMap<String, String> signedHeaders = canonicalHeaders(headers);
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope(signedAt));
+        query.put("X-Amz-Date", AMZ_DATE.format(signedAt));
+        query.put("X-Amz-Expires", String.valueOf(presignTtl.toSeconds()));
+        query.put("X-Amz-SignedHeaders", String.join(";", signedHeaders.keySet()));
+        query.put("X-Amz-Signature", signature(method, key, query, signedHeaders, UNSIGNED_PAYLOAD, signedAt));
+        return new PresignedRequest(uri(key, canonicalQuery(query)), method, Map.copyOf(headers),
+                signedAt.plus(presignTtl));
+    }
+
+    /**
+     * Signature SigV4 untuk satu request
+     *
+     * @param query         parameter query (tanpa X-Amz-Signature)
+     * @param signedHeaders header yang ditandatangani, nama huruf kecil dan terurut, termasuk host
+     */
+    String signature(String method, String key, Map<String, String> query, SortedMap<String, String> signedHeaders,
+            String payloadHash, Instant time) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signedHeaders.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+        Map<String, String> unsignedQuery = new TreeMap<>(query);
+        unsignedQuery.remove("X-Amz-Signature");
+        String canonicalRequest = method + "\n"
+                + encode(path(key), false) + "\n"
+                + canonicalQuery(unsignedQuery) + "\n"
+                + canonicalHeaders + "\n"
+                + String.join(";", signedHeaders.keySet()) + "\n"
+                + payloadHash;
+        String stringToSign = ALGORITHM + "\n"
+                + AMZ_DATE.format(time) + "\n"
+                + scope(time) + "\n"
+                + hex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(time));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, "aws4_request");
+        return hex(hmac(signingKey, stringToSign));
+    }
+
+    private SortedMap<String, String> canonicalHeaders(Map<String, String> headers) {
+        SortedMap<String, String> canonical = new TreeMap<>();
+        headers.forEach((name, value) -> canonical.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        canonical.put("host", host());
+        return canonical;
+    }
+
+    private String scope(Instant time) {
+        return SCOPE_DATE.format(time) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    // Port bawaan scheme tidak ditulis, sama seperti header Host dari HttpClient
+    private String host() {
+        String host = pathStyle ? endpoint.getHost() : bucket + "." + endpoint.getHost();
+        int port = endpoint.getPort();
+        boolean defaultPort = port == -1 || ("http".equals(endpoint.getScheme()) && port == 80)
+                || ("https".equals(endpoint.getScheme()) && port == 443);
+        return defaultPort ? host : host + ":" + port;
+    }
+
+    private String path(String key) {
+        return pathStyle ? "/" + bucket + "/" + key : "/" + key;
+    }
+
+    private URI uri(String key, String canonicalQuery) {
+        return URI.create(endpoint.getScheme() + "://" + host() + encode(path(key), false)
+                + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+    }
+
+    private static String canonicalQuery(Map<String, String> query) {
+        // Nama parameter yang dipakai hanya ASCII, jadi urutan String sama dengan urutan byte
+        StringBuilder result = new StringBuilder();
+        new TreeMap<>(query).forEach((name, value) -> {
+            if (!result.isEmpty()) {
+                result.append('&');
+            }
+            result.append(encode(name, true)).append('=').append(encode(value, true));
+        });
+        return result.toString();
+    }
+
+    // URI encoding SigV4: hanya A-Z a-z 0-9 - _ . ~ yang tidak di-encode ("/" juga, untuk path)
+    static String encode(String value, boolean encodeSlash) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                result.append(c);
+            } else {
+                result.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return result.toString();
+    }
+
+    private static long parseHttpDate(String value) {
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static long parseIsoDate(String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static String unescapeXml(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static IOException failure(String operation, String key, int status, String body) {
+        Matcher code = body != null ? ERROR_CODE.matcher(body) : null;
+        return new IOException("S3 " + operation + " " + key + " gagal: HTTP " + status
+                + (code != null && code.find() ? " " + code.group(1) : ""));
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
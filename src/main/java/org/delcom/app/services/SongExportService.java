@@ -0,0 +1,154 @@
+package org.delcom.app.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.dto.SongExportRow;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.repositories.SongsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Export library lagu sebagai NDJSON atau CSV. Baris ditulis satu per satu
+ * dari cursor database ke output stream, sehingga pemakaian heap tidak
+ * bergantung pada jumlah lagu.
+ */
+@Service
+public class SongExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SongsRepository songsRepository;
+
+    public SongExportService(SongsRepository songsRepository) {
+        this.songsRepository = songsRepository;
+    }
+
+    /**
+     * Menulis semua lagu milik user ke output (output tidak ditutup)
+     *
+     * @param userId UUID pemilik lagu
+     * @param format format export
+     * @param output tujuan penulisan, mis. output stream response
+     * @return jumlah lagu yang ditulis
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID userId, SongFileFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        if (format == SongFileFormat.CSV) {
+            writer.write(SongFileFormat.CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        try (Stream<SongExportRow> rows = songsRepository.streamExportRowsByUserId(userId)) {
+            Iterator<SongExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                SongExportRow row = iterator.next();
+                if (format == SongFileFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writeJson(writer, row);
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeJson(Writer writer, SongExportRow row) throws IOException {
+        writer.write("{\"id\":");
+        writeJsonString(writer, row.id() != null ? row.id().toString() : null);
+        writer.write(",\"title\":");
+        writeJsonString(writer, row.title());
+        writer.write(",\"artist\":");
+        writeJsonString(writer, row.artist());
+        writer.write(",\"album\":");
+        writeJsonString(writer, row.album());
+        writer.write(",\"genre\":");
+        writeJsonString(writer, row.genre());
+        writer.write(",\"duration\":");
+        writer.write(String.valueOf(row.duration()));
+        writer.write(",\"releaseYear\":");
+        writer.write(String.valueOf(row.releaseYear()));
+        writer.write(",\"cover\":");
+        writeJsonString(writer, row.cover());
+        writer.write(",\"createdAt\":");
+        writeJsonString(writer, row.createdAt() != null ? row.createdAt().toString() : null);
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static void writeCsv(Writer writer, SongExportRow row) throws IOException {
+        writeCsvField(writer, row.id() != null ? row.id().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.title());
+        writer.write(',');
+        writeCsvField(writer, row.artist());
+        writer.write(',');
+        writeCsvField(writer, row.album());
+        writer.write(',');
+        writeCsvField(writer, row.genre());
+        writer.write(',');
+        writeCsvField(writer, row.duration() != null ? row.duration().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.releaseYear() != null ? row.releaseYear().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.cover());
+        writer.write(',');
+        writeCsvField(writer, row.createdAt() != null ? row.createdAt().toString() : null);
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: field dengan koma, kutip atau baris baru diapit kutip ganda
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,260 @@
+package org.delcom.app.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.dto.SongForm;
+import org.delcom.app.dto.SongImportResult;
+import org.delcom.app.dto.SongImportResult.RowError;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CsvRecordReader;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Import lagu dari NDJSON atau CSV (format yang sama dengan export). Input
+ * dibaca baris per baris, baris yang valid dikumpulkan lalu disimpan per batch
+ * dengan JDBC batch insert, satu transaksi per batch. Baris yang tidak valid
+ * dicatat tanpa menggagalkan baris lain.
+ */
+@Service
+public class SongImportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Panjang default kolom varchar dari Hibernate
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    // Kolom lain dari export (id, cover, createdAt) diabaikan
+    private static final JsonMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final LibraryStatsService libraryStatsService;
+    private final SongSuggestIndex songSuggestIndex;
+    private final int batchSize;
+
+    public SongImportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+            LibraryStatsService libraryStatsService, SongSuggestIndex songSuggestIndex,
+            @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.libraryStatsService = libraryStatsService;
+        this.songSuggestIndex = songSuggestIndex;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Satu baris data sebelum divalidasi
+     */
+    record ImportRow(String title, String artist, String album, String genre, Integer duration,
+            Integer releaseYear) {
+    }
+
+    /**
+     * Membaca input sampai habis dan menyimpan semua baris yang valid
+     *
+     * @param userId UUID pemilik lagu
+     * @param format format input
+     * @param input  isi file (tidak ditutup)
+     * @return jumlah lagu tersimpan dan kesalahan per baris
+     * @throws IllegalArgumentException jika header CSV tidak berisi kolom wajib
+     */
+    public SongImportResult importSongs(UUID userId, SongFileFormat format, InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Batch batch = new Batch(userId);
+        if (format == SongFileFormat.CSV) {
+            readCsv(reader, batch);
+        } else {
+            readNdjson(reader, batch);
+        }
+        batch.flush();
+        return batch.result();
+    }
+
+    private static void readNdjson(BufferedReader reader, Batch batch) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            ImportRow row;
+            try {
+                row = JSON.readValue(line, ImportRow.class);
+            } catch (JacksonException e) {
+                row = null;
+            }
+            if (row == null) {
+                batch.reject("JSON tidak valid");
+            } else {
+                batch.accept(row);
+            }
+        }
+    }
+
+    private static void readCsv(BufferedReader reader, Batch batch) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // BOM dari Excel ikut terbaca di nama kolom pertama
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        for (String required : List.of("title", "artist", "genre", "duration")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Kolom " + required + " tidak ada di header CSV");
+            }
+        }
+        int title = columns.get("title");
+        int artist = columns.get("artist");
+        int album = columns.getOrDefault("album", -1);
+        int genre = columns.get("genre");
+        int duration = columns.get("duration");
+        int releaseYear = columns.getOrDefault("releaseyear", -1);
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            ImportRow row;
+            try {
+                row = new ImportRow(field(fields, title), field(fields, artist), field(fields, album),
+                        field(fields, genre), number(field(fields, duration)), number(field(fields, releaseYear)));
+            } catch (NumberFormatException e) {
+                batch.reject("Durasi dan tahun rilis harus berupa angka");
+                continue;
+            }
+            batch.accept(row);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer number(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    /**
+     * Aturan yang sama dengan SongForm, ditambah batas panjang kolom agar
+     * baris yang lolos validasi tidak menggagalkan batch insert
+     *
+     * @return pesan kesalahan, null jika baris valid
+     */
+    static String validate(ImportRow row) {
+        SongForm form = new SongForm(row.title(), row.artist(), row.album(), row.genre(), row.duration(),
+                row.releaseYear());
+        if (isBlank(form.getTitle())) {
+            return "Judul lagu tidak boleh kosong";
+        } else if (isBlank(form.getArtist())) {
+            return "Nama artist tidak boleh kosong";
+        } else if (isBlank(form.getGenre())) {
+            return "Genre tidak boleh kosong";
+        } else if (!form.isValidDuration()) {
+            return "Durasi harus antara " + ConstUtil.MIN_DURATION + " dan " + ConstUtil.MAX_DURATION + " detik";
+        } else if (!form.isValidReleaseYear()) {
+            return "Tahun rilis harus antara " + ConstUtil.MIN_RELEASE_YEAR + " dan tahun ini";
+        } else if (tooLong(form.getTitle()) || tooLong(form.getArtist()) || tooLong(form.getAlbum())
+                || tooLong(form.getGenre())) {
+            return "Teks maksimal " + MAX_TEXT_LENGTH + " karakter";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH;
+    }
+
+    /**
+     * Mengumpulkan baris valid dan kesalahan selama satu import
+     */
+    private final class Batch {
+        private final UUID userId;
+        private final List<Songs> pending = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long row;
+        private long imported;
+        private long failed;
+
+        Batch(UUID userId) {
+            this.userId = userId;
+        }
+
+        void accept(ImportRow data) {
+            String error = validate(data);
+            if (error != null) {
+                reject(error);
+                return;
+            }
+            row++;
+            String album = isBlank(data.album()) ? null : data.album();
+            pending.add(new Songs(userId, data.title(), data.artist(), album, data.genre(), data.duration(),
+                    data.releaseYear()));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            row++;
+            failed++;
+            if (errors.size() < ConstUtil.IMPORT_MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (Songs song : pending) {
+                    entityManager.persist(song);
+                }
+                entityManager.flush();
+                libraryStatsService.onSongsImported(userId, pending);
+                songSuggestIndex.onSongsImported(userId);
+            });
+            imported += pending.size();
+            pending.clear();
+        }
+
+        SongImportResult result() {
+            return new SongImportResult(imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
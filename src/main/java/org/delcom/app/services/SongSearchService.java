@@ -0,0 +1,81 @@
+package org.delcom.app.services;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.utils.SearchTokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Pencarian lagu berdasarkan relevansi dengan bobot title > artist > album > genre.
+ * PostgreSQL memakai full-text search (tsvector + index GIN), database lain
+ * (H2 untuk test) memakai fallback LIKE dengan skor berbobot.
+ *
+ * Kedua jalur memecah keyword dengan SearchTokenizer yang sama: setiap kata
+ * harus menjadi awal kata di salah satu field (AND antar kata), sehingga
+ * "queen bohem" cocok dengan Bohemian Rhapsody - Queen tetapi "hemian" tidak.
+ * Bedanya, fallback hanya mengenali spasi sebagai batas kata, sedangkan
+ * parser tsvector juga memisah tanda baca (mis. "dc" cocok dengan "AC/DC").
+ */
+@Service
+public class SongSearchService {
+    private static final int MAX_TERMS = 8;
+
+    private final SongsRepository songsRepository;
+    private final boolean fullTextEnabled;
+
+    @Autowired
+    public SongSearchService(SongsRepository songsRepository, DataSource dataSource) {
+        this(songsRepository, DatabaseProduct.productName(dataSource));
+    }
+
+    // Database dikenali dari metadata koneksi, bukan dari URL JDBC yang bisa
+    // dibungkus proxy/pool (jdbc:p6spy:postgresql:, jdbc:tc:postgresql:, ...)
+    SongSearchService(SongsRepository songsRepository, String databaseProductName) {
+        this.songsRepository = songsRepository;
+        this.fullTextEnabled = "PostgreSQL".equalsIgnoreCase(databaseProductName);
+    }
+
+    public boolean isFullTextEnabled() {
+        return fullTextEnabled;
+    }
+
+    /**
+     * Mencari lagu milik user, hasil diurutkan dari yang paling relevan
+     *
+     * @param userId  UUID pemilik lagu
+     * @param keyword kata kunci dari kotak pencarian
+     * @return daftar lagu yang cocok, kosong jika keyword tidak berisi kata
+     */
+    @Transactional(readOnly = true)
+    public List<Songs> search(UUID userId, String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        if (fullTextEnabled) {
+            String tsQuery = toPrefixTsQuery(keyword);
+            return tsQuery.isEmpty() ? List.of() : songsRepository.searchFullText(userId, tsQuery);
+        }
+        List<String> terms = SearchTokenizer.tokenize(keyword, MAX_TERMS);
+        return terms.isEmpty() ? List.of() : songsRepository.searchWeighted(userId, terms);
+    }
+
+    /**
+     * Mengubah input pengguna menjadi tsquery prefix, mis. "queen bohem" menjadi
+     * "queen:* &amp; bohem:*". Hanya huruf dan angka yang dipakai sehingga input
+     * tidak bisa menyisipkan operator tsquery.
+     */
+    static String toPrefixTsQuery(String keyword) {
+        return SearchTokenizer.tokenize(keyword, MAX_TERMS).stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,518 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.delcom.app.entities.Songs;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.utils.BkTree;
+import org.delcom.app.utils.SearchTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Inverted index in-memory per user untuk search-as-you-type.
+ * Setiap lagu mendapat ordinal (int) di ruang ordinal milik user; posting list
+ * berupa int[] terurut berisi (ordinal * 4 + field). Index dibangun saat user
+ * pertama kali mencari, lalu diperbarui per lagu setelah transaksi commit.
+ * Kosakata yang sama disimpan di BK-tree untuk pencarian toleran typo.
+ */
+@Component
+public class SongSuggestIndex {
+    // Bobot field: title > artist > album > genre
+    private static final int[] FIELD_WEIGHTS = { 8, 4, 2, 1 };
+    private static final int FIELD_BITS = 2;
+    private static final int ALL_FIELDS = 0b1111;
+    // Pencarian fuzzy hanya pada title dan artist
+    private static final int FUZZY_FIELDS = 0b0011;
+    private static final int MAX_EDITS = 2;
+    private static final int MIN_DEAD_TERMS_FOR_REBUILD = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_TERMS_PER_FIELD = 32;
+    private static final int VERSION_STRIPES = 64;
+    private static final int LOAD_ATTEMPTS = 3;
+
+    /**
+     * Satu hasil saran beserta skor relevansinya
+     */
+    public record Suggestion(UUID id, String title, String artist, String album, String genre, int score) {
+    }
+
+    /**
+     * Ukuran index saat ini (perkiraan memori dalam byte)
+     */
+    public record IndexStats(int users, long songs, long terms, long estimatedBytes) {
+    }
+
+    // Salinan field yang diindeks, tidak terpengaruh perubahan entity setelahnya
+    record Doc(UUID id, String title, String artist, String album, String genre) {
+        static Doc of(Songs song) {
+            return new Doc(song.getId(), song.getTitle(), song.getArtist(), song.getAlbum(), song.getGenre());
+        }
+
+        String field(int field) {
+            return switch (field) {
+                case 0 -> title;
+                case 1 -> artist;
+                case 2 -> album;
+                default -> genre;
+            };
+        }
+    }
+
+    private final SongsRepository songsRepository;
+    private final int maxUsers;
+
+    // Access-order untuk membuang index user yang paling lama tidak dipakai
+    private final Map<UUID, UserIndex> indexes;
+
+    // Dinaikkan setiap ada penulisan, agar index yang dibangun bersamaan
+    // dengan penulisan tidak disimpan dalam keadaan basi
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public SongSuggestIndex(SongsRepository songsRepository,
+            @Value("${app.search.index.max-users:1000}") int maxUsers) {
+        this.songsRepository = songsRepository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UserIndex> eldest) {
+                return size() > SongSuggestIndex.this.maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Mencari lagu yang kata-katanya diawali oleh setiap kata di query
+     *
+     * @param userId UUID pemilik lagu
+     * @param query  teks yang sedang diketik
+     * @param limit  jumlah hasil maksimal
+     * @return saran lagu, urut dari skor tertinggi
+     */
+    public List<Suggestion> suggest(UUID userId, String query, int limit) {
+        List<String> terms = SearchTokenizer.tokenize(query, MAX_QUERY_TERMS);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return indexFor(userId).search(terms, limit);
+    }
+
+    /**
+     * Mencari lagu yang title/artist-nya mirip query meskipun salah ketik.
+     * Setiap kata query dicocokkan utuh dengan jarak edit maksimal 0 (1-2 huruf),
+     * 1 (3-5 huruf) atau 2 (6+ huruf); kecocokan persis mendapat skor tertinggi.
+     *
+     * @param userId UUID pemilik lagu
+     * @param query  kata kunci, boleh salah ketik
+     * @param limit  jumlah hasil maksimal
+     * @return lagu yang cocok, urut dari skor tertinggi
+     */
+    public List<Suggestion> searchFuzzy(UUID userId, String query, int limit) {
+        List<String> terms = SearchTokenizer.tokenize(query, MAX_QUERY_TERMS);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return indexFor(userId).searchFuzzy(terms, limit);
+    }
+
+    static int maxEdits(String term) {
+        int length = term.length();
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : MAX_EDITS;
+    }
+
+    /**
+     * Dipanggil setelah lagu dibuat atau diubah
+     */
+    public void onSongSaved(Songs song) {
+        UUID userId = song.getUserId();
+        Doc doc = Doc.of(song);
+        afterCommit(() -> {
+            bumpVersion(userId);
+            UserIndex index = peek(userId);
+            if (index != null) {
+                index.upsert(doc);
+            }
+        });
+    }
+
+    /**
+     * Dipanggil setelah lagu dihapus
+     */
+    public void onSongDeleted(Songs song) {
+        UUID userId = song.getUserId();
+        UUID songId = song.getId();
+        afterCommit(() -> {
+            bumpVersion(userId);
+            UserIndex index = peek(userId);
+            if (index != null) {
+                index.remove(songId);
+            }
+        });
+    }
+
+    /**
+     * Dipanggil setelah import lagu. Index user dibuang dan dimuat ulang saat
+     * dipakai, lebih murah daripada menambah ribuan dokumen satu per satu.
+     */
+    public void onSongsImported(UUID userId) {
+        afterCommit(() -> {
+            bumpVersion(userId);
+            synchronized (indexes) {
+                indexes.remove(userId);
+            }
+        });
+    }
+
+    /**
+     * Ringkasan ukuran semua index yang sedang dimuat
+     */
+    public IndexStats getStats() {
+        List<UserIndex> loaded;
+        synchronized (indexes) {
+            loaded = new ArrayList<>(indexes.values());
+        }
+        long songs = 0;
+        long terms = 0;
+        long bytes = 0;
+        for (UserIndex index : loaded) {
+            IndexStats stats = index.stats();
+            songs += stats.songs();
+            terms += stats.terms();
+            bytes += stats.estimatedBytes();
+        }
+        return new IndexStats(loaded.size(), songs, terms, bytes);
+    }
+
+    private UserIndex indexFor(UUID userId) {
+        UserIndex index = peek(userId);
+        if (index != null) {
+            return index;
+        }
+        for (int attempt = 1;; attempt++) {
+            long version = versions.get(stripe(userId));
+            UserIndex loaded = new UserIndex();
+            for (Songs song : songsRepository.findAllByUserId(userId)) {
+                loaded.upsert(Doc.of(song));
+            }
+
+            // Disimpan dulu baru dicek: penulisan setelah pengecekan pasti
+            // melihat index ini dan menerapkan perubahannya sendiri
+            synchronized (indexes) {
+                indexes.put(userId, loaded);
+            }
+            if (versions.get(stripe(userId)) == version) {
+                return loaded;
+            }
+            if (attempt >= LOAD_ATTEMPTS) {
+                // Penulisan terus terjadi: pakai hasil ini tanpa disimpan
+                synchronized (indexes) {
+                    indexes.remove(userId, loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+
+    private UserIndex peek(UUID userId) {
+        synchronized (indexes) {
+            return indexes.get(userId);
+        }
+    }
+
+    private void bumpVersion(UUID userId) {
+        versions.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(UUID userId) {
+        return (userId.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    // Index hanya mengikuti data yang sudah commit
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Posting list terurut dari (ordinal * 4 + field)
+     */
+    static final class Postings {
+        int[] codes = new int[2];
+        int size;
+
+        void add(int code) {
+            int position = Arrays.binarySearch(codes, 0, size, code);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size + (size >> 1) + 1);
+            }
+            System.arraycopy(codes, position, codes, position + 1, size - position);
+            codes[position] = code;
+            size++;
+        }
+
+        void remove(int code) {
+            int position = Arrays.binarySearch(codes, 0, size, code);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(codes, position + 1, codes, position, size - position - 1);
+            size--;
+            // Kecilkan array jika sebagian besar kosong
+            if (codes.length > 8 && size < codes.length / 4) {
+                codes = Arrays.copyOf(codes, Math.max(2, size * 2));
+            }
+        }
+    }
+
+    // Posting list yang cocok dengan satu kata query beserta pengali skornya
+    private record TermMatch(Postings postings, int multiplier) {
+    }
+
+    /**
+     * Index milik satu user
+     */
+    static final class UserIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final HashMap<UUID, Integer> ordinals = new HashMap<>();
+        // Kata yang sudah tidak ada di terms tetap tinggal di BK-tree sampai dibangun ulang
+        private BkTree vocabulary = new BkTree();
+        private int deadTerms;
+        private Doc[] docs = new Doc[16];
+        private int[] freeOrdinals = new int[4];
+        private int freeCount;
+        private int nextOrdinal;
+
+        void upsert(Doc doc) {
+            lock.writeLock().lock();
+            try {
+                Integer existing = ordinals.get(doc.id());
+                int ordinal;
+                if (existing != null) {
+                    ordinal = existing;
+                    removeTerms(ordinal, docs[ordinal]);
+                } else {
+                    ordinal = allocateOrdinal();
+                    ordinals.put(doc.id(), ordinal);
+                }
+                docs[ordinal] = doc;
+                for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                    int code = (ordinal << FIELD_BITS) | field;
+                    for (String term : SearchTokenizer.tokenize(doc.field(field), MAX_TERMS_PER_FIELD)) {
+                        terms.computeIfAbsent(term, this::newTerm).add(code);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(UUID songId) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.remove(songId);
+                if (ordinal == null) {
+                    return;
+                }
+                removeTerms(ordinal, docs[ordinal]);
+                docs[ordinal] = null;
+                if (freeCount == freeOrdinals.length) {
+                    freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+                }
+                freeOrdinals[freeCount++] = ordinal;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Suggestion> search(List<String> queryTerms, int limit) {
+            lock.readLock().lock();
+            try {
+                List<List<TermMatch>> matches = new ArrayList<>(queryTerms.size());
+                for (String prefix : queryTerms) {
+                    List<TermMatch> termMatches = new ArrayList<>();
+                    // Semua term yang diawali prefix berada dalam rentang [prefix, prefix + U+FFFF]
+                    for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                        termMatches.add(new TermMatch(postings, 1));
+                    }
+                    matches.add(termMatches);
+                }
+                return rank(matches, ALL_FIELDS, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Suggestion> searchFuzzy(List<String> queryTerms, int limit) {
+            lock.readLock().lock();
+            try {
+                List<List<TermMatch>> matches = new ArrayList<>(queryTerms.size());
+                for (String queryTerm : queryTerms) {
+                    List<TermMatch> termMatches = new ArrayList<>();
+                    vocabulary.search(queryTerm, maxEdits(queryTerm), (term, distance) -> {
+                        Postings postings = terms.get(term);
+                        if (postings != null) {
+                            termMatches.add(new TermMatch(postings, MAX_EDITS + 1 - distance));
+                        }
+                    });
+                    matches.add(termMatches);
+                }
+                return rank(matches, FUZZY_FIELDS, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Dipanggil dengan read lock. Lagu harus cocok dengan semua kata query;
+        // tiap kata menyumbang skor terbaiknya (bobot field x pengali)
+        private List<Suggestion> rank(List<List<TermMatch>> matches, int fieldMask, int limit) {
+            int ordinalCount = nextOrdinal;
+            int[] scores = new int[ordinalCount];
+            int[] matchedTerms = new int[ordinalCount];
+            int[] best = new int[ordinalCount];
+            int[] touched = new int[ordinalCount];
+
+            for (int k = 0; k < matches.size(); k++) {
+                int touchedCount = 0;
+                for (TermMatch match : matches.get(k)) {
+                    Postings postings = match.postings();
+                    for (int i = 0; i < postings.size; i++) {
+                        int code = postings.codes[i];
+                        int ordinal = code >>> FIELD_BITS;
+                        int field = code & ((1 << FIELD_BITS) - 1);
+                        // Hanya lagu yang cocok dengan semua kata sebelumnya
+                        if (matchedTerms[ordinal] != k || (fieldMask & (1 << field)) == 0) {
+                            continue;
+                        }
+                        if (best[ordinal] == 0) {
+                            touched[touchedCount++] = ordinal;
+                        }
+                        best[ordinal] = Math.max(best[ordinal], FIELD_WEIGHTS[field] * match.multiplier());
+                    }
+                }
+                if (touchedCount == 0) {
+                    return List.of();
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int ordinal = touched[i];
+                    matchedTerms[ordinal] = k + 1;
+                    scores[ordinal] += best[ordinal];
+                    best[ordinal] = 0;
+                }
+            }
+
+            List<Suggestion> results = new ArrayList<>();
+            for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+                if (matchedTerms[ordinal] == matches.size()) {
+                    Doc doc = docs[ordinal];
+                    results.add(new Suggestion(doc.id(), doc.title(), doc.artist(), doc.album(), doc.genre(),
+                            scores[ordinal]));
+                }
+            }
+            results.sort(Comparator.comparingInt(Suggestion::score).reversed()
+                    .thenComparing(Suggestion::title, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+        }
+
+        // Perkiraan kasar berdasarkan layout objek JVM 64-bit dengan compressed oops
+        IndexStats stats() {
+            lock.readLock().lock();
+            try {
+                long bytes = 16 + 4L * docs.length + 16 + 4L * freeOrdinals.length;
+                // Node BK-tree + array anak; string kata dipakai bersama dengan terms
+                bytes += 64L * vocabulary.size();
+                for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                    bytes += 40 // TreeMap.Entry
+                            + stringBytes(entry.getKey())
+                            + 16 + 16 + 4L * entry.getValue().codes.length; // Postings + int[]
+                }
+                for (Doc doc : docs) {
+                    if (doc != null) {
+                        bytes += 32 // Doc
+                                + 32 // UUID
+                                + 32 + 16 + 4 // HashMap.Node + Integer + slot tabel
+                                + stringBytes(doc.title()) + stringBytes(doc.artist())
+                                + stringBytes(doc.album()) + stringBytes(doc.genre());
+                    }
+                }
+                return new IndexStats(1, ordinals.size(), terms.size(), bytes);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeTerms(int ordinal, Doc doc) {
+            for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                int code = (ordinal << FIELD_BITS) | field;
+                for (String term : SearchTokenizer.tokenize(doc.field(field), MAX_TERMS_PER_FIELD)) {
+                    Postings postings = terms.get(term);
+                    if (postings != null) {
+                        postings.remove(code);
+                        if (postings.size == 0) {
+                            terms.remove(term);
+                            deadTerms++;
+                        }
+                    }
+                }
+            }
+            // BK-tree tidak mendukung hapus: bangun ulang jika sebagian besar isinya mati
+            if (deadTerms >= MIN_DEAD_TERMS_FOR_REBUILD && deadTerms > vocabulary.size() / 2) {
+                vocabulary = new BkTree();
+                for (String term : terms.keySet()) {
+                    vocabulary.add(term);
+                }
+                deadTerms = 0;
+            }
+        }
+
+        private Postings newTerm(String term) {
+            // Sudah ada di BK-tree berarti kata ini sebelumnya mati dan kini hidup lagi
+            if (!vocabulary.add(term)) {
+                deadTerms--;
+            }
+            return new Postings();
+        }
+
+        private int allocateOrdinal() {
+            if (freeCount > 0) {
+                return freeOrdinals[--freeCount];
+            }
+            if (nextOrdinal == docs.length) {
+                docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            return nextOrdinal++;
+        }
+
+        private static long stringBytes(String value) {
+            // Objek String + array byte, dihitung 2 byte per karakter (batas atas)
+            return value == null ? 0 : 24 + 16 + 2L * value.length();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.delcom.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.SongChanges;
+import org.delcom.app.entities.SongTombstone;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.repositories.SongTombstoneRepository;
+import org.delcom.app.repositories.SongsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Delta sync library lagu. Perubahan dibaca sebagai satu aliran terurut
+ * (waktu, id) gabungan lagu yang dibuat/diubah (updatedAt) dan tombstone lagu
+ * yang dihapus (deletedAt). Token menyimpan posisi terakhir di aliran itu.
+ */
+@Service
+public class SongSyncService {
+    // Perubahan yang lebih baru dari ini belum dikirim: transaksi yang masih
+    // berjalan bisa commit dengan updatedAt sedikit lebih lama dari waktu commit
+    static final Duration SAFETY_LAG = Duration.ofSeconds(2);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    // Urutan UUID di database (PostgreSQL, H2) tidak bertanda, jadi ini id terbesar
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private final SongsRepository songsRepository;
+    private final SongTombstoneRepository songTombstoneRepository;
+    private final Duration tombstoneTtl;
+
+    public SongSyncService(SongsRepository songsRepository, SongTombstoneRepository songTombstoneRepository,
+            @Value("${app.sync.tombstone-ttl-days:30}") long tombstoneTtlDays) {
+        this.songsRepository = songsRepository;
+        this.songTombstoneRepository = songTombstoneRepository;
+        this.tombstoneTtl = Duration.ofDays(tombstoneTtlDays);
+    }
+
+    /**
+     * Posisi di aliran perubahan. Selama sync penuh (full = true) posisi
+     * berjalan di atas data lama, start adalah waktu sync penuh dimulai.
+     */
+    public record SyncToken(LocalDateTime changedAt, UUID id, boolean full, LocalDateTime start) {
+
+        public String encode() {
+            String raw = changedAt + "|" + id + "|" + (full ? "f|" + start : "d");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return token, null jika tidak valid
+         */
+        public static SyncToken decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                LocalDateTime changedAt = LocalDateTime.parse(parts[0]);
+                UUID id = UUID.fromString(parts[1]);
+                if (parts.length == 3 && "d".equals(parts[2])) {
+                    return new SyncToken(changedAt, id, false, null);
+                }
+                if (parts.length == 4 && "f".equals(parts[2])) {
+                    return new SyncToken(changedAt, id, true, LocalDateTime.parse(parts[3]));
+                }
+                return null;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Mencatat tombstone untuk lagu yang dihapus (dalam transaksi yang sama)
+     */
+    @Transactional
+    public void onSongsDeleted(List<Songs> songs) {
+        if (songs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SongTombstone> tombstones = new ArrayList<>(songs.size());
+        for (Songs song : songs) {
+            tombstones.add(new SongTombstone(song.getId(), song.getUserId(), now));
+        }
+        songTombstoneRepository.saveAll(tombstones);
+    }
+
+    /**
+     * Mengambil perubahan setelah token
+     *
+     * @param userId UUID pemilik lagu
+     * @param since  token dari respons sebelumnya, null untuk sync pertama
+     * @param limit  jumlah maksimal lagu + tombstone
+     * @return halaman perubahan beserta token berikutnya
+     */
+    @Transactional(readOnly = true)
+    public SongChanges getChanges(UUID userId, SyncToken since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.minus(SAFETY_LAG);
+
+        // Token delta yang lebih lama dari TTL bisa melewatkan tombstone yang
+        // sudah dihapus compaction, jadi klien mengulang dengan sync penuh
+        boolean reset = since == null || (!since.full() && since.changedAt().isBefore(now.minus(tombstoneTtl)));
+        SyncToken position = reset ? new SyncToken(EPOCH, MIN_ID, true, until) : since;
+
+        List<Songs> songs = songsRepository.findChangedSince(userId, position.changedAt(), position.id(), until,
+                Limit.of(limit + 1));
+        // Sync penuh belum punya data lokal, tombstone tidak berguna
+        List<SongTombstone> tombstones = position.full()
+                ? List.of()
+                : songTombstoneRepository.findDeletedSince(userId, position.changedAt(), position.id(), until,
+                        Limit.of(limit + 1));
+
+        // Gabungkan dua aliran terurut, ambil paling banyak limit entri
+        List<Songs> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        LocalDateTime lastAt = null;
+        UUID lastId = null;
+        int songIndex = 0;
+        int tombstoneIndex = 0;
+        while (changed.size() + deleted.size() < limit
+                && (songIndex < songs.size() || tombstoneIndex < tombstones.size())) {
+            Songs song = songIndex < songs.size() ? songs.get(songIndex) : null;
+            SongTombstone tombstone = tombstoneIndex < tombstones.size() ? tombstones.get(tombstoneIndex) : null;
+            if (tombstone == null || (song != null && compare(song.getUpdatedAt(), song.getId(),
+                    tombstone.getDeletedAt(), tombstone.getSongId()) < 0)) {
+                changed.add(song);
+                lastAt = song.getUpdatedAt();
+                lastId = song.getId();
+                songIndex++;
+            } else {
+                deleted.add(tombstone.getSongId());
+                lastAt = tombstone.getDeletedAt();
+                lastId = tombstone.getSongId();
+                tombstoneIndex++;
+            }
+        }
+        boolean hasMore = songIndex < songs.size() || tombstoneIndex < tombstones.size();
+
+        SyncToken next;
+        if (hasMore) {
+            next = new SyncToken(lastAt, lastId, position.full(), position.start());
+        } else if (position.full()) {
+            // Sync penuh selesai: delta berikutnya mulai dari awal sync penuh agar
+            // perubahan dan penghapusan selama sync penuh tidak terlewat
+            next = new SyncToken(position.start(), MIN_ID, false, null);
+        } else {
+            next = new SyncToken(until, MAX_ID, false, null);
+        }
+        return new SongChanges(changed, deleted, next.encode(), hasMore, reset);
+    }
+
+    /**
+     * Menghapus tombstone yang lebih lama dari TTL
+     *
+     * @return jumlah tombstone yang dihapus
+     */
+    @Transactional
+    public int compactTombstones() {
+        return songTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneTtl));
+    }
+
+    // Urutan (waktu, id) yang sama dengan ORDER BY di database
+    static int compare(LocalDateTime leftAt, UUID leftId, LocalDateTime rightAt, UUID rightId) {
+        int byTime = leftAt.compareTo(rightAt);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byHigh = Long.compareUnsigned(leftId.getMostSignificantBits(), rightId.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(leftId.getLeastSignificantBits(),
+                rightId.getLeastSignificantBits());
+    }
+}
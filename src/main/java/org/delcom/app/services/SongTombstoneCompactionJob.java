@@ -0,0 +1,30 @@
+package org.delcom.app.services;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SongTombstoneCompactionJob {
+    private final SongSyncService songSyncService;
+
+    public SongTombstoneCompactionJob(SongSyncService songSyncService) {
+        this.songSyncService = songSyncService;
+    }
+
+    /**
+     * Menghapus tombstone yang lebih lama dari app.sync.tombstone-ttl-days.
+     * Klien dengan token lebih lama dari TTL akan diminta sync penuh.
+     * Jadwal diatur lewat app.sync.tombstone-compaction-cron ("-" = nonaktif).
+     *
+     * @return jumlah tombstone yang dihapus
+     */
+    @Scheduled(cron = "${app.sync.tombstone-compaction-cron:0 30 3 * * *}")
+    public int compact() {
+        try {
+            return songSyncService.compactTombstones();
+        } catch (Exception e) {
+            System.err.println("Error compacting song tombstones: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -1,56 +1,153 @@
 package org.delcom.app.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.delcom.app.dto.SongBatchOperation;
+import org.delcom.app.dto.SongBatchResult;
+import org.delcom.app.dto.SongChanges;
+import org.delcom.app.dto.SongFacets;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.dto.SongPage;
 import org.delcom.app.entities.Songs;
 import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.delcom.app.utils.CursorUtil.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class SongsService {
     private final SongsRepository songsRepository;
     private final FileStorageService fileStorageService;
+    private final LibraryStatsService libraryStatsService;
+    private final SongSearchService songSearchService;
+    private final SongSuggestIndex songSuggestIndex;
+    private final SongSyncService songSyncService;
+    private final CoverBlobService coverBlobService;
 
-    public SongsService(SongsRepository songsRepository, FileStorageService fileStorageService) {
+    public SongsService(SongsRepository songsRepository, FileStorageService fileStorageService,
+                        LibraryStatsService libraryStatsService, SongSearchService songSearchService,
+                        SongSuggestIndex songSuggestIndex, SongSyncService songSyncService,
+                        CoverBlobService coverBlobService) {
         this.songsRepository = songsRepository;
         this.fileStorageService = fileStorageService;
+        this.libraryStatsService = libraryStatsService;
+        this.songSearchService = songSearchService;
+        this.songSuggestIndex = songSuggestIndex;
+        this.songSyncService = songSyncService;
+        this.coverBlobService = coverBlobService;
     }
 
     @Transactional
     public Songs createSong(UUID userId, String title, String artist, String album, 
                            String genre, Integer duration, Integer releaseYear) {
         Songs song = new Songs(userId, title, artist, album, genre, duration, releaseYear);
-        return songsRepository.save(song);
+        Songs saved = songsRepository.save(song);
+        libraryStatsService.onSongCreated(saved);
+        songSuggestIndex.onSongSaved(saved);
+        return saved;
     }
 
+    // Dengan keyword, hasil diurutkan berdasarkan relevansi (lihat SongSearchService)
     public List<Songs> getAllSongs(UUID userId, String search) {
         if (search != null && !search.trim().isEmpty()) {
-            return songsRepository.findByKeyword(userId, search);
+            return songSearchService.search(userId, search);
         }
         return songsRepository.findAllByUserId(userId);
     }
 
+    // Dengan fuzzy=true, keyword dicocokkan toleran typo ke title dan artist
+    public List<Songs> getAllSongs(UUID userId, String search, boolean fuzzy) {
+        if (fuzzy && search != null && !search.trim().isEmpty()) {
+            return searchSongsFuzzy(userId, search, ConstUtil.MAX_PAGE_SIZE);
+        }
+        return getAllSongs(userId, search);
+    }
+
+    // Pencarian toleran typo, hasil diurutkan dari yang paling mirip
+    public List<Songs> searchSongsFuzzy(UUID userId, String search, int limit) {
+        List<SongSuggestIndex.Suggestion> matches = songSuggestIndex.searchFuzzy(userId, search, limit);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Songs> songsById = new HashMap<>();
+        for (Songs song : songsRepository.findAllById(matches.stream().map(SongSuggestIndex.Suggestion::id).toList())) {
+            if (userId.equals(song.getUserId())) {
+                songsById.put(song.getId(), song);
+            }
+        }
+        return matches.stream()
+                .map(match -> songsById.get(match.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Service untuk daftar lagu per halaman (keyset pagination)
+    // Semua filter (keyword, genre, artist, rentang tahun & durasi) diterapkan bersamaan
+    public SongPage getSongsPage(UUID userId, SongFilter filter, Cursor cursor, int limit) {
+        // Ambil satu baris ekstra untuk mengetahui apakah masih ada halaman berikutnya
+        List<Songs> songs = songsRepository.findPageByFilter(userId, filter, cursor, limit + 1);
+
+        if (songs.size() <= limit) {
+            return new SongPage(songs, null);
+        }
+
+        List<Songs> page = List.copyOf(songs.subList(0, limit));
+        Songs last = page.get(limit - 1);
+        return new SongPage(page, CursorUtil.encode(last.getCreatedAt(), last.getId()));
+    }
+
+    // Jumlah lagu yang cocok dengan filter per genre, artist dan dekade (GROUP BY per facet)
+    public SongFacets getSongFacets(UUID userId, SongFilter filter) {
+        return SongFacets.of(songsRepository.countFacetsByFilter(userId, filter));
+    }
+
     public Songs getSongById(UUID userId, UUID id) {
         return songsRepository.findByUserIdAndId(userId, id).orElse(null);
     }
 
+    // Versi lagu (updatedAt) untuk ETag, null jika lagu tidak ditemukan
+    public LocalDateTime getSongVersion(UUID userId, UUID id) {
+        return songsRepository.findUpdatedAtByUserIdAndId(userId, id).orElse(null);
+    }
+
+    // Versi library untuk ETag daftar lagu
+    public long getLibraryVersion(UUID userId) {
+        return libraryStatsService.getLibraryVersion(userId);
+    }
+
     @Transactional
     public Songs updateSong(UUID userId, UUID id, String title, String artist, 
                            String album, String genre, Integer duration, Integer releaseYear) {
         Songs song = songsRepository.findByUserIdAndId(userId, id).orElse(null);
         if (song != null) {
+            String oldGenre = song.getGenre();
+            String oldArtist = song.getArtist();
+            Integer oldDuration = song.getDuration();
+
             song.setTitle(title);
             song.setArtist(artist);
             song.setAlbum(album);
             song.setGenre(genre);
             song.setDuration(duration);
             song.setReleaseYear(releaseYear);
-            return songsRepository.save(song);
+            Songs saved = songsRepository.save(song);
+            libraryStatsService.onSongUpdated(oldGenre, oldArtist, oldDuration, saved);
+            songSuggestIndex.onSongSaved(saved);
+            return saved;
         }
         return null;
     }
@@ -62,32 +159,132 @@ public class SongsService {
             return false;
         }
 
-        // Hapus cover jika ada
+        // Lepas referensi cover jika ada
         if (song.getCover() != null) {
-            fileStorageService.deleteFile(song.getCover());
+            deleteCoversAfterCommit(List.of(song.getCover()));
         }
 
         songsRepository.deleteById(id);
+        libraryStatsService.onSongDeleted(song);
+        songSuggestIndex.onSongDeleted(song);
+        songSyncService.onSongsDeleted(List.of(song));
         return true;
     }
 
+    // Batch operasi campuran (create/update/delete) dari klien offline dalam satu
+    // transaksi. Semua lagu yang dirujuk diambil dengan satu query IN, penulisan
+    // dikirim bersama saat flush. Operasi yang tidak valid atau lagunya tidak
+    // ditemukan dilaporkan per operasi tanpa membatalkan operasi lain.
+    @Transactional
+    public List<SongBatchResult> applyBatch(UUID userId, List<SongBatchOperation> operations) {
+        Set<UUID> ids = new HashSet<>();
+        for (SongBatchOperation operation : operations) {
+            if (operation.id() != null && !SongBatchOperation.OP_CREATE.equals(operation.op())) {
+                ids.add(operation.id());
+            }
+        }
+        Map<UUID, Songs> songsById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Songs song : songsRepository.findAllByUserIdAndIdIn(userId, ids)) {
+                songsById.put(song.getId(), song);
+            }
+        }
+
+        List<SongBatchResult> results = new ArrayList<>(operations.size());
+        List<Songs> removed = new ArrayList<>();
+        List<Songs> added = new ArrayList<>();
+        List<Songs> deletedSongs = new ArrayList<>();
+        List<String> covers = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            SongBatchOperation operation = operations.get(i);
+            String op = operation.op();
+            String error = operation.validate();
+            if (error != null) {
+                results.add(SongBatchResult.fail(i, op, operation.id(), error));
+                continue;
+            }
+
+            if (SongBatchOperation.OP_CREATE.equals(op)) {
+                Songs song = songsRepository.save(new Songs(userId, operation.title(), operation.artist(),
+                        operation.album(), operation.genre(), operation.duration(), operation.releaseYear()));
+                added.add(statsSnapshot(song));
+                songSuggestIndex.onSongSaved(song);
+                results.add(SongBatchResult.success(i, op, song.getId(), "Lagu berhasil ditambahkan"));
+                continue;
+            }
+
+            Songs song = songsById.get(operation.id());
+            if (song == null) {
+                results.add(SongBatchResult.fail(i, op, operation.id(), "Data lagu tidak ditemukan"));
+                continue;
+            }
+            removed.add(statsSnapshot(song));
+
+            if (SongBatchOperation.OP_UPDATE.equals(op)) {
+                song.setTitle(operation.title());
+                song.setArtist(operation.artist());
+                song.setAlbum(operation.album());
+                song.setGenre(operation.genre());
+                song.setDuration(operation.duration());
+                song.setReleaseYear(operation.releaseYear());
+                added.add(statsSnapshot(song));
+                songSuggestIndex.onSongSaved(song);
+                results.add(SongBatchResult.success(i, op, song.getId(), "Data lagu berhasil diperbarui"));
+            } else {
+                songsRepository.delete(song);
+                songsById.remove(song.getId());
+                deletedSongs.add(song);
+                if (song.getCover() != null) {
+                    covers.add(song.getCover());
+                }
+                songSuggestIndex.onSongDeleted(song);
+                results.add(SongBatchResult.success(i, op, song.getId(), "Data lagu berhasil dihapus"));
+            }
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            songsRepository.flush();
+            libraryStatsService.onSongsChanged(userId, removed, added);
+        }
+        songSyncService.onSongsDeleted(deletedSongs);
+        deleteCoversAfterCommit(covers);
+        return results;
+    }
+
     @Transactional
     public Songs updateCover(UUID songId, String coverFilename) {
         Optional<Songs> songOpt = songsRepository.findById(songId);
         if (songOpt.isPresent()) {
             Songs song = songOpt.get();
 
-            // Hapus file cover lama jika ada
-            if (song.getCover() != null) {
-                fileStorageService.deleteFile(song.getCover());
+            // Nama file = hash isi, jadi nama sama berarti gambar yang sama
+            // dan reference count tidak berubah
+            String oldCover = song.getCover();
+            if (!coverFilename.equals(oldCover)) {
+                coverBlobService.acquire(coverFilename);
+                if (oldCover != null) {
+                    deleteCoversAfterCommit(List.of(oldCover));
+                }
             }
 
             song.setCover(coverFilename);
-            return songsRepository.save(song);
+            Songs saved = songsRepository.save(song);
+            libraryStatsService.onLibraryTouched(saved.getUserId());
+            return saved;
         }
         return null;
     }
 
+    // Delta sync: perubahan dan tombstone setelah token (lihat SongSyncService)
+    public SongChanges getChanges(UUID userId, SongSyncService.SyncToken since, int limit) {
+        return songSyncService.getChanges(userId, since, limit);
+    }
+
+    // Saran lagu untuk search-as-you-type (index in-memory)
+    public List<SongSuggestIndex.Suggestion> suggestSongs(UUID userId, String query, int limit) {
+        return songSuggestIndex.suggest(userId, query, limit);
+    }
+
     // Service untuk filter berdasarkan genre
     public List<Songs> getSongsByGenre(UUID userId, String genre) {
         return songsRepository.findByUserIdAndGenre(userId, genre);
@@ -100,37 +297,42 @@ public class SongsService {
 
     // Service untuk chart data - jumlah lagu per genre
     public Map<String, Long> getChartDataByGenre(UUID userId) {
-        List<Object[]> results = songsRepository.countSongsByGenre(userId);
-        Map<String, Long> chartData = new HashMap<>();
-        
-        for (Object[] result : results) {
-            String genre = (String) result[0];
-            Long count = (Long) result[1];
-            chartData.put(genre, count);
-        }
-        
-        return chartData;
+        return libraryStatsService.getStats(userId).chartDataGenre();
     }
 
     // Service untuk chart data - jumlah lagu per artist
     public Map<String, Long> getChartDataByArtist(UUID userId) {
-        List<Object[]> results = songsRepository.countSongsByArtist(userId);
-        Map<String, Long> chartData = new HashMap<>();
-        
-        for (Object[] result : results) {
-            String artist = (String) result[0];
-            Long count = (Long) result[1];
-            chartData.put(artist, count);
-        }
-        
-        return chartData;
+        return libraryStatsService.getStats(userId).chartDataArtist();
     }
 
     // Service untuk mendapatkan total durasi semua lagu
     public Integer getTotalDuration(UUID userId) {
-        List<Songs> songs = songsRepository.findAllByUserId(userId);
-        return songs.stream()
-                   .mapToInt(Songs::getDuration)
-                   .sum();
+        return Math.toIntExact(libraryStatsService.getStats(userId).totalDuration());
+    }
+
+    // Salinan nilai yang dipakai statistik, karena entity yang sama bisa diubah
+    // lagi oleh operasi berikutnya dalam batch
+    private static Songs statsSnapshot(Songs song) {
+        return new Songs(song.getUserId(), null, song.getArtist(), null, song.getGenre(), song.getDuration(), null);
+    }
+
+    // Referensi cover dilepas dalam transaksi. File content-addressed dihapus
+    // oleh OrphanedFileCollector; hanya cover lama tanpa record (song_cover_{id})
+    // yang dihapus di sini, setelah commit agar tidak hilang jika rollback
+    private void deleteCoversAfterCommit(List<String> covers) {
+        List<String> unused = covers.stream().filter(coverBlobService::release).toList();
+        if (unused.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unused.forEach(fileStorageService::deleteFile);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                unused.forEach(fileStorageService::deleteFile);
+            }
+        });
     }
-}
\ No newline at end of file
+}
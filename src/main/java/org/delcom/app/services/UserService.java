@@ -1,5 +1,6 @@
 package org.delcom.app.services;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.User;
@@ -10,9 +11,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final AuthTokenCache authTokenCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuthTokenCache authTokenCache) {
         this.userRepository = userRepository;
+        this.authTokenCache = authTokenCache;
     }
 
     @Transactional
@@ -29,6 +32,10 @@ public class UserService {
         return userRepository.findById(id).orElse(null);
     }
 
+    public List<UUID> getAllUserIds() {
+        return userRepository.findAllIds();
+    }
+
     @Transactional
     public User updateUser(UUID id, String name, String email) {
         User user = userRepository.findById(id).orElse(null);
@@ -37,7 +44,10 @@ public class UserService {
         }
         user.setName(name);
         user.setEmail(email);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Data user di cache token sudah tidak sesuai
+        authTokenCache.invalidateUser(id);
+        return saved;
     }
 
     @Transactional
@@ -47,7 +57,9 @@ public class UserService {
             return null;
         }
         user.setPassword(newPassword);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authTokenCache.invalidateUser(id);
+        return saved;
     }
 
 }
@@ -0,0 +1,140 @@
+package org.delcom.app.utils;
+
+import java.util.Arrays;
+
+/**
+ * BK-tree untuk mencari kata dengan jarak Levenshtein terbatas.
+ * Pencarian hanya menelusuri anak dengan jarak di rentang [d - k, d + k]
+ * sehingga sebagian besar kosakata dilewati. Tidak thread-safe.
+ */
+public class BkTree {
+
+    /**
+     * Menerima kata yang cocok beserta jaraknya
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        void accept(String term, int distance);
+    }
+
+    private static final class Node {
+        final String term;
+        int[] childDistances = new int[0];
+        Node[] children = new Node[0];
+
+        Node(String term) {
+            this.term = term;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childDistances.length; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node node) {
+            int size = childDistances.length;
+            childDistances = Arrays.copyOf(childDistances, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            childDistances[size] = distance;
+            children[size] = node;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Menambahkan kata
+     *
+     * @param term kata baru
+     * @return false jika kata sudah ada
+     */
+    public boolean add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size = 1;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(term, node.term);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(term));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Mencari semua kata dengan jarak paling banyak maxDistance
+     *
+     * @param query       kata yang dicari
+     * @param maxDistance jarak edit maksimal
+     * @param consumer    dipanggil untuk setiap kata yang cocok
+     */
+    public void search(String query, int maxDistance, MatchConsumer consumer) {
+        if (root == null) {
+            return;
+        }
+        Node[] stack = new Node[16];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            int distance = levenshtein(query, node.term);
+            if (distance <= maxDistance) {
+                consumer.accept(node.term, distance);
+            }
+            for (int i = 0; i < node.childDistances.length; i++) {
+                if (Math.abs(node.childDistances[i] - distance) <= maxDistance) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = node.children[i];
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Jarak Levenshtein (insert, delete, substitusi) dengan dua baris
+     */
+    public static int levenshtein(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
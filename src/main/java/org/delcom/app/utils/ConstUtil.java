@@ -22,6 +22,9 @@ public class ConstUtil {
     public static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
     public static final String[] ALLOWED_IMAGE_TYPES = {"image/jpeg", "image/png", "image/gif", "image/webp"};
     public static final String[] ALLOWED_IMAGE_EXTENSIONS = {"jpg", "jpeg", "png", "gif", "webp"};
+    public static final long COVER_CACHE_MAX_AGE_SECONDS = 365L * 24 * 60 * 60; // 1 tahun
+    public static final int[] COVER_THUMBNAIL_SIZES = {64, 256, 640}; // px, sisi terpanjang
+    public static final long COVER_REDIRECT_EXPIRY_MARGIN_SECONDS = 60; // jeda sebelum presigned URL kedaluwarsa
     
     // Music settings
     public static final int MIN_DURATION = 1; // 1 second
@@ -31,6 +34,19 @@ public class ConstUtil {
     // Pagination settings
     public static final int DEFAULT_PAGE_SIZE = 20;
     public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_SUGGEST_LIMIT = 10;
+    public static final int MAX_SUGGEST_LIMIT = 50;
+    public static final int DEFAULT_SYNC_LIMIT = 500;
+    public static final int MAX_SYNC_LIMIT = 1000;
+
+    // Export settings
+    public static final int EXPORT_FETCH_SIZE = 1000;
+
+    // Import settings
+    public static final int IMPORT_MAX_REPORTED_ERRORS = 1000;
+
+    // Batch operation settings
+    public static final int MAX_BATCH_OPERATIONS = 500;
     
     // Message constants
     public static final String MSG_SUCCESS_ADD_SONG = "Lagu berhasil ditambahkan";
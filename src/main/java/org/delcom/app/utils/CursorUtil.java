@@ -0,0 +1,67 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Posisi keyset untuk pagination berbasis (createdAt, id)
+     */
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * Membuat cursor opaque dari baris terakhir halaman
+     * 
+     * @param createdAt waktu pembuatan baris terakhir
+     * @param id        id baris terakhir
+     * @return cursor dalam format base64url
+     */
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt.toString() + SEPARATOR + id.toString();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Membaca cursor opaque
+     * 
+     * @param cursor cursor dari client
+     * @return posisi keyset, null jika cursor tidak valid
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return null;
+            }
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Membatasi ukuran halaman ke rentang yang diizinkan
+     * 
+     * @param limit ukuran halaman dari client (boleh null)
+     * @return ukuran halaman antara 1 dan MAX_PAGE_SIZE
+     */
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return ConstUtil.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, ConstUtil.MAX_PAGE_SIZE);
+    }
+}
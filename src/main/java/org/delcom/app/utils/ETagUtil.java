@@ -0,0 +1,66 @@
+package org.delcom.app.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+public class ETagUtil {
+
+    /**
+     * ETag kuat untuk satu lagu, berubah setiap kali updatedAt berubah
+     *
+     * @param id        id lagu
+     * @param updatedAt waktu perubahan terakhir (boleh null)
+     * @return ETag dengan tanda kutip, mis. "s-...-1714566600000000"
+     */
+    public static String song(UUID id, LocalDateTime updatedAt) {
+        return "\"s-" + id + "-" + toMicros(updatedAt) + "\"";
+    }
+
+    /**
+     * ETag kuat untuk representasi yang bergantung pada seluruh library user
+     * (daftar lagu, facet)
+     *
+     * @param userId  pemilik library
+     * @param version versi library dari UserLibraryStats
+     * @return ETag dengan tanda kutip, mis. "l42-..."
+     */
+    public static String library(UUID userId, long version) {
+        return "\"l" + version + "-" + userId + "\"";
+    }
+
+    /**
+     * Mencocokkan header If-None-Match (boleh berisi beberapa ETag atau "*")
+     * dengan ETag saat ini. Sesuai RFC 9110, If-None-Match memakai
+     * perbandingan lemah sehingga awalan W/ diabaikan.
+     *
+     * @param ifNoneMatch isi header, boleh null
+     * @param etag        ETag saat ini dengan tanda kutip
+     * @return true jika klien sudah memegang versi terbaru
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+}
@@ -14,6 +14,41 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // JwtParser immutable dan thread-safe, cukup dibuat sekali
+    private static final JwtParser parser = Jwts.parser()
+            .verifyWith(key)
+            .build();
+
+    /**
+     * Status hasil parsing token
+     */
+    public enum TokenStatus {
+        VALID, EXPIRED, INVALID
+    }
+
+    /**
+     * Hasil parsing token dalam satu kali verifikasi
+     *
+     * @param status     status token
+     * @param userId     userId dari subject, null jika tidak valid
+     * @param expiration waktu expired token, null jika tidak valid
+     */
+    public record ParsedToken(TokenStatus status, UUID userId, Date expiration) {
+        private static final ParsedToken INVALID = new ParsedToken(TokenStatus.INVALID, null, null);
+
+        public boolean isValid() {
+            return status == TokenStatus.VALID;
+        }
+
+        public boolean isExpired() {
+            return status == TokenStatus.EXPIRED;
+        }
+
+        public long expiresAtMillis() {
+            return expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        }
+    }
+
     public static SecretKey getKey() {
         return key;
     }
@@ -27,40 +62,49 @@ public class JwtUtil {
                 .compact();
     }
 
-    public static UUID extractUserId(String token) {
+    /**
+     * Verifikasi signature dan baca claims token sekali jalan
+     *
+     * @param token JWT token
+     * @return hasil parsing (status, userId, expiration)
+     */
+    public static ParsedToken parse(String token) {
+        if (token == null || token.isBlank()) {
+            return ParsedToken.INVALID;
+        }
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return UUID.fromString(claims.getSubject());
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new ParsedToken(TokenStatus.VALID, toUserId(claims.getSubject()), claims.getExpiration());
+        } catch (ExpiredJwtException e) {
+            // Signature sudah terverifikasi sebelum pengecekan expired
+            Claims claims = e.getClaims();
+            return new ParsedToken(TokenStatus.EXPIRED, toUserId(claims.getSubject()), claims.getExpiration());
         } catch (Exception e) {
-            return null;
+            return ParsedToken.INVALID; // token invalid
         }
     }
 
+    public static UUID extractUserId(String token) {
+        ParsedToken parsed = parse(token);
+        return parsed.isValid() ? parsed.userId() : null;
+    }
+
     /**
      * Validasi token
-     * 
+     *
      * @param token         JWT token
      * @param ignoreExpired jika true maka token expired tetap dianggap valid
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
+        ParsedToken parsed = parse(token);
+        return parsed.isValid() || (ignoreExpired && parsed.isExpired());
+    }
+
+    private static UUID toUserId(String subject) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true; // valid
-        } catch (ExpiredJwtException e) {
-            if (ignoreExpired) {
-                return true; // abaikan expired
-            }
-            return false;
-        } catch (Exception e) {
-            return false; // token invalid
+            return subject != null ? UUID.fromString(subject) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
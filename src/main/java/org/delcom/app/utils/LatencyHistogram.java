@@ -0,0 +1,103 @@
+package org.delcom.app.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram latensi bergaya HDR dengan bucket log-linear dalam mikrodetik.
+ * Setiap pangkat dua dibagi menjadi 32 sub-bucket (galat relatif maksimal ~3%),
+ * rentang 1 mikrodetik sampai ~1 jam. Pencatatan hanya memakai operasi atomik
+ * pada array yang sudah dialokasikan, tanpa alokasi objek.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKET_COUNT = indexFor(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Ringkasan histogram pada satu titik waktu (nilai dalam mikrodetik)
+     */
+    public record Snapshot(long count, long sumMicros, long maxMicros,
+            long p50Micros, long p90Micros, long p99Micros, long p999Micros) {
+
+        public double meanMicros() {
+            return count == 0 ? 0 : (double) sumMicros / count;
+        }
+    }
+
+    /**
+     * Mencatat satu sampel latensi
+     *
+     * @param durationNanos durasi dalam nanodetik
+     */
+    public void recordNanos(long durationNanos) {
+        long micros = Math.min(Math.max(durationNanos / 1_000, 0), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(indexFor(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Menghitung persentil dari salinan bucket saat ini
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long max = maxMicros.get();
+        return new Snapshot(
+                count,
+                totalMicros.get(),
+                max,
+                percentile(copy, count, 0.50, max),
+                percentile(copy, count, 0.90, max),
+                percentile(copy, count, 0.99, max),
+                percentile(copy, count, 0.999, max));
+    }
+
+    // Nilai tertinggi yang setara dengan bucket tempat persentil berada
+    private static long percentile(long[] buckets, long count, double quantile, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Di bawah 64 mikrodetik bucket bersifat linear (lebar 1), selanjutnya
+    // lebar bucket berlipat dua setiap pangkat dua
+    static int indexFor(long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros | 1);
+        int shift = Math.max(0, exponent - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKET_COUNT + (int) (micros >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        int shift = Math.max(0, index / SUB_BUCKET_COUNT - 1);
+        long top = index - (long) shift * SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+}
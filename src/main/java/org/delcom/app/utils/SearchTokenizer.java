@@ -0,0 +1,72 @@
+package org.delcom.app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class SearchTokenizer {
+
+    /**
+     * Karakter escape untuk pola LIKE dari containsPattern
+     */
+    public static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Memecah teks menjadi kata (huruf dan angka saja, lowercase)
+     *
+     * @param text     teks input, boleh null
+     * @param maxTerms jumlah kata maksimal yang diambil
+     * @return daftar kata sesuai urutan kemunculan
+     */
+    public static List<String> tokenize(String text, int maxTerms) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length() && terms.size() < maxTerms; i++) {
+            int c = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.appendCodePoint(Character.toLowerCase(c));
+                if (Character.isSupplementaryCodePoint(c)) {
+                    i++;
+                }
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Pola LIKE "%keyword%" (lowercase) dengan %, _ dan \ dari input di-escape,
+     * dipakai bersama ESCAPE LIKE_ESCAPE
+     *
+     * @param value teks input
+     * @return pola LIKE yang hanya cocok dengan teks input apa adanya
+     */
+    public static String containsPattern(String value) {
+        return "%" + escapeLike(value) + "%";
+    }
+
+    /**
+     * Pola LIKE untuk kata yang diawali term, meniru prefix query full-text
+     * ("term:*"): term di awal teks ("term%") atau setelah spasi ("% term%").
+     * Dipakai bersama ESCAPE LIKE_ESCAPE.
+     *
+     * @param term kata hasil tokenize
+     * @return dua pola; teks cocok jika salah satunya cocok
+     */
+    public static List<String> wordPrefixPatterns(String term) {
+        String escaped = escapeLike(term);
+        return List.of(escaped + "%", "% " + escaped + "%");
+    }
+
+    private static String escapeLike(String value) {
+        return value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -1,7 +1,14 @@
 package org.delcom.app.views;
 
+import java.util.List;
+import java.util.Map;
+
+import org.delcom.app.dto.LibraryStats;
 import org.delcom.app.dto.SongForm;
+import org.delcom.app.entities.Songs;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.CoverThumbnailService;
+import org.delcom.app.services.LibraryStatsService;
 import org.delcom.app.services.SongsService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -14,11 +21,18 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 public class HomeView {
+    // Ukuran thumbnail cover di tabel home dan grid library
+    private static final int TILE_THUMBNAIL_SIZE = 256;
 
     private final SongsService songsService;
+    private final LibraryStatsService libraryStatsService;
+    private final CoverThumbnailService coverThumbnailService;
 
-    public HomeView(SongsService songsService) {
+    public HomeView(SongsService songsService, LibraryStatsService libraryStatsService,
+            CoverThumbnailService coverThumbnailService) {
         this.songsService = songsService;
+        this.libraryStatsService = libraryStatsService;
+        this.coverThumbnailService = coverThumbnailService;
     }
 
     // ... (Method home yang sudah ada biarkan saja) ...
@@ -27,6 +41,7 @@ public class HomeView {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) String artist,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             Model model) {
         
         // ... (Kode autentikasi & logic home Anda yang lama) ...
@@ -44,25 +59,24 @@ public class HomeView {
         model.addAttribute("auth", authUser);
 
         // Songs
-        var songs = songsService.getAllSongs(authUser.getId(), search);
+        var songs = songsService.getAllSongs(authUser.getId(), search, fuzzy);
         model.addAttribute("songs", songs);
+        model.addAttribute("thumbnailHashes", thumbnailHashes(songs));
 
-        // Statistik & Chart Logic (Sesuai kode Anda sebelumnya)
-        Integer totalSongs = songs.size();
-        Integer totalDuration = songsService.getTotalDuration(authUser.getId());
-        Integer totalDurationMinutes = totalDuration != null ? totalDuration / 60 : 0; // Null safety check
-        
-        model.addAttribute("totalSongs", totalSongs);
-        model.addAttribute("totalDuration", totalDuration);
-        model.addAttribute("totalDurationMinutes", totalDurationMinutes);
+        // Statistik & Chart dalam satu query agregat
+        LibraryStats stats = libraryStatsService.getStats(authUser.getId());
 
-        var chartDataGenre = songsService.getChartDataByGenre(authUser.getId());
-        var chartDataArtist = songsService.getChartDataByArtist(authUser.getId()); // Pastikan logic sorting ada di Service
-        model.addAttribute("chartDataGenre", chartDataGenre);
-        model.addAttribute("chartDataArtist", chartDataArtist);
+        // Dengan keyword, "Total Lagu" tetap jumlah hasil pencarian yang ditampilkan
+        boolean searching = search != null && !search.trim().isEmpty();
+        model.addAttribute("totalSongs", searching ? songs.size() : stats.totalSongs());
+        model.addAttribute("totalDuration", stats.totalDuration());
+        model.addAttribute("totalDurationMinutes", stats.totalDurationMinutes());
+        model.addAttribute("chartDataGenre", stats.chartDataGenre());
+        model.addAttribute("chartDataArtist", stats.chartDataArtist());
 
         model.addAttribute("songForm", new SongForm());
         model.addAttribute("searchParam", search != null ? search : "");
+        model.addAttribute("fuzzyParam", fuzzy);
 
         return ConstUtil.TEMPLATE_PAGES_HOME;
     }
@@ -75,6 +89,7 @@ public class HomeView {
     @GetMapping("/library")
     public String library(
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             Model model) {
 
         // 1. Cek Autentikasi
@@ -90,11 +105,19 @@ public class HomeView {
         model.addAttribute("auth", authUser);
 
         // 2. Ambil Data Lagu
-        var songs = songsService.getAllSongs(authUser.getId(), search);
+        var songs = songsService.getAllSongs(authUser.getId(), search, fuzzy);
         model.addAttribute("songs", songs);
+        model.addAttribute("thumbnailHashes", thumbnailHashes(songs));
         model.addAttribute("searchParam", search != null ? search : "");
+        model.addAttribute("fuzzyParam", fuzzy);
 
         // 3. Return ke template library
         return "pages/library"; 
     }
-}
\ No newline at end of file
+
+    // Versi URL thumbnail semua cover sekaligus, bukan satu query per tile
+    private Map<String, String> thumbnailHashes(List<Songs> songs) {
+        return coverThumbnailService.getThumbnailHashes(songs.stream().map(Songs::getCover).toList(),
+                TILE_THUMBNAIL_SIZE);
+    }
+}
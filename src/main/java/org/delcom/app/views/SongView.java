@@ -1,8 +1,10 @@
 package org.delcom.app.views;
 
 import java.io.IOException;
-import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,11 +13,18 @@ import org.delcom.app.dto.CoverSongForm;
 import org.delcom.app.dto.SongForm;
 import org.delcom.app.entities.Songs;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.CoverThumbnailService;
+import org.delcom.app.services.BlobStore.PresignedRequest;
+import org.delcom.app.services.CoverThumbnailService.Thumbnail;
 import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.FileStorageService.StoredFile;
 import org.delcom.app.services.SongsService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,7 +40,6 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/songs")
@@ -39,10 +47,13 @@ public class SongView {
 
     private final SongsService songsService;
     private final FileStorageService fileStorageService;
+    private final CoverThumbnailService coverThumbnailService;
 
-    public SongView(SongsService songsService, FileStorageService fileStorageService) {
+    public SongView(SongsService songsService, FileStorageService fileStorageService,
+            CoverThumbnailService coverThumbnailService) {
         this.songsService = songsService;
         this.fileStorageService = fileStorageService;
+        this.coverThumbnailService = coverThumbnailService;
     }
 
     @PostMapping("/add")
@@ -124,9 +135,9 @@ public class SongView {
             }
 
             try {
-                String fileName = fileStorageService.storeFile(coverFile, entity.getId());
+                String fileName = fileStorageService.storeFile(coverFile);
                 songsService.updateCover(entity.getId(), fileName);
-            } catch (IOException e) {
+            } catch (IOException | IllegalStateException e) {
                 redirectAttributes.addFlashAttribute("error", "Gagal upload cover, tapi lagu berhasil ditambahkan");
                 return "redirect:/";
             }
@@ -229,9 +240,9 @@ public class SongView {
             }
 
             try {
-                String fileName = fileStorageService.storeFile(coverFile, songForm.getId());
+                String fileName = fileStorageService.storeFile(coverFile);
                 songsService.updateCover(songForm.getId(), fileName);
-            } catch (IOException e) {
+            } catch (IOException | IllegalStateException e) {
                 redirectAttributes.addFlashAttribute("error", "Gagal upload cover, tapi data lagu berhasil diperbarui");
                 return "redirect:/";
             }
@@ -383,14 +394,14 @@ public class SongView {
 
         try {
             // Simpan file
-            String fileName = fileStorageService.storeFile(coverSongForm.getCoverFile(), coverSongForm.getId());
+            String fileName = fileStorageService.storeFile(coverSongForm.getCoverFile());
 
             // Update song dengan nama file cover
             songsService.updateCover(coverSongForm.getId(), fileName);
 
             redirectAttributes.addFlashAttribute("success", "Cover lagu berhasil diupload");
             return "redirect:/songs/" + coverSongForm.getId();
-        } catch (IOException e) {
+        } catch (IOException | IllegalStateException e) {
             redirectAttributes.addFlashAttribute("error", "Gagal mengupload cover");
             redirectAttributes.addFlashAttribute("editCoverSongModalOpen", true);
             return "redirect:/songs/" + coverSongForm.getId();
@@ -398,21 +409,62 @@ public class SongView {
 
     }
 
-    @GetMapping("/cover/{filename:.+}")
-    @ResponseBody
-    public Resource getCoverByFilename(@PathVariable String filename) {
-        try {
-            Path file = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(file.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
-                return null;
+    // Menyajikan file cover atau thumbnail-nya (?size=64|256|640). Range (206),
+    // If-None-Match dan If-Modified-Since (304) ditangani Spring dari
+    // ETag/Last-Modified dan body Resource, dengan file dibaca dari BlobStore
+    // hanya untuk region yang diminta.
+    // Cover content-addressed (ab/cd/{sha256}.ext) dan URL dengan ?v= yang
+    // sesuai versi file di-cache permanen oleh browser.
+    // Dengan object storage, browser diarahkan ke presigned URL sehingga isi
+    // cover tidak melewati aplikasi.
+    @GetMapping("/cover/{*path}")
+    public ResponseEntity<Resource> getCoverByFilename(@PathVariable String path,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "size", required = false) Integer size) {
+        String filename = path.startsWith("/") ? path.substring(1) : path;
+        if (fileStorageService.isDirectTransferSupported()) {
+            String thumbnail = size != null ? coverThumbnailService.findThumbnailName(filename, size) : null;
+            return coverRedirect(fileStorageService.presignDownload(thumbnail != null ? thumbnail : filename));
+        }
+        if (size != null) {
+            // Versi thumbnail adalah hash isinya
+            Thumbnail thumbnail = coverThumbnailService.findThumbnail(filename, size);
+            if (thumbnail != null) {
+                return coverResponse(thumbnail.file(), thumbnail.hash(), thumbnail.hash().equals(version));
             }
-        } catch (Exception e) {
-            return null;
         }
+
+        StoredFile file = fileStorageService.getStoredFile(filename);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Thumbnail yang belum jadi diganti file asli, tetapi URL-nya tidak boleh di-cache permanen
+        boolean immutable = FileStorageService.isContentAddressed(filename) || file.version().equals(version);
+        return coverResponse(file, file.version(), size == null && immutable);
+    }
+
+    // Redirect boleh di-cache selama presigned URL masih berlaku, dikurangi
+    // sedikit jeda agar browser tidak mengikuti URL yang sudah kedaluwarsa
+    private static ResponseEntity<Resource> coverRedirect(PresignedRequest request) {
+        long maxAge = Duration.between(Instant.now(), request.expiresAt()).toSeconds()
+                - ConstUtil.COVER_REDIRECT_EXPIRY_MARGIN_SECONDS;
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(request.url())
+                .cacheControl(maxAge > 0 ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate()
+                        : CacheControl.noStore())
+                .build();
+    }
+
+    private ResponseEntity<Resource> coverResponse(StoredFile file, String etag, boolean immutable) {
+        CacheControl cacheControl = immutable
+                ? CacheControl.maxAge(ConstUtil.COVER_CACHE_MAX_AGE_SECONDS, TimeUnit.SECONDS).cachePublic().immutable()
+                : CacheControl.noCache();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .eTag(etag)
+                .lastModified(file.lastModified())
+                .cacheControl(cacheControl)
+                .body(fileStorageService.getResource(file));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+-- Index tambahan khusus PostgreSQL, dijalankan setelah Hibernate membuat tabel
+-- (spring.sql.init.platform=postgresql, spring.jpa.defer-datasource-initialization=true).
+-- Index yang portable dideklarasikan lewat @Index di entity.
+
+-- Daftar lagu per user urut terbaru (sama dengan @Index di Songs)
+CREATE INDEX IF NOT EXISTS idx_songs_user_created ON songs (user_id, created_at DESC, id DESC);
+
+-- Delta sync /api/songs/changes (sama dengan @Index di Songs)
+CREATE INDEX IF NOT EXISTS idx_songs_user_updated ON songs (user_id, updated_at, id);
+
+-- Filter genre: s.userId = ? AND LOWER(s.genre) = LOWER(?)
+CREATE INDEX IF NOT EXISTS idx_songs_user_genre_lower ON songs (user_id, lower(genre));
+
+-- Filter artist: s.userId = ? AND LOWER(s.artist) ...
+CREATE INDEX IF NOT EXISTS idx_songs_user_artist_lower ON songs (user_id, lower(artist));
+
+-- Lookup token: index hash cukup untuk kesamaan dan jauh lebih kecil dari
+-- btree untuk JWT yang panjang
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_token_hash ON auth_tokens USING hash (token);
+
+-- Full-text search lagu: dokumen berbobot title (A) > artist (B) > album (C) > genre (D)
+ALTER TABLE songs ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple'::regconfig, coalesce(artist, '')), 'B') ||
+    setweight(to_tsvector('simple'::regconfig, coalesce(album, '')), 'C') ||
+    setweight(to_tsvector('simple'::regconfig, coalesce(genre, '')), 'D')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_songs_search_vector ON songs USING gin (search_vector);
@@ -64,4 +64,15 @@ public class ApiResponseTest {
         // Pastikan key "data" TIDAK ADA di dalam string JSON
         assertFalse(jsonResult.contains("\"data\""), "Field 'data' should not be present in JSON when null");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testJsonSerialization_WithNextCursor() throws JsonProcessingException {
+        // Cursor hanya muncul di JSON jika ada halaman berikutnya
+        ApiResponse<String> withCursor = new ApiResponse<>("success", "OK", "x", "abc");
+        ApiResponse<String> withoutCursor = new ApiResponse<>("success", "OK", "x");
+
+        assertEquals("abc", withCursor.getNextCursor());
+        assertTrue(mapper.writeValueAsString(withCursor).contains("\"nextCursor\":\"abc\""));
+        assertFalse(mapper.writeValueAsString(withoutCursor).contains("nextCursor"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTests {
+
+    private final TaskDecorator decorator = new AsyncConfig().securityContextTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication login(String name) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(name, null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return authentication;
+    }
+
+    @Test
+    @DisplayName("SecurityContext pemanggil diteruskan ke task lalu dibersihkan")
+    void testPropagatesAndRestoresSecurityContext() throws Exception {
+        Authentication caller = login("caller");
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+
+        // Thread yang sama dipakai ulang seperti pada thread pool
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(task).get();
+            Future<Authentication> after = executor.submit(
+                    () -> SecurityContextHolder.getContext().getAuthentication());
+
+            assertSame(caller, seen.get());
+            assertNull(after.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Context tiap request terisolasi di virtual thread")
+    void testIsolationOnVirtualThreads() throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                String name = "user-" + i;
+                results.add(executor.submit(() -> {
+                    Authentication own = login(name);
+                    AtomicReference<Authentication> seen = new AtomicReference<>();
+                    Thread nested = Thread.ofVirtual().start(decorator.decorate(
+                            () -> seen.set(SecurityContextHolder.getContext().getAuthentication())));
+                    Thread.sleep(5);
+                    nested.join();
+                    boolean isolated = Thread.currentThread().isVirtual()
+                            && SecurityContextHolder.getContext().getAuthentication() == own
+                            && seen.get() == own;
+                    SecurityContextHolder.clearContext();
+                    return isolated;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+    }
+}
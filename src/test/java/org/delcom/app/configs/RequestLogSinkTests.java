@@ -0,0 +1,96 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSinkTests {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private RequestLogSink sink(int bufferSize, RequestLogSink.Format format) {
+        return new RequestLogSink(bufferSize, format, new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Kapasitas dibulatkan ke pangkat dua")
+    void testCapacityRoundedToPowerOfTwo() {
+        assertEquals(8, sink(5, RequestLogSink.Format.LOGFMT).getCapacity());
+        assertEquals(8192, sink(8192, RequestLogSink.Format.LOGFMT).getCapacity());
+    }
+
+    @Test
+    @DisplayName("Format JSON dengan escaping dan durasi milidetik")
+    void testJsonFormat() {
+        RequestLogSink sink = sink(4, RequestLogSink.Format.JSON);
+
+        assertTrue(sink.offer("GET", "/api/\"songs\"", 200, 1_234_567, "SongsController.getAllSongs", null));
+        assertEquals(1, sink.drain());
+
+        String log = output();
+        assertTrue(log.startsWith("{\"ts\":\""));
+        assertTrue(log.contains("\"uri\":\"/api/\\\"songs\\\"\""));
+        assertTrue(log.contains("\"status\":200"));
+        assertTrue(log.contains("\"duration_ms\":1.234"));
+        assertTrue(log.contains("\"handler\":\"SongsController.getAllSongs\""));
+        assertTrue(log.contains("\"remote\":null}"));
+    }
+
+    @Test
+    @DisplayName("Format logfmt memberi kutip pada nilai dengan spasi")
+    void testLogfmtQuoting() {
+        RequestLogSink sink = sink(4, RequestLogSink.Format.LOGFMT);
+
+        sink.offer("GET", "/search q=a b", 200, 5_000, "", "::1");
+        sink.drain();
+
+        String log = output();
+        assertTrue(log.contains("uri=\"/search q=a b\""));
+        assertTrue(log.contains("duration_ms=0.005"));
+        assertTrue(log.contains("handler=- remote=::1"));
+    }
+
+    @Test
+    @DisplayName("Buffer penuh membuang event dan menaikkan drop counter")
+    void testDropWhenFull() {
+        RequestLogSink sink = sink(2, RequestLogSink.Format.LOGFMT);
+        int capacity = sink.getCapacity();
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(sink.offer("GET", "/" + i, 200, 0, null, null));
+        }
+        assertFalse(sink.offer("GET", "/overflow", 200, 0, null, null));
+        assertEquals(1, sink.getDroppedCount());
+
+        assertEquals(capacity, sink.drain());
+        assertTrue(output().contains("event=request_log_dropped dropped=1"));
+
+        // Slot kosong kembali setelah di-drain
+        assertTrue(sink.offer("GET", "/again", 200, 0, null, null));
+        assertEquals(1, sink.drain());
+        assertEquals(0, sink.drain());
+    }
+
+    @Test
+    @DisplayName("Thread writer menulis event dan flush saat berhenti")
+    void testWriterThread() throws InterruptedException {
+        RequestLogSink sink = sink(64, RequestLogSink.Format.JSON);
+        sink.start();
+
+        for (int i = 0; i < 10; i++) {
+            sink.offer("GET", "/api/songs", 200, 1_000, "SongsController.getAllSongs", "127.0.0.1");
+        }
+        sink.stop();
+
+        assertEquals(10, output().lines().count());
+    }
+}
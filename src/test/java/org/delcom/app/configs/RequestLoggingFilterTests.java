@@ -5,24 +5,49 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.delcom.app.services.RequestMetrics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class RequestLoggingFilterTests {
 
-    @Test
-    @DisplayName("Filter menampilkan log dengan warna cyan untuk status 100")
-    void testLogCyanFor100() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
+    private ByteArrayOutputStream output;
+    private RequestLogSink sink;
+    private RequestMetrics metrics;
+    private RequestLoggingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        output = new ByteArrayOutputStream();
+        sink = new RequestLogSink(16, RequestLogSink.Format.LOGFMT,
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+        metrics = new RequestMetrics();
+        filter = new RequestLoggingFilter(sink, metrics);
         ReflectionTestUtils.setField(filter, "port", 8080);
         ReflectionTestUtils.setField(filter, "livereload", false);
+    }
 
+    private String drainedOutput() {
+        sink.drain();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Filter menitipkan log ke sink untuk status 200")
+    void testLogFor200() throws ServletException, IOException {
+        // Arrange
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain chain = mock(FilterChain.class);
@@ -30,88 +55,93 @@ class RequestLoggingFilterTests {
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/api/test");
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(100);
+        when(response.getStatus()).thenReturn(200);
 
         // Act
         filter.doFilterInternal(request, response, chain);
 
         // Assert
         verify(chain, times(1)).doFilter(request, response);
+        String log = drainedOutput();
+        assertTrue(log.contains("method=GET uri=/api/test status=200"));
+        assertTrue(log.contains("handler=- remote=127.0.0.1"));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log dengan warna hijau untuk status 200")
-    void testLogGreenFor200() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
+    @DisplayName("Filter mencatat status 404 dan 500")
+    void testLogErrorStatus() throws ServletException, IOException {
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain chain = mock(FilterChain.class);
 
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/api/test");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(200);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/error");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(response.getStatus()).thenReturn(404, 500);
 
-        // Act
+        filter.doFilterInternal(request, response, chain);
         filter.doFilterInternal(request, response, chain);
 
-        // Assert
-        verify(chain, times(1)).doFilter(request, response);
+        verify(chain, times(2)).doFilter(request, response);
+        String log = drainedOutput();
+        assertTrue(log.contains("status=404"));
+        assertTrue(log.contains("status=500"));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna kuning untuk status 404")
-    void testLogYellowFor404() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
+    @DisplayName("Filter mencatat metrics per handler pattern dan kelas status")
+    void testRecordsMetricsByPattern() throws ServletException, IOException {
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain chain = mock(FilterChain.class);
 
         when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/notfound");
-        when(request.getRemoteAddr()).thenReturn("192.168.0.10");
-        when(response.getStatus()).thenReturn(404);
+        when(request.getRequestURI()).thenReturn("/api/songs/123");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/api/songs/{id}");
+        when(response.getStatus()).thenReturn(200, 404);
 
+        filter.doFilterInternal(request, response, chain);
         filter.doFilterInternal(request, response, chain);
 
-        verify(chain, times(1)).doFilter(request, response);
+        var snapshots = metrics.snapshot();
+        assertEquals(2, snapshots.size());
+        assertEquals("/api/songs/{id}", snapshots.get(0).pattern());
+        assertEquals("2xx", snapshots.get(0).status());
+        assertEquals("4xx", snapshots.get(1).status());
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna merah untuk status 500")
-    void testLogRedFor500() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
+    @DisplayName("Filter memakai nama handler method yang dipilih DispatcherServlet")
+    void testResolvedHandlerMethod() throws Exception {
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain chain = mock(FilterChain.class);
 
-        when(request.getMethod()).thenReturn("POST");
-        when(request.getRequestURI()).thenReturn("/api/error");
-        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
-        when(response.getStatus()).thenReturn(500);
+        HandlerMethod handlerMethod = new HandlerMethod(this, getClass().getDeclaredMethod("drainedOutput"));
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/songs");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn(handlerMethod);
+        when(response.getStatus()).thenReturn(200);
 
         filter.doFilterInternal(request, response, chain);
 
-        verify(chain, times(1)).doFilter(request, response);
+        assertTrue(drainedOutput().contains("handler=RequestLoggingFilterTests.drainedOutput"));
+        // Nama handler di-cache, instance String yang sama dipakai ulang
+        assertSame(filter.resolveHandler(request), filter.resolveHandler(request));
+    }
+
+    @Test
+    @DisplayName("Filter memakai nama class untuk handler non-method")
+    void testResolvedHandlerClass() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn("static");
+
+        assertEquals("String", filter.resolveHandler(request));
     }
 
     @Test
     @DisplayName("Filter tidak menampilkan log untuk URI /.well-known")
     void testSkipWellKnown() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain chain = mock(FilterChain.class);
@@ -124,6 +154,9 @@ class RequestLoggingFilterTests {
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        assertEquals("", drainedOutput());
+        // Metrics tetap dicatat
+        assertEquals(RequestMetrics.UNMATCHED_PATTERN, metrics.snapshot().get(0).pattern());
     }
 
 }
@@ -0,0 +1,118 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.RequestLogSink;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.OrphanedFileCollector;
+import org.delcom.app.services.RequestMetrics;
+import org.delcom.app.services.SongSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdminControllerTest {
+
+    private RequestMetrics requestMetrics;
+    private RequestLogSink requestLogSink;
+    private SongSuggestIndex songSuggestIndex;
+    private OrphanedFileCollector orphanedFileCollector;
+    private AuthContext authContext;
+    private AdminController adminController;
+
+    @BeforeEach
+    void setUp() {
+        requestMetrics = new RequestMetrics();
+        requestLogSink = mock(RequestLogSink.class);
+        songSuggestIndex = mock(SongSuggestIndex.class);
+        orphanedFileCollector = mock(OrphanedFileCollector.class);
+        authContext = mock(AuthContext.class);
+        lenient().when(songSuggestIndex.getStats()).thenReturn(new SongSuggestIndex.IndexStats(0, 0, 0, 0));
+        lenient().when(orphanedFileCollector.getStats())
+                .thenReturn(new OrphanedFileCollector.Stats(0, 0, 0, 0, false, null));
+
+        adminController = new AdminController(requestMetrics, requestLogSink, songSuggestIndex,
+                orphanedFileCollector, " Admin@Example.com , ");
+        adminController.authContext = authContext;
+    }
+
+    private void loginAs(String email) {
+        User user = new User("User", email, "password");
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+    }
+
+    @Test
+    void getMetrics_Unauthenticated_Forbidden() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> result = adminController.getMetrics();
+
+        assertEquals(HttpStatus.FORBIDDEN, result.getStatusCode());
+        assertEquals("User tidak terautentikasi", result.getBody().getMessage());
+    }
+
+    @Test
+    void getMetrics_NotAdmin_Forbidden() {
+        loginAs("user@example.com");
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> result = adminController.getMetrics();
+
+        assertEquals(HttpStatus.FORBIDDEN, result.getStatusCode());
+        assertEquals("Akses admin ditolak", result.getBody().getMessage());
+        assertEquals(HttpStatus.FORBIDDEN, adminController.getMetricsPrometheus().getStatusCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getMetrics_Admin_ReturnsEndpoints() {
+        loginAs("admin@example.com");
+        requestMetrics.record("GET", "/api/songs/{id}", 200, 3_000_000);
+        when(requestLogSink.getDroppedCount()).thenReturn(7L);
+        when(songSuggestIndex.getStats()).thenReturn(new SongSuggestIndex.IndexStats(1, 10, 25, 4096));
+        when(orphanedFileCollector.getStats()).thenReturn(new OrphanedFileCollector.Stats(2, 500, 3, 4096, false,
+                new OrphanedFileCollector.Result(250, 240, 7, 3, 4096, 1024, 120, 0)));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> result = adminController.getMetrics();
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        Map<String, Object> data = result.getBody().getData();
+        assertEquals(7L, data.get("requestLogDropped"));
+        Map<String, Object> searchIndex = (Map<String, Object>) data.get("searchIndex");
+        assertEquals(10L, searchIndex.get("songs"));
+        assertEquals(4096L, searchIndex.get("estimatedBytes"));
+        Map<String, Object> fileCleanup = (Map<String, Object>) data.get("fileCleanup");
+        assertEquals(3L, fileCleanup.get("deleted"));
+        assertEquals(120L, ((OrphanedFileCollector.Result) fileCleanup.get("lastRun")).durationMillis());
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) data.get("endpoints");
+        assertEquals(1, endpoints.size());
+        assertEquals("/api/songs/{id}", endpoints.get(0).get("pattern"));
+        assertEquals("2xx", endpoints.get(0).get("status"));
+        assertEquals(1L, endpoints.get(0).get("count"));
+        assertEquals(3.0, endpoints.get(0).get("p99Ms"));
+    }
+
+    @Test
+    void getMetricsPrometheus_Admin_ReturnsText() {
+        loginAs("ADMIN@example.com");
+        requestMetrics.record("GET", "/api/songs", 200, 1_000_000);
+
+        ResponseEntity<?> result = adminController.getMetricsPrometheus();
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("text", result.getHeaders().getContentType().getType());
+        assertEquals("plain", result.getHeaders().getContentType().getSubtype());
+        String body = (String) result.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_count{method=\"GET\",uri=\"/api/songs\",status=\"2xx\"} 1"));
+        assertTrue(body.contains("request_log_dropped_total 0"));
+        assertTrue(body.contains("search_index_bytes 0"));
+        assertTrue(body.contains("orphaned_files_deleted_total 0"));
+    }
+}
@@ -2,9 +2,30 @@ package org.delcom.app.controllers;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.CoverUploadRequest;
+import org.delcom.app.dto.LibraryStats;
+import org.delcom.app.dto.SongBatchOperation;
+import org.delcom.app.dto.SongBatchResult;
+import org.delcom.app.dto.SongChanges;
+import org.delcom.app.dto.SongFacets;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.dto.SongImportResult;
+import org.delcom.app.dto.SongPage;
 import org.delcom.app.entities.Songs;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.BlobStore.PresignedRequest;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.FileStorageService.DirectUpload;
+import org.delcom.app.services.LibraryStatsService;
+import org.delcom.app.services.SongExportService;
+import org.delcom.app.services.SongImportService;
+import org.delcom.app.services.SongSuggestIndex;
+import org.delcom.app.services.SongSyncService;
 import org.delcom.app.services.SongsService;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.delcom.app.utils.ETagUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +35,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +64,18 @@ class SongsControllerTest {
     @Mock
     private SongsService songsService;
 
+    @Mock
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private SongExportService songExportService;
+
+    @Mock
+    private SongImportService songImportService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
     @Mock
     private AuthContext authContext;
 
@@ -139,90 +186,636 @@ class SongsControllerTest {
     }
 
     // ==========================================
-    // 2. GET ALL SONGS (GET) - FIXED FOR FULL COVERAGE
+    // 2. GET ALL SONGS (GET) - KEYSET PAGINATION
     // ==========================================
 
     @Test
     void getAllSongs_Unauthorized() {
         when(authContext.isAuthenticated()).thenReturn(false);
-        ResponseEntity<?> response = songsController.getAllSongs(null, null, null);
+        ResponseEntity<?> response = songsController.getAllSongs(null, null, null, null, null, null, null, null, null, false, false, null);
         assertTrue(response.getStatusCode() == HttpStatus.FORBIDDEN || response.getStatusCode() == HttpStatus.UNAUTHORIZED);
     }
 
-    // CASE 1: Genre Valid (Masuk IF pertama)
     @Test
-    void getAllSongs_FilterByGenre() {
+    void getAllSongs_FacetsRequested_UsesDefaultLimitAndReturnsFacets() {
+        SongFacets facets = new SongFacets(1, Map.of("Pop", 1L), Map.of("Test Artist", 1L), Map.of("2020s", 1L));
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        when(songsService.getSongsByGenre(userId, "Rock")).thenReturn(List.of(mockSong));
+        when(songsService.getSongsPage(userId, SongFilter.none(), null, ConstUtil.DEFAULT_PAGE_SIZE))
+            .thenReturn(new SongPage(List.of(mockSong), null));
+        when(songsService.getSongFacets(userId, SongFilter.none())).thenReturn(facets);
 
         ResponseEntity<ApiResponse<Map<String, Object>>> response = 
-            songsController.getAllSongs(null, "Rock", null);
+            songsController.getAllSongs(null, null, null, null, null, null, null, null, null, false, true, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(songsService).getSongsByGenre(userId, "Rock");
+        assertNull(response.getBody().getNextCursor());
+        assertEquals(1, response.getBody().getData().get("count"));
+        assertFalse(response.getBody().getData().containsKey("total"));
+        assertEquals(facets, response.getBody().getData().get("facets"));
     }
 
-    // CASE 2: Artist Valid (Genre Null) -> (Masuk ELSE IF)
     @Test
-    void getAllSongs_FilterByArtist_GenreNull() {
+    void getAllSongs_CombinedFilter_LimitCappedByMaxPageSize() {
+        SongFilter filter = new SongFilter("love", "Rock", "Queen", 1970, 1989, 120, 400);
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        when(songsService.getSongsByArtist(userId, "Queen")).thenReturn(List.of(mockSong));
+        when(songsService.getSongsPage(userId, filter, null, ConstUtil.MAX_PAGE_SIZE))
+            .thenReturn(new SongPage(List.of(mockSong), "next"));
 
         ResponseEntity<ApiResponse<Map<String, Object>>> response = 
-            songsController.getAllSongs(null, null, "Queen");
+            songsController.getAllSongs("love", "Rock", "Queen", 1970, 1989, 120, 400, null, 10_000, false, true, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(songsService).getSongsByArtist(userId, "Queen");
+        assertEquals("next", response.getBody().getNextCursor());
+        verify(songsService).getSongFacets(userId, filter);
+    }
+
+    @Test
+    void getAllSongs_InvalidRange() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> years =
+            songsController.getAllSongs(null, null, null, 2000, 1990, null, null, null, null, false, false, null);
+        ResponseEntity<ApiResponse<Map<String, Object>>> durations =
+            songsController.getAllSongs(null, null, null, null, null, 300, 100, null, null, false, false, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, years.getStatusCode());
+        assertEquals("Data rentang tahun tidak valid", years.getBody().getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, durations.getStatusCode());
+        assertEquals("Data rentang durasi tidak valid", durations.getBody().getMessage());
+        verify(songsService, never()).getSongsPage(any(), any(), any(), anyInt());
     }
 
-    // CASE 3: Genre EMPTY String ("") -> (Cek logika !genre.isEmpty())
-    // Genre tidak null, tapi kosong, jadi harus LEWAT (False) di IF pertama, masuk ke cek Artist
     @Test
-    void getAllSongs_GenreEmpty_ShouldCheckArtist() {
+    void getAllSongs_WithValidCursor_SkipsFacets() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        String cursor = CursorUtil.encode(createdAt, songId);
+        SongFilter filter = new SongFilter("queen", null, null, null, null, null, null);
+
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        when(songsService.getSongsByArtist(userId, "Queen")).thenReturn(List.of(mockSong));
+        when(songsService.getSongsPage(eq(userId), eq(filter), any(), eq(5)))
+            .thenReturn(new SongPage(List.of(), null));
 
-        // Param genre dikirim "" (kosong), artist "Queen"
         ResponseEntity<ApiResponse<Map<String, Object>>> response = 
-            songsController.getAllSongs(null, "", "Queen");
+            songsController.getAllSongs("queen", null, null, null, null, null, null, cursor, 5, false, true, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        // Harus memanggil byArtist, membuktikan dia melewati cek genre karena kosong
-        verify(songsService).getSongsByArtist(userId, "Queen");
+        assertFalse(response.getBody().getData().containsKey("facets"));
+        verify(songsService).getSongsPage(userId, filter, new CursorUtil.Cursor(createdAt, songId), 5);
+        verify(songsService, never()).getSongFacets(any(), any());
     }
 
-    // CASE 4: Artist EMPTY String ("") -> (Cek logika !artist.isEmpty())
-    // Genre Null, Artist tidak null tapi kosong -> Harus LEWAT (False) di ELSE IF, masuk ke ELSE (Default/Search)
     @Test
-    void getAllSongs_ArtistEmpty_ShouldGoToDefault() {
+    void getAllSongs_InvalidCursor() {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        // Expect memanggil getAllSongs (search), BUKAN getSongsByArtist
-        when(songsService.getAllSongs(eq(userId), any())).thenReturn(List.of(mockSong));
 
-        // Param genre null, artist "" (kosong)
         ResponseEntity<ApiResponse<Map<String, Object>>> response = 
-            songsController.getAllSongs("someSearch", null, "   "); // spasi/kosong
+            songsController.getAllSongs(null, null, null, null, null, null, null, "bukan-cursor", null, false, false, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(songsService, never()).getSongsPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getAllSongs_Fuzzy_UsesFuzzySearchWithoutCursor() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.searchSongsFuzzy(userId, "qeen", ConstUtil.DEFAULT_PAGE_SIZE)).thenReturn(List.of(mockSong));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response =
+            songsController.getAllSongs("qeen", null, null, null, null, null, null, "bukan-cursor", null, true, false, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(songsService).getAllSongs(userId, "someSearch");
+        assertEquals(List.of(mockSong), response.getBody().getData().get("songs"));
+        assertEquals(1, response.getBody().getData().get("count"));
+        assertNull(response.getBody().getNextCursor());
+        verify(songsService, never()).getSongsPage(any(), any(), any(), anyInt());
     }
 
-    // CASE 5: Semua Null -> (Masuk ELSE)
     @Test
-    void getAllSongs_NoFilter() {
+    void getAllSongs_IfNoneMatchCurrentVersion_ReturnsNotModifiedWithoutLoading() {
+        String etag = ETagUtil.library(userId, 7);
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        when(songsService.getAllSongs(eq(userId), any())).thenReturn(List.of(mockSong));
+        when(songsService.getLibraryVersion(userId)).thenReturn(7L);
 
-        ResponseEntity<ApiResponse<Map<String, Object>>> response = 
-            songsController.getAllSongs(null, null, null);
+        ResponseEntity<ApiResponse<Map<String, Object>>> response =
+            songsController.getAllSongs(null, null, null, null, null, null, null, null, null, false, false, etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(songsService, never()).getSongsPage(any(), any(), any(), anyInt());
+        verify(songsService, never()).getSongFacets(any(), any());
+    }
+
+    @Test
+    void getAllSongs_IfNoneMatchStaleVersion_ReturnsPageWithNewETag() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getLibraryVersion(userId)).thenReturn(8L);
+        when(songsService.getSongsPage(eq(userId), any(), isNull(), anyInt()))
+            .thenReturn(new SongPage(List.of(mockSong), null));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.getAllSongs(
+            null, null, null, null, null, null, null, null, null, false, false, ETagUtil.library(userId, 7));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETagUtil.library(userId, 8), response.getHeaders().getETag());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getAllSongs_FacetsNotRequested_SkipsFacetQuery() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongsPage(userId, SongFilter.none(), null, ConstUtil.DEFAULT_PAGE_SIZE))
+            .thenReturn(new SongPage(List.of(mockSong), null));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response =
+            songsController.getAllSongs(null, null, null, null, null, null, null, null, null, false, false, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getBody().getData().containsKey("facets"));
+        verify(songsService, never()).getSongFacets(any(), any());
+    }
+
+    @Test
+    void suggestSongs_Unauthorized() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.suggestSongs("que", null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(songsService, never()).suggestSongs(any(), any(), anyInt());
+    }
+
+    @Test
+    void suggestSongs_DefaultAndCappedLimit() {
+        SongSuggestIndex.Suggestion suggestion =
+            new SongSuggestIndex.Suggestion(songId, "Bohemian Rhapsody", "Queen", null, "Rock", 8);
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.suggestSongs(eq(userId), eq("boh"), anyInt())).thenReturn(List.of(suggestion));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.suggestSongs("boh", null);
+        songsController.suggestSongs("boh", 1_000);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(suggestion), response.getBody().getData().get("suggestions"));
+        assertEquals(1, response.getBody().getData().get("total"));
+        verify(songsService).suggestSongs(userId, "boh", ConstUtil.DEFAULT_SUGGEST_LIMIT);
+        verify(songsService).suggestSongs(userId, "boh", ConstUtil.MAX_SUGGEST_LIMIT);
+    }
+
+    @Test
+    void exportSongs_Unauthorized() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<?> response = songsController.exportSongs("ndjson", false);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void exportSongs_InvalidFormat() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<?> response = songsController.exportSongs("xml", false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(songExportService);
+    }
+
+    @Test
+    void exportSongs_Csv_StreamsAttachment() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songExportService.export(eq(userId), eq(SongFileFormat.CSV), any())).thenAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("a,b\r\n".getBytes());
+            return 1L;
+        });
+
+        ResponseEntity<?> response = songsController.exportSongs("csv", false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(output);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getContentDisposition().isAttachment());
+        assertEquals("songs.csv", response.getHeaders().getContentDisposition().getFilename());
+        assertEquals("a,b\r\n", output.toString());
+    }
+
+    @Test
+    void exportSongs_Gzip_CompressesBody() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songExportService.export(eq(userId), eq(SongFileFormat.NDJSON), any())).thenAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{}\n".getBytes());
+            return 1L;
+        });
+
+        ResponseEntity<?> response = songsController.exportSongs("ndjson", true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(output);
+
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+        assertEquals("songs.ndjson.gz", response.getHeaders().getContentDisposition().getFilename());
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("{}\n", new String(input.readAllBytes()));
+        }
+    }
+
+    @Test
+    void getChanges_Unauthorized() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<SongChanges>> response = songsController.getChanges(null, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void getChanges_InvalidToken_ReturnsBadRequest() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<ApiResponse<SongChanges>> response = songsController.getChanges("garbage", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(songsService);
+    }
+
+    @Test
+    void getChanges_DecodesTokenAndClampsLimit() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        SongSyncService.SyncToken token = new SongSyncService.SyncToken(LocalDateTime.now(), songId, false, null);
+        SongChanges changes = new SongChanges(List.of(), List.of(songId), "next", false, false);
+        when(songsService.getChanges(userId, token, ConstUtil.MAX_SYNC_LIMIT)).thenReturn(changes);
+        when(songsService.getChanges(userId, null, ConstUtil.DEFAULT_SYNC_LIMIT)).thenReturn(changes);
+
+        ResponseEntity<ApiResponse<SongChanges>> response = songsController.getChanges(token.encode(), 100_000);
+        songsController.getChanges(null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(changes, response.getBody().getData());
+        verify(songsService).getChanges(userId, null, ConstUtil.DEFAULT_SYNC_LIMIT);
+    }
+
+    @Test
+    void batchSongs_InvalidSize_ReturnsBadRequest() {
+        List<SongBatchOperation> tooMany = Collections.nCopies(ConstUtil.MAX_BATCH_OPERATIONS + 1,
+                new SongBatchOperation("delete", songId, null, null, null, null, null, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, songsController.batchSongs(List.of()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, songsController.batchSongs(tooMany).getStatusCode());
+        verifyNoInteractions(songsService);
+    }
+
+    @Test
+    void batchSongs_Unauthorized() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.batchSongs(List.of(
+                new SongBatchOperation("delete", songId, null, null, null, null, null, null)));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void batchSongs_ReturnsPerOperationResults() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        List<SongBatchOperation> operations = List.of(
+                new SongBatchOperation("delete", songId, null, null, null, null, null, null),
+                new SongBatchOperation("delete", songId, null, null, null, null, null, null));
+        List<SongBatchResult> results = List.of(
+                SongBatchResult.success(0, "delete", songId, "Data lagu berhasil dihapus"),
+                SongBatchResult.fail(1, "delete", songId, "Data lagu tidak ditemukan"));
+        when(songsService.applyBatch(userId, operations)).thenReturn(results);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.batchSongs(operations);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getData().get("succeeded"));
+        assertEquals(1L, response.getBody().getData().get("failed"));
+        assertEquals(results, response.getBody().getData().get("results"));
+    }
+
+    @Test
+    void importSongs_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<SongImportResult>> response =
+                songsController.importSongs(null, null, null, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(songImportService);
+    }
+
+    @Test
+    void importSongs_InvalidFormat() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<ApiResponse<SongImportResult>> response =
+                songsController.importSongs("xml", null, null, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(songImportService);
+    }
+
+    @Test
+    void importSongs_CsvContentType_ReturnsCounts() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        SongImportResult result = new SongImportResult(2, 1,
+                List.of(new SongImportResult.RowError(3, "Genre tidak boleh kosong")), false);
+        when(songImportService.importSongs(eq(userId), eq(SongFileFormat.CSV), any())).thenReturn(result);
+
+        ResponseEntity<ApiResponse<SongImportResult>> response = songsController.importSongs(
+                null, "text/csv; charset=UTF-8", null, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("2 lagu berhasil diimport, 1 baris ditolak", response.getBody().getMessage());
+        assertSame(result, response.getBody().getData());
+    }
+
+    @Test
+    void importSongs_GzipBody_IsDecompressed() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{}\n".getBytes());
+        }
+        when(songImportService.importSongs(eq(userId), eq(SongFileFormat.NDJSON), any())).thenAnswer(invocation -> {
+            assertEquals("{}\n", new String(invocation.getArgument(2, InputStream.class).readAllBytes()));
+            return new SongImportResult(0, 1, List.of(), false);
+        });
+
+        ResponseEntity<ApiResponse<SongImportResult>> response = songsController.importSongs(
+                "ndjson", null, "gzip", new ByteArrayInputStream(compressed.toByteArray()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void importSongs_GzipEncodingWithPlainBody_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<ApiResponse<SongImportResult>> response = songsController.importSongs(
+                "ndjson", null, "gzip", new ByteArrayInputStream("{}\n".getBytes()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Body gzip tidak valid", response.getBody().getMessage());
+        verifyNoInteractions(songImportService);
+    }
+
+    @Test
+    void importSongs_TruncatedGzipBody_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"title\":\"A\"}\n".repeat(100).getBytes());
+        }
+        byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+        when(songImportService.importSongs(eq(userId), eq(SongFileFormat.NDJSON), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, InputStream.class).readAllBytes();
+                    return new SongImportResult(0, 0, List.of(), false);
+                });
+
+        ResponseEntity<ApiResponse<SongImportResult>> response = songsController.importSongs(
+                "ndjson", null, "gzip", new ByteArrayInputStream(truncated));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void importSongs_InvalidCsvHeader_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songImportService.importSongs(eq(userId), eq(SongFileFormat.CSV), any()))
+                .thenThrow(new IllegalArgumentException("Kolom title tidak ada di header CSV"));
+
+        ResponseEntity<ApiResponse<SongImportResult>> response = songsController.importSongs(
+                "csv", null, null, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void uploadCover_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        InputStream body = new ByteArrayInputStream(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF });
+        when(fileStorageService.storeImage(body, ConstUtil.MAX_FILE_SIZE)).thenReturn("ab/cd/abcd.jpg");
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(songId, 3L, body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("ab/cd/abcd.jpg", response.getBody().getData().get("cover"));
+        verify(songsService).updateCover(songId, "ab/cd/abcd.jpg");
+    }
+
+    @Test
+    void uploadCover_ContentLengthTooLarge_RejectedBeforeReading() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(
+                songId, ConstUtil.MAX_FILE_SIZE + 1, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.CONTENT_TOO_LARGE, response.getStatusCode());
+        verifyNoInteractions(fileStorageService, songsService);
+    }
+
+    @Test
+    void uploadCover_ChunkedBodyTooLarge() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        when(fileStorageService.storeImage(any(), eq(ConstUtil.MAX_FILE_SIZE)))
+                .thenThrow(new MaxUploadSizeExceededException(ConstUtil.MAX_FILE_SIZE));
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(
+                songId, null, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.CONTENT_TOO_LARGE, response.getStatusCode());
+        verify(songsService, never()).updateCover(any(), any());
+    }
+
+    @Test
+    void uploadCover_NotAnImage_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        when(fileStorageService.storeImage(any(), eq(ConstUtil.MAX_FILE_SIZE)))
+                .thenThrow(new IllegalArgumentException("Format file tidak didukung"));
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(
+                songId, 4L, new ByteArrayInputStream("text".getBytes()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(songsService, never()).updateCover(any(), any());
+    }
+
+    @Test
+    void uploadCover_SongNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(null);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(
+                songId, 3L, new ByteArrayInputStream(new byte[3]));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void uploadCover_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.uploadCover(
+                songId, 3L, new ByteArrayInputStream(new byte[3]));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(fileStorageService, songsService);
+    }
+
+    @Test
+    void createCoverUploadUrl_ReturnsPresignedRequest() throws Exception {
+        String hash = "ab" + "0".repeat(62);
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(fileStorageService.isDirectTransferSupported()).thenReturn(true);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        PresignedRequest request = new PresignedRequest(URI.create("https://bucket.example/ab/00/x.png?X-Amz-Signature=s"),
+                "PUT", Map.of("Content-Type", "image/png"), Instant.parse("2024-05-01T12:15:00Z"));
+        when(fileStorageService.prepareImageUpload(hash, 1024, "image/png", ConstUtil.MAX_FILE_SIZE))
+                .thenReturn(new DirectUpload("ab/00/x.png", request));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.createCoverUploadUrl(songId,
+                new CoverUploadRequest(hash, 1024L, "image/png"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> data = response.getBody().getData();
+        assertEquals("ab/00/x.png", data.get("cover"));
+        assertEquals(request.url().toString(), data.get("uploadUrl"));
+        assertEquals("PUT", data.get("method"));
+        assertEquals(request.headers(), data.get("headers"));
+        verify(songsService, never()).updateCover(any(), any());
+    }
+
+    @Test
+    void createCoverUploadUrl_ContentAlreadyStored_OmitsUploadUrl() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(fileStorageService.isDirectTransferSupported()).thenReturn(true);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        when(fileStorageService.prepareImageUpload(any(), anyLong(), any(), anyLong()))
+                .thenReturn(new DirectUpload("ab/00/x.png", null));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.createCoverUploadUrl(songId,
+                new CoverUploadRequest("ab" + "0".repeat(62), 1024L, "image/png"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("cover", "ab/00/x.png"), response.getBody().getData());
+    }
+
+    @Test
+    void createCoverUploadUrl_InvalidRequest_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(fileStorageService.isDirectTransferSupported()).thenReturn(true);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        when(fileStorageService.prepareImageUpload(null, 0, "image/svg+xml", ConstUtil.MAX_FILE_SIZE))
+                .thenThrow(new IllegalArgumentException("Data upload tidak valid"));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.createCoverUploadUrl(songId,
+                new CoverUploadRequest(null, null, "image/svg+xml"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void createCoverUploadUrl_LocalStorage_NotImplemented() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(fileStorageService.isDirectTransferSupported()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.createCoverUploadUrl(songId,
+                new CoverUploadRequest("ab" + "0".repeat(62), 1024L, "image/png"));
+
+        assertEquals(HttpStatus.NOT_IMPLEMENTED, response.getStatusCode());
+        verifyNoInteractions(songsService);
+    }
+
+    @Test
+    void completeCoverUpload_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.completeCoverUpload(songId,
+                Map.of("cover", "ab/00/x.png"));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(songsService).getAllSongs(userId, null);
+        verify(fileStorageService).verifyUploadedImage("ab/00/x.png", ConstUtil.MAX_FILE_SIZE);
+        verify(songsService).updateCover(songId, "ab/00/x.png");
+    }
+
+    @Test
+    void completeCoverUpload_NotUploaded_ReturnsBadRequest() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        doThrow(new NoSuchFileException("ab/00/x.png")).when(fileStorageService)
+                .verifyUploadedImage("ab/00/x.png", ConstUtil.MAX_FILE_SIZE);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.completeCoverUpload(songId,
+                Map.of("cover", "ab/00/x.png"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(songsService, never()).updateCover(any(), any());
+    }
+
+    @Test
+    void completeCoverUpload_TooLarge() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+        doThrow(new MaxUploadSizeExceededException(ConstUtil.MAX_FILE_SIZE)).when(fileStorageService)
+                .verifyUploadedImage("ab/00/x.png", ConstUtil.MAX_FILE_SIZE);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.completeCoverUpload(songId,
+                Map.of("cover", "ab/00/x.png"));
+
+        assertEquals(HttpStatus.CONTENT_TOO_LARGE, response.getStatusCode());
+        verify(songsService, never()).updateCover(any(), any());
+    }
+
+    @Test
+    void completeCoverUpload_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<Map<String, String>>> response = songsController.completeCoverUpload(songId,
+                Map.of("cover", "ab/00/x.png"));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(fileStorageService, songsService);
     }
 
     // ==========================================
@@ -235,7 +828,7 @@ class SongsControllerTest {
         when(authContext.getAuthUser()).thenReturn(mockUser);
         when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
 
-        ResponseEntity<ApiResponse<Map<String, Songs>>> response = songsController.getSongById(songId);
+        ResponseEntity<ApiResponse<Map<String, Songs>>> response = songsController.getSongById(songId, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
@@ -245,14 +838,45 @@ class SongsControllerTest {
         when(authContext.getAuthUser()).thenReturn(mockUser);
         when(songsService.getSongById(userId, songId)).thenReturn(null);
 
-        ResponseEntity<ApiResponse<Map<String, Songs>>> response = songsController.getSongById(songId);
+        ResponseEntity<ApiResponse<Map<String, Songs>>> response = songsController.getSongById(songId, null);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    void getSongById_IfNoneMatchCurrentVersion_ReturnsNotModifiedWithoutLoading() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongVersion(userId, songId)).thenReturn(updatedAt);
+
+        ResponseEntity<ApiResponse<Map<String, Songs>>> response =
+            songsController.getSongById(songId, "W/" + ETagUtil.song(songId, updatedAt));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETagUtil.song(songId, updatedAt), response.getHeaders().getETag());
+        verify(songsService, never()).getSongById(any(), any());
+    }
+
+    @Test
+    void getSongById_IfNoneMatchStale_ReturnsSongWithETag() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+        ReflectionTestUtils.setField(mockSong, "updatedAt", updatedAt);
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(songsService.getSongVersion(userId, songId)).thenReturn(updatedAt);
+        when(songsService.getSongById(userId, songId)).thenReturn(mockSong);
+
+        ResponseEntity<ApiResponse<Map<String, Songs>>> response =
+            songsController.getSongById(songId, ETagUtil.song(songId, updatedAt.minusMinutes(1)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETagUtil.song(songId, updatedAt), response.getHeaders().getETag());
+    }
+
     @Test
     void getSongById_Unauthorized() {
         when(authContext.isAuthenticated()).thenReturn(false);
-        ResponseEntity<?> response = songsController.getSongById(songId);
+        ResponseEntity<?> response = songsController.getSongById(songId, null);
         assertTrue(response.getStatusCode() == HttpStatus.FORBIDDEN || response.getStatusCode() == HttpStatus.UNAUTHORIZED);
     }
 
@@ -376,11 +1000,36 @@ class SongsControllerTest {
     void getStatistics_Success() {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
-        when(songsService.getAllSongs(eq(userId), any())).thenReturn(List.of(mockSong));
-        when(songsService.getTotalDuration(userId)).thenReturn(100);
+        when(libraryStatsService.getStats(userId))
+            .thenReturn(new LibraryStats(1, 354, Map.of("Rock", 1L), Map.of("Queen", 1L)));
 
         ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.getStatistics();
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getData().get("totalSongs"));
+        assertEquals(5L, response.getBody().getData().get("totalDurationInMinutes"));
+        verify(songsService, never()).getAllSongs(any(), any());
+    }
+
+    @Test
+    void getStats_Success() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(libraryStatsService.getStats(userId))
+            .thenReturn(new LibraryStats(1, 354, Map.of("Rock", 1L), Map.of("Queen", 1L)));
+
+        ResponseEntity<ApiResponse<Map<String, Object>>> response = songsController.getStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("Rock", 1L), response.getBody().getData().get("chartDataGenre"));
+        assertEquals(Map.of("Queen", 1L), response.getBody().getData().get("chartDataArtist"));
+        assertEquals(354L, response.getBody().getData().get("totalDuration"));
+    }
+
+    @Test
+    void getStats_Unauthorized() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+        ResponseEntity<?> response = songsController.getStats();
+        assertTrue(response.getStatusCode() == HttpStatus.FORBIDDEN || response.getStatusCode() == HttpStatus.UNAUTHORIZED);
     }
     
     @Test
@@ -0,0 +1,66 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UserLibraryStatsTests {
+    @Test
+    @DisplayName("Memelihara statistik library secara incremental")
+    void testIncrementalStats() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        // Nilai default
+        {
+            UserLibraryStats stats = new UserLibraryStats(userId);
+
+            assertEquals(userId, stats.getUserId());
+            assertEquals(0, stats.getTotalSongs());
+            assertEquals(0, stats.getTotalDuration());
+            assertTrue(stats.getGenreCounts().isEmpty());
+            assertTrue(stats.getArtistCounts().isEmpty());
+            assertEquals(null, new UserLibraryStats().getUserId());
+        }
+
+        // Tambah dan kurangi lagu
+        {
+            UserLibraryStats stats = new UserLibraryStats(userId);
+            stats.apply("Rock", "Queen", 300, 1);
+            stats.apply("Rock", "Muse", 200, 1);
+            stats.apply("Rock", "Queen", 300, -1);
+
+            assertEquals(1, stats.getTotalSongs());
+            assertEquals(200, stats.getTotalDuration());
+            assertEquals(1L, stats.getGenreCounts().get("Rock"));
+            assertTrue(!stats.getArtistCounts().containsKey("Queen"));
+        }
+
+        // Tidak pernah negatif dan key null diabaikan
+        {
+            UserLibraryStats stats = new UserLibraryStats(userId);
+            stats.apply(null, null, 100, -1);
+
+            assertEquals(0, stats.getTotalSongs());
+            assertEquals(0, stats.getTotalDuration());
+            assertTrue(stats.getGenreCounts().isEmpty());
+        }
+
+        // Reset, set total dan timestamp
+        {
+            UserLibraryStats stats = new UserLibraryStats(userId);
+            stats.apply("Pop", "Adele", 100, 1);
+            stats.reset();
+            stats.setTotals(5, 500);
+            stats.onSave();
+
+            assertEquals(5, stats.getTotalSongs());
+            assertEquals(500, stats.getTotalDuration());
+            assertTrue(stats.getGenreCounts().isEmpty());
+            assertTrue(stats.getUpdatedAt() != null);
+        }
+    }
+}
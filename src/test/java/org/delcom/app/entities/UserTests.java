@@ -57,5 +57,20 @@ public class UserTests {
             assertTrue(user.getCreatedAt() != null);
             assertTrue(user.getUpdatedAt() != null);
         }
+
+        // User hasil salinan
+        {
+            User user = new User("Name", "email@example.com", "password123");
+            user.setId(UUID.randomUUID());
+            user.onCreate();
+
+            User copy = new User(user);
+            copy.setPassword(null);
+
+            assertEquals(user.getId(), copy.getId());
+            assertEquals(user.getName(), copy.getName());
+            assertEquals(user.getCreatedAt(), copy.getCreatedAt());
+            assertEquals("password123", user.getPassword());
+        }
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,7 @@ import java.util.UUID;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenCache;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
@@ -54,6 +55,8 @@ public class AuthInterceptorTests {
         authInterceptor.authTokenService = authTokenService;
         authInterceptor.userService = userService;
         authInterceptor.authContext = new AuthContext();
+        // Cache dinonaktifkan agar setiap skenario melewati verifikasi penuh
+        authInterceptor.authTokenCache = new AuthTokenCache(0, 300);
 
         // Menguji method preHandle yang berhasil
         {
@@ -127,6 +130,21 @@ public class AuthInterceptorTests {
             assertEquals(false, isAuth);
         }
 
+        // Menguji method preHandle dengan token aktif tetapi subject bukan UUID
+        {
+            String invalidSubjectToken = Jwts.builder()
+                    .subject("bukan-uuid")
+                    .expiration(new Date(System.currentTimeMillis() + 1000 * 60))
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+
+            when(request.getRequestURI()).thenReturn("/api/users/me");
+            when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidSubjectToken);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertEquals(false, isAuth);
+        }
+
         // Menguji method preHandle yang tidak valid dengan token tidak ditemukan
         {
             // Mocking behavior dari request
@@ -158,4 +176,64 @@ public class AuthInterceptorTests {
             assertEquals(false, isPublic);
         }
     }
+
+    @Test
+    @DisplayName("Token yang sudah diverifikasi dilayani dari cache tanpa query database")
+    public void testVerifiedTokenCache() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String bearerToken = JwtUtil.generateToken(userId);
+        AuthToken authToken = new AuthToken(userId, bearerToken);
+
+        User user = new User("testuser", "testuser@example.com", "secret");
+        user.setId(userId);
+
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+
+        AuthTokenCache authTokenCache = new AuthTokenCache(100, 300);
+        AuthInterceptor authInterceptor = new AuthInterceptor();
+        authInterceptor.authTokenService = authTokenService;
+        authInterceptor.userService = userService;
+        authInterceptor.authTokenCache = authTokenCache;
+
+        when(authTokenService.findUserToken(userId, bearerToken)).thenReturn(authToken);
+        when(userService.getUserById(userId)).thenReturn(user);
+        when(request.getRequestURI()).thenReturn("/api/users/me");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
+
+        // Request pertama: verifikasi penuh lalu masuk cache
+        {
+            authInterceptor.authContext = new AuthContext();
+            assertTrue(authInterceptor.preHandle(request, response, null));
+            assertEquals(1, authTokenCache.size());
+        }
+
+        // Request berikutnya: dari cache, tanpa query database
+        {
+            AuthContext authContext = new AuthContext();
+            authInterceptor.authContext = authContext;
+            assertTrue(authInterceptor.preHandle(request, response, null));
+            assertEquals(userId, authContext.getAuthUser().getId());
+
+            // Perubahan pada user di AuthContext tidak mengubah isi cache
+            authContext.getAuthUser().setPassword(null);
+            assertEquals("secret", authTokenCache.get(authTokenCache.hash(bearerToken)).getPassword());
+
+            Mockito.verify(authTokenService, Mockito.times(1)).findUserToken(userId, bearerToken);
+            Mockito.verify(userService, Mockito.times(1)).getUserById(userId);
+        }
+
+        // Setelah logout (token dihapus), cache langsung tidak berlaku
+        {
+            authTokenCache.invalidateUser(userId);
+            when(authTokenService.findUserToken(userId, bearerToken)).thenReturn(null);
+
+            authInterceptor.authContext = new AuthContext();
+            assertEquals(false, authInterceptor.preHandle(request, response, null));
+            assertEquals(0, authTokenCache.size());
+        }
+    }
 }
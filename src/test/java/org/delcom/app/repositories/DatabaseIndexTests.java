@@ -0,0 +1,178 @@
+package org.delcom.app.repositories;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memastikan query utama SongsRepository dan AuthTokenRepository memakai index
+ * yang dideklarasikan di entity (EXPLAIN di skema H2 hasil Hibernate).
+ * Index ekspresi lower(genre)/lower(artist) dan hash token khusus PostgreSQL
+ * ada di schema-postgresql.sql dan tidak bisa diperiksa di H2.
+ *
+ * Data dimasukkan sekali lewat JDBC (sudah di-commit agar ANALYZE melihatnya)
+ * dan dihapus lagi setelah semua test, karena context H2 dipakai bersama
+ * test class lain.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DatabaseIndexTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID userId;
+    private final List<UUID> owners = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        userId = UUID.randomUUID();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insertSong = connection.prepareStatement(
+                        "INSERT INTO songs (id, user_id, title, artist, album, genre, duration, created_at, updated_at) "
+                                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                PreparedStatement insertToken = connection.prepareStatement(
+                        "INSERT INTO auth_tokens (id, user_id, token, created_at) VALUES (?, ?, ?, ?)")) {
+            LocalDateTime now = LocalDateTime.now();
+            // Beberapa user agar filter user_id selektif
+            for (int u = 0; u < 20; u++) {
+                UUID owner = u == 0 ? userId : UUID.randomUUID();
+                owners.add(owner);
+                for (int i = 0; i < 50; i++) {
+                    insertSong.setObject(1, UUID.randomUUID());
+                    insertSong.setObject(2, owner);
+                    insertSong.setString(3, "Song " + i);
+                    insertSong.setString(4, "Artist " + (i % 5));
+                    insertSong.setString(5, "Album");
+                    insertSong.setString(6, "Genre " + (i % 3));
+                    insertSong.setInt(7, 200);
+                    insertSong.setTimestamp(8, Timestamp.valueOf(now.minusMinutes(i)));
+                    insertSong.setTimestamp(9, Timestamp.valueOf(now));
+                    insertSong.addBatch();
+                }
+                insertToken.setObject(1, UUID.randomUUID());
+                insertToken.setObject(2, owner);
+                insertToken.setString(3, "token-" + u);
+                insertToken.setTimestamp(4, Timestamp.valueOf(now));
+                insertToken.addBatch();
+            }
+            insertSong.executeBatch();
+            insertToken.executeBatch();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+        }
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement deleteSongs = connection.prepareStatement("DELETE FROM songs WHERE user_id = ?");
+                PreparedStatement deleteTokens = connection.prepareStatement(
+                        "DELETE FROM auth_tokens WHERE user_id = ?")) {
+            for (UUID owner : owners) {
+                deleteSongs.setObject(1, owner);
+                deleteSongs.addBatch();
+                deleteTokens.setObject(1, owner);
+                deleteTokens.addBatch();
+            }
+            deleteSongs.executeBatch();
+            deleteTokens.executeBatch();
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+            return plan.toString().toUpperCase();
+        }
+    }
+
+    @Test
+    void songsFirstPage_UsesUserCreatedIndex() throws SQLException {
+        String plan = explain("SELECT * FROM songs s WHERE s.user_id = '" + userId + "' "
+                + "ORDER BY s.created_at DESC, s.id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_SONGS_USER_CREATED"), plan);
+    }
+
+    @Test
+    void songsNextPage_UsesUserCreatedIndex() throws SQLException {
+        String cursor = Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)).toString();
+        String plan = explain("SELECT * FROM songs s WHERE s.user_id = '" + userId + "' "
+                + "AND (s.created_at < TIMESTAMP '" + cursor + "' "
+                + "OR (s.created_at = TIMESTAMP '" + cursor + "' AND s.id < '" + UUID.randomUUID() + "')) "
+                + "ORDER BY s.created_at DESC, s.id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_SONGS_USER_CREATED"), plan);
+    }
+
+    @Test
+    void songsByGenreAndArtist_UseUserIndex() throws SQLException {
+        String genrePlan = explain("SELECT * FROM songs s WHERE s.user_id = '" + userId + "' "
+                + "AND LOWER(s.genre) = LOWER('genre 1') ORDER BY s.created_at DESC, s.id DESC");
+        String artistPlan = explain("SELECT * FROM songs s WHERE s.user_id = '" + userId + "' "
+                + "AND LOWER(s.artist) LIKE LOWER('%artist%') ORDER BY s.created_at DESC, s.id DESC");
+
+        assertTrue(genrePlan.contains("IDX_SONGS_USER_CREATED"), genrePlan);
+        assertTrue(artistPlan.contains("IDX_SONGS_USER_CREATED"), artistPlan);
+    }
+
+    @Test
+    void songsChangedSince_UsesUserUpdatedIndex() throws SQLException {
+        String since = Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)).toString();
+        String plan = explain("SELECT * FROM songs s WHERE s.user_id = '" + userId + "' "
+                + "AND s.updated_at <= CURRENT_TIMESTAMP "
+                + "AND (s.updated_at > TIMESTAMP '" + since + "' "
+                + "OR (s.updated_at = TIMESTAMP '" + since + "' AND s.id > '" + UUID.randomUUID() + "')) "
+                + "ORDER BY s.updated_at, s.id FETCH FIRST 501 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_SONGS_USER_UPDATED"), plan);
+    }
+
+    @Test
+    void authTokenLookup_UsesUserIndex() throws SQLException {
+        String plan = explain("SELECT * FROM auth_tokens t WHERE t.user_id = '" + userId + "'");
+
+        assertTrue(plan.contains("IDX_AUTH_TOKENS_USER"), plan);
+    }
+
+    // Hanya memeriksa teks script: apakah index ekspresi dan hash valid serta
+    // dipakai planner PostgreSQL tidak diuji di sini (butuh PostgreSQL asli,
+    // mis. EXPLAIN di database deployment)
+    @Test
+    void postgresScript_ContainsExpressionAndHashIndexes() throws IOException {
+        String script = new ClassPathResource("schema-postgresql.sql").getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(script.contains("ON songs (user_id, created_at DESC, id DESC)"));
+        assertTrue(script.contains("ON songs (user_id, updated_at, id)"));
+        assertTrue(script.contains("ON songs (user_id, lower(genre))"));
+        assertTrue(script.contains("ON songs (user_id, lower(artist))"));
+        assertTrue(script.contains("ON auth_tokens USING hash (token)"));
+    }
+}
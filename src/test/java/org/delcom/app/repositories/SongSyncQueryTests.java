@@ -0,0 +1,158 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.dto.SongChanges;
+import org.delcom.app.entities.SongTombstone;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.services.SongSyncService;
+import org.delcom.app.services.SongSyncService.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Delta sync: aliran gabungan lagu berubah dan tombstone, diurutkan (waktu, id)
+ */
+@SpringBootTest
+@Transactional
+class SongSyncQueryTests {
+
+    @Autowired
+    private SongSyncService songSyncService;
+
+    @Autowired
+    private SongsRepository songsRepository;
+
+    @Autowired
+    private SongTombstoneRepository songTombstoneRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID userId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        now = LocalDateTime.now();
+    }
+
+    private Songs songUpdatedAt(UUID owner, String title, LocalDateTime updatedAt) {
+        Songs song = songsRepository.saveAndFlush(new Songs(owner, title, "Artist", null, "Pop", 200, null));
+        entityManager.createNativeQuery("UPDATE songs SET updated_at = ?1 WHERE id = ?2")
+                .setParameter(1, updatedAt)
+                .setParameter(2, song.getId())
+                .executeUpdate();
+        return song;
+    }
+
+    private UUID tombstoneAt(LocalDateTime deletedAt) {
+        UUID songId = UUID.randomUUID();
+        songTombstoneRepository.saveAndFlush(new SongTombstone(songId, userId, deletedAt));
+        return songId;
+    }
+
+    private static List<String> titles(SongChanges changes) {
+        return changes.songs().stream().map(Songs::getTitle).toList();
+    }
+
+    @Test
+    void getChanges_MergesSongsAndTombstonesInOrder() {
+        songUpdatedAt(userId, "A", now.minusMinutes(50));
+        UUID deletedId = tombstoneAt(now.minusMinutes(45));
+        songUpdatedAt(userId, "B", now.minusMinutes(40));
+        songUpdatedAt(UUID.randomUUID(), "Other user", now.minusMinutes(30));
+        songUpdatedAt(userId, "Not yet visible", now.plusMinutes(1));
+        entityManager.clear();
+        SyncToken since = new SyncToken(now.minusHours(1), new UUID(0L, 0L), false, null);
+
+        SongChanges all = songSyncService.getChanges(userId, since, 10);
+        assertEquals(List.of("A", "B"), titles(all));
+        assertEquals(List.of(deletedId), all.deleted());
+        assertFalse(all.hasMore());
+        assertFalse(all.reset());
+
+        SongChanges first = songSyncService.getChanges(userId, since, 2);
+        assertEquals(List.of("A"), titles(first));
+        assertEquals(List.of(deletedId), first.deleted());
+        assertTrue(first.hasMore());
+
+        SongChanges second = songSyncService.getChanges(userId, SyncToken.decode(first.nextToken()), 2);
+        assertEquals(List.of("B"), titles(second));
+        assertTrue(second.deleted().isEmpty());
+        assertFalse(second.hasMore());
+
+        // Library tidak berubah: respons kosong
+        SongChanges idle = songSyncService.getChanges(userId, SyncToken.decode(all.nextToken()), 10);
+        assertTrue(idle.songs().isEmpty());
+        assertTrue(idle.deleted().isEmpty());
+    }
+
+    @Test
+    void getChanges_WithoutToken_StartsFullSyncThenContinuesFromStart() {
+        songUpdatedAt(userId, "Old", now.minusDays(400));
+        songUpdatedAt(userId, "Newer", now.minusDays(1));
+        tombstoneAt(now.minusMinutes(10));
+        entityManager.clear();
+
+        SongChanges first = songSyncService.getChanges(userId, null, 1);
+        assertTrue(first.reset());
+        assertEquals(List.of("Old"), titles(first));
+        assertTrue(first.deleted().isEmpty());
+        assertTrue(first.hasMore());
+
+        // Halaman berikutnya tetap bagian dari sync penuh walau posisinya lebih lama dari TTL
+        SongChanges second = songSyncService.getChanges(userId, SyncToken.decode(first.nextToken()), 1);
+        assertFalse(second.reset());
+        assertEquals(List.of("Newer"), titles(second));
+        assertFalse(second.hasMore());
+
+        SyncToken delta = SyncToken.decode(second.nextToken());
+        assertFalse(delta.full());
+        assertTrue(delta.changedAt().isAfter(now.minusMinutes(1)));
+    }
+
+    @Test
+    void getChanges_TokenOlderThanTtl_RequiresFullSync() {
+        songUpdatedAt(userId, "A", now.minusMinutes(5));
+        entityManager.clear();
+
+        SongChanges changes = songSyncService.getChanges(userId,
+                new SyncToken(now.minusDays(31), new UUID(0L, 0L), false, null), 10);
+
+        assertTrue(changes.reset());
+        assertEquals(List.of("A"), titles(changes));
+    }
+
+    @Test
+    void compactTombstones_RemovesOnlyExpired() {
+        tombstoneAt(now.minusDays(31));
+        UUID recent = tombstoneAt(now.minusDays(1));
+
+        assertEquals(1, songSyncService.compactTombstones());
+        assertEquals(List.of(recent), songTombstoneRepository.findAll().stream()
+                .filter(tombstone -> userId.equals(tombstone.getUserId()))
+                .map(SongTombstone::getSongId).toList());
+    }
+
+    @Test
+    void syncToken_RoundTripsAndRejectsGarbage() {
+        SyncToken delta = new SyncToken(now, UUID.randomUUID(), false, null);
+        SyncToken full = new SyncToken(now.minusDays(3), UUID.randomUUID(), true, now);
+
+        assertEquals(delta, SyncToken.decode(delta.encode()));
+        assertEquals(full, SyncToken.decode(full.encode()));
+        assertNull(SyncToken.decode("not-a-token"));
+        assertNull(SyncToken.decode(null));
+    }
+}
@@ -0,0 +1,46 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.dto.SongExportRow;
+import org.delcom.app.entities.Songs;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stream proyeksi export (cursor JDBC) hanya berisi lagu milik user
+ */
+@SpringBootTest
+@Transactional
+class SongsExportQueryTests {
+
+    @Autowired
+    private SongsRepository songsRepository;
+
+    @Test
+    void streamExportRowsByUserId_ReturnsProjectionOfOwnSongs() {
+        UUID userId = UUID.randomUUID();
+        Songs song = songsRepository.save(new Songs(userId, "Bohemian Rhapsody", "Queen", "A Night at the Opera",
+                "Rock", 354, 1975));
+        songsRepository.save(new Songs(UUID.randomUUID(), "Other", "Other", null, "Pop", 100, null));
+
+        List<SongExportRow> rows;
+        try (Stream<SongExportRow> stream = songsRepository.streamExportRowsByUserId(userId)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(1, rows.size());
+        SongExportRow row = rows.get(0);
+        assertEquals(song.getId(), row.id());
+        assertEquals("A Night at the Opera", row.album());
+        assertEquals(354, row.duration());
+        assertEquals(1975, row.releaseYear());
+        assertNotNull(row.createdAt());
+    }
+}
@@ -0,0 +1,102 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.dto.SongFacetRow;
+import org.delcom.app.dto.SongFacets;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.CursorUtil.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filter kombinasi dan facet lewat JPA Criteria (SongsFilterRepositoryImpl) di H2
+ */
+@SpringBootTest
+@Transactional
+class SongsFilterQueryTests {
+
+    @Autowired
+    private SongsRepository songsRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        save("Bohemian Rhapsody", "Queen", "Rock", 354, 1975);
+        save("Radio Ga Ga", "Queen", "Rock", 343, 1984);
+        save("Under Pressure", "Queen", "Pop", 248, 1981);
+        save("Hello", "Adele", "Pop", 295, 2015);
+        save("Skyfall", "Adele", "Pop", 286, null);
+        save("100%_Pure", "Band", "Rock", 200, 1999);
+        songsRepository.save(new Songs(UUID.randomUUID(), "Queen Other User", "Queen", null, "Rock", 300, 1980));
+    }
+
+    private Songs save(String title, String artist, String genre, int duration, Integer releaseYear) {
+        return songsRepository.save(new Songs(userId, title, artist, null, genre, duration, releaseYear));
+    }
+
+    private List<String> titles(List<Songs> songs) {
+        return songs.stream().map(Songs::getTitle).sorted().toList();
+    }
+
+    @Test
+    void findPageByFilter_AppliesAllFiltersTogether() {
+        SongFilter filter = new SongFilter(null, "rock", "que", 1980, 1989, 300, 400);
+
+        List<Songs> result = songsRepository.findPageByFilter(userId, filter, null, 10);
+
+        assertEquals(List.of("Radio Ga Ga"), titles(result));
+    }
+
+    @Test
+    void findPageByFilter_KeywordEscapesWildcards() {
+        assertEquals(List.of("100%_Pure"),
+                titles(songsRepository.findPageByFilter(userId, new SongFilter("%_", null, null, null, null, null, null), null, 10)));
+        assertEquals(List.of("Hello", "Skyfall", "Under Pressure"),
+                titles(songsRepository.findPageByFilter(userId, new SongFilter("POP", null, null, null, null, null, null), null, 10)));
+    }
+
+    @Test
+    void findPageByFilter_KeysetPagesCoverAllRowsOnce() {
+        List<Songs> all = new ArrayList<>();
+        Cursor cursor = null;
+        do {
+            List<Songs> page = songsRepository.findPageByFilter(userId, SongFilter.none(), cursor, 4);
+            all.addAll(page);
+            Songs last = page.get(page.size() - 1);
+            cursor = page.size() < 4 ? null : new Cursor(last.getCreatedAt(), last.getId());
+        } while (cursor != null);
+
+        assertEquals(6, all.size());
+        assertEquals(6, all.stream().map(Songs::getId).distinct().count());
+    }
+
+    @Test
+    void countFacetsByFilter_GroupsMatchingRows() {
+        List<SongFacetRow> rows = songsRepository.countFacetsByFilter(userId,
+                new SongFilter(null, null, null, null, null, 250, null));
+
+        SongFacets facets = SongFacets.of(rows);
+
+        // Satu baris per nilai berbeda di setiap facet, bukan per kombinasi
+        assertEquals(2, rows.stream().filter(row -> row.facet().equals(SongFacetRow.GENRE)).count());
+        assertEquals(2, rows.stream().filter(row -> row.facet().equals(SongFacetRow.ARTIST)).count());
+        assertEquals(4, rows.stream().filter(row -> row.facet().equals(SongFacetRow.RELEASE_YEAR)).count());
+
+        assertEquals(4, facets.total());
+        assertEquals(Map.of("Queen", 2L, "Adele", 2L), facets.artist());
+        assertEquals(Map.of("Rock", 2L, "Pop", 2L), facets.genre());
+        assertEquals(Map.of("1970s", 1L, "1980s", 1L, "2010s", 1L, SongFacets.UNKNOWN_DECADE, 1L), facets.decade());
+    }
+}
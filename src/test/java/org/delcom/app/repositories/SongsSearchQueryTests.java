@@ -0,0 +1,65 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.Songs;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fallback search di H2: kata keyword dicocokkan sebagai awal kata (AND antar
+ * kata) seperti tsquery prefix PostgreSQL, urut title > artist > album > genre
+ */
+@SpringBootTest
+@Transactional
+class SongsSearchQueryTests {
+
+    @Autowired
+    private SongsRepository songsRepository;
+
+    private Songs save(UUID userId, String title, String artist, String album, String genre) {
+        return songsRepository.save(new Songs(userId, title, artist, album, genre, 200, 2000));
+    }
+
+    @Test
+    void searchWeighted_RanksByFieldWeight() {
+        UUID userId = UUID.randomUUID();
+        Songs genreMatch = save(userId, "Song A", "Someone", "Album", "Blues");
+        Songs albumMatch = save(userId, "Song B", "Someone", "Blue Album", "Pop");
+        Songs artistMatch = save(userId, "Song C", "Blue Band", "Album", "Pop");
+        Songs titleMatch = save(userId, "Blue Moon", "Someone", "Album", "Pop");
+        Songs titleAndGenre = save(userId, "Blue Train", "Someone", "Album", "Blues");
+        save(userId, "Other", "Nobody", "Nothing", "Rock");
+        save(UUID.randomUUID(), "Blue Other User", "Blue", "Blue", "Blues");
+
+        List<Songs> result = songsRepository.searchWeighted(userId, List.of("blue"));
+
+        assertEquals(List.of(titleAndGenre, titleMatch, artistMatch, albumMatch, genreMatch), result);
+    }
+
+    @Test
+    void searchWeighted_AllTermsMustMatchWordPrefixes() {
+        UUID userId = UUID.randomUUID();
+        Songs acrossFields = save(userId, "Bohemian Rhapsody", "Queen", "A Night at the Opera", "Rock");
+        save(userId, "Bohemian Like You", "The Dandy Warhols", "Album", "Rock");
+        save(userId, "Killer Queen", "Someone", "Album", "Pop");
+
+        assertEquals(List.of(acrossFields), songsRepository.searchWeighted(userId, List.of("queen", "bohem")));
+        // Kata kedua di tengah field tetap cocok
+        assertEquals(List.of(acrossFields), songsRepository.searchWeighted(userId, List.of("rhaps", "opera")));
+    }
+
+    @Test
+    void searchWeighted_MidWordTerm_DoesNotMatch() {
+        UUID userId = UUID.randomUUID();
+        save(userId, "Bohemian Rhapsody", "Queen", "Album", "Rock");
+
+        assertTrue(songsRepository.searchWeighted(userId, List.of("hemian")).isEmpty());
+        assertTrue(songsRepository.searchWeighted(userId, List.of("ueen")).isEmpty());
+    }
+}
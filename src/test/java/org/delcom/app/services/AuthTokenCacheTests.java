@@ -0,0 +1,100 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AuthTokenCacheTests {
+
+    private User user(UUID id) {
+        User user = new User("Name", "email@example.com", "password");
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Hash token stabil dan tidak sama dengan token mentah")
+    public void testHash() {
+        AuthTokenCache cache = new AuthTokenCache(10, 60);
+
+        assertEquals(cache.hash("token-a"), cache.hash("token-a"));
+        assertNotEquals(cache.hash("token-a"), cache.hash("token-b"));
+        assertEquals(64, cache.hash("token-a").length());
+    }
+
+    @Test
+    @DisplayName("Menyimpan dan mengambil principal, invalidasi per user")
+    public void testPutGetInvalidate() {
+        AuthTokenCache cache = new AuthTokenCache(10, 60);
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+
+        cache.put("a", user(userA), cache.currentGeneration(), Long.MAX_VALUE);
+        cache.put("b", user(userB), cache.currentGeneration(), Long.MAX_VALUE);
+        cache.put("n", null, cache.currentGeneration(), Long.MAX_VALUE);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("missing"));
+        assertEquals(2, cache.size());
+
+        cache.invalidateUser(userA);
+
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    @Test
+    @DisplayName("Hasil verifikasi yang dimulai sebelum invalidasi tidak disimpan")
+    public void testStaleGenerationIsDropped() {
+        AuthTokenCache cache = new AuthTokenCache(10, 60);
+        UUID userId = UUID.randomUUID();
+
+        long observed = cache.currentGeneration();
+        cache.invalidateUser(userId);
+        cache.put("a", user(userId), observed, Long.MAX_VALUE);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Ukuran cache terbatas dan cache bisa dinonaktifkan")
+    public void testBoundedAndDisabled() {
+        AuthTokenCache cache = new AuthTokenCache(2, 60);
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, user(UUID.randomUUID()), cache.currentGeneration(), Long.MAX_VALUE);
+        }
+        assertTrue(cache.size() <= 2);
+
+        AuthTokenCache disabled = new AuthTokenCache(0, 60);
+        disabled.put("a", user(UUID.randomUUID()), disabled.currentGeneration(), Long.MAX_VALUE);
+        assertNull(disabled.get("a"));
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    @DisplayName("Entry kedaluwarsa tidak dikembalikan")
+    public void testExpiredEntry() {
+        AuthTokenCache cache = new AuthTokenCache(10, 60);
+        AuthTokenCache.CachedPrincipal principal = new AuthTokenCache.CachedPrincipal(UUID.randomUUID(), null, 0);
+        assertTrue(principal.isExpired(System.currentTimeMillis()));
+
+        AuthTokenCache zeroTtl = new AuthTokenCache(10, 0);
+        zeroTtl.put("a", user(UUID.randomUUID()), zeroTtl.currentGeneration(), Long.MAX_VALUE);
+        assertNull(zeroTtl.get("a"));
+        assertNull(cache.get("a"));
+
+        // Entry tidak boleh berlaku melewati waktu expired JWT
+        cache.put("expired-jwt", user(UUID.randomUUID()), cache.currentGeneration(), System.currentTimeMillis() - 1);
+        assertNull(cache.get("expired-jwt"));
+        assertEquals(0, cache.size());
+    }
+}
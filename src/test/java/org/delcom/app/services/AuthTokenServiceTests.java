@@ -22,7 +22,8 @@ public class AuthTokenServiceTests {
         AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
 
         // Membuat instance AuthToken dengan repository palsu
-        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository);
+        AuthTokenCache authTokenCache = Mockito.mock(AuthTokenCache.class);
+        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository, authTokenCache);
         assertTrue(authTokenService != null);
 
         // Menguji createAuthToken
@@ -51,6 +52,8 @@ public class AuthTokenServiceTests {
 
             authTokenService.deleteAuthToken(userId);
             Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByUserId(userId);
+            // Cache token langsung diinvalidasi saat logout
+            Mockito.verify(authTokenCache, Mockito.times(1)).invalidateUser(userId);
         }
     }
 }
@@ -0,0 +1,227 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.entities.CoverBlob;
+import org.delcom.app.repositories.CoverBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoverBlobServiceTests {
+    private static final String FILENAME = "ab/cd/abcd.jpg";
+
+    @Mock
+    private CoverBlobRepository coverBlobRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private CoverThumbnailService coverThumbnailService;
+
+    @Mock
+    private DatabaseProduct databaseProduct;
+
+    @InjectMocks
+    private CoverBlobService coverBlobService;
+
+    private CoverBlob blob(long refCount) {
+        CoverBlob blob = new CoverBlob(FILENAME);
+        for (long i = 0; i < refCount; i++) {
+            blob.increment();
+        }
+        return blob;
+    }
+
+    private CoverBlob released(LocalDateTime updatedAt) {
+        CoverBlob blob = blob(0);
+        ReflectionTestUtils.setField(blob, "updatedAt", updatedAt);
+        return blob;
+    }
+
+    @Test
+    void acquire_FirstReference_CreatesRecordAndEnqueuesThumbnail() {
+        CoverBlob created = blob(0);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(fileStorageService.fileExists(FILENAME)).thenReturn(true);
+
+        coverBlobService.acquire(FILENAME);
+
+        verify(coverBlobRepository).insertEmptyIfMissing(eq(FILENAME), any(), any());
+        verify(coverBlobRepository).save(created);
+        assertEquals(1, created.getRefCount());
+        verify(coverThumbnailService).enqueue(FILENAME);
+    }
+
+    @Test
+    void acquire_RecordCreatedConcurrently_LocksExistingRecord() {
+        CoverBlob existing = blob(1);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(coverBlobRepository.insertEmptyIfMissing(eq(FILENAME), any(), any())).thenReturn(0);
+
+        coverBlobService.acquire(FILENAME);
+
+        assertEquals(2, existing.getRefCount());
+        verify(coverBlobRepository).save(existing);
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+
+    @Test
+    void acquire_FirstReferenceOnPostgreSql_UsesOnConflictInsert() {
+        CoverBlob created = blob(0);
+        when(databaseProduct.isPostgreSql()).thenReturn(true);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(fileStorageService.fileExists(FILENAME)).thenReturn(true);
+
+        coverBlobService.acquire(FILENAME);
+
+        verify(coverBlobRepository).insertEmptyIfAbsent(eq(FILENAME), any(), any());
+        verify(coverBlobRepository, never()).insertEmptyIfMissing(any(), any(), any());
+        assertEquals(1, created.getRefCount());
+    }
+
+    @Test
+    void acquire_SharedFile_OnlyIncrements() {
+        CoverBlob existing = blob(2);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(existing));
+
+        coverBlobService.acquire(FILENAME);
+
+        assertEquals(3, existing.getRefCount());
+        verify(coverBlobRepository).save(existing);
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+
+    @Test
+    void acquire_FileAlreadyDeleted_Throws() {
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(blob(0)));
+        when(fileStorageService.fileExists(FILENAME)).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> coverBlobService.acquire(FILENAME));
+
+        verify(coverBlobRepository, never()).save(any());
+        verifyNoInteractions(coverThumbnailService);
+    }
+
+    @Test
+    void release_OtherReferencesLeft_KeepsFile() {
+        CoverBlob existing = blob(2);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(existing));
+
+        assertFalse(coverBlobService.release(FILENAME));
+
+        assertEquals(1, existing.getRefCount());
+        verify(coverBlobRepository).save(existing);
+        verifyNoInteractions(coverThumbnailService);
+    }
+
+    @Test
+    void acquire_RecordCollectedConcurrently_Throws() {
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> coverBlobService.acquire(FILENAME));
+
+        verify(coverBlobRepository, never()).save(any());
+        verifyNoInteractions(coverThumbnailService);
+    }
+
+    @Test
+    void release_LastReference_KeepsFileForCollector() {
+        CoverBlob existing = blob(1);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(existing));
+
+        assertFalse(coverBlobService.release(FILENAME));
+
+        assertEquals(0, existing.getRefCount());
+        verify(coverBlobRepository).save(existing);
+        verify(coverBlobRepository, never()).delete(any());
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+
+    @Test
+    void release_LegacyCoverWithoutRecord_IsUnused() {
+        when(coverBlobRepository.findByFilenameForUpdate("song_cover_1.png")).thenReturn(Optional.empty());
+
+        assertTrue(coverBlobService.release("song_cover_1.png"));
+
+        verify(coverBlobRepository, never()).delete(any());
+        verify(coverThumbnailService).remove("song_cover_1.png");
+    }
+
+    @Test
+    void collect_ReleasedBeforeCutoff_DeletesFileThumbnailsAndRecord() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        CoverBlob existing = released(cutoff.minusMinutes(1));
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(existing));
+
+        assertTrue(coverBlobService.collect(FILENAME, cutoff));
+
+        verify(fileStorageService).deleteFile(FILENAME);
+        verify(coverThumbnailService).purge(FILENAME);
+        verify(coverBlobRepository).delete(existing);
+    }
+
+    @Test
+    void collect_ReleasedRecently_KeepsFile() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME))
+                .thenReturn(Optional.of(released(cutoff.plusMinutes(1))));
+
+        assertFalse(coverBlobService.collect(FILENAME, cutoff));
+
+        verify(coverBlobRepository, never()).delete(any());
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+
+    @Test
+    void collect_ReacquiredAfterListing_KeepsFile() {
+        CoverBlob existing = blob(1);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(existing));
+
+        assertFalse(coverBlobService.collect(FILENAME, LocalDateTime.now()));
+
+        verify(coverBlobRepository, never()).delete(any());
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+
+    @Test
+    void collectUnrecorded_CreatesTombstoneThenDeletesUnderLock() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        CoverBlob tombstone = released(cutoff);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(tombstone));
+
+        assertTrue(coverBlobService.collectUnrecorded(FILENAME, cutoff));
+
+        verify(coverBlobRepository).insertEmptyIfMissing(eq(FILENAME), any(), eq(cutoff));
+        verify(fileStorageService).deleteFile(FILENAME);
+        verify(coverBlobRepository).delete(tombstone);
+    }
+
+    @Test
+    void collectUnrecorded_AcquiredConcurrently_KeepsFile() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        when(coverBlobRepository.insertEmptyIfMissing(eq(FILENAME), any(), eq(cutoff))).thenReturn(0);
+        when(coverBlobRepository.findByFilenameForUpdate(FILENAME)).thenReturn(Optional.of(blob(1)));
+
+        assertFalse(coverBlobService.collectUnrecorded(FILENAME, cutoff));
+
+        verify(coverBlobRepository, never()).delete(any());
+        verifyNoInteractions(fileStorageService, coverThumbnailService);
+    }
+}
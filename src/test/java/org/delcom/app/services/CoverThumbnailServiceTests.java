@@ -0,0 +1,236 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.CoverThumbnailHashRow;
+import org.delcom.app.entities.CoverThumbnail;
+import org.delcom.app.repositories.CoverThumbnailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoverThumbnailServiceTests {
+
+    @Mock
+    private CoverThumbnailRepository coverThumbnailRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private CoverThumbnailService coverThumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorageService = new FileStorageService(new LocalDiskBlobStore(tempDir));
+        fileStorageService.uploadDir = tempDir.toString();
+        coverThumbnailService = new CoverThumbnailService(coverThumbnailRepository, fileStorageService,
+                transactionManager, 1, 1, 2, 40_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coverThumbnailService.shutdown();
+    }
+
+    private void writeImage(String filename, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png",
+                tempDir.resolve(filename).toFile());
+    }
+
+    private static CoverThumbnail job(String filename, LocalDateTime updatedAt) {
+        CoverThumbnail job = new CoverThumbnail(filename);
+        ReflectionTestUtils.setField(job, "updatedAt", updatedAt);
+        return job;
+    }
+
+    private static String sha256(Path file) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+    }
+
+    @Test
+    void generate_WritesAllRenditionsNextToOriginal() throws Exception {
+        writeImage("song_cover_1.png", 1000, 500);
+
+        Map<Integer, String> hashes = coverThumbnailService.generate("song_cover_1.png");
+
+        assertEquals(List.of(64, 256, 640), List.copyOf(hashes.keySet()));
+        BufferedImage large = ImageIO.read(tempDir.resolve("song_cover_1_640.jpg").toFile());
+        BufferedImage small = ImageIO.read(tempDir.resolve("song_cover_1_64.jpg").toFile());
+        assertEquals(640, large.getWidth());
+        assertEquals(320, large.getHeight());
+        assertEquals(64, small.getWidth());
+        assertEquals(32, small.getHeight());
+        assertEquals(sha256(tempDir.resolve("song_cover_1_256.jpg")), hashes.get(256));
+        // Tidak ada file sementara yang tertinggal
+        try (var files = Files.list(tempDir)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    void generate_LargeImage_DecodesWithSubsampling() throws Exception {
+        writeImage("large.png", 4000, 2000);
+
+        coverThumbnailService.generate("large.png");
+
+        BufferedImage large = ImageIO.read(tempDir.resolve("large_640.jpg").toFile());
+        assertEquals(640, large.getWidth());
+        assertEquals(320, large.getHeight());
+    }
+
+    @Test
+    void generate_ImageAboveMaxPixels_IsRejected() throws IOException {
+        writeImage("huge.png", 200, 200);
+        CoverThumbnailService limited = new CoverThumbnailService(coverThumbnailRepository,
+                new FileStorageService(new LocalDiskBlobStore(tempDir)), transactionManager, 1, 1, 2, 10_000L);
+        try {
+            IOException e = assertThrows(IOException.class, () -> limited.generate("huge.png"));
+            assertTrue(e.getMessage().contains("200x200"));
+            assertFalse(Files.exists(tempDir.resolve("huge_64.jpg")));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void subsampling_KeepsTwiceLargestRendition() {
+        assertEquals(1, CoverThumbnailService.subsampling(1000, 500));
+        assertEquals(1, CoverThumbnailService.subsampling(2559, 100));
+        assertEquals(4, CoverThumbnailService.subsampling(100, 5120));
+    }
+
+    @Test
+    void scale_SmallImage_IsNotUpscaled() {
+        BufferedImage scaled = CoverThumbnailService.scale(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 256);
+
+        assertEquals(100, scaled.getWidth());
+        assertEquals(50, scaled.getHeight());
+    }
+
+    @Test
+    void process_Success_MarksReadyWithHashes() throws IOException {
+        writeImage("cover.png", 300, 300);
+        LocalDateTime queuedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        CoverThumbnail job = job("cover.png", queuedAt);
+        when(coverThumbnailRepository.findById("cover.png")).thenReturn(Optional.of(job));
+        when(coverThumbnailRepository.findByFilenameForUpdate("cover.png")).thenReturn(Optional.of(job));
+
+        coverThumbnailService.process("cover.png");
+
+        assertEquals(CoverThumbnail.STATUS_READY, job.getStatus());
+        assertEquals(3, job.getHashes().size());
+        verify(coverThumbnailRepository).save(job);
+    }
+
+    @Test
+    void process_UnreadableImage_RetriesThenFails() throws IOException {
+        Files.writeString(tempDir.resolve("bad.png"), "bukan gambar");
+        CoverThumbnail job = job("bad.png", LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(coverThumbnailRepository.findById("bad.png")).thenReturn(Optional.of(job));
+        when(coverThumbnailRepository.findByFilenameForUpdate("bad.png")).thenReturn(Optional.of(job));
+
+        coverThumbnailService.process("bad.png");
+        assertEquals(CoverThumbnail.STATUS_PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+
+        coverThumbnailService.process("bad.png");
+        assertEquals(CoverThumbnail.STATUS_FAILED, job.getStatus());
+    }
+
+    @Test
+    void process_OutOfMemoryError_CountsAsFailedAttempt() throws IOException {
+        FileStorageService storage = mock(FileStorageService.class);
+        when(storage.loadFile("cover.png")).thenThrow(new OutOfMemoryError("Java heap space"));
+        CoverThumbnailService service = new CoverThumbnailService(coverThumbnailRepository, storage,
+                transactionManager, 1, 1, 2, 40_000_000L);
+        CoverThumbnail job = job("cover.png", LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(coverThumbnailRepository.findById("cover.png")).thenReturn(Optional.of(job));
+        when(coverThumbnailRepository.findByFilenameForUpdate("cover.png")).thenReturn(Optional.of(job));
+        try {
+            service.process("cover.png");
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(1, job.getAttempts());
+        verify(coverThumbnailRepository).save(job);
+    }
+
+    @Test
+    void process_JobResetWhileRunning_DiscardsResult() throws IOException {
+        writeImage("cover.png", 300, 300);
+        CoverThumbnail running = job("cover.png", LocalDateTime.of(2024, 5, 1, 12, 0));
+        CoverThumbnail reset = job("cover.png", LocalDateTime.of(2024, 5, 1, 12, 1));
+        when(coverThumbnailRepository.findById("cover.png")).thenReturn(Optional.of(running));
+        when(coverThumbnailRepository.findByFilenameForUpdate("cover.png")).thenReturn(Optional.of(reset));
+
+        coverThumbnailService.process("cover.png");
+
+        assertEquals(CoverThumbnail.STATUS_PENDING, reset.getStatus());
+        verify(coverThumbnailRepository, never()).save(any());
+    }
+
+    @Test
+    void getThumbnailHash_UnsupportedSize_SkipsQuery() {
+        assertNull(coverThumbnailService.getThumbnailHash("cover.png", 100));
+        assertNull(coverThumbnailService.getThumbnailHash(null, 256));
+        verify(coverThumbnailRepository, never()).findHash(any(), any(), anyInt());
+    }
+
+    @Test
+    void getThumbnailHashes_LoadsAllCoversInOneQuery() {
+        CoverThumbnailHashRow row = new CoverThumbnailHashRow() {
+            public String getFilename() { return "a.png"; }
+            public String getHash() { return "hash-a"; }
+        };
+        when(coverThumbnailRepository.findHashes(List.of("a.png", "b.png"), CoverThumbnail.STATUS_READY, 256))
+                .thenReturn(List.of(row));
+
+        Map<String, String> hashes = coverThumbnailService.getThumbnailHashes(
+                Arrays.asList("a.png", null, "b.png", "a.png"), 256);
+
+        assertEquals(Map.of("a.png", "hash-a"), hashes);
+        verify(coverThumbnailRepository, times(1)).findHashes(any(), any(), anyInt());
+        verify(coverThumbnailRepository, never()).findHash(any(), any(), anyInt());
+    }
+
+    @Test
+    void getThumbnailHashes_NoCoversOrUnsupportedSize_SkipsQuery() {
+        assertTrue(coverThumbnailService.getThumbnailHashes(Arrays.asList(null, null), 256).isEmpty());
+        assertTrue(coverThumbnailService.getThumbnailHashes(List.of("a.png"), 100).isEmpty());
+        verify(coverThumbnailRepository, never()).findHashes(any(), any(), anyInt());
+    }
+
+    @Test
+    void renditionName_ReplacesExtension() {
+        assertEquals("song_cover_1_256.jpg", CoverThumbnailService.renditionName("song_cover_1.png", 256));
+        assertEquals("cover_64.jpg", CoverThumbnailService.renditionName("cover", 64));
+    }
+}
@@ -4,22 +4,37 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.delcom.app.services.BlobStore.PresignedRequest;
 import org.mockito.MockedStatic;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class FileStorageServiceTests {
 
+    private static final byte[] PNG_HEADER = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D };
+    private static final String HASH = "ab" + "0".repeat(62);
+
     private FileStorageService fileStorageService;
     private MultipartFile mockMultipartFile;
 
@@ -28,11 +43,16 @@ class FileStorageServiceTests {
 
     @BeforeEach
     void setup() {
-        fileStorageService = new FileStorageService();
-        fileStorageService.uploadDir = tempDir.toString();
+        fileStorageService = storageAt(tempDir);
         mockMultipartFile = mock(MultipartFile.class);
     }
 
+    private static FileStorageService storageAt(Path dir) {
+        FileStorageService service = new FileStorageService(new LocalDiskBlobStore(dir));
+        service.uploadDir = dir.toString();
+        return service;
+    }
+
     // ========================================================================
     // 1. STORE FILE (Normal & Error Cases)
     // ========================================================================
@@ -40,14 +60,35 @@ class FileStorageServiceTests {
     @Test
     @DisplayName("Store: Normal Case")
     void storeFile_Success() throws IOException {
-        UUID id = UUID.randomUUID();
         when(mockMultipartFile.getOriginalFilename()).thenReturn("song.mp3");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
 
-        String result = fileStorageService.storeFile(mockMultipartFile, id);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
-        assertTrue(result.contains(id.toString()));
-        assertTrue(result.endsWith(".mp3"));
+        // SHA-256("data")
+        String hash = "3a6eb0790f39ac87c94f3856b2dd2c5d110e6811602261a9a923d3bb23adc8b7";
+        assertEquals("3a/6e/" + hash + ".mp3", result);
+        assertTrue(FileStorageService.isContentAddressed(result));
+        assertEquals("data", Files.readString(tempDir.resolve(result)));
+    }
+
+    @Test
+    @DisplayName("Store: Same Content Is Stored Once")
+    void storeFile_SameContent_Deduplicated() throws IOException {
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("a.jpg", "b.jpg");
+        when(mockMultipartFile.getInputStream()).thenAnswer(
+                invocation -> new ByteArrayInputStream("album art".getBytes()));
+
+        String first = fileStorageService.storeFile(mockMultipartFile);
+        long modified = Files.getLastModifiedTime(tempDir.resolve(first)).toMillis();
+        String second = fileStorageService.storeFile(mockMultipartFile);
+
+        assertEquals(first, second);
+        assertEquals(modified, Files.getLastModifiedTime(tempDir.resolve(second)).toMillis());
+        // Hanya direktori shard, tanpa file sementara yang tertinggal
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(1, entries.count());
+        }
     }
 
     @Test
@@ -55,11 +96,10 @@ class FileStorageServiceTests {
     void storeFile_CreatesDir() throws IOException {
         String subDir = tempDir.resolve("sub").toString();
         fileStorageService.uploadDir = subDir;
-        UUID id = UUID.randomUUID();
         when(mockMultipartFile.getOriginalFilename()).thenReturn("song.mp3");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
 
-        fileStorageService.storeFile(mockMultipartFile, id);
+        fileStorageService.storeFile(mockMultipartFile);
         
         assertTrue(Files.exists(Paths.get(subDir)));
     }
@@ -67,11 +107,10 @@ class FileStorageServiceTests {
     @Test
     @DisplayName("Store: Filename Null")
     void storeFile_NullName() throws IOException {
-        UUID id = UUID.randomUUID();
         when(mockMultipartFile.getOriginalFilename()).thenReturn(null);
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
 
-        String result = fileStorageService.storeFile(mockMultipartFile, id);
+        String result = fileStorageService.storeFile(mockMultipartFile);
         
         // Hasil tidak punya ekstensi (karena null)
         assertFalse(result.contains(".")); 
@@ -80,15 +119,82 @@ class FileStorageServiceTests {
     @Test
     @DisplayName("Store: No Extension")
     void storeFile_NoExtension() throws IOException {
-        UUID id = UUID.randomUUID();
         when(mockMultipartFile.getOriginalFilename()).thenReturn("README");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
 
-        String result = fileStorageService.storeFile(mockMultipartFile, id);
+        String result = fileStorageService.storeFile(mockMultipartFile);
         
         assertFalse(result.contains(".")); 
     }
 
+    @Test
+    @DisplayName("Store: Unsafe Extension Is Dropped")
+    void storeFile_UnsafeExtension() throws IOException {
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("cover.x/../../evil");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+
+        String result = fileStorageService.storeFile(mockMultipartFile);
+
+        assertTrue(FileStorageService.isContentAddressed(result));
+        assertFalse(result.contains("."));
+    }
+
+    @Test
+    @DisplayName("Store: Image Extension From Magic Bytes")
+    void storeFile_ImageExtensionFromContent() throws IOException {
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("cover.jpeg.txt");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(PNG_HEADER));
+
+        String result = fileStorageService.storeFile(mockMultipartFile);
+
+        assertTrue(result.endsWith(".png"));
+    }
+
+    @Test
+    @DisplayName("Store Image: Streams Body In Chunks")
+    void storeImage_Success() throws IOException {
+        byte[] content = new byte[200 * 1024];
+        System.arraycopy(PNG_HEADER, 0, content, 0, PNG_HEADER.length);
+        content[content.length - 1] = 42;
+        // Body request datang dalam potongan kecil
+        InputStream body = new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 5));
+            }
+        };
+
+        String result = fileStorageService.storeImage(body, content.length);
+
+        assertTrue(FileStorageService.isContentAddressed(result));
+        assertTrue(result.endsWith(".png"));
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve(result)));
+    }
+
+    @Test
+    @DisplayName("Store Image: Rejects Non-Image Content")
+    void storeImage_NotAnImage() throws IOException {
+        InputStream body = new ByteArrayInputStream("<svg onload=alert(1)>".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.storeImage(body, 1024));
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Store Image: Too Large Leaves No File")
+    void storeImage_TooLarge() throws IOException {
+        byte[] content = new byte[100 * 1024];
+        System.arraycopy(PNG_HEADER, 0, content, 0, PNG_HEADER.length);
+
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> fileStorageService.storeImage(new ByteArrayInputStream(content), 64 * 1024));
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
     // ========================================================================
     // 2. STORE WITH PREFIX (Targeting Line 67 Logic)
     // ========================================================================
@@ -110,7 +216,7 @@ class FileStorageServiceTests {
     @DisplayName("Store With Prefix: Creates Directory")
     void storeFileWithPrefix_CreatesDir() throws IOException {
         String subDir = tempDir.resolve("prefixDir").toString();
-        fileStorageService.uploadDir = subDir;
+        fileStorageService = storageAt(Paths.get(subDir));
         UUID id = UUID.randomUUID();
         when(mockMultipartFile.getOriginalFilename()).thenReturn("img.jpg");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
@@ -193,7 +299,10 @@ class FileStorageServiceTests {
         String name = "real.txt";
         Files.createFile(tempDir.resolve(name));
         assertTrue(fileStorageService.fileExists(name));
-        assertNotNull(fileStorageService.loadFile(name));
+        try (InputStream input = fileStorageService.loadFile(name)) {
+            assertEquals(0, input.readAllBytes().length);
+        }
+        assertThrows(NoSuchFileException.class, () -> fileStorageService.loadFile("ghost.txt"));
     }
 
     @Test
@@ -208,8 +317,8 @@ class FileStorageServiceTests {
     @Test
     void getFileSize_Exception() {
         try (MockedStatic<Files> filesMock = mockStatic(Files.class)) {
-            filesMock.when(() -> Files.exists(any())).thenReturn(true);
-            filesMock.when(() -> Files.size(any())).thenThrow(new IOException("Err"));
+            filesMock.when(() -> Files.readAttributes(any(Path.class), eq(BasicFileAttributes.class)))
+                    .thenThrow(new IOException("Err"));
             assertEquals(-1, fileStorageService.getFileSize("f"));
         }
     }
@@ -222,15 +331,175 @@ class FileStorageServiceTests {
         Files.createFile(tempDir.resolve(name));
         fileStorageService.getContentType(name);
         
-        try (MockedStatic<Files> filesMock = mockStatic(Files.class)) {
-            filesMock.when(() -> Files.exists(any())).thenReturn(true);
+        Files.createFile(tempDir.resolve("f"));
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS)) {
             filesMock.when(() -> Files.probeContentType(any())).thenThrow(new IOException("Err"));
             assertNull(fileStorageService.getContentType("f"));
         }
     }
 
+    @Test
+    void getContentType_CachedPerExtension() throws IOException {
+        Files.createFile(tempDir.resolve("first.png"));
+        Files.createFile(tempDir.resolve("second.png"));
+        String probed = fileStorageService.getContentType("first.png");
+
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS)) {
+            filesMock.when(() -> Files.probeContentType(any())).thenThrow(new IOException("Err"));
+            // Ekstensi sama tidak di-probe ulang
+            assertEquals(probed, fileStorageService.getContentType("second.png"));
+        }
+    }
+
+    @Test
+    void getStoredFile_ReadsMetadataOnce() throws IOException {
+        Files.writeString(tempDir.resolve("cover.png"), "12345");
+
+        FileStorageService.StoredFile file = fileStorageService.getStoredFile("cover.png");
+
+        assertNotNull(file);
+        assertEquals(5, file.size());
+        assertEquals(Files.getLastModifiedTime(tempDir.resolve("cover.png")).toMillis(), file.lastModified());
+        assertNotNull(file.contentType());
+        assertEquals(file.version(), fileStorageService.getVersion("cover.png"));
+    }
+
+    @Test
+    void getStoredFile_MissingDirectoryOrOutsideUploadDir_ReturnsNull() throws IOException {
+        Path uploads = Files.createDirectory(tempDir.resolve("uploads"));
+        Files.writeString(uploads.resolve("inner.png"), "x");
+        Files.writeString(tempDir.resolve("outside.png"), "x");
+        fileStorageService = storageAt(uploads);
+
+        assertNotNull(fileStorageService.getStoredFile("inner.png"));
+        assertNull(fileStorageService.getStoredFile("ghost.png"));
+        assertNull(fileStorageService.getStoredFile("."));
+        assertNull(fileStorageService.getStoredFile("../outside.png"));
+        assertNull(fileStorageService.getStoredFile(null));
+        assertNull(fileStorageService.getVersion("ghost.png"));
+    }
+
+    @Test
+    void storedFileVersion_ChangesWithContent() throws IOException {
+        Path cover = tempDir.resolve("cover.jpg");
+        Files.writeString(cover, "old");
+        String before = fileStorageService.getVersion("cover.jpg");
+
+        Files.writeString(cover, "new cover");
+
+        assertNotEquals(before, fileStorageService.getVersion("cover.jpg"));
+    }
+
+    @Test
+    @DisplayName("Resource: Skip Before Reading Becomes Range Read")
+    void getResource_SkipOpensBlobAtOffset() throws IOException {
+        BlobStore blobStore = spy(new LocalDiskBlobStore(tempDir));
+        fileStorageService = new FileStorageService(blobStore);
+        Files.writeString(tempDir.resolve("cover.png"), "0123456789");
+        FileStorageService.StoredFile file = fileStorageService.getStoredFile("cover.png");
+
+        Resource resource = fileStorageService.getResource(file);
+
+        assertEquals(10, resource.contentLength());
+        try (InputStream input = resource.getInputStream()) {
+            assertEquals(4, input.skip(4));
+            assertEquals("456789", new String(input.readAllBytes()));
+        }
+        verify(blobStore).get("cover.png", 4, -1);
+    }
+
     // ========================================================================
-    // 5. VALID IMAGE LOGIC (Fixing Line 162-174)
+    // 5. DIRECT UPLOAD (Presigned URL)
+    // ========================================================================
+
+    @Test
+    void prepareImageUpload_ReturnsPresignedPut() throws IOException {
+        BlobStore blobStore = mock(BlobStore.class);
+        fileStorageService = new FileStorageService(blobStore);
+        String filename = FileStorageService.contentAddressedName(HASH, "png");
+        PresignedRequest request = new PresignedRequest(URI.create("https://bucket.example/" + filename), "PUT",
+                Map.of(), Instant.now());
+        when(blobStore.supportsPresignedUrls()).thenReturn(true);
+        when(blobStore.presignPut(filename, "image/png", HASH)).thenReturn(request);
+
+        FileStorageService.DirectUpload upload = fileStorageService.prepareImageUpload(HASH, 1024, "image/png", 2048);
+
+        assertEquals(filename, upload.filename());
+        assertSame(request, upload.request());
+    }
+
+    @Test
+    void prepareImageUpload_ExistingContent_SkipsUpload() throws IOException {
+        BlobStore blobStore = mock(BlobStore.class);
+        fileStorageService = new FileStorageService(blobStore);
+        String filename = FileStorageService.contentAddressedName(HASH, "jpg");
+        when(blobStore.supportsPresignedUrls()).thenReturn(true);
+        when(blobStore.stat(filename)).thenReturn(new BlobStore.BlobInfo(filename, 1024, 0, "image/jpeg"));
+
+        FileStorageService.DirectUpload upload = fileStorageService.prepareImageUpload(HASH, 1024, "image/jpeg", 2048);
+
+        assertEquals(filename, upload.filename());
+        assertNull(upload.request());
+        verify(blobStore, never()).presignPut(any(), any(), any());
+    }
+
+    @Test
+    void prepareImageUpload_InvalidRequest() {
+        BlobStore blobStore = mock(BlobStore.class);
+        fileStorageService = new FileStorageService(blobStore);
+        when(blobStore.supportsPresignedUrls()).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.prepareImageUpload("not-a-hash", 1024, "image/png", 2048));
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.prepareImageUpload(HASH, 1024, "image/svg+xml", 2048));
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> fileStorageService.prepareImageUpload(HASH, 4096, "image/png", 2048));
+    }
+
+    @Test
+    void prepareImageUpload_LocalDisk_NotSupported() {
+        assertFalse(fileStorageService.isDirectTransferSupported());
+        assertNull(fileStorageService.presignDownload("cover.png"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> fileStorageService.prepareImageUpload(HASH, 1024, "image/png", 2048));
+    }
+
+    @Test
+    void verifyUploadedImage_ValidImage() throws IOException {
+        String filename = FileStorageService.contentAddressedName(HASH, "png");
+        Files.createDirectories(tempDir.resolve(filename).getParent());
+        Files.write(tempDir.resolve(filename), PNG_HEADER);
+
+        fileStorageService.verifyUploadedImage(filename, 1024);
+
+        assertTrue(Files.exists(tempDir.resolve(filename)));
+    }
+
+    @Test
+    void verifyUploadedImage_InvalidContentOrSize_DeletesFile() throws IOException {
+        String disguised = FileStorageService.contentAddressedName(HASH, "jpg");
+        Files.createDirectories(tempDir.resolve(disguised).getParent());
+        Files.write(tempDir.resolve(disguised), PNG_HEADER);
+        String large = FileStorageService.contentAddressedName(HASH, "png");
+        Files.write(tempDir.resolve(large), new byte[2048]);
+
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.verifyUploadedImage(disguised, 1024));
+        assertThrows(MaxUploadSizeExceededException.class, () -> fileStorageService.verifyUploadedImage(large, 1024));
+        assertFalse(Files.exists(tempDir.resolve(disguised)));
+        assertFalse(Files.exists(tempDir.resolve(large)));
+    }
+
+    @Test
+    void verifyUploadedImage_MissingOrNotContentAddressed() {
+        assertThrows(NoSuchFileException.class, () -> fileStorageService.verifyUploadedImage(
+                FileStorageService.contentAddressedName(HASH, "png"), 1024));
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.verifyUploadedImage("cover.png", 1024));
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.verifyUploadedImage(null, 1024));
+    }
+
+    // ========================================================================
+    // 6. VALID IMAGE LOGIC (Fixing Line 162-174)
     // ========================================================================
 
     @Test
@@ -244,34 +513,20 @@ class FileStorageServiceTests {
     }
 
     @Test
-    void isValidImage_ContentTypes() {
-        // Setup tidak kosong
+    void isValidImage_MagicBytes() throws IOException {
         when(mockMultipartFile.isEmpty()).thenReturn(false);
 
-        // Line 167: ContentType Null
-        when(mockMultipartFile.getContentType()).thenReturn(null);
-        assertFalse(fileStorageService.isValidImage(mockMultipartFile));
-
-        // Line 171-174: Valid Types (Covering OR conditions)
-        when(mockMultipartFile.getContentType()).thenReturn("image/jpeg");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(PNG_HEADER));
         assertTrue(fileStorageService.isValidImage(mockMultipartFile));
 
+        // Content-Type klien tidak dipakai: teks dengan Content-Type gambar tetap ditolak
         when(mockMultipartFile.getContentType()).thenReturn("image/png");
-        assertTrue(fileStorageService.isValidImage(mockMultipartFile));
-
-        when(mockMultipartFile.getContentType()).thenReturn("image/gif");
-        assertTrue(fileStorageService.isValidImage(mockMultipartFile));
-
-        when(mockMultipartFile.getContentType()).thenReturn("image/webp");
-        assertTrue(fileStorageService.isValidImage(mockMultipartFile));
-
-        // Invalid Type
-        when(mockMultipartFile.getContentType()).thenReturn("text/plain");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("text".getBytes()));
         assertFalse(fileStorageService.isValidImage(mockMultipartFile));
     }
 
     // ========================================================================
-    // 6. VALID SIZE & EXTENSION LOGIC (Fixing Line 184, 196, 200)
+    // 7. VALID SIZE & EXTENSION LOGIC (Fixing Line 184, 196, 200)
     // ========================================================================
 
     @Test
@@ -302,35 +557,21 @@ class FileStorageServiceTests {
     }
 
     @Test
-    void getUploadDir_Test() {
-        assertEquals(tempDir.toString(), fileStorageService.getUploadDir());
-    }
+    void listTempFiles_OnlyUploadTempFiles() throws IOException {
+        Files.writeString(tempDir.resolve(".upload-1.tmp"), "partial");
+        Files.writeString(tempDir.resolve("cover.png"), "x");
 
-    // ========================================================================
-    // 7. CLEANUP (Fix Line 217 Red)
-    // ========================================================================
-    @Test
-    void cleanup_FolderMissing() {
-        fileStorageService.uploadDir = tempDir.resolve("missing").toString();
-        assertEquals(0, fileStorageService.cleanupOrphanedFiles());
-    }
-    
-    @Test
-    void cleanup_FolderExists() {
-        assertEquals(0, fileStorageService.cleanupOrphanedFiles());
+        try (Stream<Path> temps = fileStorageService.listTempFiles()) {
+            assertEquals(List.of(tempDir.resolve(".upload-1.tmp")), temps.toList());
+        }
+        try (Stream<Path> temps = storageAt(tempDir.resolve("missing")).listTempFiles()) {
+            assertEquals(0, temps.count());
+        }
     }
 
     @Test
-    @DisplayName("Cleanup: Exception (Fix Red Line 217)")
-    void cleanup_Exception() {
-        try (MockedStatic<Files> filesMock = mockStatic(Files.class)) {
-            // Kita paksa Files.exists melempar RuntimeException.
-            // Ini akan mentrigger 'catch (Exception e)' di baris 217.
-            filesMock.when(() -> Files.exists(any(Path.class))).thenThrow(new RuntimeException("Disk Error Force"));
-            
-            int count = fileStorageService.cleanupOrphanedFiles();
-            assertEquals(0, count);
-        }
+    void getUploadDir_Test() {
+        assertEquals(tempDir.toString(), fileStorageService.getUploadDir());
     }
 
     // ========================================================================
@@ -0,0 +1,30 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class LibraryStatsRebuildJobTests {
+    @Test
+    @DisplayName("Rebuild semua statistik user, error satu user tidak menghentikan job")
+    public void testRebuildAll() {
+        UUID ok = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+
+        LibraryStatsService libraryStatsService = Mockito.mock(LibraryStatsService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.getAllUserIds()).thenReturn(List.of(broken, ok));
+        Mockito.when(libraryStatsService.rebuild(broken)).thenThrow(new RuntimeException("db error"));
+
+        LibraryStatsRebuildJob job = new LibraryStatsRebuildJob(libraryStatsService, userService);
+
+        assertEquals(1, job.rebuildAll());
+        Mockito.verify(libraryStatsService).rebuild(ok);
+        Mockito.verify(libraryStatsService).rebuild(broken);
+    }
+}
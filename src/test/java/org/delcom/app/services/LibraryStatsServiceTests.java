@@ -0,0 +1,273 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.DatabaseProduct;
+import org.delcom.app.dto.LibraryStats;
+import org.delcom.app.dto.LibraryStatsRow;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.entities.UserLibraryStats;
+import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.repositories.UserLibraryStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryStatsServiceTests {
+
+    @Mock
+    private SongsRepository songsRepository;
+
+    @Mock
+    private UserLibraryStatsRepository userLibraryStatsRepository;
+
+    @Mock
+    private DatabaseProduct databaseProduct;
+
+    @InjectMocks
+    private LibraryStatsService libraryStatsService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    private LibraryStatsRow row(String kind, String label, Long total, Long duration) {
+        return new LibraryStatsRow() {
+            public String getKind() { return kind; }
+            public String getLabel() { return label; }
+            public Long getTotal() { return total; }
+            public Long getDuration() { return duration; }
+        };
+    }
+
+    private Songs song(String genre, String artist, int duration) {
+        return new Songs(userId, "Title", artist, null, genre, duration, null);
+    }
+
+    // ========================================================================
+    // 1. Lookup statistik
+    // ========================================================================
+    @Test
+    void getStats_ReadsMaintainedRecord_SortedByCount() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        stats.apply("Pop", "Adele", 200, 1);
+        stats.apply("Rock", "Queen", 300, 1);
+        stats.apply("Rock", "Queen", 300, 1);
+        when(userLibraryStatsRepository.findById(userId)).thenReturn(Optional.of(stats));
+
+        LibraryStats result = libraryStatsService.getStats(userId);
+
+        assertEquals(3, result.totalSongs());
+        assertEquals(800, result.totalDuration());
+        assertEquals(List.of("Rock", "Pop"), List.copyOf(result.chartDataGenre().keySet()));
+        assertEquals(2L, result.chartDataArtist().get("Queen"));
+        verify(songsRepository, never()).aggregateLibraryStats(any());
+    }
+
+    @Test
+    void getStats_MissingRecord_ComputesFromAggregateWithoutWriting() {
+        when(userLibraryStatsRepository.findById(userId)).thenReturn(Optional.empty());
+        when(songsRepository.aggregateLibraryStats(userId)).thenReturn(List.of(
+                row("artist", "Queen", 2L, 600L),
+                row("artist", "Adele", 1L, 200L),
+                row("genre", "Rock", 2L, 600L),
+                row("genre", "Pop", 1L, 200L)));
+
+        LibraryStats result = libraryStatsService.getStats(userId);
+
+        assertEquals(3, result.totalSongs());
+        assertEquals(800, result.totalDuration());
+        assertEquals(13, result.totalDurationMinutes());
+        assertEquals(1L, result.chartDataArtist().get("Adele"));
+        verify(userLibraryStatsRepository, never()).insertEmptyIfMissing(any(), any());
+        verify(userLibraryStatsRepository, never()).save(any(UserLibraryStats.class));
+    }
+
+    // ========================================================================
+    // 2. Pemeliharaan saat penulisan
+    // ========================================================================
+    @Test
+    void onSongCreated_AppliesDelta() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        libraryStatsService.onSongCreated(song("Jazz", "Miles", 400));
+
+        assertEquals(1, stats.getTotalSongs());
+        assertEquals(400, stats.getTotalDuration());
+        assertEquals(1L, stats.getGenreCounts().get("Jazz"));
+        verify(userLibraryStatsRepository).save(stats);
+        verify(songsRepository, never()).aggregateLibraryStats(any());
+    }
+
+    @Test
+    void onSongCreated_NullDuration_CountsAsZero() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        libraryStatsService.onSongCreated(new Songs(userId, "Title", "Miles", null, "Jazz", null, null));
+
+        assertEquals(1, stats.getTotalSongs());
+        assertEquals(0, stats.getTotalDuration());
+    }
+
+    @Test
+    void onSongUpdated_MovesCountsBetweenBuckets() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        stats.apply("Pop", "Adele", 200, 1);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        libraryStatsService.onSongUpdated("Pop", "Adele", 200, song("Soul", "Adele", 250));
+
+        assertEquals(1, stats.getTotalSongs());
+        assertEquals(250, stats.getTotalDuration());
+        assertFalse(stats.getGenreCounts().containsKey("Pop"));
+        assertEquals(1L, stats.getGenreCounts().get("Soul"));
+        assertEquals(1L, stats.getArtistCounts().get("Adele"));
+    }
+
+    @Test
+    void onSongUpdated_UnchangedBuckets_StillBumpsVersion() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        stats.apply("Pop", "Adele", 200, 1);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        // Hanya judul yang berubah: statistik sama, tetapi daftar lagu berbeda
+        libraryStatsService.onSongUpdated("Pop", "Adele", 200, song("Pop", "Adele", 200));
+        libraryStatsService.onLibraryTouched(userId);
+
+        assertEquals(1, stats.getTotalSongs());
+        assertEquals(2, stats.getLibraryVersion());
+    }
+
+    @Test
+    void getLibraryVersion_MissingRecord_ReturnsZero() {
+        when(userLibraryStatsRepository.findLibraryVersion(userId)).thenReturn(Optional.empty());
+
+        assertEquals(0, libraryStatsService.getLibraryVersion(userId));
+        verify(userLibraryStatsRepository, never()).findById(any());
+    }
+
+    @Test
+    void onSongsChanged_AppliesAllDeltasWithOneSave() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        stats.apply("Pop", "Adele", 200, 1);
+        stats.apply("Rock", "Queen", 300, 1);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        libraryStatsService.onSongsChanged(userId,
+                List.of(song("Pop", "Adele", 200), song("Rock", "Queen", 300)),
+                List.of(song("Soul", "Adele", 250), song("Jazz", "Miles", 400), song("Jazz", "Miles", 100)));
+
+        assertEquals(3, stats.getTotalSongs());
+        assertEquals(750, stats.getTotalDuration());
+        assertEquals(List.of("Jazz", "Soul"), stats.getGenreCounts().keySet().stream().sorted().toList());
+        assertEquals(2L, stats.getGenreCounts().get("Jazz"));
+        verify(userLibraryStatsRepository, times(1)).save(stats);
+    }
+
+    @Test
+    void onSongDeleted_RemovesEmptyBuckets() {
+        UserLibraryStats stats = new UserLibraryStats(userId);
+        stats.apply("Pop", "Adele", 200, 1);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(stats));
+
+        libraryStatsService.onSongDeleted(song("Pop", "Adele", 200));
+
+        assertEquals(0, stats.getTotalSongs());
+        assertEquals(0, stats.getTotalDuration());
+        assertTrue(stats.getGenreCounts().isEmpty());
+        assertTrue(stats.getArtistCounts().isEmpty());
+    }
+
+    @Test
+    void onSongCreated_MissingRecord_CreatesInSameTransactionFromSongs() {
+        UserLibraryStats created = new UserLibraryStats(userId);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(userLibraryStatsRepository.insertEmptyIfMissing(eq(userId), any())).thenReturn(1);
+        // Lagu baru milik transaksi ini sudah ikut terhitung di agregat
+        when(songsRepository.aggregateLibraryStats(userId)).thenReturn(List.of(
+                row("genre", "Pop", 2L, 500L),
+                row("artist", "Adele", 2L, 500L)));
+
+        libraryStatsService.onSongCreated(song("Pop", "Adele", 300));
+
+        verify(songsRepository).flush();
+        verify(userLibraryStatsRepository).save(created);
+        assertEquals(2, created.getTotalSongs());
+        assertEquals(500, created.getTotalDuration());
+        assertEquals(2L, created.getGenreCounts().get("Pop"));
+        assertEquals(1, created.getLibraryVersion());
+    }
+
+    @Test
+    void onSongCreated_MissingRecordOnPostgreSql_UsesOnConflictInsert() {
+        UserLibraryStats created = new UserLibraryStats(userId);
+        when(databaseProduct.isPostgreSql()).thenReturn(true);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(userLibraryStatsRepository.insertEmptyIfAbsent(eq(userId), any())).thenReturn(1);
+        when(songsRepository.aggregateLibraryStats(userId)).thenReturn(List.of(row("genre", "Pop", 1L, 300L)));
+
+        libraryStatsService.onSongCreated(song("Pop", "Adele", 300));
+
+        verify(userLibraryStatsRepository, never()).insertEmptyIfMissing(any(), any());
+        assertEquals(1, created.getTotalSongs());
+    }
+
+    @Test
+    void onSongDeleted_RecordCreatedConcurrently_AppliesDeltaToExistingRecord() {
+        UserLibraryStats existing = new UserLibraryStats(userId);
+        existing.apply("Pop", "Adele", 200, 1);
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(userLibraryStatsRepository.insertEmptyIfMissing(eq(userId), any())).thenReturn(0);
+
+        libraryStatsService.onSongDeleted(song("Pop", "Adele", 200));
+
+        assertEquals(0, existing.getTotalSongs());
+        verify(songsRepository, never()).aggregateLibraryStats(any());
+        verify(userLibraryStatsRepository).save(existing);
+    }
+
+    // ========================================================================
+    // 3. Rebuild
+    // ========================================================================
+    @Test
+    void rebuild_ResetsDriftedRecord() {
+        UserLibraryStats drifted = new UserLibraryStats(userId);
+        drifted.apply("Ghost", "Nobody", 999, 1);
+        drifted.bumpVersion();
+        when(userLibraryStatsRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(drifted));
+        when(userLibraryStatsRepository.save(drifted)).thenReturn(drifted);
+        when(songsRepository.aggregateLibraryStats(userId)).thenReturn(List.of(
+                row("genre", "Jazz", null, null),
+                row("genre", "Rock", 1L, 100L),
+                row("unknown", "x", 5L, 5L)));
+
+        UserLibraryStats result = libraryStatsService.rebuild(userId);
+
+        assertEquals(1, result.getTotalSongs());
+        assertEquals(100, result.getTotalDuration());
+        assertFalse(result.getGenreCounts().containsKey("Ghost"));
+        assertEquals(0L, result.getGenreCounts().get("Jazz"));
+        assertTrue(result.getArtistCounts().isEmpty());
+        // Versi tetap naik agar ETag lama tidak dianggap masih berlaku
+        assertEquals(2, result.getLibraryVersion());
+    }
+}
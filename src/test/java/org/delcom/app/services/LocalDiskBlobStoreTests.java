@@ -0,0 +1,141 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDiskBlobStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalDiskBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalDiskBlobStore(tempDir);
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try (input) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void put_CreatesShardDirectoriesWithoutLeavingTempFiles() throws IOException {
+        blobStore.put("ab/cd/abcd.txt", new ByteArrayInputStream("hello".getBytes()), "text/plain");
+
+        assertEquals("hello", Files.readString(tempDir.resolve("ab/cd/abcd.txt")));
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(1, entries.count());
+        }
+    }
+
+    @Test
+    void put_ReplacesExistingBlob() throws IOException {
+        blobStore.put("cover_64.jpg", new ByteArrayInputStream("old".getBytes()), "image/jpeg");
+        blobStore.put("cover_64.jpg", new ByteArrayInputStream("new".getBytes()), "image/jpeg");
+
+        assertEquals("new", read(blobStore.get("cover_64.jpg")));
+    }
+
+    @Test
+    void putPath_MovesSourceFile() throws IOException {
+        Path source = Files.writeString(tempDir.resolve(".upload-1.tmp"), "staged");
+
+        blobStore.put("ab/cd/abcd.png", source, "image/png");
+
+        assertFalse(Files.exists(source));
+        assertEquals("staged", Files.readString(tempDir.resolve("ab/cd/abcd.png")));
+    }
+
+    @Test
+    void get_RangeRead() throws IOException {
+        Files.writeString(tempDir.resolve("blob.bin"), "0123456789");
+
+        assertEquals("3456", read(blobStore.get("blob.bin", 3, 4)));
+        assertEquals("789", read(blobStore.get("blob.bin", 7, 100)));
+        assertEquals("89", read(blobStore.get("blob.bin", 8, -1)));
+        assertEquals("", read(blobStore.get("blob.bin", 10, -1)));
+        assertThrows(NoSuchFileException.class, () -> blobStore.get("ghost.bin"));
+    }
+
+    @Test
+    void statAndDelete() throws IOException {
+        Files.writeString(tempDir.resolve("cover.png"), "12345");
+        Files.createDirectory(tempDir.resolve("ab"));
+
+        BlobStore.BlobInfo info = blobStore.stat("cover.png");
+
+        assertEquals("cover.png", info.key());
+        assertEquals(5, info.size());
+        assertEquals(Files.getLastModifiedTime(tempDir.resolve("cover.png")).toMillis(), info.lastModified());
+        assertNull(blobStore.stat("ab"));
+        assertNull(blobStore.stat("ghost.png"));
+        assertTrue(blobStore.delete("cover.png"));
+        assertFalse(blobStore.delete("cover.png"));
+    }
+
+    @Test
+    void list_ReturnsBlobsUnderPrefixWithoutTempFiles() throws IOException {
+        Files.createDirectories(tempDir.resolve("ab/cd"));
+        Files.createDirectories(tempDir.resolve("ab/ef"));
+        Files.writeString(tempDir.resolve("ab/cd/abcd.png"), "12345");
+        Files.writeString(tempDir.resolve("ab/ef/abef.png"), "x");
+        Files.writeString(tempDir.resolve("cover.png"), "x");
+        Files.writeString(tempDir.resolve(".upload-1.tmp"), "partial");
+
+        try (Stream<BlobStore.BlobInfo> blobs = blobStore.list("")) {
+            assertEquals(List.of("ab/cd/abcd.png", "ab/ef/abef.png", "cover.png"),
+                    blobs.map(BlobStore.BlobInfo::key).sorted().toList());
+        }
+        try (Stream<BlobStore.BlobInfo> blobs = blobStore.list("ab/cd/")) {
+            BlobStore.BlobInfo info = blobs.findFirst().orElseThrow();
+            assertEquals("ab/cd/abcd.png", info.key());
+            assertEquals(5, info.size());
+            assertEquals(Files.getLastModifiedTime(tempDir.resolve("ab/cd/abcd.png")).toMillis(), info.lastModified());
+        }
+        try (Stream<BlobStore.BlobInfo> blobs = blobStore.list("zz/")) {
+            assertEquals(0, blobs.count());
+        }
+        try (Stream<BlobStore.BlobInfo> blobs = blobStore.list("../")) {
+            assertEquals(0, blobs.count());
+        }
+    }
+
+    @Test
+    void keysOutsideRoot_AreRejected() throws IOException {
+        Path root = Files.createDirectory(tempDir.resolve("uploads"));
+        Files.writeString(tempDir.resolve("outside.png"), "x");
+        blobStore = new LocalDiskBlobStore(root);
+
+        assertNull(blobStore.stat("../outside.png"));
+        assertNull(blobStore.stat("."));
+        assertNull(blobStore.stat(null));
+        assertFalse(blobStore.delete("../outside.png"));
+        assertThrows(NoSuchFileException.class, () -> blobStore.get("../outside.png"));
+        assertThrows(IllegalArgumentException.class,
+                () -> blobStore.put("../evil.png", new ByteArrayInputStream(new byte[1]), null));
+        assertTrue(Files.exists(tempDir.resolve("outside.png")));
+    }
+
+    @Test
+    void presignedUrls_NotSupported() {
+        assertFalse(blobStore.supportsPresignedUrls());
+        assertNull(blobStore.presignGet("cover.png"));
+        assertNull(blobStore.presignPut("cover.png", "image/png", "0".repeat(64)));
+    }
+}
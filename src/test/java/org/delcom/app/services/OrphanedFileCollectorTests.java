@@ -0,0 +1,260 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.CoverBlobRepository;
+import org.delcom.app.repositories.SongsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanedFileCollectorTests {
+    private static final String HASH_A = "aa/bb/aabb" + "0".repeat(60);
+    private static final String HASH_B = "cc/dd/ccdd" + "1".repeat(60);
+
+    @Mock
+    private SongsRepository songsRepository;
+
+    @Mock
+    private CoverBlobRepository coverBlobRepository;
+
+    @Mock
+    private CoverBlobService coverBlobService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private OrphanedFileCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorageService = new FileStorageService(new LocalDiskBlobStore(tempDir));
+        fileStorageService.uploadDir = tempDir.toString();
+        collector = new OrphanedFileCollector(songsRepository, coverBlobRepository, coverBlobService,
+                fileStorageService, transactionManager, 24, 2, 0);
+    }
+
+    private Path file(String name, boolean old) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, name);
+        if (old) {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+        }
+        return path;
+    }
+
+    private void referencedCovers(String... covers) {
+        when(songsRepository.countByCoverIsNotNull()).thenReturn((long) covers.length);
+        when(songsRepository.streamCovers()).thenReturn(Stream.of(covers));
+    }
+
+    @Test
+    void cleanup_DeletesOnlyUnreferencedOldFiles() throws IOException {
+        referencedCovers(HASH_A + ".jpg", "song_cover_1.png");
+        Path cover = file(HASH_A + ".jpg", true);
+        Path thumbnail = file(HASH_A + "_256.jpg", true);
+        Path legacy = file("song_cover_1.png", true);
+        Path legacyThumbnail = file("song_cover_1_64.jpg", true);
+        Path orphan = file(HASH_B + ".png", true);
+        Path orphanThumbnail = file(HASH_B + "_640.jpg", true);
+        Path staleTemp = file(".upload-123.tmp", true);
+        Path recentOrphan = file("song_cover_2.png", false);
+        Path recentTemp = file(".upload-456.tmp", false);
+        when(coverBlobService.collectUnrecorded(eq(HASH_B + ".png"), any())).thenAnswer(invocation -> {
+            Files.delete(orphan);
+            return true;
+        });
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertTrue(Files.exists(cover));
+        assertTrue(Files.exists(thumbnail));
+        assertTrue(Files.exists(legacy));
+        assertTrue(Files.exists(legacyThumbnail));
+        assertTrue(Files.exists(recentOrphan));
+        assertTrue(Files.exists(recentTemp));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanThumbnail));
+        assertFalse(Files.exists(staleTemp));
+        assertEquals(9, result.scanned());
+        assertEquals(4, result.referenced());
+        assertEquals(2, result.recent());
+        assertEquals(3, result.deleted());
+        assertTrue(result.deletedBytes() > 0);
+    }
+
+    @Test
+    void cleanup_CandidateReferencedAfterMark_IsKept() throws IOException {
+        referencedCovers();
+        Path reused = file(HASH_B + ".png", true);
+        Path reusedThumbnail = file(HASH_B + "_64.jpg", true);
+        // Cover dipakai lagi oleh lagu baru setelah filter dibangun
+        when(songsRepository.existsByCover(HASH_B + ".png")).thenReturn(true);
+        when(songsRepository.existsByCover(HASH_B + "_64.jpg")).thenReturn(false);
+        when(songsRepository.existsByCover(HASH_B)).thenReturn(false);
+        when(songsRepository.existsByCoverStartingWith(HASH_B + ".")).thenReturn(true);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertTrue(Files.exists(reused));
+        assertTrue(Files.exists(reusedThumbnail));
+        assertEquals(0, result.deleted());
+        assertEquals(2, result.referenced());
+    }
+
+    @Test
+    void cleanup_CollectsReleasedCoversThroughCoverBlobService() throws IOException {
+        referencedCovers();
+        Path released = file(HASH_A + ".jpg", true);
+        when(coverBlobRepository.findReleasedFilenames(any(), eq(""), any())).thenReturn(List.of(HASH_A + ".jpg"));
+        when(coverBlobService.collect(eq(HASH_A + ".jpg"), any())).thenAnswer(invocation -> {
+            Files.delete(released);
+            return true;
+        });
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertFalse(Files.exists(released));
+        assertEquals(1, result.deleted());
+        assertTrue(result.deletedBytes() > 0);
+        assertEquals(0, result.scanned());
+    }
+
+    @Test
+    void cleanup_FileWithCoverBlobRecord_IsLeftToCoverBlobService() throws IOException {
+        referencedCovers();
+        Path cover = file(HASH_B + ".png", true);
+        Path thumbnail = file(HASH_B + "_64.jpg", true);
+        // Ref_count 0 tapi belum lewat grace period sejak dilepas
+        when(coverBlobRepository.existsById(HASH_B + ".png")).thenReturn(true);
+        when(coverBlobRepository.existsByFilenameStartingWith(HASH_B + ".")).thenReturn(true);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertTrue(Files.exists(cover));
+        assertTrue(Files.exists(thumbnail));
+        assertEquals(0, result.deleted());
+        assertEquals(2, result.referenced());
+    }
+
+    @Test
+    void cleanup_ContentAddressedOrphanReacquired_IsKept() throws IOException {
+        referencedCovers();
+        // Upload ulang dengan isi yang sama: mtime tetap lama
+        Path reuploaded = file(HASH_B + ".png", true);
+        when(coverBlobService.collectUnrecorded(eq(HASH_B + ".png"), any())).thenReturn(false);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertTrue(Files.exists(reuploaded));
+        assertEquals(0, result.deleted());
+    }
+
+    @Test
+    void cleanup_IgnoresNonShardDirectories() throws IOException {
+        referencedCovers();
+        Path nested = file("backup/old.png", true);
+        Path tooDeep = file("aa/bb/cc/old.png", true);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertTrue(Files.exists(nested));
+        assertTrue(Files.exists(tooDeep));
+        assertEquals(0, result.scanned());
+    }
+
+    @Test
+    void cleanup_MissingUploadDir_RecordsEmptyRun() {
+        referencedCovers();
+        Path missing = tempDir.resolve("missing");
+        FileStorageService fileStorageService = new FileStorageService(new LocalDiskBlobStore(missing));
+        fileStorageService.uploadDir = missing.toString();
+        collector = new OrphanedFileCollector(songsRepository, coverBlobRepository, coverBlobService,
+                fileStorageService, transactionManager, 24, 2, 0);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        assertEquals(0, result.scanned());
+        assertEquals(1, collector.getStats().runs());
+    }
+
+    @Test
+    void cleanup_RemoteBlobStore_SweepsThroughBlobStore() throws IOException {
+        referencedCovers();
+        long old = Instant.now().minus(2, ChronoUnit.DAYS).toEpochMilli();
+        BlobStore blobStore = mock(BlobStore.class);
+        when(blobStore.list("")).thenReturn(Stream.of(
+                new BlobStore.BlobInfo("song_cover_3.png", 10, old, null),
+                new BlobStore.BlobInfo("song_cover_4.png", 10, System.currentTimeMillis(), null),
+                new BlobStore.BlobInfo("backup/song_cover_5.png", 10, old, null)));
+        when(blobStore.delete("song_cover_3.png")).thenReturn(true);
+        // Mode S3: upload directory lokal hanya untuk file sementara dan bisa belum ada
+        FileStorageService fileStorageService = new FileStorageService(blobStore);
+        fileStorageService.uploadDir = tempDir.resolve("missing").toString();
+        collector = new OrphanedFileCollector(songsRepository, coverBlobRepository, coverBlobService,
+                fileStorageService, transactionManager, 24, 2, 0);
+
+        OrphanedFileCollector.Result result = collector.cleanupOrphanedFiles();
+
+        verify(blobStore).delete("song_cover_3.png");
+        verify(blobStore, never()).delete("song_cover_4.png");
+        verify(blobStore, never()).delete("backup/song_cover_5.png");
+        assertEquals(2, result.scanned());
+        assertEquals(1, result.recent());
+        assertEquals(1, result.deleted());
+    }
+
+    @Test
+    void getStats_AccumulatesAcrossRuns() throws IOException {
+        when(songsRepository.countByCoverIsNotNull()).thenReturn(0L);
+        when(songsRepository.streamCovers()).thenAnswer(invocation -> Stream.empty());
+        file("song_cover_9.png", true);
+
+        collector.cleanupOrphanedFiles();
+        collector.cleanupOrphanedFiles();
+
+        OrphanedFileCollector.Stats stats = collector.getStats();
+        assertEquals(2, stats.runs());
+        assertEquals(1, stats.scanned());
+        assertEquals(1, stats.deleted());
+        assertFalse(stats.running());
+        assertEquals(0, stats.last().scanned());
+    }
+
+    @Test
+    void stemAndTemporaryNames() {
+        assertEquals("aa/bb/aabb", OrphanedFileCollector.stem("aa/bb/aabb.jpg"));
+        assertEquals("aa/bb/aabb", OrphanedFileCollector.stem("aa/bb/aabb"));
+        assertEquals("aa/bb/.hidden", OrphanedFileCollector.stem("aa/bb/.hidden"));
+        assertTrue(OrphanedFileCollector.isTemporary("aa/bb/.thumbnail-1.tmp"));
+        assertFalse(OrphanedFileCollector.isTemporary("upload-1.tmp"));
+        assertTrue(OrphanedFileCollector.inSweepScope("song_cover_1.png"));
+        assertTrue(OrphanedFileCollector.inSweepScope("aa/bb/aabb.jpg"));
+        assertFalse(OrphanedFileCollector.inSweepScope("backup/old.png"));
+        assertFalse(OrphanedFileCollector.inSweepScope("aa/bb/cc/old.png"));
+        assertEquals("aa/bb/aabb", CoverThumbnailService.renditionBase("aa/bb/aabb_640.jpg"));
+        assertNull(CoverThumbnailService.renditionBase("aa/bb/aabb_100.jpg"));
+        assertNull(CoverThumbnailService.renditionBase("cover_64.png"));
+    }
+}
@@ -0,0 +1,64 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsTests {
+
+    @Test
+    @DisplayName("Sampel dikelompokkan per method, pattern dan kelas status")
+    void testGroupsByEndpointAndStatusClass() {
+        RequestMetrics metrics = new RequestMetrics();
+
+        metrics.record("GET", "/api/songs/{id}", 200, 2_000_000);
+        metrics.record("GET", "/api/songs/{id}", 204, 4_000_000);
+        metrics.record("GET", "/api/songs/{id}", 404, 1_000_000);
+        metrics.record("DELETE", "/api/songs/{id}", 503, 1_000_000);
+        metrics.record("GET", null, 404, 1_000_000);
+        metrics.record(null, "/ignored", 200, 1_000_000);
+
+        List<RequestMetrics.EndpointSnapshot> snapshots = metrics.snapshot();
+
+        assertEquals(4, snapshots.size());
+        assertEquals("DELETE", snapshots.get(0).method());
+        assertEquals("5xx", snapshots.get(0).status());
+        assertEquals("2xx", snapshots.get(1).status());
+        assertEquals(2, snapshots.get(1).latency().count());
+        assertEquals("4xx", snapshots.get(2).status());
+        assertEquals(RequestMetrics.UNMATCHED_PATTERN, snapshots.get(3).pattern());
+    }
+
+    @Test
+    @DisplayName("Status di luar 100-599 masuk ke kelas terdekat")
+    void testStatusOutOfRange() {
+        RequestMetrics metrics = new RequestMetrics();
+
+        metrics.record("GET", "/x", 0, 1_000);
+        metrics.record("GET", "/x", 999, 1_000);
+
+        List<RequestMetrics.EndpointSnapshot> snapshots = metrics.snapshot();
+        assertEquals("1xx", snapshots.get(0).status());
+        assertEquals("5xx", snapshots.get(1).status());
+    }
+
+    @Test
+    @DisplayName("Format Prometheus berisi quantile, count, sum dan max")
+    void testPrometheusFormat() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record("GET", "/api/songs/{id}", 200, 2_000_000);
+
+        String text = metrics.toPrometheus();
+
+        assertTrue(text.contains("# TYPE http_server_requests_seconds summary"));
+        assertTrue(text.contains(
+                "http_server_requests_seconds{method=\"GET\",uri=\"/api/songs/{id}\",status=\"2xx\",quantile=\"0.99\"} 0.002"));
+        assertTrue(text.contains(
+                "http_server_requests_seconds_count{method=\"GET\",uri=\"/api/songs/{id}\",status=\"2xx\"} 1"));
+        assertTrue(text.contains("http_server_requests_seconds_max{"));
+        assertTrue(metrics.getUptimeSeconds() >= 0);
+    }
+}
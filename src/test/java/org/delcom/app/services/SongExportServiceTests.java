@@ -0,0 +1,98 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.SongExportRow;
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.repositories.SongsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SongExportServiceTests {
+
+    @Mock
+    private SongsRepository songsRepository;
+
+    @InjectMocks
+    private SongExportService songExportService;
+
+    private UUID userId;
+    private UUID songId;
+    private LocalDateTime createdAt;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        songId = UUID.randomUUID();
+        createdAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+    }
+
+    private SongExportRow row(String title, String album, Integer releaseYear) {
+        return new SongExportRow(songId, title, "Queen", album, "Rock", 354, releaseYear, null, createdAt);
+    }
+
+    @Test
+    void export_Ndjson_OneObjectPerLineWithEscaping() throws Exception {
+        when(songsRepository.streamExportRowsByUserId(userId))
+                .thenReturn(Stream.of(row("Say \"Hi\"\n", null, 1975), row("Plain", "A\\B", null)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = songExportService.export(userId, SongFileFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":\"" + songId + "\",\"title\":\"Say \\\"Hi\\\"\\n\",\"artist\":\"Queen\",\"album\":null,"
+                + "\"genre\":\"Rock\",\"duration\":354,\"releaseYear\":1975,\"cover\":null,"
+                + "\"createdAt\":\"2024-05-01T12:30\"}", lines[0]);
+        assertTrue(lines[1].contains("\"album\":\"A\\\\B\""));
+        assertTrue(lines[1].contains("\"releaseYear\":null"));
+    }
+
+    @Test
+    void export_Csv_HeaderAndQuotedFields() throws Exception {
+        when(songsRepository.streamExportRowsByUserId(userId))
+                .thenReturn(Stream.of(row("Hello, \"World\"", null, null)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = songExportService.export(userId, SongFileFormat.CSV, output);
+
+        assertEquals(1, count);
+        assertEquals(SongFileFormat.CSV_HEADER + "\r\n"
+                + songId + ",\"Hello, \"\"World\"\"\",Queen,,Rock,354,,,2024-05-01T12:30\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_ClosesDatabaseStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(songsRepository.streamExportRowsByUserId(userId))
+                .thenReturn(Stream.<SongExportRow>empty().onClose(() -> closed.set(true)));
+
+        long count = songExportService.export(userId, SongFileFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(0, count);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void formatParse_IsCaseInsensitive() {
+        assertEquals(SongFileFormat.CSV, SongFileFormat.parse(" CSV "));
+        assertEquals(SongFileFormat.NDJSON, SongFileFormat.parse("ndjson"));
+        assertNull(SongFileFormat.parse("xml"));
+        assertNull(SongFileFormat.parse(null));
+    }
+}
@@ -0,0 +1,177 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.SongFileFormat;
+import org.delcom.app.dto.SongImportResult;
+import org.delcom.app.entities.Songs;
+import org.delcom.app.utils.ConstUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SongImportServiceTests {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private SongSuggestIndex songSuggestIndex;
+
+    private SongImportService songImportService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        songImportService = new SongImportService(entityManager, transactionManager, libraryStatsService,
+                songSuggestIndex, 2);
+        userId = UUID.randomUUID();
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importSongs_Ndjson_InsertsValidRowsInBatchesAndReportsErrors() throws Exception {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        String ndjson = """
+                {"title":"Bohemian Rhapsody","artist":"Queen","genre":"Rock","duration":354,"releaseYear":1975}
+                {"title":"Yellow","artist":"Coldplay","genre":"","duration":266}
+
+                {"title":"Hello","artist":"Adele","album":"25","genre":"Pop","duration":295,"id":"x","cover":null}
+                {"title":"Yesterday","artist":"Beatles","genre":"Pop","duration":125,"releaseYear":1965}
+                """;
+
+        SongImportResult result = songImportService.importSongs(userId, SongFileFormat.NDJSON, input(ndjson));
+
+        assertEquals(3, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(List.of(new SongImportResult.RowError(2, "Genre tidak boleh kosong")), result.errors());
+        assertFalse(result.errorsTruncated());
+
+        ArgumentCaptor<Songs> captor = ArgumentCaptor.forClass(Songs.class);
+        verify(entityManager, times(3)).persist(captor.capture());
+        assertEquals(List.of("Bohemian Rhapsody", "Hello", "Yesterday"),
+                captor.getAllValues().stream().map(Songs::getTitle).toList());
+        assertEquals(userId, captor.getAllValues().get(1).getUserId());
+        assertEquals("25", captor.getAllValues().get(1).getAlbum());
+        // Batch 2 lagu: satu batch penuh dan satu sisa, masing-masing satu transaksi
+        verify(session, times(2)).setJdbcBatchSize(2);
+        verify(transactionManager, times(2)).commit(any());
+        verify(libraryStatsService, times(2)).onSongsImported(eq(userId), anyList());
+        verify(songSuggestIndex, times(2)).onSongsImported(userId);
+    }
+
+    @Test
+    void importSongs_Csv_ReadsExportFormat() throws Exception {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        String csv = SongFileFormat.CSV_HEADER + "\r\n"
+                + UUID.randomUUID() + ",\"Say \"\"Hi\"\", Again\",Queen,,Rock,354,1975,cover.png,2024-05-01T12:30\r\n"
+                + ",Yellow,Coldplay,Parachutes,Rock,abc,,,\r\n";
+
+        SongImportResult result = songImportService.importSongs(userId, SongFileFormat.CSV, input(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new SongImportResult.RowError(2, "Durasi dan tahun rilis harus berupa angka")),
+                result.errors());
+        ArgumentCaptor<Songs> captor = ArgumentCaptor.forClass(Songs.class);
+        verify(entityManager).persist(captor.capture());
+        Songs song = captor.getValue();
+        assertEquals("Say \"Hi\", Again", song.getTitle());
+        assertNull(song.getAlbum());
+        assertNull(song.getId());
+        assertNull(song.getCover());
+        assertEquals(354, song.getDuration());
+        assertEquals(1975, song.getReleaseYear());
+    }
+
+    @Test
+    void importSongs_CsvWithoutRequiredColumn_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> songImportService.importSongs(userId,
+                SongFileFormat.CSV, input("title,artist,genre\nYellow,Coldplay,Rock\n")));
+        verifyNoInteractions(entityManager, transactionManager);
+    }
+
+    @Test
+    void importSongs_OnlyInvalidRows_DoesNotOpenTransaction() throws Exception {
+        String ndjson = """
+                {"title":"A","artist":"B","genre":"Rock","duration":0}
+                {"title":"A","artist":"B","genre":"Rock","duration":7201}
+                {"title":"A","artist":"B","genre":"Rock","duration":100,"releaseYear":1899}
+                {"title":"A","artist":"B","genre":"Rock","duration":"abc"}
+                not json
+                {"title":" ","artist":"B","genre":"Rock","duration":100}
+                """;
+
+        SongImportResult result = songImportService.importSongs(userId, SongFileFormat.NDJSON, input(ndjson));
+
+        assertEquals(0, result.imported());
+        assertEquals(6, result.failed());
+        assertEquals(List.of(
+                "Durasi harus antara 1 dan 7200 detik",
+                "Durasi harus antara 1 dan 7200 detik",
+                "Tahun rilis harus antara 1900 dan tahun ini",
+                "JSON tidak valid",
+                "JSON tidak valid",
+                "Judul lagu tidak boleh kosong"),
+                result.errors().stream().map(SongImportResult.RowError::message).toList());
+        verifyNoInteractions(entityManager, transactionManager, libraryStatsService, songSuggestIndex);
+    }
+
+    @Test
+    void importSongs_TooManyErrors_AreTruncated() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ConstUtil.IMPORT_MAX_REPORTED_ERRORS + 5; i++) {
+            ndjson.append("{\"title\":\"A\"}\n");
+        }
+
+        SongImportResult result = songImportService.importSongs(userId, SongFileFormat.NDJSON,
+                input(ndjson.toString()));
+
+        assertEquals(ConstUtil.IMPORT_MAX_REPORTED_ERRORS + 5, result.failed());
+        assertEquals(ConstUtil.IMPORT_MAX_REPORTED_ERRORS, result.errors().size());
+        assertTrue(result.errorsTruncated());
+    }
+
+    @Test
+    void validate_FollowsSongFormRules() {
+        int currentYear = Year.now().getValue();
+
+        assertNull(SongImportService.validate(new SongImportService.ImportRow("A", "B", null, "Rock", 1, null)));
+        assertNull(SongImportService.validate(
+                new SongImportService.ImportRow("A", "B", null, "Rock", 7200, currentYear)));
+        assertNotNull(SongImportService.validate(
+                new SongImportService.ImportRow("A", "B", null, "Rock", 100, currentYear + 1)));
+        assertEquals("Nama artist tidak boleh kosong",
+                SongImportService.validate(new SongImportService.ImportRow("A", null, null, "Rock", 100, null)));
+        assertEquals("Teks maksimal 255 karakter", SongImportService.validate(
+                new SongImportService.ImportRow("A".repeat(256), "B", null, "Rock", 100, null)));
+    }
+}
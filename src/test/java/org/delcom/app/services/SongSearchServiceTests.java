@@ -0,0 +1,138 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Songs;
+import org.delcom.app.repositories.SongsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SongSearchServiceTests {
+
+    @Mock
+    private SongsRepository songsRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void toPrefixTsQuery_BuildsPrefixTermsAndStripsOperators() {
+        assertEquals("queen:* & bohem:*", SongSearchService.toPrefixTsQuery("  Queen bohem "));
+        assertEquals("rock:* & roll:*", SongSearchService.toPrefixTsQuery("rock & !roll:*"));
+        assertEquals("café:*", SongSearchService.toPrefixTsQuery("Café"));
+        assertEquals("", SongSearchService.toPrefixTsQuery("&|!():*"));
+        assertEquals(8, SongSearchService.toPrefixTsQuery("a b c d e f g h i j").split(" & ").length);
+    }
+
+    @Test
+    void search_Postgres_UsesFullTextQuery() {
+        SongSearchService service = new SongSearchService(songsRepository, "PostgreSQL");
+        Songs song = new Songs(userId, "Bohemian Rhapsody", "Queen", null, "Rock", 354, 1975);
+        when(songsRepository.searchFullText(userId, "queen:*")).thenReturn(List.of(song));
+
+        List<Songs> result = service.search(userId, "Queen");
+
+        assertTrue(service.isFullTextEnabled());
+        assertEquals(List.of(song), result);
+        verify(songsRepository, never()).searchWeighted(any(), any());
+    }
+
+    @Test
+    void search_Postgres_MultiWordAndMidWord_UsesAndedPrefixTerms() {
+        SongSearchService service = new SongSearchService(songsRepository, "PostgreSQL");
+        when(songsRepository.searchFullText(any(), any())).thenReturn(List.of());
+
+        service.search(userId, "Queen bohem");
+        service.search(userId, "hemian");
+
+        // Setiap kata menjadi prefix awal kata: "hemian" tidak cocok dengan "bohemian"
+        verify(songsRepository).searchFullText(userId, "queen:* & bohem:*");
+        verify(songsRepository).searchFullText(userId, "hemian:*");
+    }
+
+    @Test
+    void search_Postgres_OnlyOperators_ReturnsEmpty() {
+        SongSearchService service = new SongSearchService(songsRepository, "PostgreSQL");
+
+        assertTrue(service.search(userId, "!&|").isEmpty());
+        verifyNoInteractions(songsRepository);
+    }
+
+    @Test
+    void search_OtherDatabase_UsesWeightedFallback() {
+        SongSearchService service = new SongSearchService(songsRepository, "H2");
+        when(songsRepository.searchWeighted(userId, List.of("queen"))).thenReturn(List.of());
+
+        service.search(userId, " QUEEN ");
+
+        assertFalse(service.isFullTextEnabled());
+        verify(songsRepository).searchWeighted(userId, List.of("queen"));
+        verify(songsRepository, never()).searchFullText(any(), any());
+    }
+
+    @Test
+    void search_OtherDatabase_SplitsKeywordLikeFullText() {
+        SongSearchService service = new SongSearchService(songsRepository, "H2");
+        when(songsRepository.searchWeighted(any(), any())).thenReturn(List.of());
+
+        service.search(userId, " Queen bohem! 100%_ ");
+
+        verify(songsRepository).searchWeighted(userId, List.of("queen", "bohem", "100"));
+    }
+
+    @Test
+    void search_OtherDatabase_OnlyOperators_ReturnsEmpty() {
+        SongSearchService service = new SongSearchService(songsRepository, "H2");
+
+        assertTrue(service.search(userId, "%_!").isEmpty());
+        verifyNoInteractions(songsRepository);
+    }
+
+    @Test
+    void constructor_DetectsPostgresFromConnectionMetadata() throws SQLException {
+        // URL lewat proxy (mis. jdbc:p6spy:postgresql:) tetap dikenali sebagai PostgreSQL
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        assertTrue(new SongSearchService(songsRepository, dataSource).isFullTextEnabled());
+        verify(connection).close();
+    }
+
+    @Test
+    void constructor_MetadataError_FallsBackToLike() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        assertFalse(new SongSearchService(songsRepository, dataSource).isFullTextEnabled());
+    }
+
+    @Test
+    void search_BlankKeyword_ReturnsEmpty() {
+        SongSearchService service = new SongSearchService(songsRepository, "");
+
+        assertTrue(service.search(userId, null).isEmpty());
+        assertTrue(service.search(userId, "  ").isEmpty());
+        verifyNoInteractions(songsRepository);
+    }
+}
@@ -0,0 +1,178 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.Songs;
+import org.delcom.app.repositories.SongsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SongSuggestIndexTests {
+
+    @Mock
+    private SongsRepository songsRepository;
+
+    private SongSuggestIndex index;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        index = new SongSuggestIndex(songsRepository, 2);
+        userId = UUID.randomUUID();
+    }
+
+    private Songs song(UUID owner, String title, String artist, String album, String genre) {
+        Songs song = new Songs(owner, title, artist, album, genre, 200, 2000);
+        song.setId(UUID.randomUUID());
+        return song;
+    }
+
+    private List<String> titles(List<SongSuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SongSuggestIndex.Suggestion::title).toList();
+    }
+
+    @Test
+    void suggest_LoadsLazilyOnceAndRanksByField() {
+        when(songsRepository.findAllByUserId(userId)).thenReturn(List.of(
+                song(userId, "Another Day", "Queen", "Jazz", "Rock"),
+                song(userId, "Queen of Hearts", "Fleetwood", "Tusk", "Pop"),
+                song(userId, "Heroes", "Bowie", "Queendom", "Rock"),
+                song(userId, "Yellow", "Coldplay", "Parachutes", "Rock")));
+
+        List<SongSuggestIndex.Suggestion> first = index.suggest(userId, "que", 10);
+        index.suggest(userId, "yel", 10);
+
+        assertEquals(List.of("Queen of Hearts", "Another Day", "Heroes"), titles(first));
+        assertEquals(8, first.get(0).score());
+        verify(songsRepository, times(1)).findAllByUserId(userId);
+    }
+
+    @Test
+    void suggest_AllTermsMustMatchAndLimitApplies() {
+        when(songsRepository.findAllByUserId(userId)).thenReturn(List.of(
+                song(userId, "Bohemian Rhapsody", "Queen", null, "Rock"),
+                song(userId, "Bohemian Like You", "Dandy Warhols", null, "Rock"),
+                song(userId, "Bohemia", "Queen", null, "Rock")));
+
+        assertEquals(List.of("Bohemia", "Bohemian Rhapsody"), titles(index.suggest(userId, "bohem QUEEN", 10)));
+        assertEquals(1, index.suggest(userId, "bohem", 1).size());
+        assertTrue(index.suggest(userId, "bohem metal", 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzy_ToleratesTyposAndRanksExactFirst() {
+        when(songsRepository.findAllByUserId(userId)).thenReturn(List.of(
+                song(userId, "Bohemian Rhapsody", "Queen", null, "Rock"),
+                song(userId, "Queer", "Garbage", null, "Rock"),
+                song(userId, "Hello", "Adele", "Queen Album", "Pop"),
+                song(userId, "Yellow", "Coldplay", null, "Rock")));
+
+        List<SongSuggestIndex.Suggestion> result = index.searchFuzzy(userId, "qeen", 10);
+
+        // "qeen" -> queen (1 edit, artist), queer (2 edit) di luar batas 1 edit untuk 4 huruf
+        assertEquals(List.of("Bohemian Rhapsody"), titles(result));
+        assertEquals(List.of("Bohemian Rhapsody"), titles(index.searchFuzzy(userId, "bohemain qeen", 10)));
+        assertEquals(List.of("Yellow"), titles(index.searchFuzzy(userId, "yelow", 10)));
+        // Kecocokan persis (yellow) di atas 2 edit (hello)
+        assertEquals(List.of("Yellow", "Hello"), titles(index.searchFuzzy(userId, "yellow", 10)));
+        assertTrue(index.searchFuzzy(userId, "metallica", 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzy_FollowsUpdates() {
+        Songs song = song(userId, "Yesterday", "Beatles", null, "Pop");
+        when(songsRepository.findAllByUserId(userId)).thenReturn(List.of(song));
+        assertEquals(1, index.searchFuzzy(userId, "beatels", 10).size());
+
+        index.onSongDeleted(song);
+        assertTrue(index.searchFuzzy(userId, "beatels", 10).isEmpty());
+
+        index.onSongSaved(song);
+        assertEquals(1, index.searchFuzzy(userId, "beatles", 10).size());
+    }
+
+    @Test
+    void maxEdits_GrowsWithTermLength() {
+        assertEquals(0, SongSuggestIndex.maxEdits("ab"));
+        assertEquals(1, SongSuggestIndex.maxEdits("queen"));
+        assertEquals(2, SongSuggestIndex.maxEdits("bohemian"));
+    }
+
+    @Test
+    void suggest_BlankQuery_DoesNotLoadIndex() {
+        assertTrue(index.suggest(userId, "  !? ", 10).isEmpty());
+        assertTrue(index.suggest(userId, null, 10).isEmpty());
+        verify(songsRepository, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void onSongSavedAndDeleted_UpdateLoadedIndex() {
+        Songs existing = song(userId, "Yesterday", "Beatles", null, "Pop");
+        when(songsRepository.findAllByUserId(userId)).thenReturn(new ArrayList<>(List.of(existing)));
+        index.suggest(userId, "yes", 10);
+
+        Songs created = song(userId, "Yes It Is", "Beatles", null, "Pop");
+        index.onSongSaved(created);
+        existing.setTitle("Let It Be");
+        index.onSongSaved(existing);
+
+        assertEquals(List.of("Yes It Is"), titles(index.suggest(userId, "yes", 10)));
+        assertEquals(List.of("Let It Be"), titles(index.suggest(userId, "let", 10)));
+
+        index.onSongDeleted(created);
+
+        assertTrue(index.suggest(userId, "yes", 10).isEmpty());
+        assertEquals(1, index.getStats().songs());
+        verify(songsRepository, times(1)).findAllByUserId(userId);
+    }
+
+    @Test
+    void onSongSaved_IndexNotLoaded_IsIgnored() {
+        index.onSongSaved(song(userId, "Yesterday", "Beatles", null, "Pop"));
+
+        assertEquals(0, index.getStats().users());
+    }
+
+    @Test
+    void maxUsers_EvictsLeastRecentlyUsed() {
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(songsRepository.findAllByUserId(any())).thenReturn(List.of());
+
+        index.suggest(userId, "a", 10);
+        index.suggest(second, "a", 10);
+        index.suggest(userId, "a", 10);
+        index.suggest(third, "a", 10);
+        index.suggest(userId, "a", 10);
+
+        assertEquals(2, index.getStats().users());
+        verify(songsRepository, times(1)).findAllByUserId(userId);
+    }
+
+    @Test
+    void estimatedMemory_TenThousandSongs_StaysBounded() {
+        List<Songs> songs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            songs.add(song(userId, "Song Title " + i, "Artist " + (i % 500), "Album " + (i % 1000),
+                    "Genre " + (i % 15)));
+        }
+        when(songsRepository.findAllByUserId(userId)).thenReturn(songs);
+
+        assertEquals(10, index.suggest(userId, "song 42", 10).size());
+        SongSuggestIndex.IndexStats stats = index.getStats();
+
+        assertEquals(10_000, stats.songs());
+        // Perkiraan ~500 byte per lagu untuk data lagu + posting list
+        assertTrue(stats.estimatedBytes() < 8L * 1024 * 1024, "estimatedBytes=" + stats.estimatedBytes());
+    }
+}
@@ -1,18 +1,34 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.LibraryStats;
+import org.delcom.app.dto.SongBatchOperation;
+import org.delcom.app.dto.SongBatchResult;
+import org.delcom.app.dto.SongFacetRow;
+import org.delcom.app.dto.SongFacets;
+import org.delcom.app.dto.SongFilter;
+import org.delcom.app.dto.SongPage;
 import org.delcom.app.entities.Songs;
 import org.delcom.app.repositories.SongsRepository;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.delcom.app.utils.CursorUtil.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +40,21 @@ class SongsServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private LibraryStatsService libraryStatsService;
+
+    @Mock
+    private SongSearchService songSearchService;
+
+    @Mock
+    private SongSuggestIndex songSuggestIndex;
+
+    @Mock
+    private SongSyncService songSyncService;
+
+    @Mock
+    private CoverBlobService coverBlobService;
+
     @InjectMocks
     private SongsService songsService;
 
@@ -58,6 +89,8 @@ class SongsServiceTest {
         assertNotNull(result);
         assertEquals(songId, result.getId());
         verify(songsRepository).save(any(Songs.class));
+        verify(libraryStatsService).onSongCreated(mockSong);
+        verify(songSuggestIndex).onSongSaved(mockSong);
     }
 
     // ========================================================================
@@ -72,19 +105,50 @@ class SongsServiceTest {
 
         assertEquals(1, result.size());
         verify(songsRepository).findAllByUserId(userId);
-        verify(songsRepository, never()).findByKeyword(any(), any());
+        verify(songSearchService, never()).search(any(), any());
     }
 
     @Test
     void getAllSongs_SearchIsNotEmpty() {
         // Case: search != null && !isEmpty
         String keyword = "Test";
-        when(songsRepository.findByKeyword(userId, keyword)).thenReturn(List.of(mockSong));
+        when(songSearchService.search(userId, keyword)).thenReturn(List.of(mockSong));
 
         List<Songs> result = songsService.getAllSongs(userId, keyword);
 
         assertEquals(1, result.size());
-        verify(songsRepository).findByKeyword(userId, keyword);
+        verify(songSearchService).search(userId, keyword);
+        verify(songsRepository, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void getAllSongs_Fuzzy_KeepsRankAndOwnership() {
+        Songs other = new Songs();
+        other.setId(UUID.randomUUID());
+        other.setUserId(UUID.randomUUID());
+        Songs second = new Songs();
+        second.setId(UUID.randomUUID());
+        second.setUserId(userId);
+        List<SongSuggestIndex.Suggestion> matches = List.of(
+                new SongSuggestIndex.Suggestion(second.getId(), "B", "A", null, "Pop", 24),
+                new SongSuggestIndex.Suggestion(other.getId(), "C", "A", null, "Pop", 16),
+                new SongSuggestIndex.Suggestion(songId, "A", "A", null, "Pop", 8));
+        when(songSuggestIndex.searchFuzzy(userId, "qeen", ConstUtil.MAX_PAGE_SIZE)).thenReturn(matches);
+        when(songsRepository.findAllById(List.of(second.getId(), other.getId(), songId)))
+                .thenReturn(List.of(mockSong, other, second));
+
+        List<Songs> result = songsService.getAllSongs(userId, "qeen", true);
+
+        assertEquals(List.of(second, mockSong), result);
+        verify(songSearchService, never()).search(any(), any());
+    }
+
+    @Test
+    void getAllSongs_Fuzzy_NoMatch_SkipsRepository() {
+        when(songSuggestIndex.searchFuzzy(userId, "zzz", 5)).thenReturn(List.of());
+
+        assertTrue(songsService.searchSongsFuzzy(userId, "zzz", 5).isEmpty());
+        verify(songsRepository, never()).findAllById(any());
     }
 
     @Test
@@ -96,7 +160,7 @@ class SongsServiceTest {
         List<Songs> result = songsService.getAllSongs(userId, "");
 
         assertEquals(1, result.size());
-        // Harus memanggil findAllByUserId, BUKAN findByKeyword
+        // Harus memanggil findAllByUserId, BUKAN search
         verify(songsRepository).findAllByUserId(userId);
     }
 
@@ -140,6 +204,9 @@ class SongsServiceTest {
 
         assertNotNull(result);
         assertEquals("New Title", result.getTitle());
+        // Statistik menerima nilai lama sebelum diubah
+        verify(libraryStatsService).onSongUpdated("Pop", "Test Artist", 200, mockSong);
+        verify(songSuggestIndex).onSongSaved(mockSong);
     }
 
     @Test
@@ -156,12 +223,16 @@ class SongsServiceTest {
     void deleteSong_Success_WithCover() {
         mockSong.setCover("cover.jpg");
         when(songsRepository.findByUserIdAndId(userId, songId)).thenReturn(Optional.of(mockSong));
+        when(coverBlobService.release("cover.jpg")).thenReturn(true);
 
         boolean result = songsService.deleteSong(userId, songId);
 
         assertTrue(result);
         verify(fileStorageService).deleteFile("cover.jpg");
         verify(songsRepository).deleteById(songId);
+        verify(libraryStatsService).onSongDeleted(mockSong);
+        verify(songSuggestIndex).onSongDeleted(mockSong);
+        verify(songSyncService).onSongsDeleted(List.of(mockSong));
     }
 
     @Test
@@ -176,11 +247,43 @@ class SongsServiceTest {
         verify(songsRepository).deleteById(songId);
     }
 
+    @Test
+    void deleteSong_WithCover_DeletesFileOnlyAfterCommit() {
+        mockSong.setCover("cover.jpg");
+        when(songsRepository.findByUserIdAndId(userId, songId)).thenReturn(Optional.of(mockSong));
+        when(coverBlobService.release("cover.jpg")).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            songsService.deleteSong(userId, songId);
+            verify(fileStorageService, never()).deleteFile(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(fileStorageService).deleteFile("cover.jpg");
+    }
+
+    @Test
+    void deleteSong_CoverSharedWithOtherSong_KeepsFile() {
+        mockSong.setCover("ab/cd/shared.jpg");
+        when(songsRepository.findByUserIdAndId(userId, songId)).thenReturn(Optional.of(mockSong));
+        when(coverBlobService.release("ab/cd/shared.jpg")).thenReturn(false);
+
+        songsService.deleteSong(userId, songId);
+
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(songsRepository).deleteById(songId);
+    }
+
     @Test
     void deleteSong_NotFound() {
         when(songsRepository.findByUserIdAndId(userId, songId)).thenReturn(Optional.empty());
         boolean result = songsService.deleteSong(userId, songId);
         assertFalse(result);
+        verify(libraryStatsService, never()).onSongDeleted(any());
+        verify(songSuggestIndex, never()).onSongDeleted(any());
     }
 
     // ========================================================================
@@ -191,12 +294,26 @@ class SongsServiceTest {
         mockSong.setCover("old-cover.jpg");
         when(songsRepository.findById(songId)).thenReturn(Optional.of(mockSong));
         when(songsRepository.save(any(Songs.class))).thenReturn(mockSong);
+        when(coverBlobService.release("old-cover.jpg")).thenReturn(true);
 
         Songs result = songsService.updateCover(songId, "new-cover.jpg");
 
         assertNotNull(result);
         assertEquals("new-cover.jpg", result.getCover());
         verify(fileStorageService).deleteFile("old-cover.jpg");
+        verify(coverBlobService).acquire("new-cover.jpg");
+    }
+
+    @Test
+    void updateCover_SameContent_KeepsReferenceCount() {
+        mockSong.setCover("ab/cd/abcd.jpg");
+        when(songsRepository.findById(songId)).thenReturn(Optional.of(mockSong));
+        when(songsRepository.save(any(Songs.class))).thenReturn(mockSong);
+
+        songsService.updateCover(songId, "ab/cd/abcd.jpg");
+
+        verify(fileStorageService, never()).deleteFile(any());
+        verifyNoInteractions(coverBlobService);
     }
 
     @Test
@@ -212,6 +329,7 @@ class SongsServiceTest {
         assertEquals("new-cover.jpg", result.getCover());
         // Pastikan TIDAK mencoba menghapus file karena cover lama null
         verify(fileStorageService, never()).deleteFile(any()); 
+        verify(coverBlobService).acquire("new-cover.jpg");
     }
 
     @Test
@@ -247,28 +365,24 @@ class SongsServiceTest {
     }
 
     // ========================================================================
-    // 8. Test Charts
+    // 8. Test Charts (dibaca dari statistik yang dipelihara saat penulisan)
     // ========================================================================
     @Test
     void getChartDataByGenre_Success() {
-        List<Object[]> mockResults = new ArrayList<>();
-        mockResults.add(new Object[]{"Pop", 10L});
-        mockResults.add(new Object[]{"Rock", 5L});
-
-        when(songsRepository.countSongsByGenre(userId)).thenReturn(mockResults);
+        when(libraryStatsService.getStats(userId))
+                .thenReturn(new LibraryStats(15, 3000, Map.of("Pop", 10L, "Rock", 5L), Map.of()));
 
         Map<String, Long> result = songsService.getChartDataByGenre(userId);
 
         assertEquals(2, result.size());
         assertEquals(10L, result.get("Pop"));
+        verify(songsRepository, never()).countSongsByGenre(any());
     }
 
     @Test
     void getChartDataByArtist_Success() {
-        List<Object[]> mockResults = new ArrayList<>();
-        mockResults.add(new Object[]{"Artist A", 2L});
-
-        when(songsRepository.countSongsByArtist(userId)).thenReturn(mockResults);
+        when(libraryStatsService.getStats(userId))
+                .thenReturn(new LibraryStats(2, 400, Map.of(), Map.of("Artist A", 2L)));
 
         Map<String, Long> result = songsService.getChartDataByArtist(userId);
 
@@ -278,8 +392,8 @@ class SongsServiceTest {
     
     @Test
     void getChartDataByGenre_Empty() {
-        // Test loop coverage jika data kosong
-        when(songsRepository.countSongsByGenre(userId)).thenReturn(Collections.emptyList());
+        when(libraryStatsService.getStats(userId))
+                .thenReturn(new LibraryStats(0, 0, Map.of(), Map.of()));
         Map<String, Long> result = songsService.getChartDataByGenre(userId);
         assertTrue(result.isEmpty());
     }
@@ -289,21 +403,178 @@ class SongsServiceTest {
     // ========================================================================
     @Test
     void getTotalDuration_Success() {
-        Songs song1 = new Songs(); song1.setDuration(100);
-        Songs song2 = new Songs(); song2.setDuration(200);
-        
-        when(songsRepository.findAllByUserId(userId)).thenReturn(List.of(song1, song2));
+        when(libraryStatsService.getStats(userId))
+                .thenReturn(new LibraryStats(2, 300, Map.of(), Map.of()));
 
         Integer total = songsService.getTotalDuration(userId);
 
         assertEquals(300, total);
+        verify(songsRepository, never()).findAllByUserId(any());
     }
     
     @Test
-    void getTotalDuration_EmptyList() {
-        // Test loop coverage jika user tidak punya lagu
-        when(songsRepository.findAllByUserId(userId)).thenReturn(Collections.emptyList());
+    void getTotalDuration_EmptyLibrary() {
+        when(libraryStatsService.getStats(userId))
+                .thenReturn(new LibraryStats(0, 0, Map.of(), Map.of()));
         Integer total = songsService.getTotalDuration(userId);
         assertEquals(0, total);
     }
-}
\ No newline at end of file
+
+    // ========================================================================
+    // 10. Test Keyset Pagination
+    // ========================================================================
+    private Songs songAt(LocalDateTime createdAt) {
+        Songs song = new Songs();
+        song.setId(UUID.randomUUID());
+        song.setUserId(userId);
+        ReflectionTestUtils.setField(song, "createdAt", createdAt);
+        return song;
+    }
+
+    @Test
+    void getSongsPage_FirstPage_HasNextCursor() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Songs s1 = songAt(now);
+        Songs s2 = songAt(now.minusMinutes(1));
+        Songs s3 = songAt(now.minusMinutes(2));
+        SongFilter filter = SongFilter.none();
+        when(songsRepository.findPageByFilter(userId, filter, null, 3)).thenReturn(List.of(s1, s2, s3));
+
+        SongPage page = songsService.getSongsPage(userId, filter, null, 2);
+
+        assertEquals(List.of(s1, s2), page.songs());
+        assertEquals(new CursorUtil.Cursor(s2.getCreatedAt(), s2.getId()), CursorUtil.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getSongsPage_LastPage_NoNextCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.now(), UUID.randomUUID());
+        SongFilter filter = SongFilter.none();
+        when(songsRepository.findPageByFilter(userId, filter, cursor, 3)).thenReturn(List.of(mockSong));
+
+        SongPage page = songsService.getSongsPage(userId, filter, cursor, 2);
+
+        assertEquals(1, page.songs().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getSongsPage_CombinedFilterPassedThrough() {
+        Cursor cursor = new Cursor(LocalDateTime.now(), UUID.randomUUID());
+        SongFilter filter = new SongFilter("kw", "Pop", "Artist", 1990, 1999, 60, 300);
+        when(songsRepository.findPageByFilter(userId, filter, cursor, 21)).thenReturn(List.of());
+
+        songsService.getSongsPage(userId, filter, cursor, 20);
+
+        verify(songsRepository).findPageByFilter(userId, filter, cursor, 21);
+    }
+
+    // ========================================================================
+    // 11. Test Facets
+    // ========================================================================
+    @Test
+    void getSongFacets_RollsUpGroupedRows() {
+        SongFilter filter = new SongFilter(null, null, null, 1980, null, null, null);
+        when(songsRepository.countFacetsByFilter(userId, filter)).thenReturn(List.of(
+                new SongFacetRow(SongFacetRow.GENRE, "Rock", 3L),
+                new SongFacetRow(SongFacetRow.GENRE, "Pop", 4L),
+                new SongFacetRow(SongFacetRow.ARTIST, "Queen", 4L),
+                new SongFacetRow(SongFacetRow.ARTIST, "Adele", 3L),
+                new SongFacetRow(SongFacetRow.RELEASE_YEAR, 1984, 2L),
+                new SongFacetRow(SongFacetRow.RELEASE_YEAR, 1989, 1L),
+                new SongFacetRow(SongFacetRow.RELEASE_YEAR, 1991, 1L),
+                new SongFacetRow(SongFacetRow.RELEASE_YEAR, null, 3L)));
+
+        SongFacets facets = songsService.getSongFacets(userId, filter);
+
+        assertEquals(7, facets.total());
+        assertEquals(List.of("Pop", "Rock"), List.copyOf(facets.genre().keySet()));
+        assertEquals(Map.of("Rock", 3L, "Pop", 4L), facets.genre());
+        assertEquals(List.of("Queen", "Adele"), List.copyOf(facets.artist().keySet()));
+        assertEquals(List.of("1980s", "1990s", SongFacets.UNKNOWN_DECADE), List.copyOf(facets.decade().keySet()));
+        assertEquals(3L, facets.decade().get("1980s"));
+    }
+
+    // ========================================================================
+    // 12. Test Batch Operations
+    // ========================================================================
+    @Test
+    void applyBatch_MixedOperations_SingleLookupAndPerOperationResults() {
+        UUID otherId = UUID.randomUUID();
+        Songs toDelete = new Songs(userId, "Old", "Old Artist", null, "Rock", 100, null);
+        toDelete.setId(otherId);
+        toDelete.setCover("old.png");
+        when(songsRepository.findAllByUserIdAndIdIn(eq(userId), any()))
+                .thenReturn(List.of(mockSong, toDelete));
+        when(coverBlobService.release("old.png")).thenReturn(true);
+        when(songsRepository.save(any(Songs.class))).thenAnswer(invocation -> {
+            Songs song = invocation.getArgument(0);
+            song.setId(UUID.randomUUID());
+            return song;
+        });
+        UUID missingId = UUID.randomUUID();
+
+        List<SongBatchResult> results = songsService.applyBatch(userId, List.of(
+                new SongBatchOperation("create", null, "New", "Artist", null, "Jazz", 180, 2020),
+                new SongBatchOperation("update", songId, "Renamed", "Test Artist", null, "Rock", 210, 2023),
+                new SongBatchOperation("delete", otherId, null, null, null, null, null, null),
+                new SongBatchOperation("delete", otherId, null, null, null, null, null, null),
+                new SongBatchOperation("update", missingId, "X", "Y", null, "Pop", 100, null),
+                new SongBatchOperation("create", null, "", "Artist", null, "Pop", 100, null),
+                new SongBatchOperation("rename", songId, null, null, null, null, null, null)));
+
+        assertEquals(List.of("success", "success", "success", "fail", "fail", "fail", "fail"),
+                results.stream().map(SongBatchResult::status).toList());
+        assertEquals("Data lagu tidak ditemukan", results.get(3).message());
+        assertEquals("Data title tidak valid", results.get(5).message());
+        assertEquals("Data op tidak valid", results.get(6).message());
+        assertNotNull(results.get(0).id());
+        assertEquals("Renamed", mockSong.getTitle());
+        assertEquals("Rock", mockSong.getGenre());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(songsRepository, times(1)).findAllByUserIdAndIdIn(eq(userId), ids.capture());
+        assertEquals(Set.of(songId, otherId, missingId), new HashSet<>(ids.getValue()));
+        verify(songsRepository).delete(toDelete);
+        verify(songSyncService).onSongsDeleted(List.of(toDelete));
+        verify(songsRepository).flush();
+        verify(coverBlobService).release("old.png");
+        verify(fileStorageService).deleteFile("old.png");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Songs>> removed = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Songs>> added = ArgumentCaptor.forClass(List.class);
+        verify(libraryStatsService).onSongsChanged(eq(userId), removed.capture(), added.capture());
+        assertEquals(List.of("Pop", "Rock"), removed.getValue().stream().map(Songs::getGenre).toList());
+        assertEquals(List.of("Jazz", "Rock"), added.getValue().stream().map(Songs::getGenre).toList());
+    }
+
+    @Test
+    void applyBatch_RepeatedUpdates_StatsUseValuesAtEachStep() {
+        when(songsRepository.findAllByUserIdAndIdIn(eq(userId), any())).thenReturn(List.of(mockSong));
+
+        songsService.applyBatch(userId, List.of(
+                new SongBatchOperation("update", songId, "A", "Artist", null, "Rock", 100, null),
+                new SongBatchOperation("update", songId, "B", "Artist", null, "Jazz", 120, null)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Songs>> removed = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Songs>> added = ArgumentCaptor.forClass(List.class);
+        verify(libraryStatsService).onSongsChanged(eq(userId), removed.capture(), added.capture());
+        assertEquals(List.of("Pop", "Rock"), removed.getValue().stream().map(Songs::getGenre).toList());
+        assertEquals(List.of("Rock", "Jazz"), added.getValue().stream().map(Songs::getGenre).toList());
+        verify(songSuggestIndex, times(2)).onSongSaved(mockSong);
+    }
+
+    @Test
+    void applyBatch_OnlyInvalidOperations_DoesNotTouchDatabase() {
+        List<SongBatchResult> results = songsService.applyBatch(userId, List.of(
+                new SongBatchOperation("delete", null, null, null, null, null, null, null)));
+
+        assertEquals("Data id tidak valid", results.get(0).message());
+        verifyNoInteractions(songsRepository, libraryStatsService, fileStorageService);
+    }
+}
@@ -19,7 +19,8 @@ public class UserServiceTests {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
 
         // Membuat instance UserService dengan repository palsu
-        UserService userService = new UserService(userRepository);
+        AuthTokenCache authTokenCache = Mockito.mock(AuthTokenCache.class);
+        UserService userService = new UserService(userRepository, authTokenCache);
         assertTrue(userService != null);
 
         // Menguji createUser
@@ -81,6 +82,7 @@ public class UserServiceTests {
             assertTrue(result != null);
             assertEquals("Updated Name", result.getName());
             assertEquals("updated@example.com", result.getEmail());
+            Mockito.verify(authTokenCache).invalidateUser(user.getId());
         }
 
         // Menguji updateUser dengan ID yang tidak ada
@@ -109,5 +111,13 @@ public class UserServiceTests {
             User result = userService.updatePassword(java.util.UUID.randomUUID(), "newpassword123");
             assertTrue(result == null);
         }
+
+        // Menguji getAllUserIds
+        {
+            java.util.UUID id = java.util.UUID.randomUUID();
+            Mockito.when(userRepository.findAllIds()).thenReturn(java.util.List.of(id));
+
+            assertEquals(java.util.List.of(id), userService.getAllUserIds());
+        }
     }
 }
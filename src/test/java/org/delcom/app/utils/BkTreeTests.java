@@ -0,0 +1,78 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BkTreeTests {
+
+    @Test
+    void levenshtein_CountsInsertDeleteSubstitute() {
+        assertEquals(0, BkTree.levenshtein("queen", "queen"));
+        assertEquals(1, BkTree.levenshtein("qeen", "queen"));
+        assertEquals(1, BkTree.levenshtein("queens", "queen"));
+        assertEquals(2, BkTree.levenshtein("bohemain", "bohemian"));
+        assertEquals(3, BkTree.levenshtein("kitten", "sitting"));
+        assertEquals(4, BkTree.levenshtein("", "abba"));
+    }
+
+    @Test
+    void add_IgnoresDuplicates() {
+        BkTree tree = new BkTree();
+
+        assertTrue(tree.add("queen"));
+        assertTrue(tree.add("queer"));
+        assertFalse(tree.add("queen"));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void search_ReturnsAllTermsWithinDistance() {
+        BkTree tree = new BkTree();
+        for (String term : List.of("queen", "queer", "green", "adele", "abba", "bowie", "beatles")) {
+            tree.add(term);
+        }
+
+        Map<String, Integer> matches = new HashMap<>();
+        tree.search("qeen", 1, matches::put);
+
+        assertEquals(Map.of("queen", 1), matches);
+    }
+
+    @Test
+    void search_MatchesBruteForceOnRandomVocabulary() {
+        Random random = new Random(42);
+        BkTree tree = new BkTree();
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder term = new StringBuilder();
+            int length = 3 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                term.append((char) ('a' + random.nextInt(6)));
+            }
+            if (tree.add(term.toString())) {
+                vocabulary.add(term.toString());
+            }
+        }
+
+        for (String query : List.of("abcd", "fedcba", "aaaaa", "bcdefab")) {
+            Map<String, Integer> expected = new HashMap<>();
+            for (String term : vocabulary) {
+                int distance = BkTree.levenshtein(query, term);
+                if (distance <= 2) {
+                    expected.put(term, distance);
+                }
+            }
+            Map<String, Integer> actual = new HashMap<>();
+            tree.search(query, 2, actual::put);
+
+            assertEquals(expected, actual, query);
+        }
+    }
+}
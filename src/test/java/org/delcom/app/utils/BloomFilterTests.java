@@ -0,0 +1,49 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+
+    @Test
+    @DisplayName("Nilai yang ditambahkan selalu ditemukan, false positive sekitar target")
+    void testNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("ab/cd/cover-" + i + ".jpg");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("ab/cd/cover-" + i + ".jpg"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("ab/cd/orphan-" + i + ".jpg")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "falsePositives=" + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Ukuran ~9,6 bit per elemen untuk false positive 1%")
+    void testSizing() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.getBitCount() >= 9_585_059L);
+        assertTrue(filter.estimatedBytes() < 1_300_000L);
+    }
+
+    @Test
+    @DisplayName("Filter kosong tidak berisi apa pun")
+    void testEmpty() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain("cover.jpg"));
+        filter.add("cover.jpg");
+        assertTrue(filter.mightContain("cover.jpg"));
+    }
+}
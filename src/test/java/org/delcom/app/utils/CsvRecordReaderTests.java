@@ -0,0 +1,49 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void next_ReadsPlainRecordsWithCrLfAndLf() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,c\r\n1,,3\n4,5,6"));
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("1", "", "3"), reader.next());
+        assertEquals(List.of("4", "5", "6"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_QuotedFieldsKeepCommasQuotesAndNewlines() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(
+                new StringReader("\"Say \"\"Hi\"\"\",\"a,b\",\"line1\r\nline2\"\r\nx,y,z\r\n"));
+
+        assertEquals(List.of("Say \"Hi\"", "a,b", "line1\r\nline2"), reader.next());
+        assertEquals(List.of("x", "y", "z"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_TrailingCommaAndEmptyLine() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,\r\n\r\nb"));
+
+        assertEquals(List.of("a", ""), reader.next());
+        assertEquals(List.of(""), reader.next());
+        assertEquals(List.of("b"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_UnterminatedQuote_ReturnsRestOfInput() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"abc,def"));
+
+        assertEquals(List.of("abc,def"), reader.next());
+        assertNull(reader.next());
+    }
+}
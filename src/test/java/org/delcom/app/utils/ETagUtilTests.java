@@ -0,0 +1,46 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagUtilTests {
+
+    @Test
+    void song_ChangesWithUpdatedAt() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 0, 123_456_000);
+
+        String etag = ETagUtil.song(id, updatedAt);
+
+        assertEquals("\"s-" + id + "-1714566600123456\"", etag);
+        assertEquals(etag, ETagUtil.song(id, updatedAt));
+        assertNotEquals(etag, ETagUtil.song(id, updatedAt.plusNanos(1_000)));
+        assertNotEquals(etag, ETagUtil.song(UUID.randomUUID(), updatedAt));
+    }
+
+    @Test
+    void library_DependsOnUserAndVersion() {
+        UUID userId = UUID.randomUUID();
+
+        assertEquals("\"l7-" + userId + "\"", ETagUtil.library(userId, 7));
+        assertNotEquals(ETagUtil.library(userId, 7), ETagUtil.library(userId, 8));
+        assertNotEquals(ETagUtil.library(userId, 7), ETagUtil.library(UUID.randomUUID(), 7));
+    }
+
+    @Test
+    void matches_HandlesListsWeakPrefixAndWildcard() {
+        String etag = "\"l7-abc\"";
+
+        assertTrue(ETagUtil.matches(etag, etag));
+        assertTrue(ETagUtil.matches("\"other\", W/\"l7-abc\"", etag));
+        assertTrue(ETagUtil.matches("*", etag));
+        assertFalse(ETagUtil.matches("\"l6-abc\"", etag));
+        assertFalse(ETagUtil.matches("l7-abc", etag));
+        assertFalse(ETagUtil.matches(null, etag));
+        assertFalse(ETagUtil.matches(" ", etag));
+    }
+}
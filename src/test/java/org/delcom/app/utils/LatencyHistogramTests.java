@@ -0,0 +1,70 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    @Test
+    @DisplayName("Index bucket linear di bawah 64 dan log-linear di atasnya")
+    void testBucketIndex() {
+        assertEquals(0, LatencyHistogram.indexFor(0));
+        assertEquals(63, LatencyHistogram.indexFor(63));
+        assertEquals(64, LatencyHistogram.indexFor(64));
+        assertEquals(64, LatencyHistogram.indexFor(65));
+        assertEquals(96, LatencyHistogram.indexFor(128));
+
+        // Setiap nilai jatuh ke bucket yang batas atasnya >= nilai tersebut
+        for (long value = 1; value < 10_000_000; value = value * 3 + 1) {
+            int index = LatencyHistogram.indexFor(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            // Galat relatif maksimal ~3%
+            assertTrue(highest - value <= Math.max(1, value / 32));
+        }
+    }
+
+    @Test
+    @DisplayName("Histogram kosong menghasilkan nilai nol")
+    void testEmptySnapshot() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.p99Micros());
+        assertEquals(0, snapshot.meanMicros());
+    }
+
+    @Test
+    @DisplayName("Persentil dihitung dari distribusi sampel")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1..1000 milidetik
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(i * 1_000_000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(1_000_000, snapshot.maxMicros());
+        assertEquals(500_500, snapshot.meanMicros(), 1);
+        assertEquals(500_000, snapshot.p50Micros(), 500_000 * 0.04);
+        assertEquals(990_000, snapshot.p99Micros(), 990_000 * 0.04);
+        assertEquals(999_000, snapshot.p999Micros(), 999_000 * 0.04);
+        assertTrue(snapshot.p999Micros() <= snapshot.maxMicros());
+    }
+
+    @Test
+    @DisplayName("Nilai negatif dan di luar rentang di-clamp")
+    void testClamp() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(-5);
+        histogram.recordNanos(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count());
+        assertEquals(0, snapshot.p50Micros());
+        assertEquals(3_600_000_000L, snapshot.maxMicros());
+    }
+}
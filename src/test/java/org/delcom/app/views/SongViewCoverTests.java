@@ -0,0 +1,173 @@
+package org.delcom.app.views;
+
+import org.delcom.app.services.CoverThumbnailService;
+import org.delcom.app.services.CoverThumbnailService.Thumbnail;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.delcom.app.services.LocalDiskBlobStore;
+import org.delcom.app.services.SongsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Response HTTP /songs/cover/...: Range (206/416), request kondisional (304)
+ * dan Cache-Control, dengan file cover asli di LocalDiskBlobStore
+ */
+@ExtendWith(MockitoExtension.class)
+class SongViewCoverTests {
+    private static final String CONTENT = "0123456789";
+    private static final String CONTENT_ADDRESSED = "ab/cd/abcd" + "0".repeat(60) + ".jpg";
+    private static final String LEGACY = "song_cover_1.png";
+
+    @Mock
+    private SongsService songsService;
+
+    @Mock
+    private CoverThumbnailService coverThumbnailService;
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileStorageService = new FileStorageService(new LocalDiskBlobStore(tempDir));
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new SongView(songsService, fileStorageService, coverThumbnailService))
+                .build();
+        write(CONTENT_ADDRESSED);
+        write(LEGACY);
+    }
+
+    private void write(String filename) throws IOException {
+        Path file = tempDir.resolve(filename);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+    }
+
+    private StoredFile stored(String filename) {
+        return fileStorageService.getStoredFile(filename);
+    }
+
+    private static String quoted(String etag) {
+        return "\"" + etag + "\"";
+    }
+
+    @Test
+    void getCover_ContentAddressed_ServesImmutableWithETag() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + CONTENT_ADDRESSED))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().string(HttpHeaders.ETAG, quoted(stored(CONTENT_ADDRESSED).version())))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void getCover_LegacyNameWithoutVersion_MustRevalidate() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + LEGACY))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getCover_LegacyNameWithCurrentVersion_IsImmutable() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + LEGACY).param("v", stored(LEGACY).version()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void getCover_Range_ReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + CONTENT_ADDRESSED).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + CONTENT.length()))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void getCover_UnsatisfiableRange_Returns416() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + CONTENT_ADDRESSED).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length()));
+    }
+
+    @Test
+    void getCover_IfNoneMatchCurrentETag_Returns304() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + LEGACY)
+                        .header(HttpHeaders.IF_NONE_MATCH, quoted(stored(LEGACY).version())))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, quoted(stored(LEGACY).version())))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getCover_IfNoneMatchStaleETag_ServesFile() throws Exception {
+        mockMvc.perform(get("/songs/cover/" + LEGACY).header(HttpHeaders.IF_NONE_MATCH, "\"lama\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void getCover_IfModifiedSinceAfterLastModified_Returns304() throws Exception {
+        long lastModified = stored(LEGACY).lastModified();
+
+        mockMvc.perform(get("/songs/cover/" + LEGACY).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified + 1000))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/songs/cover/" + LEGACY).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified - 60_000))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCover_ReadyThumbnailWithHashVersion_IsImmutable() throws Exception {
+        String rendition = "ab/cd/abcd" + "0".repeat(60) + "_256.jpg";
+        write(rendition);
+        when(coverThumbnailService.findThumbnail(CONTENT_ADDRESSED, 256))
+                .thenReturn(new Thumbnail(stored(rendition), "hash256"));
+
+        mockMvc.perform(get("/songs/cover/" + CONTENT_ADDRESSED).param("size", "256").param("v", "hash256"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, quoted("hash256")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void getCover_ThumbnailNotReady_ServesOriginalWithoutImmutable() throws Exception {
+        when(coverThumbnailService.findThumbnail(CONTENT_ADDRESSED, 256)).thenReturn(null);
+
+        mockMvc.perform(get("/songs/cover/" + CONTENT_ADDRESSED).param("size", "256"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getCover_MissingFile_Returns404() throws Exception {
+        mockMvc.perform(get("/songs/cover/tidak-ada.png"))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(songsService);
+    }
+}